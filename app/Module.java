@@ -0,0 +1,32 @@
+import com.google.inject.AbstractModule;
+import models.points.AchievementTracker;
+import models.util.LeaderboardListener;
+import models.util.SearchCountListener;
+import models.util.SearchIndexListener;
+import services.maintenance.BackfillService;
+import services.photos.PhotoProcessingService;
+import services.reference.ReferenceDataCatalog;
+
+/**
+ * Guice module loaded by Play on startup.
+ */
+public class Module extends AbstractModule {
+
+    @Override
+    protected void configure() {
+        // Models are instantiated by Ebean, so the services they use are injected statically.
+        requestStaticInjection(AchievementTracker.class);
+        requestStaticInjection(LeaderboardListener.class);
+        requestStaticInjection(SearchIndexListener.class);
+        requestStaticInjection(SearchCountListener.class);
+
+        // Started eagerly so that photo jobs left over from a restart are resumed.
+        bind(PhotoProcessingService.class).asEagerSingleton();
+
+        // Started eagerly so that reference data is loaded on startup rather than by the first request using it.
+        bind(ReferenceDataCatalog.class).asEagerSingleton();
+
+        // Started eagerly so that columns added since rows were saved are filled in before requests use them.
+        bind(BackfillService.class).asEagerSingleton();
+    }
+}
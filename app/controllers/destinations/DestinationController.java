@@ -10,6 +10,7 @@ import models.profiles.TravellerType;
 import models.destinations.Type;
 import models.photos.PersonalPhoto;
 import models.objectives.Objective;
+import models.quests.Quest;
 import models.util.ApiError;
 import models.util.Errors;
 import play.libs.Json;
@@ -18,9 +19,11 @@ import play.mvc.Http;
 import play.mvc.Result;
 import com.google.inject.Inject;
 
-import java.text.Normalizer;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CompletionException;
 
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.destinations.Destination;
 import models.trips.Trip;
@@ -29,12 +32,21 @@ import repositories.trips.TripRepository;
 import repositories.destinations.DestinationRepository;
 import repositories.profiles.ProfileRepository;
 import repositories.trips.TripDestinationRepository;
-import repositories.destinations.DestinationTypeRepository;
 import repositories.objectives.ObjectiveRepository;
+import repositories.quests.QuestRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
+import services.search.SearchIndexService;
 import util.AuthenticationUtil;
+import util.KeysetPage;
+import util.PageCursor;
+import util.TextUtil;
 
 import static controllers.trips.TripController.REWARD;
 import static util.QueryUtil.queryComparator;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 
 public class DestinationController extends Controller {
@@ -49,6 +61,9 @@ public class DestinationController extends Controller {
     private static final String OWNER = "owner";
     private static final String IS_PUBLIC = "is_public";
     private static final String PAGE = "page";
+    private static final String CURSOR = "cursor";
+    private static final String NEAR = "near";
+    private static final String RADIUS = "radius";
     private static final String AUTHORIZED = "authorized";
     private static final String TRIP_COUNT = "trip_count";
     private static final String PHOTO_COUNT = "photo_count";
@@ -58,31 +73,49 @@ public class DestinationController extends Controller {
     private static final String COUNTRY_REGEX = "^(?=.{1,100}$)([a-zA-Z]+((-|'| )[a-zA-Z]+)*)$";
     private static final Double LATITUDE_LIMIT = 90.0;
     private static final Double LONGITUDE_LIMIT = 180.0;
+    private static final String NO_CACHE = "no-cache";
+
+    /**
+     * The number of nearby destination ids filtered by each query when finding a page of nearby destinations.
+     */
+    private static final int NEARBY_BATCH_SIZE = 500;
 
     private ProfileRepository profileRepository;
     private DestinationRepository destinationRepository;
     private TripDestinationRepository tripDestinationRepository;
     private TripRepository tripRepository;
     private ObjectiveRepository objectiveRepository;
-    private DestinationTypeRepository destinationTypeRepository;
+    private QuestRepository questRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
     private AchievementTrackerController achievementTrackerController;
+    private SearchIndexService searchIndexService;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     @Inject
     public DestinationController(
             ProfileRepository profileRepository,
             DestinationRepository destinationRepository,
-            DestinationTypeRepository destinationTypeRepository,
+            ReferenceDataCatalog referenceDataCatalog,
             TripDestinationRepository tripDestinationRepository,
             TripRepository tripRepository,
             ObjectiveRepository objectiveRepository,
-            AchievementTrackerController achievementTrackerController) {
+            QuestRepository questRepository,
+            AchievementTrackerController achievementTrackerController,
+            SearchIndexService searchIndexService,
+            PrincipalCache principalCache,
+            DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
         this.destinationRepository = destinationRepository;
         this.tripDestinationRepository = tripDestinationRepository;
         this.tripRepository = tripRepository;
         this.objectiveRepository = objectiveRepository;
-        this.destinationTypeRepository = destinationTypeRepository;
+        this.questRepository = questRepository;
+        this.referenceDataCatalog = referenceDataCatalog;
         this.achievementTrackerController = achievementTrackerController;
+        this.searchIndexService = searchIndexService;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -99,39 +132,41 @@ public class DestinationController extends Controller {
      *                      notFound() (Http 404) if the requested destination doesn't exist.
      *                      forbidden() (Http 403) if the user doesn't have the permissions to complete this action.
      */
-    public Result getDestinationUsage(Http.Request request, Long destinationId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> getDestinationUsage(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Destination destination = destinationRepository.findById(destinationId);
-        if (destination == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            Destination destination = destinationRepository.findById(destinationId);
+            if (destination == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
-        Profile destinationOwner = destination.getOwner();
+            Profile destinationOwner = destination.getOwner();
 
-        if (!AuthenticationUtil.validUser(loggedInUser, destinationOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, destinationOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Set<Trip> matchingTrips = tripRepository.fetch(destination);
+            Set<Trip> matchingTrips = tripRepository.fetch(destination);
 
-        int photoCount = destination.getPhotoGallery().size();
-        int tripCount = matchingTrips.size();
+            int photoCount = destination.getPhotoGallery().size();
+            int tripCount = matchingTrips.size();
 
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode returnJson = mapper.createObjectNode();
-        ArrayNode matchTrips = mapper.valueToTree(matchingTrips);
-        ArrayNode matchDestinations = mapper.valueToTree(destinationRepository.findEqual(destination));
+            ObjectMapper mapper = new ObjectMapper();
+            ObjectNode returnJson = mapper.createObjectNode();
+            ArrayNode matchTrips = mapper.valueToTree(matchingTrips);
+            ArrayNode matchDestinations = mapper.valueToTree(destinationRepository.findEqual(destination));
 
-        returnJson.put(TRIP_COUNT, tripCount);
-        returnJson.put(PHOTO_COUNT, photoCount);
-        returnJson.putArray(MATCHING_TRIPS).addAll(matchTrips);
-        returnJson.putArray(MATCHING_DESTINATIONS).addAll(matchDestinations);
+            returnJson.put(TRIP_COUNT, tripCount);
+            returnJson.put(PHOTO_COUNT, photoCount);
+            returnJson.putArray(MATCHING_TRIPS).addAll(matchTrips);
+            returnJson.putArray(MATCHING_DESTINATIONS).addAll(matchDestinations);
 
-        return ok(returnJson);
+            return ok(returnJson);
+        }, executionContext);
     }
 
 
@@ -143,104 +178,217 @@ public class DestinationController extends Controller {
      *                  unauthorized() (Http 401) if the user is not logged in.
      *                  forbidden() (Http 403) if the user doesn't have the permissions to complete this action.
      */
-    public Result getDestinationUsageEdited(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> getDestinationUsageEdited(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        JsonNode destination = request.body().asJson();
-        Destination foundDestination = Json.fromJson(destination, Destination.class);
+            JsonNode destination = request.body().asJson();
+            Destination foundDestination = Json.fromJson(destination, Destination.class);
 
-        if (!AuthenticationUtil.validUser(loggedInUser, foundDestination.getOwner())) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, foundDestination.getOwner())) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        ObjectMapper mapper = new ObjectMapper();
-        ArrayNode matchDestinations = mapper.valueToTree(destinationRepository.findEqual(foundDestination));
-        ObjectNode returnJson = mapper.createObjectNode();
-        returnJson.putArray(MATCHING_DESTINATIONS).addAll(matchDestinations);
-        returnJson.put(DESTINATION_COUNT, matchDestinations.size());
+            ObjectMapper mapper = new ObjectMapper();
+            ArrayNode matchDestinations = mapper.valueToTree(destinationRepository.findEqual(foundDestination));
+            ObjectNode returnJson = mapper.createObjectNode();
+            returnJson.putArray(MATCHING_DESTINATIONS).addAll(matchDestinations);
+            returnJson.put(DESTINATION_COUNT, matchDestinations.size());
 
-        return ok(returnJson);
+            return ok(returnJson);
+        }, executionContext);
     }
 
 
     /**
-     * Return a Json object listing all destination types in the database.
+     * Return a Json object listing all destination types, as rendered by the reference data catalog when it was
+     * loaded. Clients revalidate their cached copy with its ETag.
      *
-     * @return ok() (Http 200) response containing all the different types of destinations.
+     * @param request   Http request from the client.
+     * @return          ok() (Http 200) response containing all the different types of destinations.
+     *                  notModified() (Http 304) if the client's cached copy is current.
      */
-    public Result getTypes() {
-        List<Type> destinationTypes = destinationTypeRepository.findAll();
-        return ok(Json.toJson(destinationTypes));
+    public CompletionStage<Result> getTypes(Http.Request request) {
+        return completedFuture(referenceDataCatalog.getDestinationTypesJson().serve(request, NO_CACHE));
     }
 
 
     /**
      * Fetches all destinations based on Http request query parameters. This also includes pagination, destination
      * ownership and the public or private query.
+     * If a cursor is given, pages are found by keyset pagination instead of page number, and the cursor of the next
+     * page is returned in the X-Next-Cursor header. An empty cursor gives the first page.
+     * If near is given as a latitude and longitude along with a radius in metres, only the destinations within the
+     * radius are found, nearest first and paged by page number.
      *
      * @param request   a Http request containing query parameters to filter results.
      * @return          ok() (Http 200) response containing the destinations found in the response body.
+     *                  badRequest() (Http 400) if the page, cursor or near search is invalid.
      *                  unauthorized (Http 401) if the user is not logged in.
      *                  forbidden() (Http 403) if the user doesn't have the permissions to complete this action.
      */
-    public Result fetch(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        int pageNumber = 0;
-        int pageSize = 50;
-        List<Destination> destinations;
+    public CompletionStage<Result> fetch(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        ExpressionList<Destination> expressionList = destinationRepository.getExpressionList();
+            int pageNumber = 0;
+            int pageSize = 50;
+            List<Destination> destinations;
+
+            ExpressionList<Destination> expressionList = destinationRepository.getExpressionList();
+
+            // Checks if the owner is specified in the query string and user is valid.
+            if (request.getQueryString(OWNER) != null && !request.getQueryString(OWNER).isEmpty()) {
+                Profile destinationOwner = profileRepository.findById(Long.valueOf(request.getQueryString(OWNER)));
+
+                if (destinationOwner == null) {
+                    return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+                }
+
+                if (AuthenticationUtil.validUser(loggedInUser, destinationOwner)) {
+                    expressionList.eq(OWNER, destinationOwner);
+                } else {
+                    return forbidden(ApiError.forbidden());
+                }
+            } else if (!loggedInUser.isAdmin()) {
+                expressionList
+                        .disjunction()
+                        .eq(IS_PUBLIC, true)
+                        .conjunction()
+                        .eq(IS_PUBLIC, false)
+                        .eq(OWNER, profileRepository.ref(loggedInUser.getId()))
+                        .endJunction()
+                        .endJunction();
+            }
 
-        // Checks if the owner is specified in the query string and user is valid.
-        if (request.getQueryString(OWNER) != null && !request.getQueryString(OWNER).isEmpty()) {
-            Profile destinationOwner = profileRepository.findById(Long.valueOf(request.getQueryString(OWNER)));
+            updateExpressionList(expressionList, request);
+
+            // A near point selects a radius search, ordered by distance instead of name
+            String near = request.getQueryString(NEAR);
+            boolean searchingNear = near != null && !near.isEmpty();
+
+            // A cursor, even an empty one for the first page, selects keyset pagination instead of page numbers
+            String cursor = request.getQueryString(CURSOR);
+            if (cursor != null && !searchingNear) {
+                try {
+                    KeysetPage<Destination> page = KeysetPage.find(expressionList, NAME, true,
+                            cursor.isEmpty() ? null : PageCursor.decode(cursor), pageSize);
+                    return page.withNextCursor(ok(Json.toJson(page.getList())));
+                } catch (IllegalArgumentException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_CURSOR));
+                }
+            }
 
-            if (destinationOwner == null) {
-                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            // If page query is set, load said page. Otherwise, return the first page.
+            if (request.getQueryString(PAGE) != null && !request.getQueryString(PAGE).isEmpty()) {
+                try {
+                    pageNumber = Integer.parseInt(request.getQueryString(PAGE));
+                } catch (NumberFormatException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+                }
             }
 
-            if (AuthenticationUtil.validUser(loggedInUser, destinationOwner)) {
-                expressionList.eq(OWNER, destinationOwner);
-            } else {
-                return forbidden(ApiError.forbidden());
+            if (searchingNear) {
+                List<Long> nearby;
+                try {
+                    nearby = findNearby(near, request.getQueryString(RADIUS));
+                } catch (IllegalArgumentException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_NEAR_QUERY));
+                }
+                return ok(Json.toJson(getNearbyPage(expressionList, nearby, pageNumber, pageSize)));
             }
-        } else if (!loggedInUser.isAdmin()) {
-            expressionList
-                    .disjunction()
-                    .eq(IS_PUBLIC, true)
-                    .conjunction()
-                    .eq(IS_PUBLIC, false)
-                    .eq(OWNER, loggedInUser)
-                    .endJunction()
-                    .endJunction();
+
+            destinations = expressionList
+                    .order(NAME)
+                    .setFirstRow(pageNumber * pageSize)
+                    .setMaxRows(pageSize)
+                    .findPagedList()
+                    .getList();
+
+            return ok(Json.toJson(destinations));
+        }, executionContext);
+    }
+
+
+    /**
+     * Finds the destinations within the radius of a point, using the spatial index.
+     *
+     * @param near      the latitude and longitude of the point, separated by a comma.
+     * @param radius    the radius in metres.
+     * @return          the ids of the destinations within the radius, nearest first.
+     * @throws IllegalArgumentException if the point or radius is missing or invalid.
+     */
+    private List<Long> findNearby(String near, String radius) {
+        String[] coordinates = near.split(",");
+        if (coordinates.length != 2 || radius == null) {
+            throw new IllegalArgumentException("Near must have a latitude, longitude and radius");
         }
 
-        updateExpressionList(expressionList, request);
+        double latitude = Double.parseDouble(coordinates[0].trim());
+        double longitude = Double.parseDouble(coordinates[1].trim());
+        double radiusMeters = Double.parseDouble(radius);
+        if (Math.abs(latitude) > LATITUDE_LIMIT || Math.abs(longitude) > LONGITUDE_LIMIT
+                || !(radiusMeters > 0)) {
+            throw new IllegalArgumentException("Near is out of range");
+        }
 
-        // If page query is set, load said page. Otherwise, return the first page.
-        if (request.getQueryString(PAGE) != null && !request.getQueryString(PAGE).isEmpty()) {
-            try {
-                pageNumber = Integer.parseInt(request.getQueryString(PAGE));
-            } catch (NumberFormatException e) {
-                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+        return searchIndexService.findDestinationsNear(latitude, longitude, radiusMeters);
+    }
+
+
+    /**
+     * Gets a page of the nearby destinations that match the expression list, keeping them in order of distance. The
+     * nearby destinations are filtered in batches in order of distance, only until the page is filled, so the page is
+     * only short once every nearby destination has been checked. Only the ids of the matching destinations are found
+     * first, so only the destinations on the page are loaded.
+     *
+     * @param expressionList    the expression list filtering the destinations, including their privacy.
+     * @param nearby            the ids of the nearby destinations, nearest first.
+     * @param pageNumber        the page to get.
+     * @param pageSize          the number of destinations on each page.
+     * @return                  the destinations on the page, nearest first.
+     */
+    private List<Destination> getNearbyPage(ExpressionList<Destination> expressionList, List<Long> nearby,
+                                            int pageNumber, int pageSize) {
+        List<Long> pageIds = new ArrayList<>();
+        int toSkip = pageNumber * pageSize;
+        for (int start = 0; start < nearby.size() && pageIds.size() < pageSize; start += NEARBY_BATCH_SIZE) {
+            List<Long> batch = nearby.subList(start, Math.min(start + NEARBY_BATCH_SIZE, nearby.size()));
+
+            // Each batch filters a copy of the query, so the id restrictions of earlier batches are not kept
+            List<Long> matchingIds = expressionList.query().copy().where().idIn(batch).findIds();
+            Set<Long> matching = new HashSet<>(matchingIds);
+            for (Long id : batch) {
+                if (!matching.contains(id)) {
+                    continue;
+                }
+                if (toSkip > 0) {
+                    toSkip--;
+                } else if (pageIds.size() < pageSize) {
+                    pageIds.add(id);
+                } else {
+                    break;
+                }
             }
         }
+        if (pageIds.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        destinations = expressionList
-                .order(NAME)
-                .setFirstRow(pageNumber * pageSize)
-                .setMaxRows(pageSize)
-                .findPagedList()
-                .getList();
-
-        return ok(Json.toJson(destinations));
+        Map<Long, Destination> destinationsById = destinationRepository.getExpressionList()
+                .idIn(pageIds)
+                .findMap();
+        List<Destination> destinations = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            destinations.add(destinationsById.get(id));
+        }
+        return destinations;
     }
 
 
@@ -253,6 +401,10 @@ public class DestinationController extends Controller {
      */
     private void updateExpressionList(ExpressionList<Destination> expressionList, Http.Request request) {
         if (request.getQueryString(NAME) != null && !request.getQueryString(NAME).isEmpty()) {
+            Set<Long> candidates = searchIndexService.findDestinationsByName(request.getQueryString(NAME));
+            if (candidates != null) {
+                expressionList.idIn(candidates);
+            }
             expressionList.ilike(NAME, queryComparator(request.getQueryString(NAME)));
         }
         if (request.getQueryString(TYPE) != null && !request.getQueryString(TYPE).isEmpty()) {
@@ -265,9 +417,17 @@ public class DestinationController extends Controller {
             expressionList.eq(LONGITUDE, Double.parseDouble(request.getQueryString(LONGITUDE)));
         }
         if (request.getQueryString(DISTRICT) != null && !request.getQueryString(DISTRICT).isEmpty()) {
+            Set<Long> candidates = searchIndexService.findDestinationsByDistrict(request.getQueryString(DISTRICT));
+            if (candidates != null) {
+                expressionList.idIn(candidates);
+            }
             expressionList.ilike(DISTRICT, queryComparator(request.getQueryString(DISTRICT)));
         }
         if (request.getQueryString(COUNTRY) != null && !request.getQueryString(COUNTRY).isEmpty()) {
+            Set<Long> candidates = searchIndexService.findDestinationsByCountry(request.getQueryString(COUNTRY));
+            if (candidates != null) {
+                expressionList.idIn(candidates);
+            }
             expressionList.ilike(COUNTRY, queryComparator(request.getQueryString(COUNTRY)));
         }
         if (request.getQueryString(IS_PUBLIC) != null && !request.getQueryString(IS_PUBLIC).isEmpty()) {
@@ -286,28 +446,30 @@ public class DestinationController extends Controller {
      *                  badRequest() (Http 400) if the requested profile doesn't exist.
      *                  forbidden() (Http 403) if the user doesn't have the permissions to complete this action.
      */
-    public Result fetchByUser(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchByUser(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile profileToChange = profileRepository.findById(userId);
+            Profile profileToChange = profileRepository.findById(userId);
 
-        if (profileToChange == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            if (profileToChange == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        List<Destination> destinations;
-        ExpressionList<Destination> expressionList = destinationRepository.getExpressionList();
-        expressionList.eq(OWNER, profileToChange);
+            List<Destination> destinations;
+            ExpressionList<Destination> expressionList = destinationRepository.getExpressionList();
+            expressionList.eq(OWNER, profileToChange);
 
-        destinations = expressionList.findList();
-        return ok(Json.toJson(destinations));
+            destinations = expressionList.findList();
+            return ok(Json.toJson(destinations));
+        }, executionContext);
     }
 
 
@@ -325,10 +487,8 @@ public class DestinationController extends Controller {
         String longitude = json.get(LONGITUDE).asText();
 
         // Used to remove all accents and diacritics from destination name and country.
-        name = Normalizer.normalize(name, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-        country = Normalizer.normalize(country, Normalizer.Form.NFD)
-                .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
+        name = TextUtil.removeAccents(name);
+        country = TextUtil.removeAccents(country);
 
         // Checks all fields contain data
         if (name.length() == 0 || country.length() == 0 || district.length() == 0 ||
@@ -372,7 +532,7 @@ public class DestinationController extends Controller {
         Destination destinationToAdd = Json.fromJson(json, Destination.class);
 
         destinationToAdd.setOwner(profileToChange);
-        destinationToAdd.setType(destinationTypeRepository.findById(json.get(TYPE).asLong()));
+        destinationToAdd.setType(referenceDataCatalog.getDestinationType(json.get(TYPE).asLong()));
         List<Destination> similarDestinations = destinationRepository.findEqualFromAvailable(destinationToAdd);
 
         return similarDestinations.isEmpty();
@@ -390,49 +550,51 @@ public class DestinationController extends Controller {
      *                  forbidden() (Http 403) if the user doesn't have the permissions to complete this action.
      *
      */
-    public Result save(Http.Request request, Long userId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(loggedInUserId -> {
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(loggedInUserId));
-                    Profile profileToChange = profileRepository.findById(userId);
-
-                    if (profileToChange == null) {
-                        return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-                    }
-
-                    if (loggedInUser == null) {
-                        return unauthorized(ApiError.unauthorized());
-                    }
-
-                    if (!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
-                        return forbidden(ApiError.forbidden());
-                    }
-
-
-                    JsonNode json = request.body().asJson();
-
-                    if (!validInput(json)) {
-                        return badRequest(ApiError.invalidJson());
-                    }
-
-                    if (destinationDoesNotExist(json, profileToChange)) {
-                        Destination destination = createNewDestination(json, profileToChange);
-                        destinationRepository.save(destination);
-
-                        profileToChange.addDestination(destination);
-                        profileRepository.save(profileToChange);
-
-                        ObjectMapper objectMapper = new ObjectMapper();
-                        ObjectNode returnJson = objectMapper.createObjectNode();
-                        returnJson.set(REWARD, achievementTrackerController.rewardDestinationCreate(loggedInUser));
-                        returnJson.put(DESTINATION_ID, destination.getId());
-                        return created(returnJson);
-                    } else {
-                        return badRequest(ApiError.badRequest(Errors.DUPLICATE_DESTINATION));
-                    }
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+    public CompletionStage<Result> save(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(loggedInUserId -> {
+                        Profile loggedInUser = profileRepository.findById(Long.valueOf(loggedInUserId));
+                        Profile profileToChange = profileRepository.findById(userId);
+
+                        if (profileToChange == null) {
+                            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+                        }
+
+                        if (loggedInUser == null) {
+                            return unauthorized(ApiError.unauthorized());
+                        }
+
+                        if (!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
+                            return forbidden(ApiError.forbidden());
+                        }
+
+
+                        JsonNode json = request.body().asJson();
+
+                        if (!validInput(json)) {
+                            return badRequest(ApiError.invalidJson());
+                        }
+
+                        if (destinationDoesNotExist(json, profileToChange)) {
+                            Destination destination = createNewDestination(json, profileToChange);
+                            destinationRepository.save(destination);
+
+                            profileToChange.addDestination(destination);
+                            profileRepository.save(profileToChange);
+
+                            ObjectMapper objectMapper = new ObjectMapper();
+                            ObjectNode returnJson = objectMapper.createObjectNode();
+                            returnJson.set(REWARD, achievementTrackerController.rewardDestinationCreate(loggedInUser));
+                            returnJson.put(DESTINATION_ID, destination.getId());
+                            return created(returnJson);
+                        } else {
+                            return badRequest(ApiError.badRequest(Errors.DUPLICATE_DESTINATION));
+                        }
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext);
     }
 
 
@@ -452,7 +614,7 @@ public class DestinationController extends Controller {
         destination.setPublic(json.has(IS_PUBLIC) && json.get(IS_PUBLIC).asBoolean());
         destination.changeOwner(owner);
 
-        Type destType = destinationTypeRepository.findById(json.get(TYPE).asLong());
+        Type destType = referenceDataCatalog.getDestinationType(json.get(TYPE).asLong());
 
         destination.setType(destType);
 
@@ -469,24 +631,26 @@ public class DestinationController extends Controller {
      *                          unauthorized() (Http 401) if the user is not logged in.
      *                          forbidden() (Http 403) if he user is not allowed to delete the specified destination.
      */
-    public Result destroy(Http.Request request, Long destinationId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> destroy(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Destination destination = destinationRepository.findById(destinationId);
+            Destination destination = destinationRepository.findById(destinationId);
 
-        if (destination == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            if (destination == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, destination.getOwner())) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, destination.getOwner())) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        destinationRepository.delete(destination);
-        return ok(Json.toJson(destination));
+            destinationRepository.delete(destination);
+            return ok(Json.toJson(destination));
+        }, executionContext);
     }
 
 
@@ -501,39 +665,46 @@ public class DestinationController extends Controller {
      *                  forbidden() (Http 403) if the user is not allowed to edit the destination.
      *                  badRequest() (Http 400) if the latitude or longitude values for the destination are invalid.
      */
-    public Result edit(Http.Request request, Long id) throws IllegalAccessException {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> edit(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Destination currentDestination = destinationRepository.findById(id);
+            Destination currentDestination = destinationRepository.findById(id);
 
-        if (currentDestination == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            if (currentDestination == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
 
-        if (!AuthenticationUtil.validUser(loggedInUser, currentDestination.getOwner())) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, currentDestination.getOwner())) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        JsonNode json = request.body().asJson();
+            JsonNode json = request.body().asJson();
 
-        currentDestination.updateFromObject(Json.fromJson(json, Destination.class));
+            try {
+                currentDestination.updateFromObject(Json.fromJson(json, Destination.class));
+            } catch (IllegalAccessException e) {
+                throw new CompletionException(e);
+            }
 
-        if (currentDestination.getLongitude() > LONGITUDE_LIMIT || currentDestination.getLongitude() < -LONGITUDE_LIMIT) {
-            return badRequest(ApiError.badRequest(Errors.INVALID_LONGITUDE));
-        }
+            if (currentDestination.getLongitude() > LONGITUDE_LIMIT || currentDestination.getLongitude() < -LONGITUDE_LIMIT) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_LONGITUDE));
+            }
 
-        if (currentDestination.getLatitude() > LATITUDE_LIMIT || currentDestination.getLatitude() < -LATITUDE_LIMIT) {
-            return badRequest(ApiError.badRequest(Errors.INVALID_LATITUDE));
-        }
+            if (currentDestination.getLatitude() > LATITUDE_LIMIT || currentDestination.getLatitude() < -LATITUDE_LIMIT) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_LATITUDE));
+            }
 
-        mergeDestinations(currentDestination);
-        destinationRepository.update(currentDestination);
+            mergeDestinations(currentDestination);
+            destinationRepository.update(currentDestination);
+            updateQuestRoutes(currentDestination);
 
-        return ok(Json.toJson(currentDestination));
+            return ok(Json.toJson(currentDestination));
+        }, executionContext);
     }
 
 
@@ -554,6 +725,21 @@ public class DestinationController extends Controller {
     }
 
 
+    /**
+     * Measures the stored route of every quest with an objective at the given destination again, as its location or
+     * country may have changed. Objectives of merged destinations have already been moved to the given destination,
+     * so their quests are included. Quests whose route is unchanged are not written.
+     *
+     * @param destination the destination that has been edited.
+     */
+    private void updateQuestRoutes(Destination destination) {
+        for (Quest quest : questRepository.findAllUsing(destination)) {
+            quest.updateRoute();
+            questRepository.update(quest);
+        }
+    }
+
+
     /**
      * Determines if the given destination and similar destinations should be merged into a single destination.
      *
@@ -3,6 +3,7 @@ package controllers.destinations;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.google.inject.Inject;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.profiles.TravellerType;
 import models.destinations.Destination;
@@ -13,29 +14,39 @@ import play.mvc.Http;
 import play.mvc.Result;
 import repositories.profiles.ProfileRepository;
 import repositories.destinations.DestinationRepository;
-import repositories.destinations.TravellerTypeRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
 import util.AuthenticationUtil;
 
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 
 import static play.mvc.Results.*;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class DestinationTravellerTypeController {
 
     private DestinationRepository destinationRepository;
-    private TravellerTypeRepository travellerTypeRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
     private ProfileRepository profileRepository;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     @Inject
     public DestinationTravellerTypeController(DestinationRepository destinationRepository,
-                                              TravellerTypeRepository travellerTypeRepository,
-                                              ProfileRepository profileRepository) {
+                                              ReferenceDataCatalog referenceDataCatalog,
+                                              ProfileRepository profileRepository,
+                                              PrincipalCache principalCache,
+                                              DatabaseExecutionContext executionContext) {
         this.destinationRepository = destinationRepository;
-        this.travellerTypeRepository = travellerTypeRepository;
+        this.referenceDataCatalog = referenceDataCatalog;
         this.profileRepository = profileRepository;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -74,40 +85,42 @@ public class DestinationTravellerTypeController {
      *                          notFound() (Http 404) if destination could not found.
      *                          forbidden() (Http 403) if the logged in user cannot access the resource.
      */
-    public Result addTravellerTypes(Http.Request request, Long destinationId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> addTravellerTypes(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Destination destinationToMutate = destinationRepository.findById(destinationId);
+            Destination destinationToMutate = destinationRepository.findById(destinationId);
 
-        if (destinationToMutate == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            if (destinationToMutate == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
 
-        if (!AuthenticationUtil.validUser(loggedInUser, destinationToMutate.getOwner())) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, destinationToMutate.getOwner())) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        JsonNode jsonBody = request.body().asJson();
+            JsonNode jsonBody = request.body().asJson();
 
-        Set<TravellerType> travellerTypesToSet = new HashSet<>(
-                getTravellerTypeFromNode(jsonBody)
-        );
+            Set<TravellerType> travellerTypesToSet = new HashSet<>(
+                    getTravellerTypeFromNode(jsonBody)
+            );
 
-        // Prevent the user from adding traveller types that do not already exist
-        travellerTypesToSet.retainAll(
-                travellerTypeRepository.findAll()
-        );
+            // Prevent the user from adding traveller types that do not already exist
+            travellerTypesToSet.retainAll(
+                    referenceDataCatalog.getTravellerTypes()
+            );
 
-        destinationToMutate.setTravellerTypes(
-                travellerTypesToSet
-        );
+            destinationToMutate.setTravellerTypes(
+                    travellerTypesToSet
+            );
 
-        destinationRepository.save(destinationToMutate);
-        return ok(Json.toJson(destinationToMutate));
+            destinationRepository.save(destinationToMutate);
+            return ok(Json.toJson(destinationToMutate));
+        }, executionContext);
     }
 
 
@@ -124,46 +137,48 @@ public class DestinationTravellerTypeController {
      *                          notFound() (Http 404) if destination could not found.
      *                          badRequest() (Http 400) if the Json body is formatted incorrectly or not provided.
      */
-    public Result propose(Http.Request request, Long destinationId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> propose(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Destination destinationToMutate = destinationRepository.findById(destinationId);
+            Destination destinationToMutate = destinationRepository.findById(destinationId);
 
-        if (destinationToMutate == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            if (destinationToMutate == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
-        JsonNode jsonBody = request.body().asJson();
+            JsonNode jsonBody = request.body().asJson();
 
-        if (jsonBody == null || !jsonBody.isArray()) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (jsonBody == null || !jsonBody.isArray()) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        Set<TravellerType> currentTravellerTypes = destinationToMutate.getTravellerTypes();
-        Set<TravellerType> proposedTravellerTypes = new HashSet<>(getTravellerTypeFromNode(jsonBody));
+            Set<TravellerType> currentTravellerTypes = destinationToMutate.getTravellerTypes();
+            Set<TravellerType> proposedTravellerTypes = new HashSet<>(getTravellerTypeFromNode(jsonBody));
 
-        // Prevent the user from proposing traveller types that do not already exist
-        proposedTravellerTypes.retainAll(
-                travellerTypeRepository.findAll()
-        );
+            // Prevent the user from proposing traveller types that do not already exist
+            proposedTravellerTypes.retainAll(
+                    referenceDataCatalog.getTravellerTypes()
+            );
 
-        // Proposed to add = proposed set - current set
-        Set<TravellerType> proposedAddTravellerTypes = new HashSet<>(proposedTravellerTypes);
-        proposedAddTravellerTypes.removeAll(currentTravellerTypes);
+            // Proposed to add = proposed set - current set
+            Set<TravellerType> proposedAddTravellerTypes = new HashSet<>(proposedTravellerTypes);
+            proposedAddTravellerTypes.removeAll(currentTravellerTypes);
 
-        // Proposed to remove = current set - proposed set
-        Set<TravellerType> proposedRemoveTravellerTypes = new HashSet<>(currentTravellerTypes);
-        proposedRemoveTravellerTypes.removeAll(proposedTravellerTypes);
+            // Proposed to remove = current set - proposed set
+            Set<TravellerType> proposedRemoveTravellerTypes = new HashSet<>(currentTravellerTypes);
+            proposedRemoveTravellerTypes.removeAll(proposedTravellerTypes);
 
-        // Set both of the proposed sets
-        destinationToMutate.setProposedTravellerTypesAdd(proposedAddTravellerTypes);
-        destinationToMutate.setProposedTravellerTypesRemove(proposedRemoveTravellerTypes);
+            // Set both of the proposed sets
+            destinationToMutate.setProposedTravellerTypesAdd(proposedAddTravellerTypes);
+            destinationToMutate.setProposedTravellerTypesRemove(proposedRemoveTravellerTypes);
 
-        destinationRepository.save(destinationToMutate);
-        return ok(Json.toJson(destinationToMutate));
+            destinationRepository.save(destinationToMutate);
+            return ok(Json.toJson(destinationToMutate));
+        }, executionContext);
     }
 
 
@@ -175,16 +190,18 @@ public class DestinationTravellerTypeController {
      *                          unauthorised() (Http 401) if the user is not logged in.
      *                          forbidden() (Http 403) if the logged in user cannot access the resource.
      */
-    public Result fetchProposedDestinations(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchProposedDestinations(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        if (!loggedInUser.isAdmin()) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        return ok(Json.toJson(destinationRepository.fetchProposed()));
+            return ok(Json.toJson(destinationRepository.fetchProposed()));
+        }, executionContext);
     }
 }
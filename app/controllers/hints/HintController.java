@@ -7,6 +7,7 @@ import controllers.points.AchievementTrackerController;
 import models.hints.Hint;
 import models.hints.Vote;
 import models.objectives.Objective;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.util.ApiError;
 import models.util.Errors;
@@ -17,13 +18,21 @@ import repositories.hints.HintRepository;
 import repositories.hints.VoteRepository;
 import repositories.objectives.ObjectiveRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
 import util.AuthenticationUtil;
 import util.Views;
+import util.JsonUtil;
 
 import javax.inject.Inject;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static play.mvc.Results.*;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class HintController {
 
@@ -33,6 +42,8 @@ public class HintController {
     private VoteRepository voteRepository;
     private AchievementTrackerController achievementTrackerController;
     private ObjectMapper objectMapper;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     /**
      * String constants for json reading and creation.
@@ -54,13 +65,17 @@ public class HintController {
                           ObjectiveRepository objectiveRepository,
                           VoteRepository voteRepository,
                           AchievementTrackerController achievementTrackerController,
-                          ObjectMapper objectMapper) {
+                          ObjectMapper objectMapper,
+                          PrincipalCache principalCache,
+                          DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
         this.hintRepository = hintRepository;
         this.objectiveRepository = objectiveRepository;
         this.voteRepository = voteRepository;
         this.achievementTrackerController = achievementTrackerController;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -77,55 +92,56 @@ public class HintController {
      *                          forbidden() (Http 403) response if the user is the owner or has not solved the objective.
      *                          notFound() (Http 404) response if the objective or the profile does not exist.
      */
-    public Result create(Http.Request request, Long objectiveId, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> create(Http.Request request, Long objectiveId, Long userId) {
+        // Attempt to turn json body into a hint object.
+        Optional<Hint> parsedHint = JsonUtil.readWithView(objectMapper, Views.Owner.class, Hint.class,
+                request.body().asJson());
+
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Objective objectiveToAddHint = objectiveRepository.findById(objectiveId);
-        if (objectiveToAddHint == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
+            Objective objectiveToAddHint = objectiveRepository.findById(objectiveId);
+            if (objectiveToAddHint == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
 
-        Profile hintCreator = profileRepository.findById(userId);
-        if (hintCreator == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile hintCreator = profileRepository.findById(userId);
+            if (hintCreator == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        // Can create a hint if an admin, the owner, or have solved the objective
-        if (!(objectiveRepository.hasSolved(loggedInUser, objectiveToAddHint)
-                || AuthenticationUtil.validUser(loggedInUser, objectiveToAddHint.getOwner()))) {
-            return forbidden(ApiError.forbidden());
-        }
+            // Can create a hint if an admin, the owner, or have solved the objective
+            if (!(objectiveRepository.hasSolved(profileRepository.ref(loggedInUser.getId()), objectiveToAddHint)
+                    || AuthenticationUtil.validUser(loggedInUser, objectiveToAddHint.getOwner()))) {
+                return forbidden(ApiError.forbidden());
+            }
 
 
-        Hint hint;
+            if (!parsedHint.isPresent()) {
+                // Errors with deserialization.
+                return badRequest(ApiError.badRequest(Errors.INVALID_JSON_FORMAT));
+            }
 
-        try {
-            // Attempt to turn json body into a hint object.
-            hint = objectMapper.readerWithView(Views.Owner.class)
-                    .forType(Hint.class)
-                    .readValue(request.body().asJson());
-        } catch (Exception e) {
-            // Errors with deserialization.
-            return badRequest(ApiError.badRequest(Errors.INVALID_JSON_FORMAT));
-        }
+            Hint hint = parsedHint.get();
 
-        hint.setCreator(hintCreator);
+            hint.setCreator(hintCreator);
 
-        objectiveToAddHint.addHint(hint);
+            objectiveToAddHint.addHint(hint);
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        // Points for creating a hint.
-        returnJson.set(REWARD, achievementTrackerController.rewardHintCreate(hintCreator));
+            // Points for creating a hint.
+            returnJson.set(REWARD, achievementTrackerController.rewardHintCreate(hintCreator));
 
-        profileRepository.update(hintCreator);
-        objectiveRepository.update(objectiveToAddHint);
-        returnJson.set(NEW_HINT, Json.toJson(hint));
+            profileRepository.update(hintCreator);
+            objectiveRepository.update(objectiveToAddHint);
+            returnJson.set(NEW_HINT, Json.toJson(hint));
 
-        return created(returnJson);
+            return created(returnJson);
+        }, executionContext);
     }
 
 
@@ -143,66 +159,73 @@ public class HintController {
      *                          forbidden() (Http 403) response if the user is not allowed to retrieve.
      *                          notFound() (Http 404) response if the objective doesn't exist.
      */
-    public Result fetchAll(Http.Request request, Long objectiveId, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        Profile requestedUser = profileRepository.findById(userId);
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
-
-        Objective targetObjective = objectiveRepository.findById(objectiveId);
-        if (targetObjective == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
-
-        // Can fetch hints if admin, or requestedUser has solved the objective
-        if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
-            return forbidden(ApiError.forbidden());
-        }
-
-        // Check if the user has completed the objective, is an admin, or owner of the objective.
-        if (!(objectiveRepository.hasSolved(loggedInUser, targetObjective)
-                || AuthenticationUtil.validUser(loggedInUser, targetObjective.getOwner()))) {
-            return forbidden(ApiError.forbidden());
-        }
-
-        int pageNumber = 0;
-        String pageNumberRequested = request.getQueryString(PAGE_NUMBER);
-        if (pageNumberRequested != null && !pageNumberRequested.isEmpty()) {
-            try {
-                pageNumber = Integer.parseInt(pageNumberRequested);
-            } catch (NumberFormatException e) {
-                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_NUMBER_REQUESTED));
+    public CompletionStage<Result> fetchAll(Http.Request request, Long objectiveId, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            Profile requestedUser = profileRepository.findById(userId);
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
+
+            Objective targetObjective = objectiveRepository.findById(objectiveId);
+            if (targetObjective == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
+
+            // Can fetch hints if admin, or requestedUser has solved the objective
+            if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
+                return forbidden(ApiError.forbidden());
+            }
+
+            // Check if the user has completed the objective, is an admin, or owner of the objective.
+            if (!(objectiveRepository.hasSolved(profileRepository.ref(loggedInUser.getId()), targetObjective)
+                    || AuthenticationUtil.validUser(loggedInUser, targetObjective.getOwner()))) {
+                return forbidden(ApiError.forbidden());
+            }
+
+            int pageNumber = 0;
+            String pageNumberRequested = request.getQueryString(PAGE_NUMBER);
+            if (pageNumberRequested != null && !pageNumberRequested.isEmpty()) {
+                try {
+                    pageNumber = Integer.parseInt(pageNumberRequested);
+                } catch (NumberFormatException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_NUMBER_REQUESTED));
+                }
             }
-        }
-
-        int pageSize = MAX_PAGE_SIZE;
-        String pageSizeRequested = request.getQueryString(PAGE_SIZE);
-
-        if (pageSizeRequested != null && !pageSizeRequested.isEmpty()) {
-            try {
-                pageSize = Integer.parseInt(pageSizeRequested);
-                // Restrict the page size to be no larger than the maximum page size.
-                pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
-            } catch (NumberFormatException e) {
-                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+
+            int pageSize = MAX_PAGE_SIZE;
+            String pageSizeRequested = request.getQueryString(PAGE_SIZE);
+
+            if (pageSizeRequested != null && !pageSizeRequested.isEmpty()) {
+                try {
+                    pageSize = Integer.parseInt(pageSizeRequested);
+                    // Restrict the page size to be no larger than the maximum page size.
+                    pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+                } catch (NumberFormatException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+                }
+            }
+
+            List<Hint> hints = hintRepository.findAllUsing(targetObjective, pageSize, pageNumber);
+
+            // Fetch the user's votes for the whole page at once, rather than one query per hint.
+            Map<Long, Vote> votes = voteRepository.findAllUsing(requestedUser,
+                    hints.stream().map(Hint::getId).collect(Collectors.toList()));
+
+            ArrayNode voteHints = objectMapper.createArrayNode();
+            for (Hint hint : hints) {
+                Vote vote = votes.get(hint.getId());
+                ObjectNode hintObject = objectMapper.valueToTree(hint);
+                hintObject.set(VOTE, Json.toJson(vote));
+                voteHints.add(hintObject);
             }
-        }
-
-        List<Hint> hints = hintRepository.findAllUsing(targetObjective, pageSize, pageNumber);
-        ArrayNode voteHints = objectMapper.createArrayNode();
-        for (Hint hint : hints) {
-            Vote vote = voteRepository.findUsing(requestedUser, hint);
-            ObjectNode hintObject = objectMapper.valueToTree(hint);
-            hintObject.set(VOTE, Json.toJson(vote));
-            voteHints.add(hintObject);
-        }
-
-        return ok(voteHints);
+
+            return ok(voteHints);
+        }, executionContext);
     }
 
 
@@ -220,38 +243,40 @@ public class HintController {
      *                          notFound() (Http 404) response if the objective or profile doesn't exist, or no hint is
      *                          found for the objective.
      */
-    public Result fetchNew(Http.Request request, Long objectiveId, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        Objective targetObjective = objectiveRepository.findById(objectiveId);
-        if (targetObjective == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
-
-        Profile hintUser = profileRepository.findById(userId);
-        if (hintUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
-
-        // Can request a hint if an admin, or have not solved the objective
-        if (hintUser.equals(targetObjective.getOwner())) {
-            return forbidden(ApiError.forbidden(Errors.HINT_OBJECTIVE_OWNER));
-        }
-        if (objectiveRepository.hasSolved(hintUser, targetObjective)) {
-            return forbidden(ApiError.forbidden(Errors.HINT_OBJECTIVE_SOLVED));
-        }
-
-        Hint newHint = hintRepository.findAHint(targetObjective, hintUser);
-
-        if (newHint == null) {
-            ArrayNode returnJson = objectMapper.createArrayNode();
-            return ok(returnJson);
-        }
-
-        return ok(Json.toJson(newHint));
+    public CompletionStage<Result> fetchNew(Http.Request request, Long objectiveId, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            Objective targetObjective = objectiveRepository.findById(objectiveId);
+            if (targetObjective == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
+
+            Profile hintUser = profileRepository.findById(userId);
+            if (hintUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
+
+            // Can request a hint if an admin, or have not solved the objective
+            if (hintUser.equals(targetObjective.getOwner())) {
+                return forbidden(ApiError.forbidden(Errors.HINT_OBJECTIVE_OWNER));
+            }
+            if (objectiveRepository.hasSolved(hintUser, targetObjective)) {
+                return forbidden(ApiError.forbidden(Errors.HINT_OBJECTIVE_SOLVED));
+            }
+
+            Hint newHint = hintRepository.findAHint(targetObjective, hintUser);
+
+            if (newHint == null) {
+                ArrayNode returnJson = objectMapper.createArrayNode();
+                return ok(returnJson);
+            }
+
+            return ok(Json.toJson(newHint));
+        }, executionContext);
     }
 
 
@@ -266,22 +291,24 @@ public class HintController {
      *                          unauthorized() (Http 401) response if the user is not logged into the system.
      *                          notFound() (Http 404) response if the objective or profile doesn't exist.
      */
-    public Result fetchSeen(Http.Request request, Long objectiveId, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        Objective targetObjective = objectiveRepository.findById(objectiveId);
-        if (targetObjective == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
-
-        Profile hintUser = profileRepository.findById(userId);
-        if (hintUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
-
-        return ok(Json.toJson(hintRepository.findSeenHints(targetObjective, hintUser)));
+    public CompletionStage<Result> fetchSeen(Http.Request request, Long objectiveId, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            Objective targetObjective = objectiveRepository.findById(objectiveId);
+            if (targetObjective == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
+
+            Profile hintUser = profileRepository.findById(userId);
+            if (hintUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
+
+            return ok(Json.toJson(hintRepository.findSeenHints(targetObjective, hintUser)));
+        }, executionContext);
     }
 }
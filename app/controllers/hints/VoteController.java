@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import controllers.points.AchievementTrackerController;
 import models.hints.Hint;
 import models.hints.Vote;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.util.ApiError;
 import models.util.Errors;
@@ -15,11 +16,16 @@ import repositories.hints.HintRepository;
 import repositories.hints.VoteRepository;
 import repositories.objectives.ObjectiveRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
 import util.AuthenticationUtil;
 
 import javax.inject.Inject;
 
+import java.util.concurrent.CompletionStage;
+
 import static play.mvc.Results.*;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class VoteController {
 
@@ -29,6 +35,8 @@ public class VoteController {
     private VoteRepository voteRepository;
     private AchievementTrackerController achievementTrackerController;
     private ObjectMapper objectMapper;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
 
     /**
@@ -42,13 +50,17 @@ public class VoteController {
                           VoteRepository voteRepository,
                           AchievementTrackerController achievementTrackerController,
                           ObjectiveRepository objectiveRepository,
-                          ObjectMapper objectMapper) {
+                          ObjectMapper objectMapper,
+                          PrincipalCache principalCache,
+                          DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
         this.hintRepository = hintRepository;
         this.objectiveRepository = objectiveRepository;
         this.voteRepository = voteRepository;
         this.objectMapper = objectMapper;
         this.achievementTrackerController = achievementTrackerController;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -64,96 +76,54 @@ public class VoteController {
      *                      unauthorized() (Http 401) response if the user is not logged into the system.
      *                      forbidden() (Http 403) response if the user is not allowed to vote on the given hint.
      *                      notFound() (Http 404) response if the hint or target user does not exist.
+     *                      status(409) response if the vote kept losing races with concurrent votes by the user.
      */
-    public Result vote(Http.Request request, Long hintId, Long userId, boolean isUpvote) {
-
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        Hint hintToVoteOn = hintRepository.findById(hintId);
-        if (hintToVoteOn == null) {
-            return notFound(ApiError.notFound(Errors.HINT_NOT_FOUND));
-        }
+    public CompletionStage<Result> vote(Http.Request request, Long hintId, Long userId, boolean isUpvote) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile targetUser = profileRepository.findById(userId);
+            Hint hintToVoteOn = hintRepository.findById(hintId);
+            if (hintToVoteOn == null) {
+                return notFound(ApiError.notFound(Errors.HINT_NOT_FOUND));
+            }
 
-        if (targetUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile targetUser = profileRepository.findById(userId);
 
-        if (!AuthenticationUtil.validUser(loggedInUser, targetUser)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (targetUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        Vote vote = voteRepository.findUsing(targetUser, hintToVoteOn);
+            if (!AuthenticationUtil.validUser(loggedInUser, targetUser)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        boolean isDeleted = false;
+            // Users without an existing vote must have solved or own the objective to vote.
+            VoteRepository.VoteOutcome outcome = voteRepository.castVote(targetUser, hintToVoteOn, isUpvote,
+                    () -> objectiveRepository.hasSolved(targetUser, hintToVoteOn.getObjective())
+                            || hintToVoteOn.getObjective().getOwner().getId().equals(targetUser.getId()));
 
-        // Check if they have an existing vote
-        if (vote == null) {
-            if (objectiveRepository.hasSolved(targetUser, hintToVoteOn.getObjective())
-                    || hintToVoteOn.getObjective().getOwner().getId().equals(targetUser.getId())) {
-                // User does not have an existing vote and they are allowed to vote.
-                vote = new Vote(targetUser, hintToVoteOn);
-            } else {
-                // Votes do not exist and the user is not allowed to vote.
+            if (outcome == VoteRepository.VoteOutcome.FORBIDDEN) {
                 return forbidden(ApiError.forbidden());
             }
-        } else {
-            isDeleted = processVote(vote, hintToVoteOn, isUpvote);
-        }
-
-        if (!isDeleted) {
-            // Add a vote for the button pressed
-            vote.setUpVote(isUpvote);
-            if (isUpvote) {
-                hintToVoteOn.upVote();
-                achievementTrackerController.handleHintUpvote(hintToVoteOn, true);
-            } else {
-                hintToVoteOn.downVote();
-            }
-        }
 
-        hintRepository.save(hintToVoteOn);
-        voteRepository.save(vote);
-        Vote changedVote = voteRepository.findUsing(targetUser, hintToVoteOn);
+            if (outcome == VoteRepository.VoteOutcome.CONFLICT) {
+                return status(Http.Status.CONFLICT, ApiError.conflict(Errors.VOTE_CONFLICT));
+            }
 
-        ObjectNode hintObject = objectMapper.valueToTree(hintToVoteOn);
-        hintObject.set(VOTE, Json.toJson(changedVote));
+            if (outcome.getUpVoteChange() != 0) {
+                achievementTrackerController.handleHintUpvote(hintToVoteOn, outcome.getUpVoteChange() > 0);
+            }
 
-        return ok(hintObject);
-    }
+            hintRepository.refresh(hintToVoteOn);
+            Vote changedVote = voteRepository.findUsing(targetUser, hintToVoteOn);
 
+            ObjectNode hintObject = objectMapper.valueToTree(hintToVoteOn);
+            hintObject.set(VOTE, Json.toJson(changedVote));
 
-    /**
-     * Process the user's vote in relation to their previous vote
-     *
-     * @param vote              the previous vote on the hint.
-     * @param hintToVoteOn      the hint being voted on.
-     * @param isUpvote          the user's new vote. True is upvote, False is downvote.
-     * @return                  a boolean determining whether the vote was deleted (For toggling votes).
-     */
-    private boolean processVote(Vote vote, Hint hintToVoteOn, boolean isUpvote) {
-        // Remove upvotes/downvotes when the user has already voted
-        boolean isDeleted = false;
-        if (isUpvote == vote.isUpVote()) {
-            // If the user clicks the same button twice, remove the vote
-            isDeleted = voteRepository.delete(vote);
-            if (isUpvote) {
-                hintToVoteOn.removeUpVote();
-                achievementTrackerController.handleHintUpvote(hintToVoteOn, false);
-            } else {
-                hintToVoteOn.removeDownVote();
-            }
-        } else if (isUpvote) {
-            hintToVoteOn.removeDownVote();
-        } else {
-            hintToVoteOn.removeUpVote();
-            achievementTrackerController.handleHintUpvote(hintToVoteOn, false);
-        }
-
-        return isDeleted;
+            return ok(hintObject);
+        }, executionContext);
     }
 }
@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.google.inject.Inject;
 import models.quests.Quest;
 import models.util.ApiError;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.destinations.Destination;
 import models.objectives.Objective;
@@ -17,12 +18,17 @@ import repositories.profiles.ProfileRepository;
 import repositories.destinations.DestinationRepository;
 import repositories.objectives.ObjectiveRepository;
 import repositories.quests.QuestRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
 import util.AuthenticationUtil;
 import util.Views;
+import util.JsonUtil;
 
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 import static play.mvc.Results.*;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class ObjectiveController {
 
@@ -31,6 +37,8 @@ public class ObjectiveController {
     private ProfileRepository profileRepository;
     private QuestRepository questRepository;
     private ObjectMapper objectMapper;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     private static final Long GLOBAL_ADMIN_ID = 1L;
     private static final String DESTINATION_ERROR = "Provided Destination not found.";
@@ -42,12 +50,16 @@ public class ObjectiveController {
                                DestinationRepository destinationRepository,
                                ProfileRepository profileRepository,
                                QuestRepository questRepository,
-                               ObjectMapper objectMapper) {
+                               ObjectMapper objectMapper,
+                               PrincipalCache principalCache,
+                               DatabaseExecutionContext executionContext) {
         this.objectiveRepository = objectiveRepository;
         this.destinationRepository = destinationRepository;
         this.profileRepository = profileRepository;
         this.questRepository = questRepository;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -63,78 +75,79 @@ public class ObjectiveController {
      *                  badRequest() (Http 400) response if the request contains any errors.
      *                  unauthorized() (Http 401) response if no one is logged in.
      */
-    public Result create(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> create(Http.Request request, Long userId) {
+        // Attempt to turn json body into a objective object.
+        Optional<Objective> parsedObjective = JsonUtil.readWithView(objectMapper, Views.Owner.class,
+                Objective.class, request.body().asJson());
 
-        Profile objectiveOwner = profileRepository.findById(userId);
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        if (objectiveOwner == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile objectiveOwner = profileRepository.findById(userId);
 
-        if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (objectiveOwner == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        // Create list to hold objective errors
-        List<ApiError> objectiveErrors = new ArrayList<>();
+            if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Objective objective;
+            // Create list to hold objective errors
+            List<ApiError> objectiveErrors = new ArrayList<>();
 
-        try {
-            // Attempt to turn json body into a objective object.
-            objective = objectMapper.readerWithView(Views.Owner.class)
-                    .forType(Objective.class)
-                    .readValue(request.body().asJson());
-        } catch (Exception e) {
-            // Errors with deserialization.
-            objectiveErrors.add(new ApiError(INVALID_JSON_FORMAT));
-            return badRequest(Json.toJson(objectiveErrors));
-        }
+            if (!parsedObjective.isPresent()) {
+                // Errors with deserialization.
+                objectiveErrors.add(new ApiError(INVALID_JSON_FORMAT));
+                return badRequest(Json.toJson(objectiveErrors));
+            }
 
-        objective.setOwner(objectiveOwner);
+            Objective objective = parsedObjective.get();
 
-        Destination objectiveDestination = objective.getDestination();
+            objective.setOwner(objectiveOwner);
 
-        if (objectiveDestination == null || objectiveDestination.getId() == null
-                || destinationRepository.findById(objectiveDestination.getId()) == null) {
-            objectiveErrors.add(new ApiError(DESTINATION_ERROR));
-        } else {
-            objective.setDestination(destinationRepository.findById(objectiveDestination.getId()));
-        }
+            Destination objectiveDestination = objective.getDestination();
 
+            if (objectiveDestination == null || objectiveDestination.getId() == null
+                    || destinationRepository.findById(objectiveDestination.getId()) == null) {
+                objectiveErrors.add(new ApiError(DESTINATION_ERROR));
+            } else {
+                objective.setDestination(destinationRepository.findById(objectiveDestination.getId()));
+            }
 
-        Profile globalAdmin = profileRepository.findById(GLOBAL_ADMIN_ID);
 
-        if (globalAdmin == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile globalAdmin = profileRepository.findById(GLOBAL_ADMIN_ID);
 
-        if (objectiveDestination != null) {
-            objectiveDestination.changeOwner(globalAdmin);
-        }
+            if (globalAdmin == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        // Validate objective and get any errors
-        objectiveErrors.addAll(objective.getErrors());
+            if (objectiveDestination != null) {
+                objectiveDestination.changeOwner(globalAdmin);
+            }
 
-        if (!objectiveErrors.isEmpty()) {
-            return badRequest(Json.toJson(objectiveErrors));
-        }
+            // Validate objective and get any errors
+            objectiveErrors.addAll(objective.getErrors());
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            if (!objectiveErrors.isEmpty()) {
+                return badRequest(Json.toJson(objectiveErrors));
+            }
 
-        objectiveRepository.save(objective);
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        returnJson.set(NEW_OBJECTIVE_ID, Json.toJson(objective.getId()));
+            objectiveRepository.save(objective);
 
-        profileRepository.update(objectiveOwner);
-        destinationRepository.update(objectiveDestination);
-        profileRepository.update(globalAdmin);
+            returnJson.set(NEW_OBJECTIVE_ID, Json.toJson(objective.getId()));
 
-        return created(returnJson);
+            profileRepository.update(objectiveOwner);
+            destinationRepository.update(objectiveDestination);
+            profileRepository.update(globalAdmin);
+
+            return created(returnJson);
+        }, executionContext);
     }
     
 
@@ -151,59 +164,62 @@ public class ObjectiveController {
      *                          ok() (Http 200) if the user is successful in deleting the objective.
      *                          badRequest() (Http 400) if there is an error with the request.
      */
-    public Result edit(Http.Request request, Long objectiveId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> edit(Http.Request request, Long objectiveId) {
+        // Attempt to turn json body into a objective object.
+        Optional<Objective> parsedObjective = JsonUtil.readWithView(objectMapper, Views.Owner.class,
+                Objective.class, request.body().asJson());
+
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            Objective objective = objectiveRepository.findById(objectiveId);
 
-        Objective objective = objectiveRepository.findById(objectiveId);
+            if (objective == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
 
-        if (objective == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
+            Profile objectiveOwner = objective.getOwner();
 
-        Profile objectiveOwner = objective.getOwner();
+            if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            // Create list to hold objective errors
+            List<ApiError> objectiveErrors = new ArrayList<>();
 
-        // Create list to hold objective errors
-        List<ApiError> objectiveErrors = new ArrayList<>();
+            if (!parsedObjective.isPresent()) {
+                // Errors with deserialization.
+                objectiveErrors.add(new ApiError(INVALID_JSON_FORMAT));
+                return badRequest(Json.toJson(objectiveErrors));
+            }
 
-        try {
-            // Attempt to turn json body into a objective object.
-            objective = objectMapper.readerWithView(Views.Owner.class)
-                    .forType(Objective.class)
-                    .readValue(request.body().asJson());
-        } catch (Exception e) {
-            // Errors with deserialization.
-            objectiveErrors.add(new ApiError(INVALID_JSON_FORMAT));
-            return badRequest(Json.toJson(objectiveErrors));
-        }
+            objective = parsedObjective.get();
 
-        objective.setOwner(objectiveOwner);
+            objective.setOwner(objectiveOwner);
 
-        Destination objectiveDestination = objective.getDestination();
+            Destination objectiveDestination = objective.getDestination();
 
-        if(objectiveDestination != null && objectiveDestination.getId() != null
-                && destinationRepository.findById(objectiveDestination.getId()) == null) {
-            objectiveErrors.add(new ApiError(DESTINATION_ERROR));
-        }
+            if(objectiveDestination != null && objectiveDestination.getId() != null
+                    && destinationRepository.findById(objectiveDestination.getId()) == null) {
+                objectiveErrors.add(new ApiError(DESTINATION_ERROR));
+            }
 
-        // Validate objective and get any errors
-        objectiveErrors.addAll(objective.getErrors());
+            // Validate objective and get any errors
+            objectiveErrors.addAll(objective.getErrors());
 
-        if (!objectiveErrors.isEmpty()) {
-            return badRequest(Json.toJson(objectiveErrors));
-        }
+            if (!objectiveErrors.isEmpty()) {
+                return badRequest(Json.toJson(objectiveErrors));
+            }
 
-        objective.setId(objectiveId);
+            objective.setId(objectiveId);
 
 
-        objectiveRepository.update(objective);
-        return ok(Json.toJson(objective));
+            objectiveRepository.update(objective);
+            return ok(Json.toJson(objective));
+        }, executionContext);
     }
 
 
@@ -221,37 +237,39 @@ public class ObjectiveController {
      *                          ok() (Http 200) if the user is successful in deleting the objective.
      *                          badRequest() (Http 400) if there is an error with the request.
      */
-    public Result delete(Http.Request request, Long objectiveId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> delete(Http.Request request, Long objectiveId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Objective objective = objectiveRepository.findById(objectiveId);
+            Objective objective = objectiveRepository.findById(objectiveId);
 
-        if (objective == null) {
-            return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
-        }
+            if (objective == null) {
+                return notFound(ApiError.notFound(Errors.OBJECTIVE_NOT_FOUND));
+            }
 
-        Profile objectiveOwner = objective.getOwner();
+            Profile objectiveOwner = objective.getOwner();
 
-        if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, objectiveOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        List<Quest> quests = questRepository.findAllUsing(objective);
+            List<Quest> quests = questRepository.findAllUsing(objective);
 
-        if (!quests.isEmpty()) {
-            return badRequest(ApiError.badRequest(Errors.OBJECTIVE_IN_USE));
-        }
+            if (!quests.isEmpty()) {
+                return badRequest(ApiError.badRequest(Errors.OBJECTIVE_IN_USE));
+            }
 
-        if (objectiveOwner != null) {
-            objectiveOwner.removeObjective(objective);
-            objectiveRepository.delete(objective);
-            profileRepository.update(objectiveOwner);
-            return ok(Json.toJson(objective));
-        }
-        return badRequest(ApiError.invalidJson());
+            if (objectiveOwner != null) {
+                objectiveOwner.removeObjective(objective);
+                objectiveRepository.delete(objective);
+                profileRepository.update(objectiveOwner);
+                return ok(Json.toJson(objective));
+            }
+            return badRequest(ApiError.invalidJson());
+        }, executionContext);
     }
 
 
@@ -263,25 +281,27 @@ public class ObjectiveController {
      *                  badRequest() (Http 400) response containing an ApiError for an invalid Json body.
      *                  unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result fetchAll(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        List<Objective> objectivesQuery = objectiveRepository.findAll();
-
-        String result;
-
-        try {
-            result = objectMapper
-                    .writerWithView(Views.Public.class)
-                    .writeValueAsString(objectivesQuery);
-        } catch (JsonProcessingException e) {
-            return badRequest(ApiError.invalidJson());
-        }
-
-        return ok(result);
+    public CompletionStage<Result> fetchAll(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            List<Objective> objectivesQuery = objectiveRepository.findAll();
+
+            String result;
+
+            try {
+                result = objectMapper
+                        .writerWithView(Views.Public.class)
+                        .writeValueAsString(objectivesQuery);
+            } catch (JsonProcessingException e) {
+                return badRequest(ApiError.invalidJson());
+            }
+
+            return ok(result);
+        }, executionContext);
     }
 
 
@@ -295,22 +315,24 @@ public class ObjectiveController {
      *                  unauthorized() (Http 403) response containing an ApiError if the user is not logged in.
      *
      */
-    public Result fetchByOwner(Http.Request request, Long ownerId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchByOwner(Http.Request request, Long ownerId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile requestedUser = profileRepository.findById(ownerId);
+            Profile requestedUser = profileRepository.findById(ownerId);
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        return ok(Json.toJson(requestedUser.getMyObjectives()));
+            return ok(Json.toJson(requestedUser.getMyObjectives()));
+        }, executionContext);
     }
 }
@@ -0,0 +1,122 @@
+package controllers.photos;
+
+import akka.stream.IOResult;
+import akka.stream.Materializer;
+import akka.stream.javadsl.FileIO;
+import akka.stream.javadsl.Flow;
+import akka.stream.javadsl.Keep;
+import akka.stream.javadsl.Sink;
+import akka.util.ByteString;
+import com.google.inject.Inject;
+import models.util.ApiError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.api.http.HttpConfiguration;
+import play.api.http.HttpErrorHandler;
+import play.core.parsers.Multipart;
+import play.libs.F;
+import play.libs.streams.Accumulator;
+import play.mvc.BodyParser;
+import play.mvc.Http;
+import play.mvc.Result;
+import services.photos.PhotoStorageService;
+import util.TextUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static play.mvc.Results.unauthorized;
+
+/**
+ * Parses multipart photo uploads, streaming each file straight into a staging file in the photo directory instead of
+ * a temporary file that is later copied. Files are hashed as they arrive, and stop being written as soon as they
+ * exceed the maximum photo size or their first bytes show they are not a jpeg or png. Requests without a session are
+ * rejected before any of the body is written.
+ */
+public class PhotoBodyParser extends BodyParser.DelegatingMultipartFormDataBodyParser<StagedPhoto> {
+
+    static final long MAX_IMG_SIZE = 5000000L;
+    private static final String AUTHORIZED = "authorized";
+    private static final Logger LOG = LoggerFactory.getLogger(PhotoBodyParser.class);
+
+    private final PhotoStorageService photoStorageService;
+    private final Executor executor;
+
+
+    @Inject
+    public PhotoBodyParser(Materializer materializer,
+                           HttpConfiguration httpConfiguration,
+                           HttpErrorHandler errorHandler,
+                           PhotoStorageService photoStorageService) {
+        super(materializer, httpConfiguration.parser().maxDiskBuffer(), errorHandler);
+        this.photoStorageService = photoStorageService;
+        this.executor = materializer.executionContext();
+    }
+
+
+    @Override
+    public Accumulator<ByteString, F.Either<Result, Http.MultipartFormData<StagedPhoto>>> apply(
+            Http.RequestHeader request) {
+        if (!request.session().getOptional(AUTHORIZED).isPresent()) {
+            return Accumulator.done(F.Either.Left(unauthorized(ApiError.unauthorized())));
+        }
+        return super.apply(request);
+    }
+
+
+    @Override
+    public Function<Multipart.FileInfo, Accumulator<ByteString, Http.MultipartFormData.FilePart<StagedPhoto>>>
+            createFilePartHandler() {
+        return fileInfo -> {
+            StagedPhoto stagedPhoto;
+            try {
+                stagedPhoto = new StagedPhoto(photoStorageService.createStagingFile(),
+                        TextUtil.createDigest(), MAX_IMG_SIZE);
+            } catch (IOException e) {
+                CompletableFuture<Http.MultipartFormData.FilePart<StagedPhoto>> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return Accumulator.done(failed);
+            }
+
+            // Chunks after the upload has been rejected are discarded rather than written
+            Sink<ByteString, CompletionStage<IOResult>> sink = Flow.of(ByteString.class)
+                    .map(bytes -> stagedPhoto.accept(bytes) ? bytes : ByteString.empty())
+                    .toMat(FileIO.toPath(stagedPhoto.getPath()), Keep.right());
+
+            return Accumulator.fromSink(sink).map(ioResult -> {
+                stagedPhoto.finish();
+                if (!ioResult.wasSuccessful()) {
+                    delete(stagedPhoto.getPath());
+                    throw new CompletionException(ioResult.getError());
+                }
+                if (stagedPhoto.isRejected()) {
+                    delete(stagedPhoto.getPath());
+                }
+
+                return new Http.MultipartFormData.FilePart<>(fileInfo.partName(), fileInfo.fileName(),
+                        stagedPhoto.getContentType(), stagedPhoto, stagedPhoto.getSize(),
+                        fileInfo.dispositionType());
+            }, executor);
+        };
+    }
+
+
+    /**
+     * Deletes the given staging file, logging rather than failing if it cannot be deleted.
+     *
+     * @param path  the path of the staging file.
+     */
+    static void delete(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOG.error("Unable to delete staged photo " + path, e);
+        }
+    }
+}
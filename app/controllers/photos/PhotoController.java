@@ -6,50 +6,59 @@ import models.util.ApiError;
 import models.util.Errors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.photos.PersonalPhoto;
 import models.photos.Photo;
-import play.libs.Files.TemporaryFile;
+import models.photos.PhotoRendition;
 import play.libs.Json;
+import play.mvc.BodyParser;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import repositories.destinations.DestinationRepository;
 import repositories.photos.PersonalPhotoRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.DatabaseExecutionContext;
+import services.photos.ImageProcessor;
+import services.photos.PhotoProcessingService;
+import services.photos.PhotoStorageService;
+import services.profiles.PrincipalCache;
 import util.AuthenticationUtil;
-import com.typesafe.config.Config;
+import util.FileResultUtil;
 
-import javax.imageio.ImageIO;
-import java.awt.*;
-import java.awt.geom.AffineTransform;
-import java.awt.image.BufferedImage;
-import java.io.File;
 import java.io.IOException;
 import com.google.inject.Inject;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class PhotoController extends Controller {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
-    private static final Long MAX_IMG_SIZE = 5000000L;
     private static final String AUTHORIZED = "authorized";
     private static final String PHOTO_ID = "id";
     private static final String IS_PUBLIC = "public";
-    private static final int IMAGE_DIMENSION = 200;
+    private static final String GENERATED_CONTENT_TYPE = "image/jpeg";
+    private static final String NO_CACHE = "no-cache";
+
+    // Photos may only be visible to some users, so every use of a cached copy is revalidated with the server.
+    private static final String PRIVATE_NO_CACHE = "private, no-cache";
 
     private ProfileRepository profileRepository;
     private PersonalPhotoRepository personalPhotoRepository;
     private DestinationRepository destinationRepository;
-    private Config config;
+    private PhotoStorageService photoStorageService;
+    private PhotoProcessingService photoProcessingService;
+    private ImageProcessor imageProcessor;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
 
     @Inject
@@ -57,52 +66,19 @@ public class PhotoController extends Controller {
             ProfileRepository profileRepository,
             PersonalPhotoRepository personalPhotoRepository,
             DestinationRepository destinationRepository,
-            Config config) {
+            PhotoStorageService photoStorageService,
+            PhotoProcessingService photoProcessingService,
+            ImageProcessor imageProcessor,
+            PrincipalCache principalCache,
+            DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
         this.personalPhotoRepository = personalPhotoRepository;
         this.destinationRepository = destinationRepository;
-        this.config = config;
-    }
-
-
-    /**
-     * Generates a UUID for a filename.
-     *
-     * @return universally unique identifier for saving a file.
-     */
-    private String generateFilename() {
-        UUID uuid = UUID.randomUUID();
-        return uuid.toString();
-    }
-
-
-    /**
-     * Determines the filepath of where an image should be saved.
-     * Checks for a system variable which is only set on the server.
-     * If the system variable is set, then it will use that as the filepath.
-     * Otherwise, use the specified temp file paths above.
-     *
-     * @param getThumbnail  whether thumbnail directory is being requested.
-     * @return              filepath to save the photo to.
-     */
-    private String getPhotoFilePath(boolean getThumbnail) throws IOException {
-
-        String mainPath = config.getString("travelea.photos.main");
-
-        String returnPath = mainPath + (getThumbnail
-                ? config.getString("travelea.photos.thumbnail")
-                : "");
-
-
-        Path path = Paths.get(returnPath).toAbsolutePath();
-
-        returnPath = path.toString();
-
-        if (!path.toFile().exists() || !path.toFile().isDirectory()) {
-            Files.createDirectory(path);
-        }
-
-        return returnPath;
+        this.photoStorageService = photoStorageService;
+        this.photoProcessingService = photoProcessingService;
+        this.imageProcessor = imageProcessor;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -112,12 +88,10 @@ public class PhotoController extends Controller {
      * @param photos    list of photos to be validated.
      * @return          true if all photo files are valid for their size.
      */
-    private boolean validatePhotoSize(List<Http.MultipartFormData.FilePart<TemporaryFile>> photos) {
+    private boolean validatePhotoSize(List<Http.MultipartFormData.FilePart<StagedPhoto>> photos) {
 
-        for (Http.MultipartFormData.FilePart<TemporaryFile> photo : photos) {
-            Long fileSize = photo.getFileSize();
-
-            if (fileSize >= MAX_IMG_SIZE)
+        for (Http.MultipartFormData.FilePart<StagedPhoto> photo : photos) {
+            if (photo.getRef().isTooLarge())
                 return false;
         }
         return true;
@@ -125,46 +99,31 @@ public class PhotoController extends Controller {
 
 
     /**
-     * Returns whether or not a list of uploaded photos are valid photo types.
+     * Returns whether or not a list of uploaded photos are valid photo types. The type of each photo is determined
+     * from its content as it is uploaded, so a file cannot pass as an image just by its declared type.
      *
      * @param photos    list of photos to be validated.
      * @return          true if all photo files are valid for their type.
      */
-    private boolean validatePhotoTypes(List<Http.MultipartFormData.FilePart<TemporaryFile>> photos) {
-
-        ArrayList<String> validFileTypes = new ArrayList<>();
-        validFileTypes.add("image/jpeg");
-        validFileTypes.add("image/png");
+    private boolean validatePhotoTypes(List<Http.MultipartFormData.FilePart<StagedPhoto>> photos) {
 
-        for (Http.MultipartFormData.FilePart<TemporaryFile> photo : photos) {
-            String contentType = photo.getContentType();
-
-            if (!(validFileTypes.contains(contentType)))
+        for (Http.MultipartFormData.FilePart<StagedPhoto> photo : photos) {
+            if (photo.getRef().isInvalidType())
                 return false;
         }
-
         return true;
     }
 
 
     /**
-     * Takes a profile, filename of a previously saved photo and boolean flag.
-     * Creates photo object and personal photo object, saves them to profile.
+     * Takes a profile and a stored photo, creates a personal photo object for it and saves it to the profile.
      *
      * @param profileToAdd  profile to add the photo to.
-     * @param filename      filename of saved photo.
+     * @param photo         the stored photo, which may be shared with identical uploads.
      */
-    private void addImageToProfile(Profile profileToAdd, String filename, String contentType)
-            throws IOException {
-        Photo photoToAdd = new Photo();
-        photoToAdd.setMainFilename(getPhotoFilePath(false) + "/" + filename);
-        photoToAdd.setThumbnailFilename(getPhotoFilePath(true) + "/" + filename);
-        photoToAdd.setContentType(contentType);
-        photoToAdd.setUploadDate(LocalDate.now());
-        photoToAdd.setUploadProfile(profileToAdd);
-
+    private void addImageToProfile(Profile profileToAdd, Photo photo) {
         PersonalPhoto personalPhoto = new PersonalPhoto();
-        personalPhoto.setPhoto(photoToAdd);
+        personalPhoto.setPhoto(photo);
         personalPhoto.setPublic(false);
         personalPhoto.setProfile(profileToAdd);
 
@@ -181,37 +140,40 @@ public class PhotoController extends Controller {
      *                  delete the photo, unauthorized() (Http 401) if the user is not logged in, otherwise returns
      *                  badRequest (Http 400).
      */
-    public Result destroy(Http.Request request, Long photoId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> destroy(Http.Request request, Long photoId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        PersonalPhoto photo = personalPhotoRepository.findById(photoId);
+            PersonalPhoto photo = personalPhotoRepository.findById(photoId);
 
-        if (photo == null) {
-            return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
-        }
+            if (photo == null) {
+                return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
+            }
 
 
-        Profile photoOwner = photo.getProfile();
+            Profile photoOwner = photo.getProfile();
 
-        if (!AuthenticationUtil.validUser(loggedInUser, photoOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
-        if (photoOwner != null) {
-            for(Destination destination : destinationRepository.fetch(photo)) {
-                destination.removePhotoFromGallery(photo);
-                destinationRepository.update(destination);
+            if (!AuthenticationUtil.validUser(loggedInUser, photoOwner)) {
+                return forbidden(ApiError.forbidden());
             }
-            photoOwner.removePhotoFromGallery(photo);
-            photo.clearDestinations();
-            personalPhotoRepository.update(photo);
-            personalPhotoRepository.delete(photo);
-            profileRepository.update(photoOwner);
-            return ok(Json.toJson(photo));
-        }
-        return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            if (photoOwner != null) {
+                for(Destination destination : destinationRepository.fetch(photo)) {
+                    destination.removePhotoFromGallery(photo);
+                    destinationRepository.update(destination);
+                }
+                photoOwner.removePhotoFromGallery(photo);
+                photo.clearDestinations();
+                personalPhotoRepository.update(photo);
+                personalPhotoRepository.delete(photo);
+                photoStorageService.release(photo.getPhoto());
+                profileRepository.update(photoOwner);
+                return ok(Json.toJson(photo));
+            }
+            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+        }, executionContext);
     }
 
 
@@ -225,25 +187,27 @@ public class PhotoController extends Controller {
      *                profile cannot be found, forbidden() (Http 403) if the logged in user is not allowed to change the
      *                profile picture.
      */
-    public Result destroyProfilePhoto(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> destroyProfilePhoto(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile profileToChange = profileRepository.findById(userId);
+            Profile profileToChange = profileRepository.findById(userId);
 
-        if (profileToChange == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            if (profileToChange == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if(!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if(!AuthenticationUtil.validUser(loggedInUser, profileToChange)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        profileToChange.setProfilePicture(null);
-        profileRepository.update(profileToChange);
-        return ok(Json.toJson(profileToChange));
+            profileToChange.setProfilePicture(null);
+            profileRepository.update(profileToChange);
+            return ok(Json.toJson(profileToChange));
+        }, executionContext);
     }
 
 
@@ -257,35 +221,37 @@ public class PhotoController extends Controller {
      *                      unauthorized() (Http 403) if the user is not logged in or not authorized to change the
      *                      owners profile photo, ok() (Http 200) if successful change of profile photo.
      */
-    public Result updateProfilePhoto(Http.Request request, Long photoId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> updateProfilePhoto(Http.Request request, Long photoId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        PersonalPhoto personalPhoto = personalPhotoRepository.findById(photoId);
+            PersonalPhoto personalPhoto = personalPhotoRepository.findById(photoId);
 
-        if (personalPhoto == null) {
-            return badRequest(ApiError.badRequest(Errors.PHOTO_NOT_FOUND));
-        }
+            if (personalPhoto == null) {
+                return badRequest(ApiError.badRequest(Errors.PHOTO_NOT_FOUND));
+            }
 
-        Profile owner = personalPhoto.getProfile();
+            Profile owner = personalPhoto.getProfile();
 
-        if (owner == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (owner == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if(!AuthenticationUtil.validUser(loggedInUser, owner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if(!AuthenticationUtil.validUser(loggedInUser, owner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        // Now used as a profile photo so must be public
-        personalPhoto.setPublic(true);
+            // Now used as a profile photo so must be public
+            personalPhoto.setPublic(true);
 
-        owner.setProfilePicture(personalPhoto);
-        personalPhotoRepository.update(personalPhoto);
-        profileRepository.update(owner);
-        return ok(Json.toJson(personalPhoto));
+            owner.setProfilePicture(personalPhoto);
+            personalPhotoRepository.update(personalPhoto);
+            profileRepository.update(owner);
+            return ok(Json.toJson(personalPhoto));
+        }, executionContext);
     }
 
 
@@ -301,70 +267,72 @@ public class PhotoController extends Controller {
      *                  unauthorized() (Http 401) if the user is not logged in.
      *                  internalServerError() (Http 500) if for some reason the photo couldn't be changed.
      */
-    public Result changePrivacy(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> changePrivacy(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        JsonNode json = request.body().asJson();
+            JsonNode json = request.body().asJson();
 
-        if (!(json.has(PHOTO_ID) && json.has(IS_PUBLIC))) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (!(json.has(PHOTO_ID) && json.has(IS_PUBLIC))) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        Long personalPhotoId = json.get(PHOTO_ID).asLong();
-        Boolean isPublic = json.get(IS_PUBLIC).asBoolean();
+            Long personalPhotoId = json.get(PHOTO_ID).asLong();
+            Boolean isPublic = json.get(IS_PUBLIC).asBoolean();
 
-        Profile profileToChange;
+            Profile profileToChange;
 
-        PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
+            PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
 
-        if (personalPhoto == null) {
-            return badRequest(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
-        }
+            if (personalPhoto == null) {
+                return badRequest(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
+            }
 
-        Profile owner = personalPhoto.getProfile();
+            Profile owner = personalPhoto.getProfile();
 
-        if (owner == null) {
-            return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
-        }
+            if (owner == null) {
+                return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
+            }
 
-        if(owner.getProfilePicture() != null && owner.getProfilePicture().getId().equals(personalPhotoId)) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if(owner.getProfilePicture() != null && owner.getProfilePicture().getId().equals(personalPhotoId)) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        if(AuthenticationUtil.validUser(loggedInUser, owner)) {
-            profileToChange = owner;
-        } else {
-            return forbidden(ApiError.forbidden());
-        }
+            if(AuthenticationUtil.validUser(loggedInUser, owner)) {
+                profileToChange = owner;
+            } else {
+                return forbidden(ApiError.forbidden());
+            }
 
-        personalPhoto.setPublic(isPublic);
-        personalPhotoRepository.update(personalPhoto);
-        return ok(Json.toJson(profileToChange.getPhotoGallery()));
+            personalPhoto.setPublic(isPublic);
+            personalPhotoRepository.update(personalPhoto);
+            return ok(Json.toJson(profileToChange.getPhotoGallery()));
+        }, executionContext);
     }
 
 
     /**
      * Saves a list of images given in multipart form data in the application.
-     * Creates thumbnails for all files. Saves a full sized copy and a thumbnail of each photo.
+     * Stores each image under its content hash, reusing the stored copy of any image that has been uploaded before.
+     * The thumbnails of new images are created in the background.
      *
      * @param profileToAdd  profile to add the photos to.
      * @param photos        list of images to add the the profile.
      * @return              created() (Http 201) if upload was successful and the Json form of the new profile Photo
-     *                      gallery internalServerError() (Http 500) if there was an error with thumbnail creation.
+     *                      gallery internalServerError() (Http 500) if there was an error saving a photo.
      */
-    private Result savePhotos(Profile profileToAdd, Collection<Http.MultipartFormData.FilePart<TemporaryFile>> photos) {
-        for (Http.MultipartFormData.FilePart<TemporaryFile> photo : photos) {
-            TemporaryFile temporaryFile = photo.getRef();
-            String filename = generateFilename();
+    private Result savePhotos(Profile profileToAdd, Collection<Http.MultipartFormData.FilePart<StagedPhoto>> photos) {
+        for (Http.MultipartFormData.FilePart<StagedPhoto> photo : photos) {
+            StagedPhoto stagedPhoto = photo.getRef();
             try {
-                temporaryFile.copyTo(Paths.get(getPhotoFilePath(false), filename),true);
-                saveThumbnail(filename);
-                addImageToProfile(profileToAdd, filename, photo.getContentType());
+                Photo storedPhoto = photoStorageService.store(stagedPhoto.getPath(), stagedPhoto.getContentHash(),
+                        stagedPhoto.getContentType(), profileToAdd);
+                addImageToProfile(profileToAdd, storedPhoto);
             } catch (IOException e) {
-                log.error("Unable to convert image to thumbnail", e);
+                log.error("Unable to save image", e);
                 return internalServerError(Json.toJson(e));
             }
         }
@@ -379,155 +347,129 @@ public class PhotoController extends Controller {
      * @param userId    id of the user being viewed.
      * @return          a Json list containing the id numbers and privacy of all photos owned by that user.
      */
-    public Result list(Http.Request request, Long userId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(loggedInUserId -> {
+    public CompletionStage<Result> list(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(loggedInUserId -> {
 
-                    Profile user = profileRepository.findById(userId);
+                        Profile user = profileRepository.findById(userId);
 
-                    if (user != null && user.getPhotoGallery() != null) {
-                        return ok(Json.toJson(user.getPhotoGallery()));
-                    }
+                        if (user != null && user.getPhotoGallery() != null) {
+                            return ok(Json.toJson(user.getPhotoGallery()));
+                        }
 
-                    return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+                        return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext);
     }
 
 
     /**
      * Takes a multipart form data request to upload an image.
+     * The files are streamed into the photo directory and checked as the request arrives, by the PhotoBodyParser.
      * Validates all given files in the form data.
-     * Adds photos to the profile of the specified userId.
+     * Adds photos to the profile of the specified userId. Any uploaded files that are not added are deleted.
      *
      * @param request   Http request containing multipart form data.
      * @param userId    id of the user to add the photos to.
      * @return          created() (Http 201) if successful. badRequest() (Http 400) if photo is invalid, or no profile
      *                  found. forbidden() (Http 403) if the logged in user isn't admin or adding photo for themselves.
-     *                  internalServerError() (Http 500) if photo cannot be converted to a thumbnail.
+     *                  internalServerError() (Http 500) if photo cannot be saved.
      */
-    public Result upload(Http.Request request, Long userId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(loggedInUserId -> {
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(loggedInUserId));
-                    Profile profileToAdd = profileRepository.findById(userId);
-
-                    if (profileToAdd == null) {
-                        return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND)); // User does not exist in the system.
-                    }
-
-                    if(loggedInUser == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
-
-                    // If user is admin, or if they are editing their own profile then allow them to edit.
-                    if (!AuthenticationUtil.validUser(loggedInUser, profileToAdd)) {
-                        return forbidden(ApiError.forbidden());
-                    }
-
-                    Http.MultipartFormData<TemporaryFile> body = request.body().asMultipartFormData();
-                    List<Http.MultipartFormData.FilePart<TemporaryFile>> photos = body.getFiles();
-
-                    // Validate images types
-                    if (!validatePhotoTypes(photos)) {
-                        return badRequest(ApiError.badRequest(Errors.INVALID_PHOTO_TYPE));
-                    }
-
-                    // Validate images size
-                    if (!validatePhotoSize(photos)) {
-                        return badRequest(ApiError.badRequest(Errors.INVALID_PHOTO_SIZE));
-                    }
-
-                    // Images are valid, if we have images, then add them to profile
-                    if (!photos.isEmpty()) {
-                        return savePhotos(profileToAdd, photos);
-                    }
-
-                    // Images are empty
-                    return badRequest(ApiError.badRequest(Errors.INVALID_NO_IMAGES_PROVIDED));
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
-    }
-
+    @BodyParser.Of(PhotoBodyParser.class)
+    public CompletionStage<Result> upload(Http.Request request, Long userId) {
+        Http.MultipartFormData<StagedPhoto> body = request.body().asMultipartFormData();
+        List<Http.MultipartFormData.FilePart<StagedPhoto>> photos = body == null
+                ? Collections.emptyList()
+                : body.getFiles();
+
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(loggedInUserId -> {
+                        Principal loggedInUser = principalCache.get(Long.valueOf(loggedInUserId));
+                        Profile profileToAdd = profileRepository.findById(userId);
+
+                        if (profileToAdd == null) {
+                            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND)); // User does not exist in the system.
+                        }
 
-    /**
-     * Takes a filename of a previously saved image and creates a thumbnail from it.
-     * After creation, it will save into the specified thumbnail directory.
-     *
-     * @param filename      filename of the fullsized image to create a thumbnail from.
-     * @throws IOException  if there is an error with saving the thumbnail.
-     */
-    private void saveThumbnail(String filename) throws IOException {
-        BufferedImage photo = ImageIO.read(new File(String.format("%s/%s", getPhotoFilePath(false), filename)));
-        BufferedImage croppedImage = makeSquare(photo);
-        BufferedImage thumbnail = scale(croppedImage);
-        ImageIO.write(thumbnail, "jpg", new File(String.format("%s/%s", getPhotoFilePath(true), filename)));
-    }
+                        if(loggedInUser == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
 
+                        // If user is admin, or if they are editing their own profile then allow them to edit.
+                        if (!AuthenticationUtil.validUser(loggedInUser, profileToAdd)) {
+                            return forbidden(ApiError.forbidden());
+                        }
 
-    /**
-     * Gets a middle section of the image and makes it into a square.
-     *
-     * @param photo the BufferedImage object of the uploaded image.
-     * @return      a new BufferedImage subImage object of the square section of the image.
-     */
-    private BufferedImage makeSquare(BufferedImage photo) {
-        int width = photo.getWidth();
-        int height = photo.getHeight();
-        int size = Math.min(width, height);
+                        // Validate images types
+                        if (!validatePhotoTypes(photos)) {
+                            return badRequest(ApiError.badRequest(Errors.INVALID_PHOTO_TYPE));
+                        }
 
-        return photo.getSubimage((width/2) - (size/2), (height/2) - (size/2), size, size);
-    }
+                        // Validate images size
+                        if (!validatePhotoSize(photos)) {
+                            return badRequest(ApiError.badRequest(Errors.INVALID_PHOTO_SIZE));
+                        }
 
+                        // Images are valid, if we have images, then add them to profile
+                        if (!photos.isEmpty()) {
+                            return savePhotos(profileToAdd, photos);
+                        }
 
-    /**
-     * Scales a BufferedImage object to a 200x200 pixels image, with lower quality to be stored as a thumbnail. Uses
-     * the Graphics2D class to do this. A new image is created using the GraphicsEnvironment, GraphicsDevice and
-     * GraphicsConfiguration. A new Graphics2D object is then created, and filled with a white background in case of
-     * transparent images. The image is then scaled and transformed using the AffineTransformation class.
-     *
-     * @param sourceImage the BufferedImage to be scaled down.
-     * @return            a new BufferedImage scaled to the appropriate size.
-     */
-    private BufferedImage scale(BufferedImage sourceImage) {
-        GraphicsEnvironment graphicsEnvironment = GraphicsEnvironment.getLocalGraphicsEnvironment();
-        GraphicsDevice graphicsDevice = graphicsEnvironment.getDefaultScreenDevice();
-        GraphicsConfiguration graphicsConfiguration = graphicsDevice.getDefaultConfiguration();
-        BufferedImage scaledImage = graphicsConfiguration.createCompatibleImage(IMAGE_DIMENSION, IMAGE_DIMENSION);
-
-        Graphics2D newGraphicsImage = scaledImage.createGraphics();
-        newGraphicsImage.setColor(Color.white);
-        newGraphicsImage.fillRect(0, 0, IMAGE_DIMENSION, IMAGE_DIMENSION);
-
-        double xScale = (double) IMAGE_DIMENSION / sourceImage.getWidth();
-        double yScale = (double) IMAGE_DIMENSION / sourceImage.getHeight();
-        AffineTransform affineTransform = AffineTransform.getScaleInstance(xScale,yScale);
-        newGraphicsImage.drawRenderedImage(sourceImage, affineTransform);
-        newGraphicsImage.dispose();
-
-        return scaledImage;
+                        // Images are empty
+                        return badRequest(ApiError.badRequest(Errors.INVALID_NO_IMAGES_PROVIDED));
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext).whenComplete((result, error) -> {
+            // Stored photos have been moved out of their staging files, so this only removes unused uploads
+            for (Http.MultipartFormData.FilePart<StagedPhoto> photo : photos) {
+                PhotoBodyParser.delete(photo.getRef().getPath());
+            }
+        });
     }
 
 
     /**
      * Retrieves an image file from a path specified in the given photo object.
-     * If getThumbnail is true, it will return the thumbnail version from the given photo object.
+     * If getThumbnail is true, it will return the thumbnail version from the given photo object, or a placeholder
+     * image if the thumbnail has not been generated yet. If a width is given, it will return the smallest rendition at
+     * least that wide, or the original if there is no such rendition.
+     * The image is streamed with validators so clients can revalidate their cached copy, and supports Range requests.
      *
+     * @param request           the Http request for the image.
      * @param photoToRetrieve   photo object containing the filepath to get the image from.
      * @param getThumbnail      boolean to specify if a thumbnail version is required.
+     * @param width             the width the image will be displayed at, or null if the original is required.
      * @return                  result containing an image file.
      */
-    private Result getImageResult(Photo photoToRetrieve, boolean getThumbnail) {
+    private Result getImageResult(Http.Request request, Photo photoToRetrieve, boolean getThumbnail, Integer width) {
 
-        String contentType = photoToRetrieve.getContentType();
-        // If get thumbnail is true, set filename to thumbnail filename, otherwise set it to main filename
-        String filename = getThumbnail
-                ? photoToRetrieve.getThumbnailFilename()
-                : photoToRetrieve.getMainFilename();
+        if (getThumbnail && !photoToRetrieve.isThumbnailReady()) {
+            return ok(imageProcessor.getPlaceholder())
+                    .as(GENERATED_CONTENT_TYPE)
+                    .withHeader(CACHE_CONTROL, NO_CACHE);
+        }
 
-        return ok(new File(filename)).as(contentType);
+        if (!getThumbnail && width != null) {
+            Optional<PhotoRendition> rendition = photoToRetrieve.findRendition(width);
+            if (rendition.isPresent()) {
+                return FileResultUtil.serve(request, Paths.get(rendition.get().getFilename()),
+                        GENERATED_CONTENT_TYPE, PRIVATE_NO_CACHE);
+            }
+        }
+
+        // Thumbnails are always saved as jpegs, whatever the type of the original
+        if (getThumbnail) {
+            return FileResultUtil.serve(request, Paths.get(photoToRetrieve.getThumbnailFilename()),
+                    GENERATED_CONTENT_TYPE, PRIVATE_NO_CACHE);
+        }
+
+        return FileResultUtil.serve(request, Paths.get(photoToRetrieve.getMainFilename()),
+                photoToRetrieve.getContentType(), PRIVATE_NO_CACHE);
     }
 
 
@@ -537,35 +479,72 @@ public class PhotoController extends Controller {
      * @param request           Http request from the client.
      * @param personalPhotoId   id of the personal photo to be returned.
      * @param getThumbnail      boolean to dictate if a thumbnail is to be returned.
+     * @param width             the width the photo will be displayed at, used to pick a smaller rendition of the
+     *                          photo. Null if the original is required.
      * @return                  unauthorized() (Http 401) if a user is not logged in.
      *                          forbidden() (Http 403) if a user is requesting a resource they do not have access to.
      *                          ok() (Http 200) containing the image if user is authorized to receive it.
      */
-    public Result fetch(Http.Request request, Long personalPhotoId, Boolean getThumbnail) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
+    public CompletionStage<Result> fetch(Http.Request request, Long personalPhotoId, Boolean getThumbnail,
+                                         Integer width) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
 
-                    PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
+                        PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
 
-                    if (personalPhoto == null)
-                        return notFound(ApiError.notFound());
+                        if (personalPhoto == null)
+                            return notFound(ApiError.notFound());
 
-                    if (personalPhoto.getPublic())
-                        return getImageResult(personalPhoto.getPhoto(), getThumbnail);
+                        if (personalPhoto.getPublic())
+                            return getImageResult(request, personalPhoto.getPhoto(), getThumbnail, width);
 
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(userId));
-                    Profile owner = personalPhoto.getProfile();
+                        Principal loggedInUser = principalCache.get(Long.valueOf(userId));
+                        Profile owner = personalPhoto.getProfile();
 
-                    if (loggedInUser == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
-                    if(AuthenticationUtil.validUser(loggedInUser, owner)) {
-                        return getImageResult(personalPhoto.getPhoto(), getThumbnail);
-                    }
+                        if (loggedInUser == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
+                        if(AuthenticationUtil.validUser(loggedInUser, owner)) {
+                            return getImageResult(request, personalPhoto.getPhoto(), getThumbnail, width);
+                        }
 
-                    return forbidden(ApiError.forbidden());
-                }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+                        return forbidden(ApiError.forbidden());
+                    }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+        }, executionContext);
+    }
+
+
+    /**
+     * Queues the generation of renditions for all photos that do not have any, such as photos uploaded before
+     * renditions were introduced. Running this again after an interruption continues with the photos left over.
+     *
+     * @param request   Http request from the client.
+     * @return          unauthorized() (Http 401) if a user is not logged in.
+     *                  forbidden() (Http 403) if the logged in user is not an admin.
+     *                  status(202) if the backfill is queued, or is already running.
+     *                  status(503) if the photo processing queue is full.
+     */
+    public CompletionStage<Result> backfillRenditions(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
+
+            if (!photoProcessingService.queueRenditionBackfill()) {
+                return status(Http.Status.SERVICE_UNAVAILABLE,
+                        ApiError.serviceUnavailable(Errors.PHOTO_PROCESSING_BUSY));
+            }
+
+            return status(Http.Status.ACCEPTED);
+        }, executionContext);
     }
 
 
@@ -581,51 +560,53 @@ public class PhotoController extends Controller {
      *                          created() (Http 201) if the destination photo was added to the
      *                          destinations photo gallery.
      */
-    public Result addDestinationPhoto(Http.Request request, Long destinationId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
+    public CompletionStage<Result> addDestinationPhoto(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
 
-                    JsonNode json = request.body().asJson();
+                        JsonNode json = request.body().asJson();
 
-                    if (!(json.has(PHOTO_ID))) {
-                        return badRequest(ApiError.invalidJson());
-                    }
+                        if (!(json.has(PHOTO_ID))) {
+                            return badRequest(ApiError.invalidJson());
+                        }
 
-                    PersonalPhoto personalPhoto = personalPhotoRepository.findById(
-                            json.get(PHOTO_ID).asLong()
-                    );
+                        PersonalPhoto personalPhoto = personalPhotoRepository.findById(
+                                json.get(PHOTO_ID).asLong()
+                        );
 
-                    Destination destination = destinationRepository.findById(destinationId);
+                        Destination destination = destinationRepository.findById(destinationId);
 
-                    if (personalPhoto == null) {
-                        return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
-                    }
+                        if (personalPhoto == null) {
+                            return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
+                        }
 
-                    if (destination == null) {
-                        return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-                    }
+                        if (destination == null) {
+                            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+                        }
 
-                    Profile photoOwner = personalPhoto.getProfile();
-                    Profile destinationOwner = destination.getOwner();
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(userId));
+                        Profile photoOwner = personalPhoto.getProfile();
+                        Profile destinationOwner = destination.getOwner();
+                        Principal loggedInUser = principalCache.get(Long.valueOf(userId));
 
-                    if (loggedInUser == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
+                        if (loggedInUser == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
 
-                    if(AuthenticationUtil.validUser(loggedInUser, photoOwner) &&
-                            (AuthenticationUtil.validUser(loggedInUser, destinationOwner)
-                                    || destination.getPublic())) {
+                        if(AuthenticationUtil.validUser(loggedInUser, photoOwner) &&
+                                (AuthenticationUtil.validUser(loggedInUser, destinationOwner)
+                                        || destination.getPublic())) {
 
-                        destination.addPhotoToGallery(personalPhoto);
-                        changeOwnership(photoOwner, destination);
-                        destinationRepository.update(destination);
-                        return created(Json.toJson(destination.getPhotoGallery()));
-                    }
+                            destination.addPhotoToGallery(personalPhoto);
+                            changeOwnership(photoOwner, destination);
+                            destinationRepository.update(destination);
+                            return created(Json.toJson(destination.getPhotoGallery()));
+                        }
 
-                    return forbidden(ApiError.forbidden());
-                }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+                        return forbidden(ApiError.forbidden());
+                    }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+        }, executionContext);
     }
 
 
@@ -655,46 +636,48 @@ public class PhotoController extends Controller {
      *                          ok() (Http 200) if the destination photo was removed from the
      *                          destinations photo gallery.
      */
-    public Result removeDestinationPhoto(Http.Request request, Long destinationId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
+    public CompletionStage<Result> removeDestinationPhoto(Http.Request request, Long destinationId) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
 
-                    JsonNode json = request.body().asJson();
+                        JsonNode json = request.body().asJson();
 
-                    if (!(json.has(PHOTO_ID))) {
-                        return badRequest(ApiError.invalidJson());
-                    }
+                        if (!(json.has(PHOTO_ID))) {
+                            return badRequest(ApiError.invalidJson());
+                        }
 
-                    Long personalPhotoId = json.get(PHOTO_ID).asLong();
+                        Long personalPhotoId = json.get(PHOTO_ID).asLong();
 
-                    PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
+                        PersonalPhoto personalPhoto = personalPhotoRepository.findById(personalPhotoId);
 
-                    if (personalPhoto == null) {
-                        return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
-                    }
+                        if (personalPhoto == null) {
+                            return notFound(ApiError.notFound(Errors.PHOTO_NOT_FOUND));
+                        }
 
-                    Profile photoOwner = personalPhoto.getProfile();
+                        Profile photoOwner = personalPhoto.getProfile();
 
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(userId));
+                        Principal loggedInUser = principalCache.get(Long.valueOf(userId));
 
-                    if (loggedInUser == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
+                        if (loggedInUser == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
 
-                    if(AuthenticationUtil.validUser(loggedInUser, photoOwner)) {
-                        Destination destination = destinationRepository.findById(destinationId);
-                        if (destination != null) {
-                            destination.removePhotoFromGallery(personalPhoto);
-                            destinationRepository.update(destination);
-                            return ok(Json.toJson(destination.getPhotoGallery()));
-                        } else {
-                            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+                        if(AuthenticationUtil.validUser(loggedInUser, photoOwner)) {
+                            Destination destination = destinationRepository.findById(destinationId);
+                            if (destination != null) {
+                                destination.removePhotoFromGallery(personalPhoto);
+                                destinationRepository.update(destination);
+                                return ok(Json.toJson(destination.getPhotoGallery()));
+                            } else {
+                                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+                            }
                         }
-                    }
 
-                    return forbidden(ApiError.forbidden());
-                }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+                        return forbidden(ApiError.forbidden());
+                    }).orElseGet(() -> unauthorized(ApiError.unauthorized()));
+        }, executionContext);
     }
 
 }
@@ -0,0 +1,177 @@
+package controllers.photos;
+
+import akka.util.ByteString;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+import static util.TextUtil.toHex;
+
+/**
+ * An uploaded photo as it is streamed into a staging file by the PhotoBodyParser. Each chunk of the upload is checked
+ * as it arrives, so an upload that is too large or is not an image is rejected before the rest of it is written.
+ *
+ * Chunks of a single upload are accepted one at a time, and the result is only read after the upload has finished.
+ */
+public class StagedPhoto {
+
+    private static final String JPEG = "image/jpeg";
+    private static final String PNG = "image/png";
+    private static final byte[] JPEG_MAGIC = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_MAGIC = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final int HEADER_LENGTH = PNG_MAGIC.length;
+
+    private final Path path;
+    private final MessageDigest digest;
+    private final long maxSize;
+    private final byte[] header = new byte[HEADER_LENGTH];
+
+    private long size;
+    private int headerLength;
+    private String contentType;
+    private String contentHash;
+    private boolean tooLarge;
+    private boolean invalidType;
+
+
+    public StagedPhoto(Path path, MessageDigest digest, long maxSize) {
+        this.path = path;
+        this.digest = digest;
+        this.maxSize = maxSize;
+    }
+
+
+    /**
+     * Checks the next chunk of the upload, and adds it to the content hash.
+     *
+     * @param bytes the next chunk of the upload.
+     * @return      true if the chunk should be written to the staging file, false if the upload has been rejected.
+     */
+    public boolean accept(ByteString bytes) {
+        if (isRejected()) {
+            return false;
+        }
+
+        size += bytes.size();
+        if (size >= maxSize) {
+            tooLarge = true;
+            return false;
+        }
+
+        if (contentType == null) {
+            sniff(bytes);
+            if (invalidType) {
+                return false;
+            }
+        }
+
+        for (ByteBuffer buffer : bytes.getByteBuffers()) {
+            digest.update(buffer);
+        }
+        return true;
+    }
+
+
+    /**
+     * Collects the first bytes of the upload, and determines its content type from them once enough have arrived.
+     *
+     * @param bytes the next chunk of the upload.
+     */
+    private void sniff(ByteString bytes) {
+        int count = Math.min(bytes.size(), HEADER_LENGTH - headerLength);
+        bytes.slice(0, count).asByteBuffer().get(header, headerLength, count);
+        headerLength += count;
+
+        if (startsWith(JPEG_MAGIC)) {
+            contentType = JPEG;
+        } else if (startsWith(PNG_MAGIC)) {
+            contentType = PNG;
+        } else if (headerLength == HEADER_LENGTH || !couldStartWith(JPEG_MAGIC) && !couldStartWith(PNG_MAGIC)) {
+            invalidType = true;
+        }
+    }
+
+
+    /**
+     * Checks whether the collected header starts with all of the given magic bytes.
+     *
+     * @param magic the magic bytes of an image format.
+     * @return      true if the header starts with the magic bytes.
+     */
+    private boolean startsWith(byte[] magic) {
+        return headerLength >= magic.length && Arrays.equals(Arrays.copyOf(header, magic.length), magic);
+    }
+
+
+    /**
+     * Checks whether the collected header is a prefix of the given magic bytes, so may still turn out to match them.
+     *
+     * @param magic the magic bytes of an image format.
+     * @return      true if the header collected so far matches the start of the magic bytes.
+     */
+    private boolean couldStartWith(byte[] magic) {
+        int length = Math.min(headerLength, magic.length);
+        return Arrays.equals(Arrays.copyOf(header, length), Arrays.copyOf(magic, length));
+    }
+
+
+    /**
+     * Marks the upload as finished, rejecting it if it ended before it could be identified as an image, and otherwise
+     * completing its content hash.
+     */
+    public void finish() {
+        if (contentType == null && !tooLarge) {
+            invalidType = true;
+        }
+        if (!isRejected()) {
+            contentHash = toHex(digest.digest());
+        }
+    }
+
+
+    public Path getPath() {
+        return path;
+    }
+
+
+    public long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Gets the content type of the upload, determined from its content rather than the type given by the client.
+     *
+     * @return the content type, or null if the upload is not a supported image.
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+
+    /**
+     * Gets the hex encoded SHA-256 hash of the upload.
+     *
+     * @return the content hash of the upload, or null if the upload has not finished or was rejected.
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
+
+    public boolean isTooLarge() {
+        return tooLarge;
+    }
+
+
+    public boolean isInvalidType() {
+        return invalidType;
+    }
+
+
+    public boolean isRejected() {
+        return tooLarge || invalidType;
+    }
+}
@@ -11,6 +11,7 @@ import models.points.AchievementTracker;
 import models.points.Action;
 import models.points.Badge;
 import models.points.PointReward;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.quests.Quest;
 import models.util.ApiError;
@@ -20,15 +21,19 @@ import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import repositories.hints.HintRepository;
-import repositories.points.BadgeRepository;
-import repositories.points.PointRewardRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
 import util.AuthenticationUtil;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 
 import java.util.*;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class AchievementTrackerController extends Controller {
     private static final String USER_POINTS = "userPoints";
@@ -43,32 +48,37 @@ public class AchievementTrackerController extends Controller {
     private static final String ENTIRE_DATE_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
     private static final String DATE_FORMAT = "yyyy-MM-dd";
 
+    // Badges are only listed to logged in users, so every use of a cached copy is revalidated with the server.
+    private static final String PRIVATE_NO_CACHE = "private, no-cache";
+
     private static final int SINGLE_COUNTRY = 1;
     private static final int INCREMENT_ONE = 1;
     private static final int ADVENTURER_THRESHOLD = 10;
-    private static final int RADIUS_OF_THE_EARTH = 6371;
     private static final int SECONDS_IN_MINUTES = 60;
     private static final int MILLISECONDS_IN_SECONDS = 1000;
 
 
     private ProfileRepository profileRepository;
-    private PointRewardRepository pointRewardRepository;
-    private BadgeRepository badgeRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
     private HintRepository hintRepository;
     private ObjectMapper objectMapper;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
 
     @Inject
     public AchievementTrackerController(ProfileRepository profileRepository,
-                                        PointRewardRepository pointRewardRepository,
-                                        BadgeRepository badgeRepository,
+                                        ReferenceDataCatalog referenceDataCatalog,
                                         HintRepository hintRepository,
-                                        ObjectMapper objectMapper) {
+                                        ObjectMapper objectMapper,
+                                        PrincipalCache principalCache,
+                                        DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
-        this.pointRewardRepository = pointRewardRepository;
-        this.badgeRepository = badgeRepository;
+        this.referenceDataCatalog = referenceDataCatalog;
         this.hintRepository = hintRepository;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -87,7 +97,7 @@ public class AchievementTrackerController extends Controller {
         }
 
         AchievementTracker achievementTracker = actingProfile.getAchievementTracker();  // Get the tracker for the user.
-        PointReward reward = pointRewardRepository.findUsing(action);    // Get the reward to add.
+        PointReward reward = referenceDataCatalog.getPointReward(action);    // Get the reward to add.
 
         if (reward != null) {
             int pointsValue = reward.getValue();
@@ -114,7 +124,7 @@ public class AchievementTrackerController extends Controller {
 
         AchievementTracker achievementTracker = actingProfile.getAchievementTracker();  // Get the tracker for the user.
 
-        Badge badge = badgeRepository.findUsing(action);
+        Badge badge = referenceDataCatalog.getBadge(action);
 
         if (badge != null) {
             achievementTracker.addBadgeProgress(badge, progress);
@@ -310,7 +320,7 @@ public class AchievementTrackerController extends Controller {
             // Calculate the distance of the completed quest and add the progress to the relevant badge.
             badgesAchieved.add(progressBadge(actingProfile,
                     Action.DISTANCE_QUEST_COMPLETED,
-                    calculateTotalQuestDistance(questWorkedOn)));
+                    questWorkedOn.getTotalDistanceMeters()));
 
             // Check if the quest is international.
             if (questWorkedOn.getObjectiveCountries().size() > SINGLE_COUNTRY) {
@@ -319,7 +329,7 @@ public class AchievementTrackerController extends Controller {
             }
 
             // Check if quest contains enough objectives to be an adventurer.
-            if (questWorkedOn.getObjectives().size() >= ADVENTURER_THRESHOLD) {
+            if (questWorkedOn.getObjectiveCount() >= ADVENTURER_THRESHOLD) {
                 badgesAchieved.add(progressBadge(actingProfile,
                         Action.LARGE_QUEST_COMPLETED, INCREMENT_ONE));
             }
@@ -383,42 +393,47 @@ public class AchievementTrackerController extends Controller {
      *                      notFound() (Http 404) if the requested user is not found.
      *
      */
-    public Result fetchPoints(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchPoints(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile requestedUser = profileRepository.findById(userId);
+            Profile requestedUser = profileRepository.findById(userId);
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        AchievementTracker tracker = requestedUser.getAchievementTracker();
+            AchievementTracker tracker = requestedUser.getAchievementTracker();
 
-        ObjectNode pointsJson = objectMapper.createObjectNode();
-        pointsJson.put(USER_POINTS, tracker.getPoints());
+            ObjectNode pointsJson = objectMapper.createObjectNode();
+            pointsJson.put(USER_POINTS, tracker.getPoints());
 
-        return ok(pointsJson);
+            return ok(pointsJson);
+        }, executionContext);
     }
 
 
     /**
-     * Requests all badges that are currently stored in the database. This is the badges themselves, not a user's
-     * progress towards a badge.
+     * Requests all badges, as rendered by the reference data catalog when it was loaded. This is the badges
+     * themselves, not a user's progress towards a badge.
      *
      * @param request   the Http request containing the relevant authentication parameters.
      * @return          ok() (Http 200) containing a Json list of all the badges.
+     *                  notModified() (Http 304) if the client's cached copy is current.
      *                  unauthorized() (Http 401) if the user is not logged in.
      */
-    public Result fetchAllBadges(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchAllBadges(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        return ok(Json.toJson(badgeRepository.findAll()));
+            return referenceDataCatalog.getBadgesJson().serve(request, PRIVATE_NO_CACHE);
+        }, executionContext);
     }
 
 
@@ -440,52 +455,6 @@ public class AchievementTrackerController extends Controller {
     }
 
 
-    /**
-     * Calculates the total distance between each objective for a given Quest.
-     *
-     * @param quest           the Quest to calculate the distance of.
-     * @return                an int containing the total distance in meters between each objective in the quest.
-     */
-    private int calculateTotalQuestDistance(Quest quest) {
-        double totalDistance = 0;
-
-        List<Objective> questObjectives = quest.getObjectives();
-        // Calculate the total distance between each objective in the quest.
-        for (int i = 1; i < questObjectives.size(); i++) {
-            totalDistance +=
-                    calculateDistance(questObjectives.get(i-1).getDestination().getLatitude(),
-                            questObjectives.get(i).getDestination().getLatitude(),
-                            questObjectives.get(i-1).getDestination().getLongitude(),
-                            questObjectives.get(i).getDestination().getLongitude());
-        }
-        return (int) Math.ceil(totalDistance);
-    }
-
-
-    /**
-     * Calculates the distance between two destinations locations represented by latitude and longitude values.
-     * This is used to determine the quest's total distance, so the user can obtain the Wayfarer badge.
-     *
-     * @param latitude1     the first destination's latitude value.
-     * @param latitude2     the second destination's latitude value.
-     * @param longitude1    the first destination's longitude value.
-     * @param longitude2    the second destination's longitude value.
-     * @return              a double containing the distance between the two points.
-     */
-    private double calculateDistance(double latitude1, double latitude2, double longitude1, double longitude2) {
-        double latitudeDistance = Math.toRadians(latitude2 - latitude1);
-        double longitudeDistance = Math.toRadians(longitude2 - longitude1);
-        double squareHalfCordLength = Math.sin(latitudeDistance / 2) * Math.sin(latitudeDistance / 2)
-                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
-                * Math.sin(longitudeDistance / 2) * Math.sin(longitudeDistance / 2);
-        double angularDistance = 2 * Math.atan2(Math.sqrt(squareHalfCordLength), Math.sqrt(1 - squareHalfCordLength));
-        double distance = RADIUS_OF_THE_EARTH * angularDistance * 1000; // convert to meters
-        distance = Math.pow(distance, 2);
-
-        return Math.sqrt(distance);
-    }
-
-
     /**
      * Function called from the routes to update the currently logged in session's users streak.
      *
@@ -494,38 +463,40 @@ public class AchievementTrackerController extends Controller {
      *                      badRequest if the request has invalid json.
      *                      unauthorized if there is no user in the database for the given session.
      */
-    public Result updateLastSeen(Http.Request request) {
-
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-
-        if (loggedInUser != null) {
-            // User is logged in and attempts to get their client timezone data
-            JsonNode lastSeenJson = request.body().asJson();
+    public CompletionStage<Result> updateLastSeen(Http.Request request) {
+        return supplyAsync(() -> {
+            // The streak is stored against the profile, so it is loaded in full rather than using the cached principal
+            Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+
+            if (loggedInUser != null) {
+                // User is logged in and attempts to get their client timezone data
+                JsonNode lastSeenJson = request.body().asJson();
+
+                // Check if a body was given and has required fields
+                if (lastSeenJson == null ||
+                        (!lastSeenJson.has(CLIENT_DATE_FIELD) ||
+                                (!lastSeenJson.has(CLIENT_DATE_OFFSET)))) {
+                    // If JSON Object contains no time or time offset key, return bad request
+                    // Prevents null pointer exceptions when trying to get the values below.
+                    return badRequest(ApiError.invalidJson());
+                } else {
+                    String clientDate = lastSeenJson.get(CLIENT_DATE_FIELD).asText();
+                    Long dateOffset = lastSeenJson.get(CLIENT_DATE_OFFSET).asLong();
 
-            // Check if a body was given and has required fields
-            if (lastSeenJson == null ||
-                    (!lastSeenJson.has(CLIENT_DATE_FIELD) ||
-                            (!lastSeenJson.has(CLIENT_DATE_OFFSET)))) {
-                // If JSON Object contains no time or time offset key, return bad request
-                // Prevents null pointer exceptions when trying to get the values below.
-                return badRequest(ApiError.invalidJson());
-            } else {
-                String clientDate = lastSeenJson.get(CLIENT_DATE_FIELD).asText();
-                Long dateOffset = lastSeenJson.get(CLIENT_DATE_OFFSET).asLong();
+                    JsonNode responseJson = checkStreakIncrement(loggedInUser, clientDate, dateOffset);
 
-                JsonNode responseJson = checkStreakIncrement(loggedInUser, clientDate, dateOffset);
+                    if (responseJson != null) {
+                        return ok(responseJson);
+                    } else {
+                        return badRequest(ApiError.invalidJson());
+                    }
 
-                if (responseJson != null) {
-                    return ok(responseJson);
-                } else {
-                    return badRequest(ApiError.invalidJson());
                 }
-
+            } else {
+                return unauthorized(ApiError.unauthorized());
             }
-        } else {
-            return unauthorized(ApiError.unauthorized());
-        }
 
+        }, executionContext);
     }
 
 
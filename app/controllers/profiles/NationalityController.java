@@ -1,37 +1,40 @@
 package controllers.profiles;
 
-import io.ebean.ExpressionList;
-import models.profiles.Nationality;
-import play.libs.Json;
 import play.mvc.Controller;
+import play.mvc.Http;
 import play.mvc.Result;
-import repositories.profiles.NationalityRepository;
+import services.reference.ReferenceDataCatalog;
 
 import com.google.inject.Inject;
 
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
 /**
  * Controller to handle CRUD of nationalities,
  * As nationalities is primarily a reference table (static),
  * These actions should only be performed by an admin.
  */
 public class NationalityController extends Controller {
-    private static final String NATIONALITY_VALUE = "nationality";
+    private static final String NO_CACHE = "no-cache";
 
-    private NationalityRepository nationalityRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
 
     @Inject
-    public NationalityController(NationalityRepository nationalityRepository) {
-        this.nationalityRepository = nationalityRepository;
+    public NationalityController(ReferenceDataCatalog referenceDataCatalog) {
+        this.referenceDataCatalog = referenceDataCatalog;
     }
 
     /**
-     * Pulls a list of Nationalities from the database and returns it as a Json list.
+     * Returns the list of Nationalities held by the reference data catalog as Json, ordered by nationality. The Json
+     * is rendered when the catalog is loaded, and clients revalidate their cached copy with its ETag.
      *
-     * @return ok() (Http 200) with the result as a Json body.
+     * @param request   Http request from the client.
+     * @return          ok() (Http 200) with the result as a Json body.
+     *                  notModified() (Http 304) if the client's cached copy is current.
      */
-    public Result list() {
-        ExpressionList<Nationality> expressionList = nationalityRepository.getExpressionList();
-        return ok(Json.toJson(expressionList.where().orderBy().asc(NATIONALITY_VALUE).findList()));
+    public CompletionStage<Result> list(Http.Request request) {
+        return completedFuture(referenceDataCatalog.getNationalitiesJson().serve(request, NO_CACHE));
     }
 }
-
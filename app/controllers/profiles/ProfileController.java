@@ -2,9 +2,12 @@ package controllers.profiles;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import io.ebean.ExpressionList;
+import models.photos.PersonalPhoto;
+import models.photos.Photo;
 import models.points.AchievementTracker;
 import models.profiles.Nationality;
 import models.profiles.Passport;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.profiles.TravellerType;
 import models.util.ApiError;
@@ -14,25 +17,39 @@ import play.mvc.Result;
 import play.libs.Json;
 
 import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.function.Consumer;
 
 import com.google.inject.Inject;
 import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletionStage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import repositories.points.AchievementTrackerRepository;
-import repositories.profiles.NationalityRepository;
-import repositories.profiles.PassportRepository;
 import repositories.profiles.ProfileRepository;
-import repositories.destinations.TravellerTypeRepository;
+import repositories.DatabaseExecutionContext;
+import services.photos.PhotoStorageService;
+import services.points.LeaderboardService;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
+import services.search.SearchCountCache;
+import services.search.SearchIndexService;
 import util.AuthenticationUtil;
+import util.KeysetPage;
+import util.PageCursor;
 
 import static play.mvc.Results.*;
 import static util.QueryUtil.queryComparator;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 
 /**
@@ -60,6 +77,10 @@ public class ProfileController {
     private static final String POINTS = "points";
     private static final String PAGE = "page";
     private static final String PAGE_SIZE = "pageSize";
+    private static final String CURSOR = "cursor";
+    private static final String WITH_TOTAL = "withTotal";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String TODAY = "today";
     private static final int MAX_PAGE_SIZE = 100;
     private static final String SORT_BY = "sortBy";
     private static final String SORT_ORDER = "sortOrder";
@@ -71,24 +92,35 @@ public class ProfileController {
     private static final long AGE_SEARCH_OFFSET = 1;
     private static final long DEFAULT_ADMIN_ID = 1;
     private static final String ID = "id";
+    private static final List<String> SEARCH_FIELDS = Collections.unmodifiableList(Arrays.asList(NAME, GENDER,
+            MIN_AGE, MAX_AGE, NATIONALITY, TRAVELLER_TYPE, MIN_POINTS, MAX_POINTS, RANK));
 
     private ProfileRepository profileRepository;
-    private NationalityRepository nationalityRepository;
-    private PassportRepository passportRepository;
-    private TravellerTypeRepository travellerTypeRepository;
-    private AchievementTrackerRepository achievementTrackerRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
+    private LeaderboardService leaderboardService;
+    private PhotoStorageService photoStorageService;
+    private SearchIndexService searchIndexService;
+    private SearchCountCache searchCountCache;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     @Inject
     public ProfileController(ProfileRepository profileRepository,
-                             NationalityRepository nationalityRepository,
-                             PassportRepository passportRepository,
-                             TravellerTypeRepository travellerTypeRepository,
-                             AchievementTrackerRepository achievementTrackerRepository) {
+                             ReferenceDataCatalog referenceDataCatalog,
+                             LeaderboardService leaderboardService,
+                             PhotoStorageService photoStorageService,
+                             SearchIndexService searchIndexService,
+                             SearchCountCache searchCountCache,
+                             PrincipalCache principalCache,
+                             DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
-        this.passportRepository = passportRepository;
-        this.nationalityRepository = nationalityRepository;
-        this.travellerTypeRepository = travellerTypeRepository;
-        this.achievementTrackerRepository = achievementTrackerRepository;
+        this.referenceDataCatalog = referenceDataCatalog;
+        this.leaderboardService = leaderboardService;
+        this.photoStorageService = photoStorageService;
+        this.searchIndexService = searchIndexService;
+        this.searchCountCache = searchCountCache;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -103,78 +135,96 @@ public class ProfileController {
      *                      badRequest() (Http 400) response if the username already exists or if there are Json errors.
      *                      internalServerError() (Http 500) response if the AuthenticationUtil can't hash the password.
      */
-    public Result create(Http.Request request) {
+    public CompletionStage<Result> create(Http.Request request) {
+        // The body is validated and the password hashed before handing off, so that neither holds a database thread
+        JsonNode json = request.body().asJson();
+        Result checkJson = validateProfileJson(json);
+        String hashedPassword = checkJson == null ? hashPassword(json) : null;
 
-        Profile userProfile = AuthenticationUtil.validateAuthentication(profileRepository, request);
+        return supplyAsync(() -> {
+            Profile userProfile = AuthenticationUtil.validateAuthentication(profileRepository, request);
 
-        // If the user is not logged in, then they are unauthorized so can create a profile.
-        // If they are logged in, they must be an admin.
-        if (userProfile != null && !userProfile.isAdmin()) {
-            return forbidden(ApiError.forbidden());
-        }
+            // If the user is not logged in, then they are unauthorized so can create a profile.
+            // If they are logged in, they must be an admin.
+            if (userProfile != null && !userProfile.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        JsonNode json = request.body().asJson();
+            if (checkJson != null) {
+                return checkJson;
+            }
 
-        Result checkJson = validateProfileJson(json);
+            if (profileExists(json.get(USERNAME).asText())) {
+                return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
+            }
 
-        if (checkJson != null) {
-            return checkJson;
-        }
+            Profile newUser = new Profile();
+            AchievementTracker achievementTracker = new AchievementTracker();
 
-        if (profileExists(json.get(USERNAME).asText())) {
-            return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
-        }
+            if (hashedPassword == null) {
+                return internalServerError(ApiError.badRequest(Errors.HASH_FAIL));
+            }
+            newUser.setPassword(hashedPassword);
 
-        Profile newUser = new Profile();
-        AchievementTracker achievementTracker = new AchievementTracker();
+            newUser.setUsername(json.get(USERNAME).asText());
+            newUser.setFirstName(json.get(FIRST_NAME).asText());
+            newUser.setMiddleName(json.get(MIDDLE_NAME).asText());
+            newUser.setLastName(json.get(LAST_NAME).asText());
+            newUser.setGender(json.get(GENDER).asText());
+            newUser.setDateOfBirth(LocalDate.parse(json.get(DATE_OF_BIRTH).asText()));
+            newUser.setDateOfCreation(new Date());
+            newUser.setAdmin(false);
+            newUser.setAchievementTracker(achievementTracker);
 
-        // Uses the hashProfilePassword() method to hash the given password.
-        try {
-            newUser.setPassword(AuthenticationUtil.hashProfilePassword(json.get(PASS_FIELD).asText()));
-        } catch (NoSuchAlgorithmException e) {
-            log.error(Errors.HASH_FAIL.toString(), e);
-            return internalServerError(ApiError.badRequest(Errors.HASH_FAIL));
-        }
+            profileRepository.save(newUser);
 
-        newUser.setUsername(json.get(USERNAME).asText());
-        newUser.setFirstName(json.get(FIRST_NAME).asText());
-        newUser.setMiddleName(json.get(MIDDLE_NAME).asText());
-        newUser.setLastName(json.get(LAST_NAME).asText());
-        newUser.setGender(json.get(GENDER).asText());
-        newUser.setDateOfBirth(LocalDate.parse(json.get(DATE_OF_BIRTH).asText()));
-        newUser.setDateOfCreation(new Date());
-        newUser.setAdmin(false);
-        newUser.setAchievementTracker(achievementTracker);
+            addReferenceData(newUser, json);
 
-        profileRepository.save(newUser);
+            profileRepository.save(newUser);
 
+            // Check if a logged in admin is making a profile, or if a new user is signing up for the first time.
+            return (userProfile != null && userProfile.isAdmin())
+                    ? created("")
+                    : created().addingToSession(request, AUTHORIZED, newUser.id.toString());
+        }, executionContext);
+    }
+
+
+    /**
+     * Adds the nationalities, passports and traveller types given by id in the Json body to the given profile. Ids not
+     * found in the reference data catalog are ignored. As the profile's relationships cascade, references are added
+     * rather than the catalog's shared entities, so saving the profile never writes to the reference data.
+     *
+     * @param profile   the profile to add the reference data to.
+     * @param json      the Json body containing the lists of nationality, passport and traveller type ids.
+     */
+    private void addReferenceData(Profile profile, JsonNode json) {
         Consumer<JsonNode> nationalityAction = (JsonNode node) -> {
-            Nationality newNat = nationalityRepository.findById(node.get(ID).asLong());
-            newUser.addNationality(newNat);
+            Long id = node.get(ID).asLong();
+            if (referenceDataCatalog.getNationality(id) != null) {
+                profile.addNationality(profileRepository.getReference(Nationality.class, id));
+            }
         };
 
         json.get(NATIONALITY).forEach(nationalityAction);
 
         Consumer<JsonNode> passportAction = (JsonNode node) -> {
-            Passport newPass = passportRepository.findById(node.get(ID).asLong());
-            newUser.addPassport(newPass);
+            Long id = node.get(ID).asLong();
+            if (referenceDataCatalog.getPassport(id) != null) {
+                profile.addPassport(profileRepository.getReference(Passport.class, id));
+            }
         };
 
         json.get(PASSPORT).forEach(passportAction);
 
         Consumer<JsonNode> travTypeAction = (JsonNode node) -> {
-            TravellerType travType = travellerTypeRepository.findById(node.get(ID).asLong());
-            newUser.addTravType(travType);
+            Long id = node.get(ID).asLong();
+            if (referenceDataCatalog.getTravellerType(id) != null) {
+                profile.addTravType(profileRepository.getReference(TravellerType.class, id));
+            }
         };
 
         json.get(TRAVELLER_TYPE).forEach(travTypeAction);
-
-        profileRepository.save(newUser);
-
-        // Check if a logged in admin is making a profile, or if a new user is signing up for the first time.
-        return (userProfile != null && userProfile.isAdmin())
-                ? created("")
-                : created().addingToSession(request, AUTHORIZED, newUser.id.toString());
     }
 
 
@@ -191,7 +241,13 @@ public class ProfileController {
         String middleName = json.get(MIDDLE_NAME).asText();
         String lastName = json.get(LAST_NAME).asText();
         String gender = json.get(GENDER).asText();
-        LocalDate dateOfBirth = LocalDate.parse(json.get(DATE_OF_BIRTH).asText());
+
+        LocalDate dateOfBirth;
+        try {
+            dateOfBirth = LocalDate.parse(json.get(DATE_OF_BIRTH).asText());
+        } catch (DateTimeParseException e) {
+            return "Date of birth must be a valid date";
+        }
 
         if (validateUsername(username) != null) {
             return validateUsername(username);
@@ -331,37 +387,39 @@ public class ProfileController {
      *                      notFound() (Http 404) response if the user editing their username does not exist.
      *                      badRequest() (Http 400) response if a duplicate of the username is found in the database.
      */
-    public Result checkUsername(Http.Request request) {
+    public CompletionStage<Result> checkUsername(Http.Request request) {
         JsonNode json = request.body().asJson();
-        if (!json.has(USERNAME)) {
-            return badRequest(ApiError.invalidJson());
+        if (json == null || !json.has(USERNAME)) {
+            return completedFuture(badRequest(ApiError.invalidJson()));
         }
-
         String username = json.get(USERNAME).asText();
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
-                    // User is logged in, used for editing
-                    Profile userProfile = profileRepository.findById(Long.valueOf(userId));
-
-                    if (userProfile == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
-
-                    if (!profileExists(username) || userProfile.getUsername().equals(username)) {
-                        return ok(Json.toJson(USERNAME_OK)); // If they are checking their own username, return ok()
-                    } else {
-                        return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
-                    }
-                })
-                .orElseGet(() -> {
-                    //User is not logged in, used for sign-up.
-                    if (!profileExists(username)) {
-                        return ok(Json.toJson(USERNAME_OK));
-                    } else {
-                        return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
-                    }
-                }); // User is not logged in
+
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
+                        // User is logged in, used for editing
+                        Principal userProfile = principalCache.get(Long.valueOf(userId));
+
+                        if (userProfile == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
+
+                        if (!profileExists(username) || userProfile.getUsername().equals(username)) {
+                            return ok(Json.toJson(USERNAME_OK)); // If they are checking their own username, return ok()
+                        } else {
+                            return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
+                        }
+                    })
+                    .orElseGet(() -> {
+                        //User is not logged in, used for sign-up.
+                        if (!profileExists(username)) {
+                            return ok(Json.toJson(USERNAME_OK));
+                        } else {
+                            return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
+                        }
+                    }); // User is not logged in
+        }, executionContext);
     }
 
 
@@ -374,15 +432,39 @@ public class ProfileController {
      * @return             ok() (Http 200) response containing the Json of the profile if successfully retrieved.
      *                     unauthorized() (Http 401) response if the user is not logged in when attempting retrieval.
      */
-    public Result fetch(Http.Request request) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
-                    // User is logged in
-                    Profile userProfile = profileRepository.findById(Long.valueOf(userId));
-                    return ok(Json.toJson(userProfile));
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+    public CompletionStage<Result> fetch(Http.Request request) {
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
+                        // User is logged in
+                        Profile userProfile = profileRepository.findById(Long.valueOf(userId));
+                        return ok(Json.toJson(userProfile));
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext);
+    }
+
+
+    /**
+     * Deletes the given profile along with its photo gallery, releasing the stored photos the gallery used.
+     *
+     * @param profileToDelete   the profile to be deleted.
+     */
+    private void deleteProfile(Profile profileToDelete) {
+        List<Photo> photos = new ArrayList<>();
+        if (profileToDelete.getPhotoGallery() != null) {
+            for (PersonalPhoto personalPhoto : profileToDelete.getPhotoGallery()) {
+                photos.add(personalPhoto.getPhoto());
+            }
+        }
+
+        photoStorageService.detachUploader(profileToDelete);
+        profileRepository.delete(profileToDelete);
+        principalCache.invalidate(profileToDelete.getId());
+        for (Photo photo : photos) {
+            photoStorageService.release(photo);
+        }
     }
 
 
@@ -398,35 +480,37 @@ public class ProfileController {
      *                      badRequest() (Http 400) response if the global admin is the deletion target.
      *                      unauthorized() (Http 401) response if the user attempting deletion isn't logged in.
      */
-    public Result delete(Http.Request request, Long id) {
-        if (id == DEFAULT_ADMIN_ID) {
-            return badRequest(ApiError.badRequest(Errors.DELETING_DEFAULT_ADMIN));
-        }
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
-                    // User is logged in
-                    Profile userProfile = profileRepository.findById(Long.valueOf(userId));
-                    Profile profileToDelete = profileRepository.findById(id);
-
-                    if (userProfile == null || profileToDelete == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
-
-                    if (!id.equals(Long.valueOf(userId))) { // Current user is trying to delete another user
-                        // If user is admin, they can delete other profiles
-                        if (userProfile.isAdmin()) {
-                            profileRepository.delete(profileToDelete);
-                            return ok(Json.toJson("Profile Successfully Deleted"));
+    public CompletionStage<Result> delete(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            if (id == DEFAULT_ADMIN_ID) {
+                return badRequest(ApiError.badRequest(Errors.DELETING_DEFAULT_ADMIN));
+            }
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
+                        // User is logged in
+                        Principal userProfile = principalCache.get(Long.valueOf(userId));
+                        Profile profileToDelete = profileRepository.findById(id);
+
+                        if (userProfile == null || profileToDelete == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+                        }
+
+                        if (!id.equals(Long.valueOf(userId))) { // Current user is trying to delete another user
+                            // If user is admin, they can delete other profiles
+                            if (userProfile.isAdmin()) {
+                                deleteProfile(profileToDelete);
+                                return ok(Json.toJson("Profile Successfully Deleted"));
+                            }
+                            return forbidden(ApiError.forbidden());
                         }
-                        return forbidden(ApiError.forbidden());
-                    }
-
-                    // User is deleting their own profile
-                    profileRepository.delete(profileToDelete);
-                    return ok(Json.toJson("Profile Successfully Deleted")).withNewSession();
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+
+                        // User is deleting their own profile
+                        deleteProfile(profileToDelete);
+                        return ok(Json.toJson("Profile Successfully Deleted")).withNewSession();
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext);
     }
 
 
@@ -469,6 +553,23 @@ public class ProfileController {
     }
 
 
+    /**
+     * Hashes the password in a profile's Json body, before the request is handed to the database execution context.
+     *
+     * @param json  the validated Json body of the profile.
+     * @return      the hashed password, or null if it could not be hashed.
+     */
+    private String hashPassword(JsonNode json) {
+        // Uses the hashProfilePassword() method to hash the given password.
+        try {
+            return AuthenticationUtil.hashProfilePassword(json.get(PASS_FIELD).asText());
+        } catch (NoSuchAlgorithmException e) {
+            log.error(Errors.HASH_FAIL.toString(), e);
+            return null;
+        }
+    }
+
+
     /**
      * Takes a Http request containing a Json body and finds a logged in user. Then uses a PUT request to update
      * the logged in user based on the Http Request body. The validation is the same as creating a new profile.
@@ -483,86 +584,69 @@ public class ProfileController {
      *                      unauthorized() (Http 401) response if the user attempting to make an edit is not logged in.
      *                      internalServerError() (Http 500) response if the AuthenticationUtil can't hash the password.
      */
-    public Result update(Http.Request request, Long editUserId) {
-        return request.session()
-                .getOptional(AUTHORIZED)
-                .map(userId -> {
-                    Profile loggedInUser = profileRepository.findById(Long.valueOf(userId));
-                    Profile profileToUpdate = profileRepository.findById(editUserId);
-
-                    if (loggedInUser == null || profileToUpdate == null) {
-                        return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-                    }
-
-                    if (!AuthenticationUtil.validUser(loggedInUser, profileToUpdate)) {
-                        return forbidden(ApiError.forbidden());
-                    }
-
-                    JsonNode json = request.body().asJson();
-
-                    Result checkJson = validateProfileJson(json);
-
-                    if (checkJson != null) {
-                        return checkJson;
-                    }
-
-                    // If the username has been changed, and the changed username exists return badRequest()
-                    if (!json.get(USERNAME).asText().equals(profileToUpdate.getUsername())
-                            && profileExists(json.get(USERNAME).asText())) {
-                        return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
-                    }
-
-                    // Only update password if user has typed a new one
-                    if (!json.get(PASS_FIELD).asText().isEmpty()) {
-                        // Uses the hashProfilePassword() method to hash the given password.
-                        try {
-                            profileToUpdate.setPassword(AuthenticationUtil.hashProfilePassword(json.get(PASS_FIELD).asText()));
-                        } catch (NoSuchAlgorithmException e) {
-                            log.error(Errors.HASH_FAIL.toString(), e);
-                            return internalServerError(ApiError.badRequest(Errors.HASH_FAIL));
+    public CompletionStage<Result> update(Http.Request request, Long editUserId) {
+        // The body is validated and any new password hashed before handing off, so neither holds a database thread
+        JsonNode json = request.body().asJson();
+        Result checkJson = validateProfileJson(json);
+        boolean passwordChanged = checkJson == null && !json.get(PASS_FIELD).asText().isEmpty();
+        String hashedPassword = passwordChanged ? hashPassword(json) : null;
+
+        return supplyAsync(() -> {
+            return request.session()
+                    .getOptional(AUTHORIZED)
+                    .map(userId -> {
+                        Principal loggedInUser = principalCache.get(Long.valueOf(userId));
+                        Profile profileToUpdate = profileRepository.findById(editUserId);
+
+                        if (loggedInUser == null || profileToUpdate == null) {
+                            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
                         }
-                    }
 
-                    profileToUpdate.setUsername(json.get(USERNAME).asText());
-                    profileToUpdate.setFirstName(json.get(FIRST_NAME).asText());
-                    profileToUpdate.setMiddleName(json.get(MIDDLE_NAME).asText());
-                    profileToUpdate.setLastName(json.get(LAST_NAME).asText());
-                    profileToUpdate.setDateOfBirth(LocalDate.parse(json.get(DATE_OF_BIRTH).asText()));
-                    profileToUpdate.setGender(json.get(GENDER).asText());
-
-                    profileToUpdate.clearNationalities();
-                    profileToUpdate.clearPassports();
-                    profileToUpdate.clearTravellerTypes();
+                        if (!AuthenticationUtil.validUser(loggedInUser, profileToUpdate)) {
+                            return forbidden(ApiError.forbidden());
+                        }
 
-                    // Save user profile to clear nationalities, travellerTypes and passports
-                    profileRepository.update(profileToUpdate);
+                        if (checkJson != null) {
+                            return checkJson;
+                        }
 
-                    Consumer<JsonNode> nationalityAction = (JsonNode node) -> {
-                        Nationality newNationality = nationalityRepository.findById(node.get(ID).asLong());
-                        profileToUpdate.addNationality(newNationality);
-                    };
+                        // If the username has been changed, and the changed username exists return badRequest()
+                        if (!json.get(USERNAME).asText().equals(profileToUpdate.getUsername())
+                                && profileExists(json.get(USERNAME).asText())) {
+                            return badRequest(ApiError.badRequest(Errors.DUPLICATE_PROFILE));
+                        }
 
-                    json.get(NATIONALITY).forEach(nationalityAction);
+                        // Only update password if user has typed a new one
+                        if (passwordChanged) {
+                            if (hashedPassword == null) {
+                                return internalServerError(ApiError.badRequest(Errors.HASH_FAIL));
+                            }
+                            profileToUpdate.setPassword(hashedPassword);
+                        }
 
-                    Consumer<JsonNode> passportAction = (JsonNode node) -> {
-                        Passport newPassport = passportRepository.findById(node.get(ID).asLong());
-                        profileToUpdate.addPassport(newPassport);
-                    };
+                        profileToUpdate.setUsername(json.get(USERNAME).asText());
+                        profileToUpdate.setFirstName(json.get(FIRST_NAME).asText());
+                        profileToUpdate.setMiddleName(json.get(MIDDLE_NAME).asText());
+                        profileToUpdate.setLastName(json.get(LAST_NAME).asText());
+                        profileToUpdate.setDateOfBirth(LocalDate.parse(json.get(DATE_OF_BIRTH).asText()));
+                        profileToUpdate.setGender(json.get(GENDER).asText());
 
-                    json.get(PASSPORT).forEach(passportAction);
+                        profileToUpdate.clearNationalities();
+                        profileToUpdate.clearPassports();
+                        profileToUpdate.clearTravellerTypes();
 
-                    Consumer<JsonNode> travTypeAction = (JsonNode node) -> {
-                        TravellerType newTravellerType = travellerTypeRepository.findById(node.get(ID).asLong());
-                        profileToUpdate.addTravType(newTravellerType);
-                    };
+                        // Save user profile to clear nationalities, travellerTypes and passports
+                        profileRepository.update(profileToUpdate);
 
-                    json.get(TRAVELLER_TYPE).forEach(travTypeAction);
+                        addReferenceData(profileToUpdate, json);
 
-                    profileRepository.update(profileToUpdate);
+                        profileRepository.update(profileToUpdate);
+                        principalCache.invalidate(profileToUpdate.getId());
 
-                    return ok(Json.toJson(profileToUpdate));
-                })
-                .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+                        return ok(Json.toJson(profileToUpdate));
+                    })
+                    .orElseGet(() -> unauthorized(ApiError.unauthorized())); // User is not logged in
+        }, executionContext);
     }
 
 
@@ -571,74 +655,147 @@ public class ProfileController {
      * If no query is specified in the Http request, it will return a list of all profiles. If a query is specified,
      * uses the searchProfiles() method to execute a search based on the search query parameters, also includes
      * pagination. This is used on the Search Profiles page.
+     * If a cursor is given, pages are found by keyset pagination instead of page number, and the cursor of the next
+     * page is returned in the X-Next-Cursor header. An empty cursor gives the first page.
+     * If withTotal is true, the total number of profiles matching the search is returned in the X-Total-Count header,
+     * saving a separate request for the total.
      *
      * @param request           an Http Request containing Json Body.
      * @return                  ok() (Http 200) response if the search is successful.
-     *                          badRequest() (Http 400) response if the query String is invalid.
+     *                          badRequest() (Http 400) response if the query String or cursor is invalid.
      *                          unauthorized() (Http 401) response if no user is logged in when making this request.
      */
-    public Result list(Http.Request request) {
-        int pageNumber = 0;
-        int pageSize = MAX_PAGE_SIZE;
+    public CompletionStage<Result> list(Http.Request request) {
+        return supplyAsync(() -> {
+            int pageNumber = 0;
+            int pageSize = MAX_PAGE_SIZE;
+
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+            List<Profile> profiles;
+            ExpressionList<Profile> expressionList = profileRepository.getExpressionList();
+
+            if (request.getQueryString(PAGE) != null && !request.getQueryString(PAGE).isEmpty()) {
+                pageNumber = Integer.parseInt(request.getQueryString(PAGE));
+            }
 
-        List<Profile> profiles;
-        ExpressionList<Profile> expressionList = profileRepository.getExpressionList();
+            if (request.getQueryString(PAGE_SIZE) != null && !request.getQueryString(PAGE_SIZE).isEmpty()) {
+                try {
+                    pageSize = Integer.parseInt(request.getQueryString(PAGE_SIZE));
+                    // Restrict the page size to be no larger than the maximum page size.
+                    pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+                } catch (NumberFormatException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+                }
+            }
 
-        if (request.getQueryString(PAGE) != null && !request.getQueryString(PAGE).isEmpty()) {
-            pageNumber = Integer.parseInt(request.getQueryString(PAGE));
-        }
+            String getError = validQueryString(request);
 
-        if (request.getQueryString(PAGE_SIZE) != null && !request.getQueryString(PAGE_SIZE).isEmpty()) {
-            try {
-                pageSize = Integer.parseInt(request.getQueryString(PAGE_SIZE));
-                // Restrict the page size to be no larger than the maximum page size.
-                pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
-            } catch (NumberFormatException e) {
-                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+            if (getError != null) {
+                return badRequest(ApiError.badRequest(getError));
             }
-        }
 
-        String getError = validQueryString(request);
+            searchProfiles(expressionList, request);
+
+            // A cursor, even an empty one for the first page, selects keyset pagination instead of page numbers
+            String cursor = request.getQueryString(CURSOR);
+            if (cursor != null) {
+                boolean sorted = request.getQueryString(SORT_BY) != null && !request.getQueryString(SORT_BY).isEmpty();
+                String sortProperty = sorted ? request.getQueryString(SORT_BY) : ACHIEVEMENT_POINTS;
+                boolean ascending = sorted && Boolean.parseBoolean(request.getQueryString(SORT_ORDER));
+                try {
+                    KeysetPage<Profile> page = KeysetPage.find(expressionList, sortProperty, ascending,
+                            cursor.isEmpty() ? null : PageCursor.decode(cursor), pageSize);
+                    return withTotal(page.withNextCursor(ok(Json.toJson(page.getList()))), request);
+                } catch (IllegalArgumentException e) {
+                    return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_CURSOR));
+                }
+            }
 
-        if (getError != null) {
-            return badRequest(ApiError.badRequest(getError));
+            if (request.getQueryString(SORT_BY) != null && request.getQueryString(SORT_BY).length() > 0
+                    && Boolean.parseBoolean(request.getQueryString(SORT_ORDER))) {
+                profiles = expressionList
+                        .where()
+                        .orderBy().asc(request.getQueryString(SORT_BY))
+                        .setFirstRow(pageNumber*pageSize)
+                        .setMaxRows(pageSize)
+                        .findPagedList()
+                        .getList();
+            } else if (request.getQueryString(SORT_BY) != null && request.getQueryString(SORT_BY).length() > 0
+                    && !Boolean.parseBoolean(request.getQueryString(SORT_ORDER))) {
+                profiles = expressionList
+                        .where()
+                        .orderBy().desc(request.getQueryString(SORT_BY))
+                        .setFirstRow(pageNumber*pageSize)
+                        .setMaxRows(pageSize)
+                        .findPagedList()
+                        .getList();
+            } else {
+                profiles = expressionList
+                        .orderBy().desc(POINTS)
+                        .setFirstRow(pageNumber*pageSize)
+                        .setMaxRows(pageSize)
+                        .findPagedList()
+                        .getList();
+            }
+
+            return withTotal(ok(Json.toJson(profiles)), request);
+        }, executionContext);
+    }
+
+
+    /**
+     * Adds the total number of profiles matching the search to a page of search results, if it was requested.
+     *
+     * @param result    the result containing the page of profiles.
+     * @param request   the Http request containing the search query string.
+     * @return          the result, with an X-Total-Count header if withTotal is true in the query string.
+     */
+    private Result withTotal(Result result, Http.Request request) {
+        if (!Boolean.parseBoolean(request.getQueryString(WITH_TOTAL))) {
+            return result;
         }
+        int total = countProfiles(profileRepository.getExpressionList(), request);
+        return result.withHeader(TOTAL_COUNT_HEADER, Integer.toString(total));
+    }
 
-        searchProfiles(expressionList, request);
-
-        if (request.getQueryString(SORT_BY) != null && request.getQueryString(SORT_BY).length() > 0
-                && Boolean.parseBoolean(request.getQueryString(SORT_ORDER))) {
-            profiles = expressionList
-                    .where()
-                    .orderBy().asc(request.getQueryString(SORT_BY))
-                    .setFirstRow(pageNumber*pageSize)
-                    .setMaxRows(pageSize)
-                    .findPagedList()
-                    .getList();
-        } else if (request.getQueryString(SORT_BY) != null && request.getQueryString(SORT_BY).length() > 0
-                && !Boolean.parseBoolean(request.getQueryString(SORT_ORDER))) {
-            profiles = expressionList
-                    .where()
-                    .orderBy().desc(request.getQueryString(SORT_BY))
-                    .setFirstRow(pageNumber*pageSize)
-                    .setMaxRows(pageSize)
-                    .findPagedList()
-                    .getList();
-        } else {
-            profiles = expressionList
-                    .orderBy().desc(POINTS)
-                    .setFirstRow(pageNumber*pageSize)
-                    .setMaxRows(pageSize)
-                    .findPagedList()
-                    .getList();
-        }
-
-        return ok(Json.toJson(profiles));
+
+    /**
+     * Counts the profiles matching a search, using the cached count if the same search has been counted since
+     * profiles were last changed.
+     *
+     * @param expressionList    an ExpressionList with no search queries yet, to count the profiles with.
+     * @param request           the Http request containing the search query string.
+     * @return                  the number of profiles matching the search.
+     */
+    private int countProfiles(ExpressionList<Profile> expressionList, Http.Request request) {
+        return searchCountCache.count(Profile.class, getSearchKey(request), () -> {
+            searchProfiles(expressionList, request);
+            return expressionList.findCount();
+        });
+    }
+
+
+    /**
+     * Creates a key for the search queries in the query string, which is the same for any two searches that find
+     * the same profiles. Paging and sorting parameters are left out, and the current date is included as the age
+     * searches depend on it.
+     *
+     * @param request   the Http request containing the search query string.
+     * @return          the normalised search queries.
+     */
+    private String getSearchKey(Http.Request request) {
+        Map<String, String> queries = new TreeMap<>();
+        for (String field : SEARCH_FIELDS) {
+            if (checkQueryFieldExists(request, field)) {
+                queries.put(field, request.getQueryString(field));
+            }
+        }
+        queries.put(TODAY, LocalDate.now().toString());
+        return Json.toJson(queries).toString();
     }
 
 
@@ -693,6 +850,10 @@ public class ProfileController {
         if (checkQueryFieldExists(request, NAME)) {
             // Uses the name part of the query to search for profiles by their first, middle or last names.
             String queryString = queryComparator(request.getQueryString(NAME));
+            Set<Long> candidates = searchIndexService.findProfilesByName(request.getQueryString(NAME));
+            if (candidates != null) {
+                expressionList.idIn(candidates);
+            }
             expressionList.disjunction()
                     .ilike(FIRST_NAME, queryString)
                     .ilike(MIDDLE_NAME, queryString)
@@ -731,7 +892,7 @@ public class ProfileController {
 
         if(request.getQueryString(RANK) != null && !request.getQueryString(RANK).isEmpty()) {
             expressionList.le(ACHIEVEMENT_POINTS,
-                    achievementTrackerRepository.getPointsFromRank(Integer.parseInt(request.getQueryString(RANK))));
+                    leaderboardService.getPointsFromRank(Integer.parseInt(request.getQueryString(RANK))));
         }
     }
 
@@ -758,23 +919,24 @@ public class ProfileController {
      *                  badRequest() (Http 400) response if the query within the request is invalid.
      *                  unauthorized() (Http 401) response if the user is not logged into the system.
      */
-    public Result getTotalNumberOfProfiles(Http.Request request) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+    public CompletionStage<Result> getTotalNumberOfProfiles(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
 
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        ExpressionList<Profile> expressionList = profileRepository.getExpressionList();
+            ExpressionList<Profile> expressionList = profileRepository.getExpressionList();
 
-        String getError = validQueryString(request);
+            String getError = validQueryString(request);
 
-        if (getError != null) {
-            return badRequest(ApiError.badRequest(getError));
-        }
+            if (getError != null) {
+                return badRequest(ApiError.badRequest(getError));
+            }
 
-        searchProfiles(expressionList, request);
-        return ok(Json.toJson(expressionList.findCount()));
+            return ok(Json.toJson(countProfiles(expressionList, request)));
+        }, executionContext);
     }
 
 
@@ -790,27 +952,30 @@ public class ProfileController {
      *                      forbidden() (Http 403) response if a non-admin user is trying to make admins.
      *                      unauthorized() (Http 401) response if the user trying to make admins isn't logged in.
      */
-    public Result makeAdmin(Http.Request request, Long id) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+    public CompletionStage<Result> makeAdmin(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
 
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        if (!loggedInUser.isAdmin()) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Profile requestedUser = profileRepository.findById(id);
+            Profile requestedUser = profileRepository.findById(id);
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        requestedUser.setAdmin(true);
-        profileRepository.update(requestedUser);
+            requestedUser.setAdmin(true);
+            profileRepository.update(requestedUser);
+            principalCache.invalidate(requestedUser.getId());
 
-        return ok(Json.toJson(requestedUser));
+            return ok(Json.toJson(requestedUser));
+        }, executionContext);
     }
 
 
@@ -825,30 +990,33 @@ public class ProfileController {
      *                      forbidden() (Http 403) response if non-admins attempt this, or the global admin's targeted.
      *                      unauthorized() (Http 401) response if the user trying to make this request is not logged in.
      */
-    public Result removeAdmin(Http.Request request, Long id) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+    public CompletionStage<Result> removeAdmin(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
 
-        if (id == DEFAULT_ADMIN_ID) {
-            return forbidden(ApiError.forbidden(Errors.REMOVE_DEFAULT_ADMIN_STATUS));
-        }
+            if (id == DEFAULT_ADMIN_ID) {
+                return forbidden(ApiError.forbidden(Errors.REMOVE_DEFAULT_ADMIN_STATUS));
+            }
 
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        if (!loggedInUser.isAdmin()) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Profile requestedUser = profileRepository.findById(id);
+            Profile requestedUser = profileRepository.findById(id);
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound());
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound());
+            }
 
-        requestedUser.setAdmin(false);
-        profileRepository.update(requestedUser);
+            requestedUser.setAdmin(false);
+            profileRepository.update(requestedUser);
+            principalCache.invalidate(requestedUser.getId());
 
-        return ok(Json.toJson(requestedUser));
+            return ok(Json.toJson(requestedUser));
+        }, executionContext);
     }
 }
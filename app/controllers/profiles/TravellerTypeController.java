@@ -1,31 +1,39 @@
 package controllers.profiles;
 
 import com.google.inject.Inject;
-import play.libs.Json;
 import play.mvc.Controller;
+import play.mvc.Http;
 import play.mvc.Result;
-import repositories.destinations.TravellerTypeRepository;
+import services.reference.ReferenceDataCatalog;
+
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
  * Controller to handle CRUD of traveller types.
  */
 public class TravellerTypeController extends Controller {
 
+    private static final String NO_CACHE = "no-cache";
 
-    private TravellerTypeRepository travellerTypeRepository;
+    private ReferenceDataCatalog referenceDataCatalog;
 
     @Inject
-    public TravellerTypeController(TravellerTypeRepository travellerTypeRepository) {
-        this.travellerTypeRepository = travellerTypeRepository;
+    public TravellerTypeController(ReferenceDataCatalog referenceDataCatalog) {
+        this.referenceDataCatalog = referenceDataCatalog;
     }
 
     /**
-     * Pulls a list of TravellerTypes from the database and returns it as a Json list.
+     * Returns the list of TravellerTypes held by the reference data catalog as Json. The Json is rendered when the
+     * catalog is loaded, and clients revalidate their cached copy with its ETag.
      *
-     * @return ok() (Http 200) with the result with a Json body.
+     * @param request   Http request from the client.
+     * @return          ok() (Http 200) with the result with a Json body.
+     *                  notModified() (Http 304) if the client's cached copy is current.
      */
-    public Result list() {
-        return ok(Json.toJson(travellerTypeRepository.findAll()));
+    public CompletionStage<Result> list(Http.Request request) {
+        return completedFuture(referenceDataCatalog.getTravellerTypesJson().serve(request, NO_CACHE));
     }
 
-}
\ No newline at end of file
+}
@@ -11,6 +11,7 @@ import io.ebean.ExpressionList;
 import models.destinations.Destination;
 import models.objectives.Objective;
 import models.points.Action;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.quests.Quest;
 import models.quests.QuestAttempt;
@@ -23,14 +24,22 @@ import repositories.destinations.DestinationRepository;
 import repositories.profiles.ProfileRepository;
 import repositories.quests.QuestAttemptRepository;
 import repositories.quests.QuestRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.search.SearchCountCache;
 import util.AuthenticationUtil;
+import util.GeoUtil;
+import util.KeysetPage;
+import util.PageCursor;
 import util.Views;
+import util.JsonUtil;
 
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 
 import static play.mvc.Results.*;
 import static util.QueryUtil.queryComparator;
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class QuestController {
 
@@ -45,10 +54,19 @@ public class QuestController {
      * it ourselves.
      */
     private ObjectMapper objectMapper;
+    private SearchCountCache searchCountCache;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
     private static final String TITLE = "title";
     private static final String OPERATOR = "operator";
     private static final String OBJECTIVE = "objective";
+    private static final String OBJECTIVE_COUNT = "objectiveCount";
+    private static final String LATITUDE = "latitude";
+    private static final String LONGITUDE = "longitude";
+    private static final double MAX_LATITUDE = 90;
+    private static final double MAX_LONGITUDE = 180;
+    private static final double METERS_PER_KILOMETER = 1000;
     private static final String FIRST_NAME = "first_name";
     private static final String FIRST_NAME_QUERY = "owner.firstName";
     private static final String LAST_NAME_QUERY = "owner.lastName";
@@ -57,9 +75,10 @@ public class QuestController {
     private static final String START_DATE = "startDate";
     private static final String END_DATE = "endDate";
     private static final String QUERY_PAGE = "page";
+    private static final String CURSOR = "cursor";
+    private static final String NEXT_CURSOR = "nextCursor";
     private static final String OWNER = "owner";
-    private static final String ATTEMPTS = "attempts";
-    private static final String COUNTRY_OCCURRENCES = "objectives.destination.country";
+    private static final String COUNTRIES = "countries";
     private static final String EQUAL_TO = "=";
     private static final String GREATER_THAN = ">";
     private static final String LESS_THAN = "<";
@@ -72,6 +91,7 @@ public class QuestController {
     private static final String QUEST_DELETED = "Quest successfully deleted";
     private static final String QUESTS = "quests";
     private static final String TOTAL_AVAILABLE = "totalAvailable";
+    private static final String AVAILABLE_TO = "availableTo=";
 
     @Inject
     public QuestController(QuestRepository questRepository,
@@ -79,13 +99,19 @@ public class QuestController {
                            ProfileRepository profileRepository,
                            DestinationRepository destinationRepository,
                            AchievementTrackerController achievementTrackerController,
-                           ObjectMapper objectMapper) {
+                           ObjectMapper objectMapper,
+                           SearchCountCache searchCountCache,
+                           PrincipalCache principalCache,
+                           DatabaseExecutionContext executionContext) {
         this.questRepository = questRepository;
         this.questAttemptRepository = questAttemptRepository;
         this.profileRepository = profileRepository;
         this.destinationRepository = destinationRepository;
         this.achievementTrackerController = achievementTrackerController;
         this.objectMapper = objectMapper;
+        this.searchCountCache = searchCountCache;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -101,59 +127,60 @@ public class QuestController {
      *                  badRequest() (Http 400) response if the request contains any errors in its form or contents.
      *                  unauthorised() (Http 401) response if creation is being attempted while logged out of the app.
      */
-    public Result create(Http.Request request, Long userId) {
-
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> create(Http.Request request, Long userId) {
+        Optional<Quest> parsedQuest = JsonUtil.readWithView(objectMapper, Views.Owner.class, Quest.class,
+                request.body().asJson());
+
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile questOwner = profileRepository.findById(userId);
+            Profile questOwner = profileRepository.findById(userId);
 
-        if (questOwner == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (questOwner == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Quest newQuest;
+            if (!parsedQuest.isPresent()) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        try {
-            newQuest = objectMapper.readerWithView(Views.Owner.class)
-                    .forType(Quest.class)
-                    .readValue(request.body().asJson());
-        } catch (IOException e) {
-            return badRequest(ApiError.invalidJson());
-        }
+            Quest newQuest = parsedQuest.get();
 
-        newQuest.setOwner(questOwner);
-        for(Objective newObjective : newQuest.getObjectives()) {
-            newObjective.setOwner(questOwner);
-        }
-        Collection<ApiError> questCreationErrors = newQuest.getErrors();
+            newQuest.setOwner(questOwner);
+            for(Objective newObjective : newQuest.getObjectives()) {
+                newObjective.setOwner(questOwner);
+            }
+            Collection<ApiError> questCreationErrors = newQuest.getErrors();
 
-        if (!questCreationErrors.isEmpty()) {
-            return badRequest(Json.toJson(questCreationErrors));
-        }
+            if (!questCreationErrors.isEmpty()) {
+                return badRequest(Json.toJson(questCreationErrors));
+            }
 
-        for(Objective objective : newQuest.getObjectives()) {
-            objective.setDestination(destinationRepository.findById(objective.getDestination().getId()));
-        }
+            for(Objective objective : newQuest.getObjectives()) {
+                objective.setDestination(destinationRepository.findById(objective.getDestination().getId()));
+            }
+            newQuest.updateRoute();
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        returnJson.set(REWARD, achievementTrackerController.rewardQuestInteraction(questOwner, newQuest,
-                Action.QUEST_CREATED));   // Points for creating quest
+            returnJson.set(REWARD, achievementTrackerController.rewardQuestInteraction(questOwner, newQuest,
+                    Action.QUEST_CREATED));   // Points for creating quest
 
-        questRepository.save(newQuest);
-        profileRepository.update(questOwner);
+            questRepository.save(newQuest);
+            profileRepository.update(questOwner);
 
-        questRepository.refresh(newQuest);
+            questRepository.refresh(newQuest);
 
-        returnJson.set(NEW_QUEST, Json.toJson(newQuest));
-        return created(returnJson);
+            returnJson.set(NEW_QUEST, Json.toJson(newQuest));
+            return created(returnJson);
+        }, executionContext);
     }
 
 
@@ -168,64 +195,67 @@ public class QuestController {
      *                      badRequest() (Http 400) if the owner of the quest doesn't exist, or there is an error in the
      *                      Json body of the quest.
      */
-    public Result edit(Http.Request request, Long questId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> edit(Http.Request request, Long questId) {
+        // Attempt to turn Json body into a quest object.
+        Optional<Quest> parsedQuest = JsonUtil.readWithView(objectMapper, Views.Owner.class, Quest.class,
+                request.body().asJson());
+
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Quest quest = questRepository.findById(questId);
+            Quest quest = questRepository.findById(questId);
 
-        if (quest == null) {
-            return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
-        }
+            if (quest == null) {
+                return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
+            }
 
-        Profile questOwner = quest.getOwner();
+            Profile questOwner = quest.getOwner();
 
-        if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        if (questOwner == null) {
-            return badRequest(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (questOwner == null) {
+                return badRequest(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        Quest newQuest;
-        try {
-            // Attempt to turn Json body into a objective object.
-            newQuest = objectMapper.readerWithView(Views.Owner.class)
-                    .forType(Quest.class)
-                    .readValue(request.body().asJson());
-        } catch (Exception e) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (!parsedQuest.isPresent()) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        newQuest.setOwner(questOwner);
-        newQuest.setId(questId);
+            Quest newQuest = parsedQuest.get();
 
-        for(Objective newObjective : newQuest.getObjectives()) {
-            newObjective.setOwner(questOwner);
-            if (newObjective.getDestination().getId() == null) {
-                return badRequest(ApiError.invalidJson());
+            newQuest.setOwner(questOwner);
+            newQuest.setId(questId);
+
+            for(Objective newObjective : newQuest.getObjectives()) {
+                newObjective.setOwner(questOwner);
+                if (newObjective.getDestination().getId() == null) {
+                    return badRequest(ApiError.invalidJson());
+                }
+                newObjective.setDestination(destinationRepository.findById(newObjective.getDestination().getId()));
             }
-            newObjective.setDestination(destinationRepository.findById(newObjective.getDestination().getId()));
-        }
+            newQuest.updateRoute();
 
-        if (!canEditQuest(quest, newQuest)) {
-            return badRequest(ApiError.badRequest(Errors.QUEST_CANNOT_BE_EDITED));
-        }
+            if (!canEditQuest(quest, newQuest)) {
+                return badRequest(ApiError.badRequest(Errors.QUEST_CANNOT_BE_EDITED));
+            }
 
-        Collection<ApiError> questEditErrors = newQuest.getErrors();
+            Collection<ApiError> questEditErrors = newQuest.getErrors();
 
-        if (!questEditErrors.isEmpty()) {
-            return badRequest(Json.toJson(questEditErrors));
-        }
+            if (!questEditErrors.isEmpty()) {
+                return badRequest(Json.toJson(questEditErrors));
+            }
 
-        questRepository.update(newQuest);
+            questRepository.update(newQuest);
 
-        questRepository.refresh(newQuest);
+            questRepository.refresh(newQuest);
 
-        return ok(Json.toJson(newQuest));
+            return ok(Json.toJson(newQuest));
+        }, executionContext);
     }
 
 
@@ -240,33 +270,35 @@ public class QuestController {
      *                  badRequest() (Http 400) response containing an ApiError for an invalid Json body.
      *                  unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result delete(Http.Request request, Long questId) {
-         Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-         if (loggedInUser == null) {
-             return unauthorized(ApiError.unauthorized());
-         }
-
-         Quest quest = questRepository.findById(questId);
-
-         if (quest == null) {
-             return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
-         }
-
-         Profile questOwner = quest.getOwner();
-
-         if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
-             return forbidden(ApiError.forbidden());
-         }
-
-         if (questOwner == null) {
-             return badRequest(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-         }
-
-         quest.clearObjectives();
-         questRepository.update(quest);
-         questRepository.delete(quest);
-         profileRepository.update(questOwner);
-         return ok(Json.toJson(QUEST_DELETED));
+    public CompletionStage<Result> delete(Http.Request request, Long questId) {
+        return supplyAsync(() -> {
+             Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+             if (loggedInUser == null) {
+                 return unauthorized(ApiError.unauthorized());
+             }
+
+             Quest quest = questRepository.findById(questId);
+
+             if (quest == null) {
+                 return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
+             }
+
+             Profile questOwner = quest.getOwner();
+
+             if (!AuthenticationUtil.validUser(loggedInUser, questOwner)) {
+                 return forbidden(ApiError.forbidden());
+             }
+
+             if (questOwner == null) {
+                 return badRequest(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+             }
+
+             quest.clearObjectives();
+             questRepository.update(quest);
+             questRepository.delete(quest);
+             profileRepository.update(questOwner);
+             return ok(Json.toJson(QUEST_DELETED));
+        }, executionContext);
     }
 
 
@@ -303,40 +335,55 @@ public class QuestController {
 
     /**
      * Retrieves all the quests stored in the database where today's date and time is between the quest's start and end
-     * dates.
+     * dates. If a cursor is given, the response also contains the cursor of the next page, or null if there are no
+     * more quests.
      *
      * @param request   the request from the front end of the application containing login information.
      * @return          ok() (Http 200) response containing a Json body of the retrieved quests.
-     *                  badRequest() (Http 400) response containing an ApiError for an invalid Json body.
+     *                  badRequest() (Http 400) response containing an ApiError for an invalid Json body or cursor.
      *                  unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result fetchAll(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        Profile requestedUser = profileRepository.findById(userId);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchAll(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            Profile requestedUser = profileRepository.findById(userId);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        Set<Quest> quests = getQuestsQuery(request, requestedUser);
-        Integer count = questRepository.findCountAvailable(requestedUser);
-        ObjectNode result = objectMapper.createObjectNode();
+            // A cursor, even an empty one for the first page, selects keyset pagination instead of page numbers
+            String cursor = request.getQueryString(CURSOR);
+            KeysetPage<Quest> quests;
+            try {
+                quests = getQuestsQuery(request, requestedUser,
+                        cursor == null || cursor.isEmpty() ? null : PageCursor.decode(cursor), cursor != null);
+            } catch (IllegalArgumentException e) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_CURSOR));
+            }
+            int count = searchCountCache.count(Quest.class, AVAILABLE_TO + requestedUser.getId(),
+                    () -> questRepository.findCountAvailable(requestedUser));
+            ObjectNode result = objectMapper.createObjectNode();
 
-        ArrayNode questNode = objectMapper.createArrayNode();
-        for (Quest quest : quests) {
-            questNode.add(Json.toJson(quest));
-        }
-        result.set(QUESTS, questNode);
-        result.put(TOTAL_AVAILABLE, count);
+            ArrayNode questNode = objectMapper.createArrayNode();
+            for (Quest quest : quests.getList()) {
+                questNode.add(Json.toJson(quest));
+            }
+            result.set(QUESTS, questNode);
+            result.put(TOTAL_AVAILABLE, count);
+            if (cursor != null) {
+                result.put(NEXT_CURSOR, quests.getNextCursor());
+            }
 
-        return ok(result);
+            return ok(result);
+        }, executionContext);
     }
 
 
@@ -350,23 +397,25 @@ public class QuestController {
      *                  forbidden() (Http 403) response containing an ApiError for disallowed retrieval.
      *                  unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result fetchByOwner(Http.Request request, Long ownerId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchByOwner(Http.Request request, Long ownerId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile requestedUser = profileRepository.findById(ownerId);
+            Profile requestedUser = profileRepository.findById(ownerId);
 
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, requestedUser)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        return ok(Json.toJson(requestedUser.getMyQuests()));
+            return ok(Json.toJson(requestedUser.getMyQuests()));
+        }, executionContext);
     }
 
 
@@ -379,19 +428,21 @@ public class QuestController {
      *                  notFound() (Http 404) response containing an ApiError for retrieval failure.
      *                  unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result fetchActiveUsers(Http.Request request, Long questId){
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchActiveUsers(Http.Request request, Long questId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Quest requestQuest = questRepository.findById(questId);
-        if (requestQuest == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
-        List<Profile> activeProfiles = profileRepository.findAllUsing(requestQuest);
+            Quest requestQuest = questRepository.findById(questId);
+            if (requestQuest == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
+            List<Profile> activeProfiles = profileRepository.findAllUsing(requestQuest);
 
-        return ok(Json.toJson(activeProfiles));
+            return ok(Json.toJson(activeProfiles));
+        }, executionContext);
     }
 
 
@@ -405,36 +456,38 @@ public class QuestController {
      *                      notFound() (Http 404) response containing an ApiError for retrieval failure.
      *                      unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      */
-    public Result attempt(Http.Request request, Long questId, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> attempt(Http.Request request, Long questId, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Quest questToAttempt = questRepository.findById(questId);
-        if (questToAttempt == null) {
-            return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
-        }
+            Quest questToAttempt = questRepository.findById(questId);
+            if (questToAttempt == null) {
+                return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
+            }
 
-        Profile attemptedBy = profileRepository.findById(userId);
-        if (attemptedBy == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile attemptedBy = profileRepository.findById(userId);
+            if (attemptedBy == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (attemptedBy.equals(questToAttempt.getOwner())) {
-            return forbidden(ApiError.forbidden(Errors.START_OWN_QUEST));
-        }
+            if (attemptedBy.equals(questToAttempt.getOwner())) {
+                return forbidden(ApiError.forbidden(Errors.START_OWN_QUEST));
+            }
 
-        QuestAttempt attempt = new QuestAttempt(attemptedBy, questToAttempt);
+            QuestAttempt attempt = new QuestAttempt(attemptedBy, questToAttempt);
 
-        // Check the user has not already started a quest attempt for the given quest
-        if (questAttemptRepository.exists(attempt)) {
-            return badRequest(ApiError.badRequest(Errors.QUEST_ATTEMPT_EXISTS));
-        }
+            // Check the user has not already started a quest attempt for the given quest
+            if (questAttemptRepository.exists(attempt)) {
+                return badRequest(ApiError.badRequest(Errors.QUEST_ATTEMPT_EXISTS));
+            }
 
-        questAttemptRepository.save(attempt);
+            questAttemptRepository.save(attempt);
 
-        return created(Json.toJson(attempt));
+            return created(Json.toJson(attempt));
+        }, executionContext);
     }
 
 
@@ -449,20 +502,22 @@ public class QuestController {
      *                      badRequest() (Http 400) response containing an ApiError for an invalid Json body.
      *                      ok() (Http 200) containing matching quests that are attempted by the requested profile.
      */
-    public Result getQuestAttemptsByProfile(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> getQuestAttemptsByProfile(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile requestedUser = profileRepository.findById(userId);
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile requestedUser = profileRepository.findById(userId);
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        List<QuestAttempt> questAttempts = questAttemptRepository.findAllUsing(requestedUser, false);
+            List<QuestAttempt> questAttempts = questAttemptRepository.findAllUsing(requestedUser, false);
 
-        return getCorrectView(AuthenticationUtil.validUser(loggedInUser, requestedUser), questAttempts);
+            return getCorrectView(AuthenticationUtil.validUser(loggedInUser, requestedUser), questAttempts);
+        }, executionContext);
     }
 
 
@@ -476,22 +531,24 @@ public class QuestController {
      *                      badRequest() (Http 400) response containing an ApiError for an invalid Json body.
      *                      ok() (Http 200) containing matching quests that are completed by the requested profile.
      */
-    public Result getQuestsCompletedByProfile(Http.Request request, Long userId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> getQuestsCompletedByProfile(Http.Request request, Long userId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile requestedUser = profileRepository.findById(userId);
-        if (requestedUser == null) {
-            return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile requestedUser = profileRepository.findById(userId);
+            if (requestedUser == null) {
+                return notFound(ApiError.notFound(Errors.PROFILE_NOT_FOUND));
+            }
 
-        List<Quest> quests = questRepository.findAllCompleted(requestedUser);
+            List<Quest> quests = questRepository.findAllCompleted(requestedUser);
 
 
-        return getCorrectView(AuthenticationUtil.validUser(loggedInUser, requestedUser), quests);
+            return getCorrectView(AuthenticationUtil.validUser(loggedInUser, requestedUser), quests);
 
+        }, executionContext);
     }
 
 
@@ -524,10 +581,10 @@ public class QuestController {
         }
 
         /*
-        Joins all quests with countries in specified country
+        Finds all quests with an objective in the specified country
          */
         if (request.getQueryString(COUNTRY) != null && !request.getQueryString(COUNTRY).isEmpty()) {
-            expressionList.in(COUNTRY_OCCURRENCES, request.getQueryString(COUNTRY));
+            expressionList.like(COUNTRIES, Quest.getCountryPattern(request.getQueryString(COUNTRY)));
         }
 
         /*
@@ -541,23 +598,27 @@ public class QuestController {
     /**
      * Fetches all destinations based on Http request query parameters. This also includes pagination, destination
      * ownership and the public or private query.
+     * If a cursor is given, quests are paged by id using keyset pagination instead of page number.
      *
      * @param request   Http request containing query parameters to filter results.
      * @param profile   The profile of the user logged in.
-     * @return          ok() (Http 200) response containing the destinations found in the response body.
-     *                  forbidden() (Http 403) if the user has tried to access destinations they are not authorised for.
+     * @param cursor    the cursor of the previous page, or null to use page numbers or get the first page.
+     * @param keyset    true if keyset pagination is used, otherwise pages are found by page number.
+     * @return          the page of quests found, with the cursor of the next page when keyset pagination is used.
+     * @throws IllegalArgumentException if the cursor was not created for quests.
      */
-    private Set<Quest> getQuestsQuery(Http.Request request, Profile profile) {
-
-        Set<Quest> quests;
+    private KeysetPage<Quest> getQuestsQuery(Http.Request request, Profile profile, PageCursor cursor, boolean keyset) {
 
-        ExpressionList<Quest> expressionList = questRepository.getExpressionList();
+        KeysetPage<Quest> quests;
 
-        // Does not include quest that the profile has created
-        expressionList.ne(OWNER, profile);
+        // Does not include quests that the profile has created or attempted
+        ExpressionList<Quest> expressionList = questRepository.getAvailableExpressionList(profile);
 
         // Add all fields provided in the query string of the request
         addQueryFields(expressionList, request);
+        if (queryingObjectiveAmount(request)) {
+            addObjectiveAmountQuery(expressionList, request);
+        }
 
         // Gets first 50 quests from index query * 50
         int pageNumber = 0;
@@ -568,38 +629,16 @@ public class QuestController {
             pageNumber = Integer.parseInt(queryPageString);
         }
 
-        /*
-        Removes all quests that the profile has an attempt for
-         */
-        ExpressionList<Quest> expressionListActiveQuests = questRepository.getExpressionList();
-
-        expressionListActiveQuests.in(ATTEMPTS, questAttemptRepository.findAllUsing(profile));
-
-        Set<Quest> profilesActiveQuests = expressionListActiveQuests.findSet();
-
-        quests = expressionList
-                .where()
-                .setFirstRow(pageNumber*pageSize)
-                .setMaxRows(pageSize)
-                .findSet();
-
-        quests.removeAll(profilesActiveQuests);
-
-        /*
-        Joins all quest if the amount of objectives is correct to the query search.
-         */
-        if (queryingObjectiveAmount(request)) {
-
-            Set<Quest> allQuests = new HashSet<>();
-
-            for (Quest quest: quests) {
-
-                if (questHasCorrectObjectiveAmount(request, quest)) {
-                    allQuests.add(quest);
-                }
-            }
-            return allQuests;
+        if (keyset) {
+            quests = KeysetPage.find(expressionList, null, true, cursor, pageSize);
+        } else {
+            quests = KeysetPage.of(new ArrayList<>(expressionList
+                    .where()
+                    .setFirstRow(pageNumber*pageSize)
+                    .setMaxRows(pageSize)
+                    .findSet()));
         }
+
         return quests;
     }
 
@@ -620,22 +659,29 @@ public class QuestController {
 
 
     /**
-     * Checks if the specified quest has the correct amount of objectives based on the request query string.
+     * Adds the objective amount in the request query string to the given expression list, comparing it to the stored
+     * objective count of each quest so that the database only returns quests with the correct amount.
      *
-     * @param request       the request sent from the front end user.
-     * @param quest         the current quest to check for specific quests objective count.
-     * @return              true if the quest passes criteria.
-     *                      false if the quest fails the criteria.
+     * @param expressionList    the expression list for fetching quests.
+     * @param request           the request sent from the front end user.
      */
-    private boolean questHasCorrectObjectiveAmount(Http.Request request, Quest quest) {
-        int objectiveSize = quest.getObjectives().size();
-
-        return (request.getQueryString(OPERATOR).equals(EQUAL_TO) &&
-                objectiveSize == Double.parseDouble(request.getQueryString(OBJECTIVE))) ||
-                (request.getQueryString(OPERATOR).equals(LESS_THAN) &&
-                        objectiveSize < Double.parseDouble(request.getQueryString(OBJECTIVE))) ||
-                (request.getQueryString(OPERATOR).equals(GREATER_THAN) &&
-                        objectiveSize > Double.parseDouble(request.getQueryString(OBJECTIVE)));
+    private void addObjectiveAmountQuery(ExpressionList<Quest> expressionList, Http.Request request) {
+        double objectiveAmount = Double.parseDouble(request.getQueryString(OBJECTIVE));
+
+        switch (request.getQueryString(OPERATOR)) {
+            case EQUAL_TO:
+                expressionList.eq(OBJECTIVE_COUNT, objectiveAmount);
+                break;
+            case LESS_THAN:
+                expressionList.lt(OBJECTIVE_COUNT, objectiveAmount);
+                break;
+            case GREATER_THAN:
+                expressionList.gt(OBJECTIVE_COUNT, objectiveAmount);
+                break;
+            default:
+                // No quest has a negative objective count, so an unknown operator matches no quests
+                expressionList.lt(OBJECTIVE_COUNT, 0);
+        }
     }
 
 
@@ -683,128 +729,173 @@ public class QuestController {
      *                          forbidden() (Http 403) response containing an ApiError if the user is forbidden from
      *                          guessing for this given attempt.
      */
-    public Result guess(Http.Request request, Long attemptId, Long destinationId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> guess(Http.Request request, Long attemptId, Long destinationId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
-        if (questAttempt == null) {
-            return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
-        }
+            QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
+            if (questAttempt == null) {
+                return notFound(ApiError.notFound(Errors.QUEST_NOT_FOUND));
+            }
 
-        Destination destinationGuess = destinationRepository.findById(destinationId);
-        if (destinationGuess == null) {
-            return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
-        }
+            Destination destinationGuess = destinationRepository.findById(destinationId);
+            if (destinationGuess == null) {
+                return notFound(ApiError.notFound(Errors.DESTINATION_NOT_FOUND));
+            }
 
-        Profile attemptedBy = questAttempt.getAttemptedBy();
-        if (attemptedBy == null || !AuthenticationUtil.validUser(loggedInUser, attemptedBy)) {
-            return forbidden(ApiError.forbidden());
-        }
+            Profile attemptedBy = questAttempt.getAttemptedBy();
+            if (attemptedBy == null || !AuthenticationUtil.validUser(loggedInUser, attemptedBy)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        Objective objectiveSolved = questAttempt.getCurrentToSolve();
+            Objective objectiveSolved = questAttempt.getCurrentToSolve();
 
-        boolean solveSuccess = questAttempt.solveCurrent(destinationGuess);
+            boolean solveSuccess = questAttempt.solveCurrent(destinationGuess);
 
-        // Attempt to solve the current objective in the quest attempt, serialize the result.
-        returnJson.put(GUESS_RESULT, solveSuccess);
+            // Attempt to solve the current objective in the quest attempt, serialize the result.
+            returnJson.put(GUESS_RESULT, solveSuccess);
 
-        // Add points based on the action
-        if (solveSuccess) {
-            returnJson.set(REWARD, achievementTrackerController.rewardObjectiveSolved(attemptedBy, objectiveSolved));
-        }
+            // Add points based on the action
+            if (solveSuccess) {
+                returnJson.set(REWARD, achievementTrackerController.rewardObjectiveSolved(attemptedBy, objectiveSolved));
+            }
 
-        // Serialize quest attempt regardless of result.
-        returnJson.set(ATTEMPT, Json.toJson(questAttempt));
+            // Serialize quest attempt regardless of result.
+            returnJson.set(ATTEMPT, Json.toJson(questAttempt));
 
-        questAttemptRepository.update(questAttempt);
+            questAttemptRepository.update(questAttempt);
 
-        return ok(returnJson);
+            return ok(returnJson);
+        }, executionContext);
     }
 
 
 
     /**
-     * Check in to the most recently solved objective for a given quest attempt.
+     * Checks that the given Json contains a latitude and longitude within their valid ranges.
      *
-     * @param request           request containing session information.
+     * @param location  the Json body of a check in request.
+     * @return          true if the location is valid.
+     */
+    private boolean isValidLocation(JsonNode location) {
+        if (location == null || !location.path(LATITUDE).isNumber() || !location.path(LONGITUDE).isNumber()) {
+            return false;
+        }
+        return Math.abs(location.get(LATITUDE).asDouble()) <= MAX_LATITUDE
+                && Math.abs(location.get(LONGITUDE).asDouble()) <= MAX_LONGITUDE;
+    }
+
+
+    /**
+     * Checks whether a location is within the check in radius of an objective's destination.
+     *
+     * @param objective the objective being checked in to.
+     * @param location  the Json body of a check in request, containing a valid latitude and longitude.
+     * @return          true if the location is within the radius of the destination.
+     */
+    private boolean isInRange(Objective objective, JsonNode location) {
+        Destination destination = objective.getDestination();
+        return GeoUtil.isWithin(destination.getLatitude(), destination.getLongitude(),
+                location.get(LATITUDE).asDouble(), location.get(LONGITUDE).asDouble(),
+                objective.getRadius() * METERS_PER_KILOMETER);
+    }
+
+
+    /**
+     * Check in to the most recently solved objective for a given quest attempt. The request body must contain the
+     * latitude and longitude of the user, which must be within the radius of the objective's destination.
+     *
+     * @param request           request containing session information and the user's current location.
      * @param attemptId         the id of the quest attempt to be checked in to
      * @return                  ok() (Http 200) response containing the quest attempt and the given awards if check in
      *                          was successful.
+     *                          badRequest() (Http 400) response containing an ApiError if the location is missing or
+     *                          invalid.
      *                          notFound() (Http 404) response containing an ApiError for retrieval failure.
      *                          unauthorized() (Http 401) response containing an ApiError if the user is not logged in.
      *                          forbidden() (Http 403) response containing an ApiError if the user is forbidden from
-     *                          guessing for this given attempt.
+     *                          checking in for this given attempt, or is not within range of the destination.
      */
-    public Result checkIn(Http.Request request, Long attemptId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
-
-        QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
-        if (questAttempt == null) {
-            return notFound(ApiError.notFound(Errors.QUEST_ATTEMPT_NOT_FOUND));
-        }
+    public CompletionStage<Result> checkIn(Http.Request request, Long attemptId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile attemptedBy = questAttempt.getAttemptedBy();
-        if (attemptedBy != null && !AuthenticationUtil.validUser(loggedInUser, attemptedBy)) {
-            return forbidden(ApiError.forbidden());
-        }
-        // Used to call check in 'rewardAction' method.
-        Objective objectiveToCheckInTo = questAttempt.getCurrentToCheckIn();
-        if (questAttempt.checkIn()) {
-            ObjectNode returnJson = objectMapper.createObjectNode();
+            QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
+            if (questAttempt == null) {
+                return notFound(ApiError.notFound(Errors.QUEST_ATTEMPT_NOT_FOUND));
+            }
 
-            Quest questAttempted = questAttempt.getQuestAttempted();
+            Profile attemptedBy = questAttempt.getAttemptedBy();
+            if (attemptedBy != null && !AuthenticationUtil.validUser(loggedInUser, attemptedBy)) {
+                return forbidden(ApiError.forbidden());
+            }
+            JsonNode location = request.body().asJson();
+            if (!isValidLocation(location)) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_CHECK_IN_LOCATION));
+            }
 
-            // ArrayNodes that will store all the points and badges rewarded from checking in.
-            ArrayNode pointsRewarded = objectMapper.createArrayNode();
-            ArrayNode badgesAchieved = objectMapper.createArrayNode();
+            Objective objectiveToCheckInTo = questAttempt.getCurrentToCheckIn();
+            if (objectiveToCheckInTo != null && !isInRange(objectiveToCheckInTo, location)) {
+                return forbidden(ApiError.forbidden(Errors.CHECK_IN_OUT_OF_RANGE));
+            }
 
-            // Objective reward result of checking in.
-            // Points for checking in
-            JsonNode objectiveRewardJson = achievementTrackerController.rewardObjectiveCheckin(attemptedBy);
+            if (questAttempt.checkIn()) {
+                ObjectNode returnJson = objectMapper.createObjectNode();
 
-            // Add all objective reward points and badges to the list of achieved points.
-            pointsRewarded = achievementTrackerController.addAllAwards(
-                    pointsRewarded, objectiveRewardJson, POINTS_REWARDED);
-            badgesAchieved = achievementTrackerController.addAllAwards(
-                    badgesAchieved, objectiveRewardJson, BADGES_ACHIEVED);
+                Quest questAttempted = questAttempt.getQuestAttempted();
 
+                // ArrayNodes that will store all the points and badges rewarded from checking in.
+                ArrayNode pointsRewarded = objectMapper.createArrayNode();
+                ArrayNode badgesAchieved = objectMapper.createArrayNode();
 
-            // If quest was completed
-            if (questAttempt.isCompleted()) {
-                JsonNode questRewardJson = achievementTrackerController.rewardQuestInteraction(attemptedBy, questAttempted,
-                        Action.QUEST_COMPLETED); // Awards for completing a quest
+                // Objective reward result of checking in.
+                // Points for checking in
+                JsonNode objectiveRewardJson = achievementTrackerController.rewardObjectiveCheckin(attemptedBy);
 
-                // Add all quest reward points and badges to the list of achieved points.
+                // Add all objective reward points and badges to the list of achieved points.
                 pointsRewarded = achievementTrackerController.addAllAwards(
-                        pointsRewarded, questRewardJson, POINTS_REWARDED);
+                        pointsRewarded, objectiveRewardJson, POINTS_REWARDED);
                 badgesAchieved = achievementTrackerController.addAllAwards(
-                        badgesAchieved, questRewardJson, BADGES_ACHIEVED);
+                        badgesAchieved, objectiveRewardJson, BADGES_ACHIEVED);
 
-            }
 
-            // The reward Json part of the returned Json.
-            ObjectNode rewardJson = objectMapper.createObjectNode();
-            rewardJson.set(POINTS_REWARDED, pointsRewarded);
-            rewardJson.set(BADGES_ACHIEVED, badgesAchieved);
+                // If quest was completed
+                if (questAttempt.isCompleted()) {
+                    JsonNode questRewardJson = achievementTrackerController.rewardQuestInteraction(attemptedBy, questAttempted,
+                            Action.QUEST_COMPLETED); // Awards for completing a quest
 
-            // Set up the return Json to contain the reward and the quest attempt.
-            returnJson.set(REWARD, rewardJson);
-            returnJson.set(ATTEMPT, Json.toJson(questAttempt));
+                    // Add all quest reward points and badges to the list of achieved points.
+                    pointsRewarded = achievementTrackerController.addAllAwards(
+                            pointsRewarded, questRewardJson, POINTS_REWARDED);
+                    badgesAchieved = achievementTrackerController.addAllAwards(
+                            badgesAchieved, questRewardJson, BADGES_ACHIEVED);
 
-            questAttemptRepository.update(questAttempt);
-            return ok(returnJson);
-        }
+                }
 
-        // User cannot check-in for this current attempt as they have
-        // not solved the current destination or the quest is complete
-        return forbidden(ApiError.forbidden());
+                // The reward Json part of the returned Json.
+                ObjectNode rewardJson = objectMapper.createObjectNode();
+                rewardJson.set(POINTS_REWARDED, pointsRewarded);
+                rewardJson.set(BADGES_ACHIEVED, badgesAchieved);
+
+                // Set up the return Json to contain the reward and the quest attempt.
+                returnJson.set(REWARD, rewardJson);
+                returnJson.set(ATTEMPT, Json.toJson(questAttempt));
+
+                questAttemptRepository.update(questAttempt);
+                return ok(returnJson);
+            }
+
+            // User cannot check-in for this current attempt as they have
+            // not solved the current destination or the quest is complete
+            return forbidden(ApiError.forbidden());
+        }, executionContext);
     }
 }
@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import controllers.points.AchievementTrackerController;
+import models.profiles.Principal;
 import models.profiles.Profile;
 import models.destinations.Destination;
 import models.trips.Trip;
@@ -14,11 +15,15 @@ import models.util.Errors;
 import repositories.destinations.DestinationRepository;
 import repositories.profiles.ProfileRepository;
 import repositories.trips.TripRepository;
+import repositories.DatabaseExecutionContext;
 import play.libs.Json;
 import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
+import services.profiles.PrincipalCache;
 import util.AuthenticationUtil;
+import util.KeysetPage;
+import util.PageCursor;
 
 import com.google.inject.Inject;
 
@@ -26,6 +31,9 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 public class TripController extends Controller {
 
@@ -40,6 +48,10 @@ public class TripController extends Controller {
     private static final String PAGE_PAST = "pagePast";
     private static final String PAGE_SIZE_FUTURE = "pageSizeFuture";
     private static final String PAGE_SIZE_PAST = "pageSizePast";
+    private static final String CURSOR_FUTURE = "cursorFuture";
+    private static final String CURSOR_PAST = "cursorPast";
+    private static final String NEXT_CURSOR_FUTURE = "nextCursorFuture";
+    private static final String NEXT_CURSOR_PAST = "nextCursorPast";
     private static final String FUTURE_TRIPS = "futureTrips";
     private static final String PAST_TRIPS = "pastTrips";
     private static final String EMPTY_STRING = "";
@@ -55,6 +67,8 @@ public class TripController extends Controller {
     private DestinationRepository destinationRepository;
     private AchievementTrackerController achievementTrackerController;
     private ObjectMapper objectMapper;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
 
 
     @Inject
@@ -62,12 +76,16 @@ public class TripController extends Controller {
                           ProfileRepository profileRepository,
                           DestinationRepository destinationRepository,
                           AchievementTrackerController achievementTrackerController,
-                          ObjectMapper objectMapper) {
+                          ObjectMapper objectMapper,
+                          PrincipalCache principalCache,
+                          DatabaseExecutionContext executionContext) {
         this.tripRepository = tripRepository;
         this.profileRepository = profileRepository;
         this.destinationRepository = destinationRepository;
         this.achievementTrackerController = achievementTrackerController;
         this.objectMapper = objectMapper;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
     }
 
 
@@ -82,57 +100,59 @@ public class TripController extends Controller {
      *                          forbidden() (Http 403) if the user doesn't have the permissions to achieve this action.
      *                          unauthorized() (Http 401) if the user is not logged in.
      */
-    public Result create(Http.Request request, Long affectedUserId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> create(Http.Request request, Long affectedUserId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile affectedProfile = profileRepository.findById(affectedUserId);
+            Profile affectedProfile = profileRepository.findById(affectedUserId);
 
-        if (affectedProfile == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            if (affectedProfile == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        // If user is admin, or if they are editing their own profile then allow them to edit.
-        if (!AuthenticationUtil.validUser(loggedInUser, affectedProfile)) {
-            return forbidden(ApiError.forbidden());
-        }
+            // If user is admin, or if they are editing their own profile then allow them to edit.
+            if (!AuthenticationUtil.validUser(loggedInUser, affectedProfile)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        JsonNode json = request.body().asJson();
+            JsonNode json = request.body().asJson();
 
-        if (!isValidTrip(json)) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (!isValidTrip(json)) {
+                return badRequest(ApiError.invalidJson());
+            }
 
-        // Create a trip object and give it the name extracted from the request.
-        Trip trip = new Trip();
-        trip.setName(json.get(NAME).asText());
+            // Create a trip object and give it the name extracted from the request.
+            Trip trip = new Trip();
+            trip.setName(json.get(NAME).asText());
 
-        // Create a json node for the destinations contained in the trip to use for iteration.
-        ArrayNode tripDestinations = (ArrayNode) json.get(TRIP_DESTINATIONS);
+            // Create a json node for the destinations contained in the trip to use for iteration.
+            ArrayNode tripDestinations = (ArrayNode) json.get(TRIP_DESTINATIONS);
 
-        // Create an empty List for TripDestination objects to be populated from the request.
-        List<TripDestination> destinationList = parseTripDestinations(tripDestinations);
+            // Create an empty List for TripDestination objects to be populated from the request.
+            List<TripDestination> destinationList = parseTripDestinations(tripDestinations);
 
-        // Set the trip destinations to be the array of TripDestination parsed, save the trip, and return 201.
-        if (!destinationList.isEmpty() && isValidDateOrder(destinationList)) {
-            trip.setDestinations(destinationList);
-            affectedProfile.addTrip(trip);
-            profileRepository.save(affectedProfile);
-            for (TripDestination tripDestination: destinationList) {
-                determineDestinationOwnershipTransfer(affectedProfile, tripDestination);
-            }
-            tripRepository.save(trip);
+            // Set the trip destinations to be the array of TripDestination parsed, save the trip, and return 201.
+            if (!destinationList.isEmpty() && isValidDateOrder(destinationList)) {
+                trip.setDestinations(destinationList);
+                affectedProfile.addTrip(trip);
+                profileRepository.save(affectedProfile);
+                for (TripDestination tripDestination: destinationList) {
+                    determineDestinationOwnershipTransfer(affectedProfile, tripDestination);
+                }
+                tripRepository.save(trip);
 
-            ObjectNode returnJson = objectMapper.createObjectNode();
-            returnJson.set(REWARD, achievementTrackerController.rewardTripCreate(affectedProfile));
-            returnJson.put(NEW_TRIP_ID, trip.getId());
+                ObjectNode returnJson = objectMapper.createObjectNode();
+                returnJson.set(REWARD, achievementTrackerController.rewardTripCreate(affectedProfile));
+                returnJson.put(NEW_TRIP_ID, trip.getId());
 
-            return created(returnJson);
-        } else {
-            return badRequest(ApiError.invalidJson());
-        }
+                return created(returnJson);
+            } else {
+                return badRequest(ApiError.invalidJson());
+            }
+        }, executionContext);
     }
 
 
@@ -170,55 +190,57 @@ public class TripController extends Controller {
      *                  badRequest() (Http 400) If the trip is not valid.
      *                  unauthorized() (Http 401) If the user is not logged in.
      */
-    public Result edit(Http.Request request, Long tripId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> edit(Http.Request request, Long tripId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        // Retrieve the individual trip being deleted by its id.
-        Trip trip = tripRepository.findById(tripId);
+            // Retrieve the individual trip being deleted by its id.
+            Trip trip = tripRepository.findById(tripId);
 
-        if (trip == null) {
-            return notFound(ApiError.notFound(Errors.TRIP_NOT_FOUND));
-        }
+            if (trip == null) {
+                return notFound(ApiError.notFound(Errors.TRIP_NOT_FOUND));
+            }
 
-        // Retrieve the profile having its trip removed from the trip id.
-        Long ownerId = tripRepository.fetchTripOwner(tripId);
-        if (ownerId == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            // Retrieve the profile having its trip removed from the trip id.
+            Long ownerId = tripRepository.fetchTripOwner(tripId);
+            if (ownerId == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        Profile tripOwner = profileRepository.findById(ownerId);
+            Profile tripOwner = profileRepository.findById(ownerId);
 
-        if (!AuthenticationUtil.validUser(loggedInUser, tripOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, tripOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        JsonNode json = request.body().asJson();
+            JsonNode json = request.body().asJson();
 
-        if (!isValidTrip(json)) {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (!isValidTrip(json)) {
+                return badRequest(ApiError.invalidJson());
+            }
 
 
-        String name = json.get(NAME).asText();
-        trip.setName(name);
+            String name = json.get(NAME).asText();
+            trip.setName(name);
 
-        tripRepository.removeTripDestinations(trip);
+            tripRepository.removeTripDestinations(trip);
 
-        // Create a json node for the destinations contained in the trip to use for iteration.
-        ArrayNode tripDestinations = (ArrayNode) json.get(TRIP_DESTINATIONS);
+            // Create a json node for the destinations contained in the trip to use for iteration.
+            ArrayNode tripDestinations = (ArrayNode) json.get(TRIP_DESTINATIONS);
 
-        // Create an empty List for TripDestination objects to be populated from the request.
-        List<TripDestination> destinationList = parseTripDestinations(tripDestinations);
+            // Create an empty List for TripDestination objects to be populated from the request.
+            List<TripDestination> destinationList = parseTripDestinations(tripDestinations);
 
-        if (!destinationList.isEmpty() && isValidDateOrder(destinationList)) {
-            tripRepository.updateTrip(tripOwner, trip, destinationList);
-            return ok(Json.toJson(trip));
-        } else {
-            return badRequest(ApiError.invalidJson());
-        }
+            if (!destinationList.isEmpty() && isValidDateOrder(destinationList)) {
+                tripRepository.updateTrip(tripOwner, trip, destinationList);
+                return ok(Json.toJson(trip));
+            } else {
+                return badRequest(ApiError.invalidJson());
+            }
+        }, executionContext);
     }
 
 
@@ -333,12 +355,13 @@ public class TripController extends Controller {
 
     /**
      * Checks if all of the start/end dates within a trip are in valid order, to be called after saving a reorder.
+     * Package-private so that it can be benchmarked.
      *
      * @param tripDestinations  array of all the destinations in the trip in the new order.
      * @return                  true if all the dates of destinations within a trip are in chronological order,
      *                          false otherwise.
      */
-    private boolean isValidDateOrder(List<TripDestination> tripDestinations) {
+    boolean isValidDateOrder(List<TripDestination> tripDestinations) {
         // Adds all dates within the list of trip destinations to an array if they aren't null
         List<LocalDate> allDates = new ArrayList<LocalDate>() {};
         for (TripDestination tripDestination : tripDestinations) {
@@ -384,50 +407,77 @@ public class TripController extends Controller {
 
     /**
      * Fetches all the trips for a specified user, using pagination for retrieving trips based on the requested page.
+     * If a future or past cursor is given, that list is paged by keyset pagination instead, and the cursor of its next
+     * page is included in the response.
      *
      * @param request   the Http request containing the relevant authentication values.
      * @param id        the id of the user requested.
      * @return          unauthorized() (Http 401) if the user is not logged in.
+     *                  badRequest() (Http 400) if a page size or cursor is invalid.
      *                  ok() (Http 200) containing the list of trips as a Json.
      */
-    public Result fetchAllTrips(Http.Request request, Long id) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> fetchAllTrips(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        Profile owner = profileRepository.findById(id);
-        if (owner == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            Profile owner = profileRepository.findById(id);
+            if (owner == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        int pageNumberFuture = 0;
-        int pageNumberPast = 0;
+            int pageNumberFuture = 0;
+            int pageNumberPast = 0;
 
-        if (request.getQueryString(PAGE_FUTURE) != null && !request.getQueryString(PAGE_FUTURE).isEmpty()) {
-            pageNumberFuture = Integer.parseInt(request.getQueryString(PAGE_FUTURE));
-        }
+            if (request.getQueryString(PAGE_FUTURE) != null && !request.getQueryString(PAGE_FUTURE).isEmpty()) {
+                pageNumberFuture = Integer.parseInt(request.getQueryString(PAGE_FUTURE));
+            }
 
-        if (request.getQueryString(PAGE_PAST) != null && !request.getQueryString(PAGE_PAST).isEmpty()) {
-            pageNumberPast = Integer.parseInt(request.getQueryString(PAGE_PAST));
-        }
+            if (request.getQueryString(PAGE_PAST) != null && !request.getQueryString(PAGE_PAST).isEmpty()) {
+                pageNumberPast = Integer.parseInt(request.getQueryString(PAGE_PAST));
+            }
 
-        Integer pageSizeFuture = determinePageSize(request, PAGE_SIZE_FUTURE);
-        Integer pageSizePast = determinePageSize(request, PAGE_SIZE_PAST);
+            Integer pageSizeFuture = determinePageSize(request, PAGE_SIZE_FUTURE);
+            Integer pageSizePast = determinePageSize(request, PAGE_SIZE_PAST);
 
-        if (pageSizeFuture == null || pageSizePast == null) {
-            return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
-        }
+            if (pageSizeFuture == null || pageSizePast == null) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_SIZE_REQUESTED));
+            }
 
-        List<Trip> futureTrips = tripRepository.fetchFuture(owner, pageSizeFuture, pageNumberFuture);
-        List<Trip> pastTrips = tripRepository.fetchPast(owner, pageSizePast, pageNumberPast);
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            // A cursor, even an empty one for the first page, selects keyset pagination instead of page numbers
+            String cursorFuture = request.getQueryString(CURSOR_FUTURE);
+            String cursorPast = request.getQueryString(CURSOR_PAST);
 
-        returnJson.set(FUTURE_TRIPS, Json.toJson(futureTrips));
-        returnJson.set(PAST_TRIPS, Json.toJson(pastTrips));
+            try {
+                if (cursorFuture != null) {
+                    KeysetPage<Trip> futureTrips = tripRepository.fetchFuture(owner, pageSizeFuture,
+                            cursorFuture.isEmpty() ? null : PageCursor.decode(cursorFuture));
+                    returnJson.set(FUTURE_TRIPS, Json.toJson(futureTrips.getList()));
+                    returnJson.put(NEXT_CURSOR_FUTURE, futureTrips.getNextCursor());
+                } else {
+                    List<Trip> futureTrips = tripRepository.fetchFuture(owner, pageSizeFuture, pageNumberFuture);
+                    returnJson.set(FUTURE_TRIPS, Json.toJson(futureTrips));
+                }
+
+                if (cursorPast != null) {
+                    KeysetPage<Trip> pastTrips = tripRepository.fetchPast(owner, pageSizePast,
+                            cursorPast.isEmpty() ? null : PageCursor.decode(cursorPast));
+                    returnJson.set(PAST_TRIPS, Json.toJson(pastTrips.getList()));
+                    returnJson.put(NEXT_CURSOR_PAST, pastTrips.getNextCursor());
+                } else {
+                    List<Trip> pastTrips = tripRepository.fetchPast(owner, pageSizePast, pageNumberPast);
+                    returnJson.set(PAST_TRIPS, Json.toJson(pastTrips));
+                }
+            } catch (IllegalArgumentException e) {
+                return badRequest(ApiError.badRequest(Errors.INVALID_PAGE_CURSOR));
+            }
 
-        return ok(returnJson);
+            return ok(returnJson);
+        }, executionContext);
     }
 
 
@@ -464,21 +514,23 @@ public class TripController extends Controller {
      * @return          unauthorized() (Http 401) if the user is not logged in.
      *                  ok() (Http 200) total number of trip the specified user has.
      */
-    public Result getTotalNumberOfTrips(Http.Request request, Long id) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> getTotalNumberOfTrips(Http.Request request, Long id) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        int totalNumberOfFutureTrips = tripRepository.fetchAllFutureTripsCount(id);
-        int totalNumberOfPastTrips = tripRepository.fetchAllPastTripsCount(id);
+            int totalNumberOfFutureTrips = tripRepository.fetchAllFutureTripsCount(id);
+            int totalNumberOfPastTrips = tripRepository.fetchAllPastTripsCount(id);
 
-        ObjectNode returnJson = objectMapper.createObjectNode();
+            ObjectNode returnJson = objectMapper.createObjectNode();
 
-        returnJson.set(FUTURE_TRIPS, Json.toJson(totalNumberOfFutureTrips));
-        returnJson.set(PAST_TRIPS, Json.toJson(totalNumberOfPastTrips));
+            returnJson.set(FUTURE_TRIPS, Json.toJson(totalNumberOfFutureTrips));
+            returnJson.set(PAST_TRIPS, Json.toJson(totalNumberOfPastTrips));
 
-        return ok(returnJson);
+            return ok(returnJson);
+        }, executionContext);
     }
 
 
@@ -493,37 +545,39 @@ public class TripController extends Controller {
      *                  If the user is not the trip owner or an admin, returns unauthorized() (Http 401).
      *                  Otherwise, if trip is successfully deleted, returns ok() (Http 200).
      */
-    public Result destroy(Http.Request request, Long tripId) {
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
-        if (loggedInUser == null) {
-            return unauthorized(ApiError.unauthorized());
-        }
+    public CompletionStage<Result> destroy(Http.Request request, Long tripId) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
 
-        // Retrieve the individual trip being deleted by its id.
-        Trip trip = tripRepository.findById(tripId);
+            // Retrieve the individual trip being deleted by its id.
+            Trip trip = tripRepository.findById(tripId);
 
-        if (trip == null) {
-            return notFound(ApiError.notFound(Errors.TRIP_NOT_FOUND));
-        }
+            if (trip == null) {
+                return notFound(ApiError.notFound(Errors.TRIP_NOT_FOUND));
+            }
 
-        // Retrieve the profile having its trip removed from the trip id.
-        Long ownerId = tripRepository.fetchTripOwner(tripId);
-        if (ownerId == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
-        Profile tripOwner = profileRepository.findById(ownerId);
+            // Retrieve the profile having its trip removed from the trip id.
+            Long ownerId = tripRepository.fetchTripOwner(tripId);
+            if (ownerId == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
+            Profile tripOwner = profileRepository.findById(ownerId);
 
-        if (tripOwner == null) {
-            return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
-        }
+            if (tripOwner == null) {
+                return badRequest(ApiError.badRequest(Errors.PROFILE_NOT_FOUND));
+            }
 
-        if (!AuthenticationUtil.validUser(loggedInUser, tripOwner)) {
-            return forbidden(ApiError.forbidden());
-        }
+            if (!AuthenticationUtil.validUser(loggedInUser, tripOwner)) {
+                return forbidden(ApiError.forbidden());
+            }
 
-        // Repository method handling the database and object manipulation.
-        tripRepository.deleteTripFromProfile(tripOwner, trip);
-        // Deletion successful.
-        return ok(Json.toJson(trip));
+            // Repository method handling the database and object manipulation.
+            tripRepository.deleteTripFromProfile(tripOwner, trip);
+            // Deletion successful.
+            return ok(Json.toJson(trip));
+        }, executionContext);
     }
 }
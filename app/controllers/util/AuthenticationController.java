@@ -9,10 +9,15 @@ import play.mvc.Controller;
 import play.mvc.Http;
 import play.mvc.Result;
 import repositories.profiles.ProfileRepository;
+import repositories.DatabaseExecutionContext;
 import util.AuthenticationUtil;
 import java.security.NoSuchAlgorithmException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+import static java.util.concurrent.CompletableFuture.completedFuture;
 
 /**
  * Controller to handle the authorisation of clients.
@@ -29,10 +34,13 @@ public class AuthenticationController extends Controller {
     private static final String HASH_FAIL = "Invalid JSON: JSON Object contains no user or password key";
 
     private ProfileRepository profileRepository;
+    private DatabaseExecutionContext executionContext;
 
     @Inject
-    public AuthenticationController(ProfileRepository profileRepository) {
+    public AuthenticationController(ProfileRepository profileRepository,
+                                    DatabaseExecutionContext executionContext) {
         this.profileRepository = profileRepository;
+        this.executionContext = executionContext;
     }
 
     /**
@@ -44,59 +52,63 @@ public class AuthenticationController extends Controller {
      *                  badRequest() (Http 400) if the user credentials are invalid.
      *                  unauthorized() (Http 401) if no profile matching the user's credentials can be found.
      */
-    public Result login(Http.Request request) {
-
-        Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+    public CompletionStage<Result> login(Http.Request request) {
+        // The body is read and the password hashed before handing off, so that neither holds a database thread
+        JsonNode loginJson = request.body().asJson();
 
-        if (loggedInUser == null) {
-            // user is not logged in and attempt to log in with user and pass key
-            JsonNode loginJson = request.body().asJson();
-
-            // Check if a body was given and has required fields
-            if (loginJson == null ||
-                    (!(loginJson.has(USERNAME) &&
-                            loginJson.has(AUTHENTICATION_FIELD)))) {
-                // If JSON Object contains no user or pass key, return bad request
-                // Prevents null pointer exceptions when trying to get the values below.
-                return badRequest(ApiError.invalidJson());
-            }
+        // Check if a body was given and has required fields
+        boolean validJson = loginJson != null
+                && loginJson.has(USERNAME)
+                && loginJson.has(AUTHENTICATION_FIELD);
 
-            String username = loginJson.get(USERNAME).asText();
+        String username = validJson ? loginJson.get(USERNAME).asText() : null;
 
-            // Uses the hashProfilePassword() method to hash the given password.
-            String password;
+        // Uses the hashProfilePassword() method to hash the given password.
+        String password = null;
+        if (validJson) {
             try {
                 password = AuthenticationUtil.hashProfilePassword(loginJson.get(AUTHENTICATION_FIELD).asText());
             } catch (NoSuchAlgorithmException e) {
                 LOGGER.log(Level.SEVERE, HASH_FAIL, e);
-                return badRequest(ApiError.badRequest(HASH_FAIL));
-            }
-
-            Profile profile = profileRepository.getExpressionList()
-                    .like(USERNAME, username).findOne();
-
-            if ((profile != null) && (profile.getPassword().equals(password))) {
-                // Profile was successfully fetched and password matches
-                // Set session token as id and return ok (200 response)
-                return ok(Json.toJson(profile)).addingToSession(request, AUTHORIZED, profile.id.toString());
             }
-
-            return unauthorized(ApiError.unauthorized());
-        } else {
-            // User is logged in
-
-            JsonNode loginJson = request.body().asJson();
-
-            if (loginJson == null ||
-                    (!(loginJson.has(USERNAME) &&
-                            loginJson.has(AUTHENTICATION_FIELD)))) {
-                // If JSON Object contains no user or pass key, return bad request
-                // Prevents null pointer exceptions when trying to get the values below.
-                return badRequest(Json.toJson(loggedInUser));
-            }
-
-            return ok(Json.toJson(ALREADY_LOGGED_IN));
         }
+        String hashedPassword = password;
+
+        return supplyAsync(() -> {
+            Profile loggedInUser = AuthenticationUtil.validateAuthentication(profileRepository, request);
+
+            if (loggedInUser == null) {
+                // user is not logged in and attempt to log in with user and pass key
+                if (!validJson) {
+                    // If JSON Object contains no user or pass key, return bad request
+                    // Prevents null pointer exceptions when trying to get the values below.
+                    return badRequest(ApiError.invalidJson());
+                }
+
+                if (hashedPassword == null) {
+                    return badRequest(ApiError.badRequest(HASH_FAIL));
+                }
+
+                Profile profile = profileRepository.getExpressionList()
+                        .like(USERNAME, username).findOne();
+
+                if ((profile != null) && (profile.getPassword().equals(hashedPassword))) {
+                    // Profile was successfully fetched and password matches
+                    // Set session token as id and return ok (200 response)
+                    return ok(Json.toJson(profile)).addingToSession(request, AUTHORIZED, profile.id.toString());
+                }
+
+                return unauthorized(ApiError.unauthorized());
+            } else {
+                // User is logged in
+                if (!validJson) {
+                    // If JSON Object contains no user or pass key, return bad request
+                    return badRequest(Json.toJson(loggedInUser));
+                }
+
+                return ok(Json.toJson(ALREADY_LOGGED_IN));
+            }
+        }, executionContext);
     }
 
 
@@ -105,7 +117,8 @@ public class AuthenticationController extends Controller {
      *
      * @return ok() (Http 200) result, as logout should always succeed.
      */
-    public Result logout() {
-        return ok(Json.toJson(LOGGED_OUT)).withNewSession(); // Sets a new session, clearing the old one
+    public CompletionStage<Result> logout() {
+        // Nothing to look up, so there is no need to hand off to the database execution context.
+        return completedFuture(ok(Json.toJson(LOGGED_OUT)).withNewSession()); // Sets a new session, clearing the old one
     }
 }
@@ -0,0 +1,64 @@
+package controllers.util;
+
+import com.google.inject.Inject;
+import models.profiles.Principal;
+import models.util.ApiError;
+import play.mvc.Controller;
+import play.mvc.Http;
+import play.mvc.Result;
+import repositories.DatabaseExecutionContext;
+import services.monitoring.MetricsRegistry;
+import services.profiles.PrincipalCache;
+import util.AuthenticationUtil;
+
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Controller to expose the application's metrics, such as route latencies and connection pool usage, to be scraped
+ * by Prometheus. These metrics can only be viewed by an admin.
+ */
+public class MetricsController extends Controller {
+
+    private static final String PROMETHEUS_TEXT = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String NO_STORE = "no-store";
+
+    private MetricsRegistry metricsRegistry;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
+
+    @Inject
+    public MetricsController(MetricsRegistry metricsRegistry,
+                             PrincipalCache principalCache,
+                             DatabaseExecutionContext executionContext) {
+        this.metricsRegistry = metricsRegistry;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
+    }
+
+
+    /**
+     * Retrieves all of the application's metrics in the Prometheus text format.
+     *
+     * @param request   Http request from the client.
+     * @return          unauthorized() (Http 401) if a user is not logged in.
+     *                  forbidden() (Http 403) if the logged in user is not an admin.
+     *                  ok() (Http 200) containing the metrics.
+     */
+    public CompletionStage<Result> metrics(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
+
+            return ok(metricsRegistry.scrape()).as(PROMETHEUS_TEXT).withHeader(CACHE_CONTROL, NO_STORE);
+        }, executionContext);
+    }
+}
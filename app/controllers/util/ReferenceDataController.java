@@ -0,0 +1,62 @@
+package controllers.util;
+
+import com.google.inject.Inject;
+import models.profiles.Principal;
+import models.util.ApiError;
+import play.mvc.Controller;
+import play.mvc.Http;
+import play.mvc.Result;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
+import util.AuthenticationUtil;
+
+import java.util.concurrent.CompletionStage;
+
+import static java.util.concurrent.CompletableFuture.supplyAsync;
+
+/**
+ * Controller to manage the reference data held in memory, such as nationalities, traveller types and badges.
+ * These actions can only be performed by an admin.
+ */
+public class ReferenceDataController extends Controller {
+
+    private ReferenceDataCatalog referenceDataCatalog;
+    private PrincipalCache principalCache;
+    private DatabaseExecutionContext executionContext;
+
+    @Inject
+    public ReferenceDataController(ReferenceDataCatalog referenceDataCatalog,
+                                   PrincipalCache principalCache,
+                                   DatabaseExecutionContext executionContext) {
+        this.referenceDataCatalog = referenceDataCatalog;
+        this.principalCache = principalCache;
+        this.executionContext = executionContext;
+    }
+
+
+    /**
+     * Reloads all of the reference data from the database, so that changes made to the reference tables are used.
+     *
+     * @param request   Http request from the client.
+     * @return          unauthorized() (Http 401) if a user is not logged in.
+     *                  forbidden() (Http 403) if the logged in user is not an admin.
+     *                  ok() (Http 200) once the reference data has been reloaded.
+     */
+    public CompletionStage<Result> reload(Http.Request request) {
+        return supplyAsync(() -> {
+            Principal loggedInUser = AuthenticationUtil.validateAuthentication(principalCache, request);
+
+            if (loggedInUser == null) {
+                return unauthorized(ApiError.unauthorized());
+            }
+
+            if (!loggedInUser.isAdmin()) {
+                return forbidden(ApiError.forbidden());
+            }
+
+            referenceDataCatalog.reload();
+            return ok();
+        }, executionContext);
+    }
+}
@@ -1,11 +1,14 @@
 package models.destinations;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.ebean.annotation.Index;
 import models.util.BaseModel;
 import models.profiles.Profile;
 import models.profiles.TravellerType;
 import models.photos.PersonalPhoto;
 import models.trips.TripDestination;
+import util.TextUtil;
+
 import javax.persistence.*;
 import java.util.*;
 
@@ -64,6 +67,14 @@ public class Destination extends BaseModel {
      */
     private Boolean isPublic;
 
+    /**
+     * The fingerprint of the name, type, district, latitude, longitude and country of the destination, so that
+     * duplicate destinations can be found with a single indexed lookup. Updated whenever the destination is saved.
+     */
+    @JsonIgnore
+    @Index
+    private String fingerprint;
+
     /**
      * List of trip destinations that the destination is associated with.
      */
@@ -265,10 +276,44 @@ public class Destination extends BaseModel {
         this.tripDestinations = tripDestinations;
     }
 
+
+    /**
+     * Calculates the fingerprint of this destination from its current name, type, district, latitude, longitude and
+     * country. Destinations whose text differs only in case, accents or spacing have the same fingerprint, so it can
+     * be used to find duplicates both in the database and in memory.
+     *
+     * @return the hex encoded fingerprint of the destination.
+     */
+    public String calculateFingerprint() {
+        return TextUtil.fingerprint(
+                name,
+                type == null || type.getId() == null ? null : type.getId().toString(),
+                district,
+                // Adding zero folds negative zero into zero
+                Double.toString(latitude + 0.0),
+                Double.toString(longitude + 0.0),
+                country);
+    }
+
+
+    /**
+     * Stores the fingerprint of this destination before it is inserted or updated. A destination without a name is
+     * one built from a request with only its id set, such as the destination of a new objective, so the fingerprint
+     * already stored is kept rather than replaced with one of empty fields.
+     */
+    @PrePersist
+    @PreUpdate
+    public void updateFingerprint() {
+        if (name != null) {
+            fingerprint = calculateFingerprint();
+        }
+    }
+
     /**
      * Checks if an Object is equal to this instance of Destination.
      * A Destination is considered equal if:
      * name, type, district, country, latitude and longitude are equal.
+     * Text is compared ignoring case, accents and spacing, matching the fingerprint used to find duplicates.
      *
      * @param obj   other object which this instance is being compared to.
      * @return      true if this object is equal to obj.
@@ -281,10 +326,10 @@ public class Destination extends BaseModel {
 
         Destination other = (Destination) obj;
 
-        return other.getName().equals(this.name) &&
-                other.getType().equals(this.type) &&
-                other.getDistrict().equals(this.district) &&
-                other.getCountry().equals(this.country) &&
+        return TextUtil.fold(other.getName()).equals(TextUtil.fold(this.name)) &&
+                Objects.equals(other.getType(), this.type) &&
+                TextUtil.fold(other.getDistrict()).equals(TextUtil.fold(this.district)) &&
+                TextUtil.fold(other.getCountry()).equals(TextUtil.fold(this.country)) &&
                 other.getLatitude() == this.latitude &&
                 other.getLongitude() == this.longitude;
     }
@@ -293,16 +338,18 @@ public class Destination extends BaseModel {
     /**
      * Calculates the hashcode of this Destination using:
      * name, type, district, country, latitude and longitude.
+     * Text is folded first, so destinations equal ignoring case, accents and spacing have the same hashcode.
      *
      * @return  hashcode of the object.
      */
     @Override
     public int hashCode() {
-        return Objects.hash(this.name,
+        return Objects.hash(TextUtil.fold(this.name),
                 this.type,
-                this.district,
-                this.country,
-                this.latitude,
-                this.longitude);
+                TextUtil.fold(this.district),
+                TextUtil.fold(this.country),
+                // Adding zero folds negative zero into zero, which compare equal
+                this.latitude + 0.0,
+                this.longitude + 0.0);
     }
 }
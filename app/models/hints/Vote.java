@@ -5,8 +5,14 @@ import models.profiles.Profile;
 import models.util.BaseModel;
 import javax.persistence.Entity;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
 
+/**
+ * A user's vote on a hint. Each user has at most one vote on each hint.
+ */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"voter_id", "target_hint_id"}))
 public class Vote extends BaseModel {
 
     /**
@@ -33,6 +39,10 @@ public class Vote extends BaseModel {
         this.targetHint = targetHint;
     }
 
+    public Hint getTargetHint() {
+        return targetHint;
+    }
+
     public boolean isUpVote() {
         return isUpVote;
     }
@@ -13,10 +13,11 @@ import java.util.Objects;
 public class PersonalPhoto extends BaseModel {
 
     /**
-     * The instance of the actual photo.
+     * The instance of the actual photo. Photos are shared between identical uploads, so are not removed with the
+     * personal photo.
      */
     @JsonIgnore
-    @ManyToOne(cascade=CascadeType.ALL)
+    @ManyToOne(cascade=CascadeType.PERSIST)
     private Photo photo;
 
 
@@ -5,9 +5,15 @@ import models.util.BaseModel;
 import models.profiles.Profile;
 
 import javax.persistence.CascadeType;
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.ManyToOne;
+import javax.persistence.OneToMany;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Class for holding a photo
@@ -29,6 +35,28 @@ public class Photo extends BaseModel {
     private String thumbnailFilename;
 
 
+    /**
+     * Whether the photo's thumbnail has been generated. Thumbnails are generated in the background after upload.
+     */
+    @JsonIgnore
+    private boolean thumbnailReady;
+
+
+    /**
+     * The hex encoded SHA-256 hash of the image, which the image is stored under. Identical uploads share one photo.
+     */
+    @JsonIgnore
+    @Column(unique = true)
+    private String contentHash;
+
+
+    /**
+     * The number of personal photos using this photo. The stored image is deleted when this reaches zero.
+     */
+    @JsonIgnore
+    private int referenceCount;
+
+
     /**
      * Content type of the saved image.
      */
@@ -51,6 +79,14 @@ public class Photo extends BaseModel {
     private Profile uploadProfile;
 
 
+    /**
+     * Smaller copies of the photo, generated in the background after upload.
+     */
+    @JsonIgnore
+    @OneToMany(mappedBy = "photo", cascade = CascadeType.ALL)
+    private List<PhotoRendition> renditions;
+
+
     public String getMainFilename() {
         return mainFilename;
     }
@@ -71,6 +107,36 @@ public class Photo extends BaseModel {
     }
 
 
+    public boolean isThumbnailReady() {
+        return thumbnailReady;
+    }
+
+
+    public void setThumbnailReady(boolean thumbnailReady) {
+        this.thumbnailReady = thumbnailReady;
+    }
+
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
+
+    public int getReferenceCount() {
+        return referenceCount;
+    }
+
+
+    public void setReferenceCount(int referenceCount) {
+        this.referenceCount = referenceCount;
+    }
+
+
     public LocalDate getUploadDate() {
         return uploadDate;
     }
@@ -100,4 +166,41 @@ public class Photo extends BaseModel {
         this.contentType = contentType;
     }
 
+
+    public List<PhotoRendition> getRenditions() {
+        if (renditions == null) {
+            renditions = new ArrayList<>();
+        }
+        return renditions;
+    }
+
+
+    public void addRendition(PhotoRendition rendition) {
+        getRenditions().add(rendition);
+    }
+
+
+    /**
+     * Finds whether the photo has a rendition of the given width.
+     *
+     * @param width the width of the rendition.
+     * @return      true if a rendition of the given width exists.
+     */
+    public boolean hasRendition(int width) {
+        return getRenditions().stream().anyMatch(rendition -> rendition.getWidth() == width);
+    }
+
+
+    /**
+     * Finds the smallest rendition at least as wide as the given width.
+     *
+     * @param width the width the client wants to display the photo at.
+     * @return      an optional containing the rendition, or empty if no rendition is wide enough.
+     */
+    public Optional<PhotoRendition> findRendition(int width) {
+        return getRenditions()
+                .stream()
+                .filter(rendition -> rendition.getWidth() >= width)
+                .min(Comparator.comparingInt(PhotoRendition::getWidth));
+    }
 }
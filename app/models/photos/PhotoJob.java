@@ -0,0 +1,50 @@
+package models.photos;
+
+import models.util.BaseModel;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+
+/**
+ * A pending piece of background processing for an uploaded photo, such as generating its thumbnail.
+ * Jobs are stored so that processing resumes after a restart, and are deleted once complete.
+ */
+@Entity
+public class PhotoJob extends BaseModel {
+
+    /**
+     * The photo to be processed.
+     */
+    @ManyToOne
+    private Photo photo;
+
+
+    /**
+     * The number of times processing this job has failed.
+     */
+    private int attempts;
+
+
+    public PhotoJob(Photo photo) {
+        this.photo = photo;
+        this.attempts = 0;
+    }
+
+
+    public Photo getPhoto() {
+        return photo;
+    }
+
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+
+    /**
+     * Records a failed attempt at processing this job.
+     */
+    public void addAttempt() {
+        attempts++;
+    }
+}
@@ -0,0 +1,80 @@
+package models.photos;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import models.util.BaseModel;
+
+import javax.persistence.Entity;
+import javax.persistence.ManyToOne;
+
+/**
+ * A pre-generated copy of a photo scaled to a smaller width, served in place of the original when a client only needs
+ * a smaller image.
+ */
+@Entity
+public class PhotoRendition extends BaseModel {
+
+    /**
+     * The photo this is a rendition of.
+     */
+    @JsonIgnore
+    @ManyToOne
+    private Photo photo;
+
+
+    /**
+     * The filename of the saved rendition.
+     */
+    private String filename;
+
+
+    /**
+     * The width of the rendition in pixels.
+     */
+    private int width;
+
+
+    /**
+     * The height of the rendition in pixels.
+     */
+    private int height;
+
+
+    /**
+     * The size of the saved rendition in bytes.
+     */
+    private long fileSize;
+
+
+    public PhotoRendition(Photo photo, String filename, int width, int height, long fileSize) {
+        this.photo = photo;
+        this.filename = filename;
+        this.width = width;
+        this.height = height;
+        this.fileSize = fileSize;
+    }
+
+
+    public Photo getPhoto() {
+        return photo;
+    }
+
+
+    public String getFilename() {
+        return filename;
+    }
+
+
+    public int getWidth() {
+        return width;
+    }
+
+
+    public int getHeight() {
+        return height;
+    }
+
+
+    public long getFileSize() {
+        return fileSize;
+    }
+}
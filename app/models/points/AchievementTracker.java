@@ -2,10 +2,12 @@ package models.points;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
 import io.ebean.annotation.NotNull;
 import models.profiles.Profile;
 import models.util.BaseModel;
-import repositories.points.AchievementTrackerRepository;
+import services.points.LeaderboardService;
 
 import javax.persistence.*;
 import java.util.*;
@@ -18,6 +20,13 @@ import java.util.stream.Collectors;
 @Entity
 public class AchievementTracker extends BaseModel {
 
+    /**
+     * The leaderboard used to rank trackers by their points. Statically injected, as trackers are created by Ebean.
+     * Injected as a provider, as static injection runs before Ebean is started and the leaderboard uses a repository.
+     */
+    @Inject
+    private static Provider<LeaderboardService> leaderboardService;
+
     /**
      * The points attained for the user.
      */
@@ -162,6 +171,9 @@ public class AchievementTracker extends BaseModel {
      */
     @JsonProperty("rank")
     public int getRank() {
-        return AchievementTrackerRepository.getRank(this.owner);
+        if (leaderboardService == null) {
+            return 0;
+        }
+        return leaderboardService.get().getRank(points);
     }
 }
@@ -49,6 +49,30 @@ public class Badge extends BaseModel {
     public Action getActionToAchieve() { return actionToAchieve; }
 
 
+    public void setActionToAchieve(Action actionToAchieve) {
+        this.actionToAchieve = actionToAchieve;
+    }
+
+
+    /**
+     * Creates a copy of this badge without any progress, so progress can be set on the copy without changing this
+     * badge.
+     *
+     * @return a new badge with the same id, action, name, breakpoints and description as this badge.
+     */
+    public Badge copy() {
+        Badge copy = new Badge();
+        copy.setId(id);
+        copy.actionToAchieve = actionToAchieve;
+        copy.name = name;
+        copy.bronzeBreakpoint = bronzeBreakpoint;
+        copy.silverBreakpoint = silverBreakpoint;
+        copy.goldBreakpoint = goldBreakpoint;
+        copy.howToProgress = howToProgress;
+        return copy;
+    }
+
+
     /**
      * Set the progress of the badge, used by the badge progress class to set the progress before returning.
      *
@@ -0,0 +1,34 @@
+package models.profiles;
+
+/**
+ * The logged in user of a request, holding only what is needed to check what they are allowed to do. Principals are
+ * immutable, so they can be cached between requests without holding on to a profile entity.
+ */
+public final class Principal {
+
+    private final Long id;
+    private final String username;
+    private final boolean isAdmin;
+
+
+    public Principal(Profile profile) {
+        this.id = profile.getId();
+        this.username = profile.getUsername();
+        this.isAdmin = profile.isAdmin();
+    }
+
+
+    public Long getId() {
+        return id;
+    }
+
+
+    public String getUsername() {
+        return username;
+    }
+
+
+    public boolean isAdmin() {
+        return isAdmin;
+    }
+}
@@ -2,14 +2,19 @@ package models.quests;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.ebean.annotation.Index;
+import models.destinations.Destination;
 import models.util.ApiError;
 import models.util.BaseModel;
 import models.profiles.Profile;
 import models.objectives.Objective;
 import models.util.Errors;
+import util.GeoUtil;
+import util.QueryUtil;
 
 import javax.persistence.*;
 import java.util.*;
+import java.util.regex.Pattern;
 
 
 /**
@@ -19,6 +24,8 @@ import java.util.*;
 public class Quest extends BaseModel {
 
     private static final int MAX_TITLE_SIZE = 255;
+    private static final String COUNTRY_SEPARATOR = "|";
+    private static final String LIKE_WILDCARD = "%";
 
     /**
      * List of objectives to be solved in this quest.
@@ -26,6 +33,29 @@ public class Quest extends BaseModel {
     @OneToMany(cascade = CascadeType.ALL, mappedBy = "questUsing")
     private List<Objective> objectives;
 
+    /**
+     * Number of objectives in this quest, kept in step with the objectives so quests can be searched by their number
+     * of objectives without loading them.
+     */
+    @JsonIgnore
+    @Index
+    private int objectiveCount;
+
+    /**
+     * Total distance in metres from each objective destination of this quest to the next. Stored when the quest is
+     * created or edited, so completing the quest does not load every destination to measure it.
+     */
+    @JsonIgnore
+    private Integer totalDistanceMeters;
+
+    /**
+     * Countries of the objective destinations of this quest, each surrounded by a separator, so the quest can be found
+     * by country without joining its objectives and destinations. Stored along with the total distance.
+     */
+    @JsonIgnore
+    @Lob
+    private String countries;
+
     /**
      * List of attempts that have been had on this quest.
      */
@@ -95,16 +125,80 @@ public class Quest extends BaseModel {
 
 
     /**
-     * Returns a set containing all countries within the quest objectives.
+     * Measures the total distance between the objective destinations of this quest and finds their countries, so they
+     * can be stored with the quest. Must be called whenever the objectives are set, after their destinations have
+     * been loaded.
+     */
+    public void updateRoute() {
+        double distance = 0;
+        Set<String> objectiveCountries = new TreeSet<>();
+        Destination previous = null;
+        for (Objective objective : objectives) {
+            Destination destination = objective.getDestination();
+            if (destination == null) {
+                continue;
+            }
+            if (previous != null) {
+                distance += GeoUtil.distance(previous.getLatitude(), previous.getLongitude(),
+                        destination.getLatitude(), destination.getLongitude());
+            }
+            objectiveCountries.add(destination.getCountry());
+            previous = destination;
+        }
+
+        totalDistanceMeters = (int) Math.ceil(distance);
+        StringBuilder builder = new StringBuilder(COUNTRY_SEPARATOR);
+        for (String country : objectiveCountries) {
+            builder.append(country).append(COUNTRY_SEPARATOR);
+        }
+        countries = builder.toString();
+    }
+
+
+    /**
+     * Returns the total distance in metres from each objective destination of this quest to the next. Quests stored
+     * before the distance was kept have it measured from their objectives.
+     *
+     * @return      the total distance in metres.
+     */
+    @JsonIgnore
+    public int getTotalDistanceMeters() {
+        if (totalDistanceMeters == null) {
+            updateRoute();
+        }
+        return totalDistanceMeters;
+    }
+
+
+    /**
+     * Returns a set containing all countries within the quest objectives. Quests stored before the countries were
+     * kept have them found from their objectives.
      *
      * @return      a set of strings of countries.
      */
     public Set<String> getObjectiveCountries() {
-        Set<String> countries = new HashSet<>();
-        for (Objective objective : objectives) {
-            countries.add(objective.getDestination().getCountry());
+        if (countries == null) {
+            updateRoute();
         }
-        return countries;
+        Set<String> objectiveCountries = new TreeSet<>();
+        for (String country : countries.split(Pattern.quote(COUNTRY_SEPARATOR))) {
+            if (!country.isEmpty()) {
+                objectiveCountries.add(country);
+            }
+        }
+        return objectiveCountries;
+    }
+
+
+    /**
+     * Creates a like pattern matching the stored countries of quests with an objective in the given country. Wildcards
+     * in the country are escaped, so only the exact country matches.
+     *
+     * @param country   the country being searched for.
+     * @return          the like pattern for the countries column.
+     */
+    public static String getCountryPattern(String country) {
+        return LIKE_WILDCARD + COUNTRY_SEPARATOR + QueryUtil.escapeLike(country) + COUNTRY_SEPARATOR + LIKE_WILDCARD;
     }
 
 
@@ -114,18 +208,28 @@ public class Quest extends BaseModel {
 
     public void setObjectives(List<Objective> objectives) {
         this.objectives = objectives;
+        this.objectiveCount = objectives == null ? 0 : objectives.size();
     }
 
     public boolean addObjective(Objective objective) {
-        return objectives.add(objective);
+        boolean added = objectives.add(objective);
+        objectiveCount = objectives.size();
+        return added;
     }
 
     public void clearObjectives() {
         objectives.clear();
+        objectiveCount = 0;
     }
 
     public boolean removeObjective(Objective objective) {
-        return objectives.remove(objective);
+        boolean removed = objectives.remove(objective);
+        objectiveCount = objectives.size();
+        return removed;
+    }
+
+    public int getObjectiveCount() {
+        return objectiveCount;
     }
 
     public String getTitle() {
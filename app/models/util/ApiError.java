@@ -81,4 +81,14 @@ public class ApiError {
     public static JsonNode badRequest(Errors message) {
         return Json.toJson(Arrays.asList(new ApiError(message.toString())));
     }
-}
\ No newline at end of file
+
+
+    public static JsonNode conflict(Errors message) {
+        return Json.toJson(Arrays.asList(new ApiError(message.toString())));
+    }
+
+
+    public static JsonNode serviceUnavailable(Errors message) {
+        return Json.toJson(Arrays.asList(new ApiError(message.toString())));
+    }
+}
@@ -16,6 +16,7 @@ public enum Errors {
     INVALID_PHOTO_SIZE( "Images can't be larger than 5MB."),
     INVALID_PHOTO_TYPE( "Images must be a jpeg or png."),
     INVALID_NO_IMAGES_PROVIDED("No images to upload."),
+    PHOTO_PROCESSING_BUSY("Photo processing is busy, please try again later."),
     OBJECTIVE_IN_USE("Cannot delete, objective is currently used in a quest."),
     HASH_FAIL("Unable to hash the user password."),
     INVALID_NATIONALITY_TRAVELLER_TYPES("Invalid number of Nationalities/Traveller Types."),
@@ -31,8 +32,13 @@ public enum Errors {
     NO_OBJECTIVE_RADIUS("You must select a range for an objective destination's check in"),
     INVALID_PAGE_SIZE_REQUESTED("Invalid page size provided."),
     INVALID_PAGE_NUMBER_REQUESTED("Invalid page number provided."),
+    INVALID_PAGE_CURSOR("Invalid page cursor provided."),
+    INVALID_NEAR_QUERY("Near must be a latitude and longitude, with a positive radius in metres."),
+    INVALID_CHECK_IN_LOCATION("A valid latitude and longitude must be provided to check in."),
+    CHECK_IN_OUT_OF_RANGE("You must be within range of the objective destination to check in."),
     HINT_NOT_FOUND("The requested hint is not found."),
     VOTE_ALREADY_EXISTS("You already have voted on this hint."),
+    VOTE_CONFLICT("Your vote on this hint was changed by another request, please try again."),
     HINT_OBJECTIVE_SOLVED("You cannot request a hint for an objective you have already solved."),
     HINT_OBJECTIVE_OWNER("You cannot request a hint for an objective you own."),
     NO_QUEST_TITLE("A quest title must be provided."),
@@ -0,0 +1,75 @@
+package models.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import io.ebean.event.BeanPersistAdapter;
+import io.ebean.event.BeanPersistRequest;
+import models.points.AchievementTracker;
+import services.points.LeaderboardService;
+import util.TransactionUtil;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Keeps the leaderboard up to date as achievement trackers are saved and deleted. Ebean finds and creates this
+ * listener itself, and calls it as each change is persisted. The leaderboard is only changed once the transaction
+ * making the change commits, so a save that fails or is rolled back never reaches it.
+ */
+public class LeaderboardListener extends BeanPersistAdapter {
+
+    private static final Set<String> POINTS_FIELDS = Collections.singleton("points");
+
+    /**
+     * The leaderboard of tracker points. Statically injected, as the listener is created by Ebean. Injected as a
+     * provider, as static injection runs before Ebean is started and the leaderboard uses a repository.
+     */
+    @Inject
+    private static Provider<LeaderboardService> leaderboardService;
+
+
+    @Override
+    public boolean isRegisterFor(Class<?> cls) {
+        return AchievementTracker.class.isAssignableFrom(cls);
+    }
+
+
+    @Override
+    public void postInsert(BeanPersistRequest<?> request) {
+        Long trackerId = ((AchievementTracker) request.getBean()).getId();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> refresh(trackerId));
+    }
+
+
+    @Override
+    public void postUpdate(BeanPersistRequest<?> request) {
+        // Dirty properties are only known while the update is persisted, not once it commits
+        if (request.hasDirtyProperty(POINTS_FIELDS)) {
+            Long trackerId = ((AchievementTracker) request.getBean()).getId();
+            TransactionUtil.afterCommit(request.getTransaction(), () -> refresh(trackerId));
+        }
+    }
+
+
+    @Override
+    public void postDelete(BeanPersistRequest<?> request) {
+        Long trackerId = ((AchievementTracker) request.getBean()).getId();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> {
+            if (leaderboardService != null) {
+                leaderboardService.get().removeTracker(trackerId);
+            }
+        });
+    }
+
+
+    /**
+     * Moves a tracker to its committed points on the leaderboard.
+     *
+     * @param trackerId the id of the saved tracker.
+     */
+    private void refresh(Long trackerId) {
+        if (leaderboardService != null) {
+            leaderboardService.get().refreshTracker(trackerId);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package models.util;
+
+import io.ebean.config.ServerConfig;
+import io.ebean.event.ServerConfigStartup;
+import services.monitoring.QueryCountingDataSource;
+
+/**
+ * Wraps the DataSource used by Ebean so that the statements issued by each request are counted. Ebean finds and
+ * creates this class itself, and calls it before the server is started.
+ */
+public class QueryCountingStartup implements ServerConfigStartup {
+
+    @Override
+    public void onStart(ServerConfig serverConfig) {
+        if (serverConfig.getDataSource() != null) {
+            serverConfig.setDataSource(QueryCountingDataSource.wrap(serverConfig.getDataSource()));
+        }
+    }
+}
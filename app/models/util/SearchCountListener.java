@@ -0,0 +1,90 @@
+package models.util;
+
+import com.google.inject.Inject;
+import io.ebean.event.BeanPersistAdapter;
+import io.ebean.event.BeanPersistRequest;
+import models.points.AchievementTracker;
+import models.profiles.Nationality;
+import models.profiles.Profile;
+import models.profiles.TravellerType;
+import models.quests.Quest;
+import models.quests.QuestAttempt;
+import services.search.SearchCountCache;
+import util.TransactionUtil;
+
+/**
+ * Invalidates the cached search counts as the entities they depend on are saved and deleted. Profile counts depend on
+ * profiles, their achievement points, nationalities and traveller types, and available quest counts depend on quests
+ * and quest attempts. Ebean finds and creates this listener itself, and calls it as each change is persisted. Counts
+ * are only invalidated once the transaction making the change commits, so a count taken while the change is still
+ * uncommitted is not cached past it, and a change that is rolled back invalidates nothing.
+ */
+public class SearchCountListener extends BeanPersistAdapter {
+
+    /**
+     * The cache holding the search counts. Statically injected, as the listener is created by Ebean.
+     */
+    @Inject
+    private static SearchCountCache searchCountCache;
+
+
+    @Override
+    public boolean isRegisterFor(Class<?> cls) {
+        return getCountedType(cls) != null;
+    }
+
+
+    @Override
+    public void postInsert(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> invalidate(bean));
+    }
+
+
+    @Override
+    public void postUpdate(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> invalidate(bean));
+    }
+
+
+    @Override
+    public void postDelete(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> invalidate(bean));
+    }
+
+
+    /**
+     * Invalidates the counts that may have been changed by persisting the given bean.
+     *
+     * @param bean  the saved or deleted bean.
+     */
+    private void invalidate(Object bean) {
+        if (searchCountCache == null) {
+            return;
+        }
+        Class<?> countedType = getCountedType(bean.getClass());
+        if (countedType != null) {
+            searchCountCache.invalidate(countedType);
+        }
+    }
+
+
+    /**
+     * Gets the type of entity whose counts depend on entities of the given type.
+     *
+     * @param cls   the type of a persisted entity.
+     * @return      the type of entity counted, or null if no counts depend on the given type.
+     */
+    private static Class<?> getCountedType(Class<?> cls) {
+        if (Profile.class.isAssignableFrom(cls) || AchievementTracker.class.isAssignableFrom(cls)
+                || Nationality.class.isAssignableFrom(cls) || TravellerType.class.isAssignableFrom(cls)) {
+            return Profile.class;
+        }
+        if (Quest.class.isAssignableFrom(cls) || QuestAttempt.class.isAssignableFrom(cls)) {
+            return Quest.class;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,100 @@
+package models.util;
+
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import io.ebean.event.BeanPersistAdapter;
+import io.ebean.event.BeanPersistRequest;
+import models.destinations.Destination;
+import models.profiles.Profile;
+import services.search.SearchIndexService;
+import util.TransactionUtil;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Keeps the search indexes up to date as profiles and destinations are saved and deleted. Ebean finds and creates
+ * this listener itself, and calls it as each change is persisted. The indexes are only changed once the transaction
+ * making the change commits, in the committing thread, so a search made straight after a save sees it and a change
+ * that is rolled back never reaches them.
+ */
+public class SearchIndexListener extends BeanPersistAdapter {
+
+    private static final Set<String> PROFILE_FIELDS =
+            Collections.unmodifiableSet(new HashSet<>(Arrays.asList("firstName", "middleName", "lastName")));
+    private static final Set<String> DESTINATION_FIELDS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("name", "district", "country", "latitude", "longitude")));
+
+    /**
+     * The service holding the search indexes. Statically injected, as the listener is created by Ebean. Injected as a
+     * provider, as static injection runs before Ebean is started and the service uses repositories.
+     */
+    @Inject
+    private static Provider<SearchIndexService> searchIndexService;
+
+
+    @Override
+    public boolean isRegisterFor(Class<?> cls) {
+        return Profile.class.equals(cls) || Destination.class.equals(cls);
+    }
+
+
+    @Override
+    public void postInsert(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> index(bean));
+    }
+
+
+    @Override
+    public void postUpdate(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        // Dirty properties are only known while the update is persisted, not once it commits
+        if (request.hasDirtyProperty(bean instanceof Profile ? PROFILE_FIELDS : DESTINATION_FIELDS)) {
+            TransactionUtil.afterCommit(request.getTransaction(), () -> index(bean));
+        }
+    }
+
+
+    @Override
+    public void postDelete(BeanPersistRequest<?> request) {
+        Object bean = request.getBean();
+        TransactionUtil.afterCommit(request.getTransaction(), () -> remove(bean));
+    }
+
+
+    /**
+     * Removes a deleted profile or destination from the indexes.
+     *
+     * @param bean  the deleted profile or destination.
+     */
+    private void remove(Object bean) {
+        if (searchIndexService == null) {
+            return;
+        }
+        if (bean instanceof Profile) {
+            searchIndexService.get().removeProfile(((Profile) bean).getId());
+        } else if (bean instanceof Destination) {
+            searchIndexService.get().removeDestination(((Destination) bean).getId());
+        }
+    }
+
+
+    /**
+     * Indexes the searchable fields of a saved profile or destination.
+     *
+     * @param bean  the saved profile or destination.
+     */
+    private void index(Object bean) {
+        if (searchIndexService == null) {
+            return;
+        }
+        if (bean instanceof Profile) {
+            searchIndexService.get().indexProfile((Profile) bean);
+        } else if (bean instanceof Destination) {
+            searchIndexService.get().indexDestination((Destination) bean);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package repositories;
+
+import akka.actor.ActorSystem;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import play.libs.concurrent.CustomExecutionContext;
+import services.monitoring.QueryStatistics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Execution context backed by the database dispatcher configured in application.conf.
+ * Any blocking JDBC work issued through the repositories should run on this context, so that it is bounded by the
+ * size of the connection pool and never starves Play's default dispatcher.
+ */
+@Singleton
+public class DatabaseExecutionContext extends CustomExecutionContext {
+
+    private static final String DATABASE_DISPATCHER = "database.dispatcher";
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+    private final AtomicInteger activeTasks = new AtomicInteger();
+
+    @Inject
+    public DatabaseExecutionContext(ActorSystem actorSystem) {
+        super(actorSystem, DATABASE_DISPATCHER);
+    }
+
+
+    /**
+     * Runs the given task on the database dispatcher, counting its statements towards the request that submitted it.
+     *
+     * @param task  the task to be run.
+     */
+    @Override
+    public void execute(Runnable task) {
+        Runnable propagatedTask = QueryStatistics.propagate(task);
+        queuedTasks.incrementAndGet();
+        try {
+            super.execute(() -> {
+                queuedTasks.decrementAndGet();
+                activeTasks.incrementAndGet();
+                try {
+                    propagatedTask.run();
+                } finally {
+                    activeTasks.decrementAndGet();
+                }
+            });
+        } catch (RuntimeException e) {
+            queuedTasks.decrementAndGet();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Gets the number of tasks waiting for a thread of the database dispatcher.
+     *
+     * @return  the number of submitted tasks that have not started running.
+     */
+    public int getQueuedTasks() {
+        return queuedTasks.get();
+    }
+
+
+    /**
+     * Gets the number of tasks running on the database dispatcher.
+     *
+     * @return  the number of tasks that have started running but not finished.
+     */
+    public int getActiveTasks() {
+        return activeTasks.get();
+    }
+}
@@ -9,6 +9,7 @@ import repositories.profiles.ProfileRepository;
 
 import com.google.inject.Inject;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -21,15 +22,11 @@ public class DestinationRepository extends BeanRepository<Long, Destination> {
     private static final String PHOTO_FIELD = "photoGallery.photo";
     private static final String PROPOSED_TRAVELLER_TYPES_ADD = "proposedTravellerTypesAdd";
     private static final String PROPOSED_TRAVELLER_TYPES_REMOVE = "proposedTravellerTypesRemove";
-    private static final String NAME = "name";
-    private static final String TYPE = "type";
-    private static final String DISTRICT = "district";
-    private static final String LATITUDE = "latitude";
-    private static final String LONGITUDE = "longitude";
-    private static final String COUNTRY = "country";
+    private static final String FINGERPRINT = "fingerprint";
     private static final String ID = "id";
     private static final String IS_PUBLIC = "is_public";
     private static final String OWNER = "owner";
+    private static final String SEARCHABLE_FIELDS = "name, district, country, latitude, longitude";
 
 
     private ProfileRepository profileRepository;
@@ -97,7 +94,8 @@ public class DestinationRepository extends BeanRepository<Long, Destination> {
 
 
     /**
-     * Returns a list of Destinations that are equal, excluding the given Destination.
+     * Returns a list of Destinations that are equal, excluding the given Destination. Destinations are equal if their
+     * fingerprints match, so text differing only in case, accents or spacing is treated as the same.
      *
      * @param destination   destination to search with.
      * @return              list of destinations that are equal.
@@ -105,17 +103,32 @@ public class DestinationRepository extends BeanRepository<Long, Destination> {
     public List<Destination> findEqual(Destination destination) {
         return query()
                 .where()
-                .eq(NAME, destination.getName())
-                .eq(TYPE, destination.getType())
-                .eq(DISTRICT, destination.getDistrict())
-                .eq(LATITUDE, destination.getLatitude())
-                .eq(LONGITUDE, destination.getLongitude())
-                .eq(COUNTRY, destination.getCountry())
+                .eq(FINGERPRINT, destination.calculateFingerprint())
                 .ne(ID, destination.getId())
                 .findList();
     }
 
 
+    /**
+     * Retrieves a batch of destinations that have no fingerprint stored, in id order. Only destinations saved before
+     * fingerprints were added have none.
+     *
+     * @param afterId   only destinations with an id greater than this are returned.
+     * @param batchSize the most destinations to return.
+     * @return          a list of destinations without a fingerprint.
+     */
+    public List<Destination> findWithoutFingerprint(Long afterId, int batchSize) {
+        return query()
+                .where()
+                .isNull(FINGERPRINT)
+                .gt(ID, afterId)
+                .orderBy()
+                .asc(ID)
+                .setMaxRows(batchSize)
+                .findList();
+    }
+
+
     /**
      * Determines if there are any destinations that match the specified destination. However, unlike the findEqual()
      * method above, any destination found must either be private to the user or a public destination.
@@ -126,12 +139,7 @@ public class DestinationRepository extends BeanRepository<Long, Destination> {
     public List<Destination> findEqualFromAvailable(Destination destination) {
         return query()
                 .where()
-                .eq(NAME, destination.getName())
-                .eq(TYPE, destination.getType())
-                .eq(DISTRICT, destination.getDistrict())
-                .eq(LATITUDE, destination.getLatitude())
-                .eq(LONGITUDE, destination.getLongitude())
-                .eq(COUNTRY, destination.getCountry())
+                .eq(FINGERPRINT, destination.calculateFingerprint())
                 .disjunction()
                     .eq(IS_PUBLIC, true)
                     .conjunction()
@@ -146,4 +154,16 @@ public class DestinationRepository extends BeanRepository<Long, Destination> {
     public ExpressionList<Destination> getExpressionList() {
         return query().where();
     }
+
+
+    /**
+     * Streams the searchable text and location of every destination to the given consumer, without holding all the
+     * destinations in memory.
+     *
+     * @param consumer  the consumer of each destination, which only has its id, name, district, country, latitude and
+     *                  longitude loaded.
+     */
+    public void findEachSearchable(Consumer<Destination> consumer) {
+        query().select(SEARCHABLE_FIELDS).findEach(consumer);
+    }
 }
@@ -2,11 +2,21 @@ package repositories.hints;
 
 import com.google.inject.Inject;
 import io.ebean.BeanRepository;
+import io.ebean.DuplicateKeyException;
 import io.ebean.Ebean;
+import io.ebean.SqlUpdate;
+import io.ebean.Transaction;
 import models.hints.Hint;
 import models.hints.Vote;
 import models.profiles.Profile;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
 /**
  * Handles database interaction for votes.
  * Extends the BeanRepository containing all CRUD methods.
@@ -15,6 +25,37 @@ public class VoteRepository extends BeanRepository<Long, Vote> {
 
     private static final String VOTER = "voter";
     private static final String TARGET_HINT = "targetHint";
+    private static final String TARGET_HINT_ID = "targetHint.id";
+
+    /**
+     * The number of times a vote is retried when a concurrent request changes the same vote first.
+     */
+    private static final int MAX_VOTE_ATTEMPTS = 3;
+
+    /**
+     * Inserts a vote. Fails with a duplicate key error if the voter already has a vote on the hint, through the
+     * unique constraint on voter_id and target_hint_id.
+     */
+    private static final String INSERT_VOTE = "INSERT INTO vote (voter_id, target_hint_id, is_up_vote) "
+            + "VALUES (?, ?, ?)";
+
+    /**
+     * Changes the direction of a vote, only if it is currently in the other direction.
+     */
+    private static final String FLIP_VOTE = "UPDATE vote SET is_up_vote = ? "
+            + "WHERE voter_id = ? AND target_hint_id = ? AND is_up_vote = ?";
+
+    /**
+     * Removes a vote, only if it is currently in the given direction.
+     */
+    private static final String REMOVE_VOTE = "DELETE FROM vote "
+            + "WHERE voter_id = ? AND target_hint_id = ? AND is_up_vote = ?";
+
+    /**
+     * Adjusts the vote counters of a hint relative to their current values.
+     */
+    private static final String ADJUST_HINT_VOTES = "UPDATE hint "
+            + "SET up_votes = up_votes + ?, down_votes = down_votes + ? WHERE id = ?";
 
     @Inject
     public VoteRepository() {
@@ -38,4 +79,142 @@ public class VoteRepository extends BeanRepository<Long, Vote> {
                 .eq(TARGET_HINT, targetHint)
                 .findOne();
     }
+
+
+    /**
+     * Retrieves all the votes the given user has made on any of the given hints, using a single query.
+     * Used to attach the user's vote to each hint in a page of hints.
+     *
+     * @param voter             the profile to find votes for.
+     * @param targetHintIds     the ids of the hints to find votes on.
+     * @return                  a map of hint id to the user's vote on that hint.
+     *                          Hints the user has not voted on have no entry.
+     */
+    public Map<Long, Vote> findAllUsing(Profile voter, Collection<Long> targetHintIds) {
+        if (targetHintIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        return query()
+                .where()
+                .eq(VOTER, voter)
+                .in(TARGET_HINT_ID, targetHintIds)
+                .findList()
+                .stream()
+                .collect(Collectors.toMap(vote -> vote.getTargetHint().getId(), Function.identity()));
+    }
+
+
+    /**
+     * The result of casting a vote.
+     */
+    public enum VoteOutcome {
+        UP_VOTE_ADDED(1),
+        UP_VOTE_REMOVED(-1),
+        UP_VOTES_UNCHANGED(0),
+        FORBIDDEN(0),
+        CONFLICT(0);
+
+        private final int upVoteChange;
+
+        VoteOutcome(int upVoteChange) {
+            this.upVoteChange = upVoteChange;
+        }
+
+
+        /**
+         * @return  the change in the hint's up votes caused by the vote, which is -1, 0 or 1.
+         */
+        public int getUpVoteChange() {
+            return upVoteChange;
+        }
+
+
+        private static VoteOutcome of(int upVoteChange) {
+            if (upVoteChange > 0) {
+                return UP_VOTE_ADDED;
+            }
+            return upVoteChange < 0 ? UP_VOTE_REMOVED : UP_VOTES_UNCHANGED;
+        }
+    }
+
+
+    /**
+     * Casts a vote on a hint for the given user, toggling their existing vote if they have one.
+     * A new vote is inserted, a vote in the same direction is removed, and a vote in the other direction is flipped.
+     *
+     * Each attempt runs in its own transaction, which locks the user's existing vote before changing it with a
+     * statement conditional on its current state, and adjusts the hint's counters in place. Concurrent votes therefore
+     * never overwrite each other's counts. A change that loses a race with another request on the same vote is rolled
+     * back and retried in a new transaction, so it sees the other request's committed vote.
+     *
+     * @param voter         the profile casting the vote.
+     * @param targetHint    the hint being voted on.
+     * @param isUpVote      true for an upvote, false for a downvote.
+     * @param mayCreateVote checked inside the transaction when the voter has no vote on the hint yet, returning
+     *                      whether they are allowed to create one.
+     * @return              the outcome of the vote. FORBIDDEN if the voter may not create a vote, and CONFLICT if
+     *                      every attempt lost a race with another request.
+     */
+    public VoteOutcome castVote(Profile voter, Hint targetHint, boolean isUpVote, BooleanSupplier mayCreateVote) {
+        for (int attempt = 0; attempt < MAX_VOTE_ATTEMPTS; attempt++) {
+            try (Transaction transaction = db().beginTransaction()) {
+                Vote existingVote = query()
+                        .forUpdate()
+                        .where()
+                        .eq(VOTER, voter)
+                        .eq(TARGET_HINT, targetHint)
+                        .findOne();
+                int upVoteChange;
+                int downVoteChange;
+
+                if (existingVote == null) {
+                    if (!mayCreateVote.getAsBoolean()) {
+                        return VoteOutcome.FORBIDDEN;
+                    }
+                    try {
+                        execute(INSERT_VOTE, voter.getId(), targetHint.getId(), isUpVote);
+                    } catch (DuplicateKeyException e) {
+                        continue;
+                    }
+                    upVoteChange = isUpVote ? 1 : 0;
+                    downVoteChange = isUpVote ? 0 : 1;
+                } else if (existingVote.isUpVote() == isUpVote) {
+                    if (execute(REMOVE_VOTE, voter.getId(), targetHint.getId(), isUpVote) == 0) {
+                        continue;
+                    }
+                    upVoteChange = isUpVote ? -1 : 0;
+                    downVoteChange = isUpVote ? 0 : -1;
+                } else {
+                    if (execute(FLIP_VOTE, isUpVote, voter.getId(), targetHint.getId(), !isUpVote) == 0) {
+                        continue;
+                    }
+                    upVoteChange = isUpVote ? 1 : -1;
+                    downVoteChange = -upVoteChange;
+                }
+
+                execute(ADJUST_HINT_VOTES, upVoteChange, downVoteChange, targetHint.getId());
+                transaction.commit();
+                return VoteOutcome.of(upVoteChange);
+            }
+        }
+
+        return VoteOutcome.CONFLICT;
+    }
+
+
+    /**
+     * Executes the given update statement with the given positional parameters.
+     *
+     * @param sql           the update statement to execute.
+     * @param parameters    the values of the statement's parameters, in order.
+     * @return              the number of rows affected.
+     */
+    private int execute(String sql, Object... parameters) {
+        SqlUpdate update = db().createSqlUpdate(sql);
+        for (Object parameter : parameters) {
+            update.setNextParameter(parameter);
+        }
+        return update.execute();
+    }
 }
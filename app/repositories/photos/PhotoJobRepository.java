@@ -0,0 +1,64 @@
+package repositories.photos;
+
+import com.google.inject.Inject;
+import io.ebean.BeanRepository;
+import io.ebean.Ebean;
+import models.photos.PhotoJob;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+
+/**
+ * Handles database interaction for photo processing jobs.
+ * Extends the BeanRepository containing all CRUD methods.
+ */
+public class PhotoJobRepository extends BeanRepository<Long, PhotoJob> {
+
+    private static final String ATTEMPTS = "attempts";
+    private static final String ID = "id";
+    private static final String PHOTO = "photo";
+    private static final String PHOTO_ID = "photo.id";
+
+    @Inject
+    public PhotoJobRepository() {
+        super(PhotoJob.class, Ebean.getDefaultServer());
+    }
+
+
+    /**
+     * Retrieves the ids of all jobs that have not yet failed the given number of times, oldest first.
+     *
+     * @param maxAttempts   the number of failed attempts after which a job is no longer retried.
+     * @return              a list of the ids of the jobs still to be processed.
+     */
+    public List<Long> findAllPending(int maxAttempts) {
+        return query()
+                .where()
+                .lt(ATTEMPTS, maxAttempts)
+                .orderBy()
+                .asc(ID)
+                .findIds();
+    }
+
+
+    /**
+     * Finds which of the given photos already have a job stored.
+     *
+     * @param photoIds  the ids of the photos to check.
+     * @return          the ids of the given photos that have a job.
+     */
+    public Set<Long> findPhotoIdsWithJobs(Collection<Long> photoIds) {
+        Set<Long> result = new HashSet<>();
+        if (photoIds.isEmpty()) {
+            return result;
+        }
+
+        for (PhotoJob job : query().select(PHOTO).where().in(PHOTO_ID, photoIds).findList()) {
+            result.add(job.getPhoto().getId());
+        }
+        return result;
+    }
+}
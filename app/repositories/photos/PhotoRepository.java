@@ -3,7 +3,11 @@ package repositories.photos;
 import com.google.inject.Inject;
 import io.ebean.BeanRepository;
 import io.ebean.Ebean;
+import io.ebean.SqlUpdate;
 import models.photos.Photo;
+import models.profiles.Profile;
+
+import java.util.List;
 
 
 /**
@@ -12,8 +16,90 @@ import models.photos.Photo;
  */
 public class PhotoRepository extends BeanRepository<Long, Photo> {
 
+    private static final String ID = "id";
+    private static final String RENDITIONS = "renditions";
+    private static final String CONTENT_HASH = "contentHash";
+    private static final String REFERENCE_COUNT = "referenceCount";
+
     @Inject
     public PhotoRepository() {
         super(Photo.class, Ebean.getDefaultServer());
     }
+
+
+    /**
+     * Retrieves the ids of a batch of photos that have no renditions, in id order.
+     *
+     * @param afterId   only photos with an id greater than this are returned.
+     * @param batchSize the most ids to return.
+     * @return          a list of the ids of photos without renditions.
+     */
+    public List<Long> findIdsWithoutRenditions(Long afterId, int batchSize) {
+        return query()
+                .where()
+                .isEmpty(RENDITIONS)
+                .gt(ID, afterId)
+                .orderBy()
+                .asc(ID)
+                .setMaxRows(batchSize)
+                .findIds();
+    }
+
+
+    /**
+     * Retrieves the photo stored with the given content hash.
+     *
+     * @param contentHash   the hex encoded SHA-256 hash of the image.
+     * @return              the photo with the given hash, or null if there is none.
+     */
+    public Photo findByContentHash(String contentHash) {
+        return query()
+                .where()
+                .eq(CONTENT_HASH, contentHash)
+                .findOne();
+    }
+
+
+    /**
+     * Retrieves the current reference count of the photo with the given id.
+     *
+     * @param id    the id of the photo.
+     * @return      the number of personal photos using the photo, or null if the photo does not exist.
+     */
+    public Integer findReferenceCount(Long id) {
+        return query()
+                .select(REFERENCE_COUNT)
+                .where()
+                .idEq(id)
+                .findSingleAttribute();
+    }
+
+
+    /**
+     * Atomically adds the given amount to the reference count of the photo with the given id.
+     *
+     * @param id        the id of the photo.
+     * @param amount    the amount to change the reference count by, negative to remove references.
+     */
+    public void addReferences(Long id, int amount) {
+        SqlUpdate update = db().createSqlUpdate(
+                "UPDATE photo SET reference_count = reference_count + ? WHERE id = ?");
+        update.setNextParameter(amount);
+        update.setNextParameter(id);
+        update.execute();
+    }
+
+
+    /**
+     * Removes the given profile as the uploader of any photos, so the profile can be deleted while other profiles
+     * still use photos it uploaded.
+     *
+     * @param uploader  the profile to be removed as an uploader.
+     */
+    public void clearUploadProfile(Profile uploader) {
+        SqlUpdate update = db().createSqlUpdate(
+                "UPDATE photo SET upload_profile_id = NULL WHERE upload_profile_id = ?");
+        update.setNextParameter(uploader.getId());
+        update.execute();
+    }
 }
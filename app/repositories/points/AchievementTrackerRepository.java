@@ -3,8 +3,11 @@ package repositories.points;
 import com.google.inject.Inject;
 import io.ebean.BeanRepository;
 import io.ebean.Ebean;
+import io.ebean.Transaction;
 import models.points.AchievementTracker;
-import models.profiles.Profile;
+
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 /**
@@ -22,45 +25,30 @@ public class AchievementTrackerRepository extends BeanRepository<Long, Achieveme
 
 
     /**
-     * Returns the number of points from a given rank.
+     * Returns the points held by every achievement tracker.
      *
-     * @param rank  the rank to find the points for.
-     * @return      the number of points relating to that rank. If the given rank is not found, return 0
+     * @return  a map of the id of each achievement tracker to its points.
      */
-    public int getPointsFromRank(int rank) {
-        AchievementTracker achievementTracker = query()
-                .setDistinct(true) // Merge rows that have identical points
+    public Map<Long, Integer> findAllPoints() {
+        return query()
                 .select(POINTS) // Only selecting points field in the achievement tracker
-                .where()
-                .orderBy()
-                .desc(POINTS) // Order by points in ascending order
-                .setFirstRow(rank - 1) // Set the first row to be returned to be rank - 1 (due to zero indexing)
-                .setMaxRows(1) // We only want one row, no need for others
-                .findOne();
-
-        if (achievementTracker == null) {
-            return 0;
-        }
-
-        return achievementTracker.getPoints();
+                .findList()
+                .stream()
+                .collect(Collectors.toMap(AchievementTracker::getId, AchievementTracker::getPoints));
     }
 
 
     /**
-     * Finds the rank of a given profile based on the points in their AchievementTracker.
+     * Returns the committed points held by an achievement tracker. Read in a transaction of its own, so it can be
+     * called while another transaction on the same thread is completing.
      *
-     * @param profileToFind  the profile to find the rank of.
-     * @return               an integer representing the rank of a profile.
+     * @param trackerId the id of the achievement tracker.
+     * @return          the points of the achievement tracker, or null if it does not exist.
      */
-    public static int getRank(Profile profileToFind) {
-        return Ebean.getDefaultServer()
-                .find(AchievementTracker.class)
-                .setDistinct(true)
-                .select(POINTS)
-                .where()
-                .ge(POINTS, profileToFind
-                        .getAchievementTracker()
-                        .getPoints())
-                .findCount();
+    public Integer findPoints(Long trackerId) {
+        try (Transaction transaction = db().createTransaction()) {
+            AchievementTracker tracker = db().find(AchievementTracker.class, trackerId, transaction);
+            return tracker == null ? null : tracker.getPoints();
+        }
     }
 }
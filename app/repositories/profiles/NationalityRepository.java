@@ -3,7 +3,6 @@ package repositories.profiles;
 import com.google.inject.Inject;
 import io.ebean.BeanRepository;
 import io.ebean.Ebean;
-import io.ebean.ExpressionList;
 import models.profiles.Nationality;
 
 
@@ -13,11 +12,6 @@ import models.profiles.Nationality;
  */
 public class NationalityRepository extends BeanRepository<Long, Nationality> {
 
-    public ExpressionList<Nationality> getExpressionList() {
-        return query().where();
-    }
-
-
     @Inject
     public NationalityRepository() {
         super(Nationality.class, Ebean.getDefaultServer());
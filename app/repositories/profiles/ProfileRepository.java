@@ -8,6 +8,7 @@ import models.profiles.Profile;
 import models.quests.Quest;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 
 /**
@@ -17,6 +18,7 @@ import java.util.List;
 public class ProfileRepository extends BeanRepository<Long, Profile> {
 
     private static final String QUEST_ATTEMPTED = "questAttempts.questAttempted";
+    private static final String NAMES = "firstName, middleName, lastName";
 
     @Inject
     public ProfileRepository() {
@@ -43,4 +45,28 @@ public class ProfileRepository extends BeanRepository<Long, Profile> {
     public int findCount() {
         return query().where().findCount();
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Streams the names of every profile to the given consumer, without holding all the profiles in memory.
+     *
+     * @param consumer  the consumer of each profile, which only has its id and names loaded.
+     */
+    public void findEachName(Consumer<Profile> consumer) {
+        query().select(NAMES).findEach(consumer);
+    }
+
+
+    /**
+     * Gets a reference to the entity of the given type with the given id, without loading it. Used to set reference
+     * data as the target of a profile's relationships, so the shared catalog entities are never attached to a profile.
+     *
+     * @param type  the type of the entity.
+     * @param id    the id of the entity.
+     * @param <T>   the type of the entity.
+     * @return      a reference to the entity, with only its id set.
+     */
+    public <T> T getReference(Class<T> type, Long id) {
+        return db().getReference(type, id);
+    }
+}
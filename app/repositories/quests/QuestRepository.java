@@ -3,11 +3,12 @@ package repositories.quests;
 import com.google.inject.Inject;
 import io.ebean.BeanRepository;
 import io.ebean.Ebean;
+import models.destinations.Destination;
 import models.objectives.Objective;
 import models.profiles.Profile;
 import io.ebean.ExpressionList;
 import models.quests.Quest;
-import models.quests.QuestAttempt;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 
@@ -24,8 +25,25 @@ public class QuestRepository extends BeanRepository<Long, Quest> {
     private static final String START_DATE = "startDate";
     private static final String END_DATE = "endDate";
     private static final String OWNER = "owner";
+    private static final String ID = "id";
+    private static final String COUNTRIES = "countries";
+    private static final String TOTAL_DISTANCE_METERS = "totalDistanceMeters";
+    private static final String OBJECTIVE_DESTINATIONS = "objectives.destination";
 
-    private QuestAttemptRepository questAttemptRepository = new QuestAttemptRepository();
+    /**
+     * Matches quests the given profile has no attempt for. Ebean always aliases the queried table as t0.
+     */
+    private static final String NOT_ATTEMPTED_BY = "not exists (select 1 from quest_attempt qa "
+            + "where qa.quest_attempted_id = t0.id and qa.attempted_by_id = ?)";
+
+    /**
+     * Sets the objective count of every quest that has objectives but a count of 0, which are the quests saved before
+     * the count was stored.
+     */
+    private static final String BACKFILL_OBJECTIVE_COUNTS = "update quest set objective_count = "
+            + "(select count(*) from objective o where o.quest_using_id = quest.id) "
+            + "where objective_count = 0 "
+            + "and exists (select 1 from objective o where o.quest_using_id = quest.id)";
 
     @Inject
     public QuestRepository() {
@@ -43,6 +61,65 @@ public class QuestRepository extends BeanRepository<Long, Quest> {
     }
 
 
+    /**
+     * Stores the number of objectives of every quest saved before the count was kept, using a single statement.
+     *
+     * @return the number of quests updated.
+     */
+    public int backfillObjectiveCounts() {
+        return db().createSqlUpdate(BACKFILL_OBJECTIVE_COUNTS).execute();
+    }
+
+
+    /**
+     * Retrieves a batch of quests that have no route distance or countries stored, in id order, with their objective
+     * destinations. Only quests saved before the route was stored have none.
+     *
+     * @param afterId   only quests with an id greater than this are returned.
+     * @param batchSize the most quests to return.
+     * @return          a list of quests without a stored route.
+     */
+    public List<Quest> findWithoutRoute(Long afterId, int batchSize) {
+        return query()
+                .fetch(OBJECTIVE_DESTINATIONS)
+                .where()
+                .disjunction()
+                    .isNull(COUNTRIES)
+                    .isNull(TOTAL_DISTANCE_METERS)
+                .endJunction()
+                .gt(ID, afterId)
+                .orderBy()
+                .asc(ID)
+                .setMaxRows(batchSize)
+                .findList();
+    }
+
+
+    /**
+     * Retrieves the quests with an objective at the given destination, with their objective destinations, so that
+     * their stored routes can be measured again.
+     *
+     * @param destination   the destination used by the objectives.
+     * @return              a list of quests with an objective at the destination.
+     */
+    public List<Quest> findAllUsing(Destination destination) {
+        List<Long> questIds = query()
+                .where()
+                .eq(OBJECTIVE_DESTINATIONS, destination)
+                .findIds();
+
+        if (questIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        return query()
+                .fetch(OBJECTIVE_DESTINATIONS)
+                .where()
+                .idIn(questIds)
+                .findList();
+    }
+
+
     /**
      * Retrieve a list of quests that a given user has completed.
      *
@@ -73,26 +150,32 @@ public class QuestRepository extends BeanRepository<Long, Quest> {
 
 
     /**
-     * Find the total number of quests that are available to the user. These are quests they don't own or haven't
-     * started.
+     * Gets the expression list to build a search query for quests available to the given profile, which are the quests
+     * they don't own and haven't attempted. Attempted quests are excluded by the database with an anti-join on quest
+     * attempts, so they are never loaded.
+     *
+     * @param profile       the profile to find the available quests for.
+     * @return              an expression list with object type Quest.
+     */
+    public ExpressionList<Quest> getAvailableExpressionList(Profile profile) {
+        return query()
+                .where()
+                .ne(OWNER, profile)
+                .raw(NOT_ATTEMPTED_BY, profile.getId());
+    }
+
+
+    /**
+     * Find the total number of quests that are available to the user. These are active quests they don't own or
+     * haven't started. The quests are counted by the database in a single query, so none of them are loaded.
      *
      * @param profile       the profiles to find the quests.
      * @return              the count of all available quests
      */
     public Integer findCountAvailable(Profile profile) {
-        List<Quest> quests = query()
-                .where()
-                .notIn(OWNER, profile)
+        return getAvailableExpressionList(profile)
                 .lt(START_DATE, new Date())
                 .gt(END_DATE, new Date())
-                .findList();
-
-        List<QuestAttempt> questAttempts = questAttemptRepository.findAllUsing(profile);
-
-        for (QuestAttempt questAttempt : questAttempts) {
-            quests.remove(questAttempt.getQuestAttempted());
-        }
-
-        return quests.size();
+                .findCount();
     }
 }
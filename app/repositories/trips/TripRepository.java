@@ -9,6 +9,8 @@ import models.destinations.Destination;
 import models.trips.Trip;
 import models.trips.TripDestination;
 import repositories.profiles.ProfileRepository;
+import util.KeysetPage;
+import util.PageCursor;
 
 import java.time.LocalDate;
 import java.util.HashSet;
@@ -139,6 +141,36 @@ public class TripRepository extends BeanRepository<Long, Trip> {
      * @return                  a list of trips.
      */
     public List<Trip> fetchFuture(Profile owner, int pageSize, int pageNumber) {
+        return futureTrips(owner)
+                .setFirstRow(pageNumber * pageSize)
+                .setMaxRows(pageSize)
+                .findPagedList()
+                .getList();
+    }
+
+
+    /**
+     * Returns the page of trips for a given owner that occur in the future, following the given cursor.
+     * Trips either have a start date greater than today or null, and are ordered by id.
+     *
+     * @param owner                     the user to request the trips for.
+     * @param pageSize                  the page size of trips requested from the front end.
+     * @param cursor                    the cursor of the previous page, or null for the first page.
+     * @return                          the page of trips, and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor was not created for trips.
+     */
+    public KeysetPage<Trip> fetchFuture(Profile owner, int pageSize, PageCursor cursor) {
+        return KeysetPage.find(futureTrips(owner), null, true, cursor, pageSize);
+    }
+
+
+    /**
+     * Creates an expression list for the trips of the given owner that occur in the future.
+     *
+     * @param owner the user to request the trips for.
+     * @return      the expression list of future trips.
+     */
+    private ExpressionList<Trip> futureTrips(Profile owner) {
         LocalDate today = LocalDate.now();
         return query()
                 .where()
@@ -146,11 +178,7 @@ public class TripRepository extends BeanRepository<Long, Trip> {
                 .disjunction()
                     .ge(DESTINATIONS_START_DATE, today)
                     .isNull(DESTINATIONS_START_DATE)
-                .endJunction()
-                .setFirstRow(pageNumber * pageSize)
-                .setMaxRows(pageSize)
-                .findPagedList()
-                .getList();
+                .endJunction();
     }
 
 
@@ -164,11 +192,7 @@ public class TripRepository extends BeanRepository<Long, Trip> {
      * @return                  a list of trips.
      */
     public List<Trip> fetchPast(Profile owner, int pageSize, int pageNumber) {
-        LocalDate today = LocalDate.now();
-        return query()
-                .where()
-                .eq(PROFILE_ID, owner.getId())
-                .lt(DESTINATIONS_START_DATE, today)
+        return pastTrips(owner)
                 .setFirstRow(pageNumber * pageSize)
                 .setMaxRows(pageSize)
                 .findPagedList()
@@ -176,6 +200,36 @@ public class TripRepository extends BeanRepository<Long, Trip> {
     }
 
 
+    /**
+     * Returns the page of trips for a given owner that occur in the past, following the given cursor.
+     * Trips have a start date less than today, and are ordered by id.
+     *
+     * @param owner                     the user to request the trips for.
+     * @param pageSize                  the page size of trips requested from the front end.
+     * @param cursor                    the cursor of the previous page, or null for the first page.
+     * @return                          the page of trips, and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor was not created for trips.
+     */
+    public KeysetPage<Trip> fetchPast(Profile owner, int pageSize, PageCursor cursor) {
+        return KeysetPage.find(pastTrips(owner), null, true, cursor, pageSize);
+    }
+
+
+    /**
+     * Creates an expression list for the trips of the given owner that occur in the past.
+     *
+     * @param owner the user to request the trips for.
+     * @return      the expression list of past trips.
+     */
+    private ExpressionList<Trip> pastTrips(Profile owner) {
+        LocalDate today = LocalDate.now();
+        return query()
+                .where()
+                .eq(PROFILE_ID, owner.getId())
+                .lt(DESTINATIONS_START_DATE, today);
+    }
+
+
     /**
      * Finds the profile id of the trip's owner.
      *
@@ -0,0 +1,108 @@
+package services.maintenance;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.destinations.Destination;
+import models.quests.Quest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repositories.destinations.DestinationRepository;
+import repositories.quests.QuestRepository;
+
+import java.util.List;
+
+/**
+ * Fills in the columns derived from other data for rows saved before those columns existed, so that the queries
+ * relying on them also find the older rows.
+ *
+ * The backfill runs on startup, before requests are served. Each step only selects rows still missing their derived
+ * value, so once complete it costs a single indexed query per step, and an interrupted backfill continues with the rows
+ * left over on the next startup.
+ */
+@Singleton
+public class BackfillService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BackfillService.class);
+    private static final int BATCH_SIZE = 100;
+
+    private final DestinationRepository destinationRepository;
+    private final QuestRepository questRepository;
+
+
+    @Inject
+    public BackfillService(DestinationRepository destinationRepository, QuestRepository questRepository) {
+        this.destinationRepository = destinationRepository;
+        this.questRepository = questRepository;
+
+        try {
+            backfill();
+        } catch (RuntimeException e) {
+            // The database may not be ready yet, such as before evolutions are applied in tests.
+            LOG.warn("Unable to backfill derived columns on startup", e);
+        }
+    }
+
+
+    /**
+     * Fills in every derived column that is missing a value.
+     */
+    public void backfill() {
+        int fingerprints = backfillDestinationFingerprints();
+        if (fingerprints > 0) {
+            LOG.info("Backfilled the fingerprints of {} destinations", fingerprints);
+        }
+
+        int objectiveCounts = questRepository.backfillObjectiveCounts();
+        if (objectiveCounts > 0) {
+            LOG.info("Backfilled the objective counts of {} quests", objectiveCounts);
+        }
+
+        int routes = backfillQuestRoutes();
+        if (routes > 0) {
+            LOG.info("Backfilled the route distance and countries of {} quests", routes);
+        }
+    }
+
+
+    /**
+     * Stores the fingerprint of every destination that has none, so duplicate detection and merging find them.
+     *
+     * @return the number of destinations updated.
+     */
+    private int backfillDestinationFingerprints() {
+        int updated = 0;
+        List<Destination> destinations = destinationRepository.findWithoutFingerprint(0L, BATCH_SIZE);
+        while (!destinations.isEmpty()) {
+            for (Destination destination : destinations) {
+                destination.updateFingerprint();
+                destinationRepository.update(destination);
+                updated++;
+            }
+            Long lastId = destinations.get(destinations.size() - 1).getId();
+            destinations = destinationRepository.findWithoutFingerprint(lastId, BATCH_SIZE);
+        }
+        return updated;
+    }
+
+
+    /**
+     * Stores the route distance and countries of every quest that has none, so searching quests by country and
+     * awarding distance badges find them.
+     *
+     * @return the number of quests updated.
+     */
+    private int backfillQuestRoutes() {
+        int updated = 0;
+        List<Quest> quests = questRepository.findWithoutRoute(0L, BATCH_SIZE);
+        while (!quests.isEmpty()) {
+            for (Quest quest : quests) {
+                quest.updateRoute();
+                questRepository.update(quest);
+                updated++;
+            }
+            Long lastId = quests.get(quests.size() - 1).getId();
+            quests = questRepository.findWithoutRoute(lastId, BATCH_SIZE);
+        }
+        return updated;
+    }
+}
@@ -0,0 +1,292 @@
+package services.monitoring;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import play.db.Database;
+import repositories.DatabaseExecutionContext;
+
+import javax.sql.DataSource;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the latency and SQL statements of every request by route, and exposes them in the Prometheus text format
+ * along with the state of the connection pool, the database dispatcher and the JVM.
+ *
+ * Requests are recorded into fixed latency buckets with LongAdders, so recording never takes a lock once a route has
+ * been seen. Gauges are read when the metrics are scraped.
+ */
+@Singleton
+public class MetricsRegistry {
+
+    private static final String LATENCY_BUCKETS = "travelea.metrics.latencyBuckets";
+
+    private static final String GAUGE = "gauge";
+    private static final String COUNTER = "counter";
+    private static final String HISTOGRAM = "histogram";
+    private static final String ROUTE_LABEL = "route";
+    private static final String GC_LABEL = "gc";
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final long[] latencyBoundsNanos;
+    private final Database database;
+    private final DatabaseExecutionContext executionContext;
+    private final ConcurrentMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+
+
+    @Inject
+    public MetricsRegistry(Config config, Database database, DatabaseExecutionContext executionContext) {
+        this(toArray(config.getDurationList(LATENCY_BUCKETS, TimeUnit.NANOSECONDS)), database, executionContext);
+    }
+
+
+    public MetricsRegistry(long[] latencyBoundsNanos, Database database, DatabaseExecutionContext executionContext) {
+        this.latencyBoundsNanos = latencyBoundsNanos.clone();
+        this.database = database;
+        this.executionContext = executionContext;
+    }
+
+
+    /**
+     * Records a handled request.
+     *
+     * @param route         the route that handled the request, such as "GET /v1/profiles".
+     * @param nanos         the time taken to handle the request, in nanoseconds.
+     * @param statistics    the SQL statements issued by the request.
+     */
+    public void recordRequest(String route, long nanos, QueryStatistics statistics) {
+        RouteMetrics metrics = routes.get(route);
+        if (metrics == null) {
+            metrics = routes.computeIfAbsent(route, key -> new RouteMetrics(latencyBoundsNanos.length));
+        }
+
+        int bucket = 0;
+        while (bucket < latencyBoundsNanos.length && nanos > latencyBoundsNanos[bucket]) {
+            bucket++;
+        }
+        metrics.buckets[bucket].increment();
+        metrics.latencyNanos.add(nanos);
+        metrics.queries.add(statistics.getQueryCount());
+        metrics.queryNanos.add(statistics.getDatabaseNanos());
+    }
+
+
+    /**
+     * Writes all of the metrics in the Prometheus text exposition format.
+     *
+     * @return  the metrics, one sample per line.
+     */
+    public String scrape() {
+        StringBuilder builder = new StringBuilder();
+        writeRoutes(builder);
+        writeConnectionPool(builder);
+
+        writeHeader(builder, "travelea_db_dispatcher_queued_tasks", GAUGE,
+                "Tasks waiting for a thread of the database dispatcher.");
+        writeSample(builder, "travelea_db_dispatcher_queued_tasks", null, null, executionContext.getQueuedTasks());
+        writeHeader(builder, "travelea_db_dispatcher_active_tasks", GAUGE,
+                "Tasks running on the database dispatcher.");
+        writeSample(builder, "travelea_db_dispatcher_active_tasks", null, null, executionContext.getActiveTasks());
+
+        writeJvm(builder);
+        return builder.toString();
+    }
+
+
+    /**
+     * Writes the latency histogram and statement counters of each route seen, in route order.
+     *
+     * @param builder   the builder the metrics are written to.
+     */
+    private void writeRoutes(StringBuilder builder) {
+        Map<String, RouteMetrics> sortedRoutes = new TreeMap<>(routes);
+
+        writeHeader(builder, "travelea_http_request_duration_seconds", HISTOGRAM,
+                "Time taken to handle requests, by route.");
+        for (Map.Entry<String, RouteMetrics> route : sortedRoutes.entrySet()) {
+            RouteMetrics metrics = route.getValue();
+            long count = 0;
+            for (int i = 0; i < metrics.buckets.length; i++) {
+                count += metrics.buckets[i].sum();
+                String bound = i < latencyBoundsNanos.length
+                        ? BigDecimal.valueOf(latencyBoundsNanos[i], 9).stripTrailingZeros().toPlainString()
+                        : "+Inf";
+                builder.append("travelea_http_request_duration_seconds_bucket{").append(ROUTE_LABEL).append("=\"")
+                        .append(escape(route.getKey())).append("\",le=\"").append(bound).append("\"} ")
+                        .append(count).append('\n');
+            }
+            writeSample(builder, "travelea_http_request_duration_seconds_sum", ROUTE_LABEL, route.getKey(),
+                    metrics.latencyNanos.sum() / NANOS_PER_SECOND);
+            writeSample(builder, "travelea_http_request_duration_seconds_count", ROUTE_LABEL, route.getKey(), count);
+        }
+
+        writeHeader(builder, "travelea_http_request_queries_total", COUNTER,
+                "SQL statements issued by requests, by route.");
+        for (Map.Entry<String, RouteMetrics> route : sortedRoutes.entrySet()) {
+            writeSample(builder, "travelea_http_request_queries_total", ROUTE_LABEL, route.getKey(),
+                    route.getValue().queries.sum());
+        }
+
+        writeHeader(builder, "travelea_http_request_query_seconds_total", COUNTER,
+                "Time spent executing the SQL statements issued by requests, by route.");
+        for (Map.Entry<String, RouteMetrics> route : sortedRoutes.entrySet()) {
+            writeSample(builder, "travelea_http_request_query_seconds_total", ROUTE_LABEL, route.getKey(),
+                    route.getValue().queryNanos.sum() / NANOS_PER_SECOND);
+        }
+    }
+
+
+    /**
+     * Writes the number of active, idle and awaited connections of the connection pool, if it has been started.
+     *
+     * @param builder   the builder the metrics are written to.
+     */
+    private void writeConnectionPool(StringBuilder builder) {
+        HikariPoolMXBean pool = getConnectionPool();
+        if (pool == null) {
+            return;
+        }
+
+        writeHeader(builder, "travelea_db_pool_active_connections", GAUGE, "Connections in use.");
+        writeSample(builder, "travelea_db_pool_active_connections", null, null, pool.getActiveConnections());
+        writeHeader(builder, "travelea_db_pool_idle_connections", GAUGE, "Connections waiting to be used.");
+        writeSample(builder, "travelea_db_pool_idle_connections", null, null, pool.getIdleConnections());
+        writeHeader(builder, "travelea_db_pool_pending_threads", GAUGE, "Threads waiting for a connection.");
+        writeSample(builder, "travelea_db_pool_pending_threads", null, null, pool.getThreadsAwaitingConnection());
+    }
+
+
+    /**
+     * Gets the HikariCP pool backing the database.
+     *
+     * @return  the pool, or null if the database is not backed by a started HikariCP pool.
+     */
+    private HikariPoolMXBean getConnectionPool() {
+        try {
+            DataSource dataSource = database.getDataSource();
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            // The pool is not reported if it cannot be reached
+        }
+        return null;
+    }
+
+
+    /**
+     * Writes the heap usage, thread count and garbage collection totals of the JVM.
+     *
+     * @param builder   the builder the metrics are written to.
+     */
+    private static void writeJvm(StringBuilder builder) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        writeHeader(builder, "jvm_memory_heap_used_bytes", GAUGE, "Heap memory in use.");
+        writeSample(builder, "jvm_memory_heap_used_bytes", null, null, heap.getUsed());
+        writeHeader(builder, "jvm_memory_heap_committed_bytes", GAUGE, "Heap memory committed by the JVM.");
+        writeSample(builder, "jvm_memory_heap_committed_bytes", null, null, heap.getCommitted());
+        writeHeader(builder, "jvm_memory_heap_max_bytes", GAUGE, "Most heap memory the JVM can use, or -1.");
+        writeSample(builder, "jvm_memory_heap_max_bytes", null, null, heap.getMax());
+
+        writeHeader(builder, "jvm_threads_current", GAUGE, "Live threads.");
+        writeSample(builder, "jvm_threads_current", null, null,
+                ManagementFactory.getThreadMXBean().getThreadCount());
+
+        List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        writeHeader(builder, "jvm_gc_collections_total", COUNTER, "Garbage collections, by collector.");
+        for (GarbageCollectorMXBean collector : collectors) {
+            writeSample(builder, "jvm_gc_collections_total", GC_LABEL, collector.getName(),
+                    collector.getCollectionCount());
+        }
+        writeHeader(builder, "jvm_gc_collection_seconds_total", COUNTER,
+                "Time spent in garbage collection, by collector.");
+        for (GarbageCollectorMXBean collector : collectors) {
+            writeSample(builder, "jvm_gc_collection_seconds_total", GC_LABEL, collector.getName(),
+                    collector.getCollectionTime() / 1000.0);
+        }
+    }
+
+
+    /**
+     * Writes the help text and type of a metric, which come before its samples.
+     *
+     * @param builder   the builder the header is written to.
+     * @param name      the name of the metric.
+     * @param type      the Prometheus type of the metric.
+     * @param help      a description of the metric.
+     */
+    private static void writeHeader(StringBuilder builder, String name, String type, String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+
+    /**
+     * Writes a single sample of a metric.
+     *
+     * @param builder       the builder the sample is written to.
+     * @param name          the name of the metric.
+     * @param labelName     the name of the sample's label, or null if it has none.
+     * @param labelValue    the value of the sample's label.
+     * @param value         the value of the sample.
+     */
+    private static void writeSample(StringBuilder builder, String name, String labelName, String labelValue,
+                                    Number value) {
+        builder.append(name);
+        if (labelName != null) {
+            builder.append('{').append(labelName).append("=\"").append(escape(labelValue)).append("\"}");
+        }
+        builder.append(' ').append(value).append('\n');
+    }
+
+
+    /**
+     * Escapes a label value, as required by the Prometheus text format.
+     *
+     * @param value the label value.
+     * @return      the value with backslashes, double quotes and line feeds escaped.
+     */
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+
+    private static long[] toArray(List<Long> values) {
+        return values.stream().mapToLong(Long::longValue).toArray();
+    }
+
+
+    /**
+     * The metrics recorded for a single route.
+     */
+    private static final class RouteMetrics {
+
+        /**
+         * Requests by latency bucket. The last bucket holds requests slower than every bound.
+         */
+        private final LongAdder[] buckets;
+        private final LongAdder latencyNanos = new LongAdder();
+        private final LongAdder queries = new LongAdder();
+        private final LongAdder queryNanos = new LongAdder();
+
+        private RouteMetrics(int bounds) {
+            buckets = new LongAdder[bounds + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package services.monitoring;
+
+import com.google.inject.Inject;
+import com.typesafe.config.Config;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.Environment;
+import play.http.ActionCreator;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.routing.Router;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Wraps every controller action so that the time taken and the SQL statements issued while handling each request are
+ * attributed to its route, and recorded in the MetricsRegistry. A warning is logged for any request issuing more
+ * statements than the configured budget, and outside of production the statement count and the time spent executing
+ * them are sent in the response headers.
+ */
+public class MonitoringActionCreator implements ActionCreator {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_TIME_HEADER = "X-Query-Time";
+
+    private static final String QUERY_BUDGET = "travelea.queries.budget";
+    private static final String ROUTE_PARAMETER = "\\$(\\w+)<[^>]+>";
+
+    private final Logger log = LoggerFactory.getLogger(this.getClass());
+
+    private final MetricsRegistry metricsRegistry;
+    private final int queryBudget;
+    private final boolean sendHeaders;
+
+
+    @Inject
+    public MonitoringActionCreator(MetricsRegistry metricsRegistry, Config config, Environment environment) {
+        this(metricsRegistry, config.getInt(QUERY_BUDGET), !environment.isProd());
+    }
+
+
+    public MonitoringActionCreator(MetricsRegistry metricsRegistry, int queryBudget, boolean sendHeaders) {
+        this.metricsRegistry = metricsRegistry;
+        this.queryBudget = queryBudget;
+        this.sendHeaders = sendHeaders;
+    }
+
+
+    @Override
+    public Action createAction(Http.Request request, Method actionMethod) {
+        String route = request.attrs().getOptional(Router.Attrs.HANDLER_DEF)
+                .map(handlerDef -> handlerDef.verb() + " " + handlerDef.path().replaceAll(ROUTE_PARAMETER, ":$1"))
+                .orElse(actionMethod.getDeclaringClass().getSimpleName() + "." + actionMethod.getName());
+
+        return new Action.Simple() {
+            @Override
+            public CompletionStage<Result> call(Http.Request req) {
+                QueryStatistics statistics = new QueryStatistics(route);
+                long start = System.nanoTime();
+
+                CompletionStage<Result> result;
+                QueryStatistics previous = QueryStatistics.bind(statistics);
+                try {
+                    result = delegate.call(req);
+                } finally {
+                    QueryStatistics.bind(previous);
+                }
+
+                return result
+                        .whenComplete((completed, error) -> record(statistics, System.nanoTime() - start))
+                        .thenApply(completed -> addHeaders(statistics, completed));
+            }
+        };
+    }
+
+
+    /**
+     * Records a request once it has been handled, warning if it issued more statements than the budget.
+     *
+     * @param statistics    the statistics of the request.
+     * @param nanos         the time taken to handle the request, in nanoseconds.
+     */
+    private void record(QueryStatistics statistics, long nanos) {
+        metricsRegistry.recordRequest(statistics.getRoute(), nanos, statistics);
+
+        if (statistics.getQueryCount() > queryBudget) {
+            log.warn("{} issued {} SQL statements, over the budget of {}, taking {} ms", statistics.getRoute(),
+                    statistics.getQueryCount(), queryBudget, statistics.getDatabaseMillis());
+        }
+    }
+
+
+    /**
+     * Adds the statements issued by a request to the headers of its result, if they are sent.
+     *
+     * @param statistics    the statistics of the request.
+     * @param result        the result of the request.
+     * @return              the result, with the statistics added as headers if they are sent.
+     */
+    private Result addHeaders(QueryStatistics statistics, Result result) {
+        if (!sendHeaders) {
+            return result;
+        }
+        return result.withHeaders(
+                QUERY_COUNT_HEADER, String.valueOf(statistics.getQueryCount()),
+                QUERY_TIME_HEADER, String.valueOf(statistics.getDatabaseMillis())
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package services.monitoring;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+
+/**
+ * Wraps a DataSource so that every statement executed through its connections is recorded in the QueryStatistics of
+ * the request issuing it. Statements are counted at the JDBC level, so lazy loading, raw SQL and batched writes are
+ * counted the same as queries made through the repositories.
+ */
+public final class QueryCountingDataSource {
+
+    private static final String UTILITY_CLASS = "Utility class";
+    private static final String EXECUTE_PREFIX = "execute";
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private QueryCountingDataSource() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Wraps the given DataSource so that the statements executed through it are counted.
+     *
+     * @param dataSource    the DataSource to be wrapped.
+     * @return              a DataSource that behaves the same as the given one, but counts its statements.
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof Connection) {
+                return wrapConnection((Connection) result);
+            }
+            return result;
+        });
+    }
+
+
+    /**
+     * Wraps the given connection so that the statements it creates are counted.
+     *
+     * @param connection    the connection to be wrapped.
+     * @return              a connection that counts the statements it creates.
+     */
+    private static Connection wrapConnection(Connection connection) {
+        return proxy(Connection.class, connection, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (result instanceof CallableStatement) {
+                return wrapStatement(CallableStatement.class, (CallableStatement) result);
+            } else if (result instanceof PreparedStatement) {
+                return wrapStatement(PreparedStatement.class, (PreparedStatement) result);
+            } else if (result instanceof Statement) {
+                return wrapStatement(Statement.class, (Statement) result);
+            }
+            return result;
+        });
+    }
+
+
+    /**
+     * Wraps the given statement so that each execution is recorded against the current request.
+     *
+     * @param type      the JDBC interface of the statement.
+     * @param statement the statement to be wrapped.
+     * @return          a statement that records each of its executions.
+     */
+    private static <T extends Statement> T wrapStatement(Class<T> type, T statement) {
+        return proxy(type, statement, (target, method, args) -> {
+            QueryStatistics statistics = QueryStatistics.current();
+            if (statistics == null || !method.getName().startsWith(EXECUTE_PREFIX)) {
+                return invoke(target, method, args);
+            }
+
+            long start = System.nanoTime();
+            try {
+                return invoke(target, method, args);
+            } finally {
+                statistics.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+
+    /**
+     * Creates a proxy of the given JDBC object.
+     *
+     * @param type      the interface to be proxied.
+     * @param target    the JDBC object calls are passed on to.
+     * @param handler   handles each call, given the target, the method called and its arguments.
+     * @return          the proxy.
+     */
+    private static <T> T proxy(Class<T> type, T target, JdbcHandler handler) {
+        InvocationHandler invocationHandler = (proxy, method, args) -> handler.handle(target, method, args);
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, invocationHandler));
+    }
+
+
+    /**
+     * Calls the given method on the target, rethrowing anything it throws as is.
+     *
+     * @param target    the JDBC object to call the method on.
+     * @param method    the method to be called.
+     * @param args      the arguments to call the method with.
+     * @return          the result of the method.
+     * @throws Throwable anything thrown by the method.
+     */
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+
+    /**
+     * Handles a call made to a proxied JDBC object.
+     */
+    @FunctionalInterface
+    private interface JdbcHandler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+}
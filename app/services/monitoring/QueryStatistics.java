@@ -0,0 +1,112 @@
+package services.monitoring;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the SQL statements issued while handling a single request, and the time spent executing them.
+ *
+ * The statistics of the request being handled are bound to the thread handling it, and are carried over to the
+ * database threads the request hands its work to by the DatabaseExecutionContext. Statements issued without any
+ * statistics bound, such as by background jobs, are not counted.
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private final String route;
+    private final AtomicInteger queryCount = new AtomicInteger();
+    private final AtomicLong databaseNanos = new AtomicLong();
+
+
+    /**
+     * Creates empty statistics for a request.
+     *
+     * @param route the route handling the request, such as "GET /v1/profiles".
+     */
+    public QueryStatistics(String route) {
+        this.route = route;
+    }
+
+
+    /**
+     * Gets the statistics bound to the current thread.
+     *
+     * @return  the statistics of the request being handled on this thread, or null if there is none.
+     */
+    public static QueryStatistics current() {
+        return CURRENT.get();
+    }
+
+
+    /**
+     * Binds the given statistics to the current thread, so that statements issued on it are counted towards them.
+     *
+     * @param statistics    the statistics to bind, or null to unbind any statistics.
+     * @return              the statistics previously bound to the thread, which should be bound again once the
+     *                      given statistics are no longer needed.
+     */
+    public static QueryStatistics bind(QueryStatistics statistics) {
+        QueryStatistics previous = CURRENT.get();
+        if (statistics == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(statistics);
+        }
+        return previous;
+    }
+
+
+    /**
+     * Wraps a task so that it counts its statements towards the statistics bound to the thread submitting it.
+     *
+     * @param task  the task to be run on another thread.
+     * @return      the task unchanged if no statistics are bound, otherwise a task binding them while it runs.
+     */
+    public static Runnable propagate(Runnable task) {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics == null) {
+            return task;
+        }
+        return () -> {
+            QueryStatistics previous = bind(statistics);
+            try {
+                task.run();
+            } finally {
+                bind(previous);
+            }
+        };
+    }
+
+
+    /**
+     * Records that a statement was executed.
+     *
+     * @param nanos the time taken to execute the statement, in nanoseconds.
+     */
+    public void record(long nanos) {
+        queryCount.incrementAndGet();
+        databaseNanos.addAndGet(nanos);
+    }
+
+
+    public String getRoute() {
+        return route;
+    }
+
+
+    public int getQueryCount() {
+        return queryCount.get();
+    }
+
+
+    public long getDatabaseNanos() {
+        return databaseNanos.get();
+    }
+
+
+    public long getDatabaseMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(databaseNanos.get());
+    }
+}
@@ -0,0 +1,301 @@
+package services.photos;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * Performs the image manipulation needed to produce thumbnails of uploaded photos.
+ */
+@Singleton
+public class ImageProcessor {
+
+    private static final int IMAGE_DIMENSION = 200;
+    private static final String THUMBNAIL_FORMAT = "jpg";
+    private static final Color PLACEHOLDER_COLOUR = new Color(224, 224, 224);
+    private static final String MAX_DECODED_PIXELS = "travelea.photos.processing.maxDecodedPixels";
+
+    /**
+     * How many times the rendition's own pixel count may be decoded when creating it. Subsampling by whole steps keeps
+     * the decoded image less than twice the rendition's width and height, so four times its pixels never forces the
+     * decoded image below the rendition's size.
+     */
+    private static final int RENDITION_DECODE_MARGIN = 4;
+
+    /**
+     * The most pixels that may be decoded from a source image when creating a thumbnail. Renditions have a budget based
+     * on their own size instead.
+     */
+    private final long maxDecodedPixels;
+
+    private volatile byte[] placeholder;
+
+
+    @Inject
+    public ImageProcessor(Config config) {
+        this(config.getLong(MAX_DECODED_PIXELS));
+    }
+
+
+    public ImageProcessor(long maxDecodedPixels) {
+        this.maxDecodedPixels = maxDecodedPixels;
+    }
+
+
+    /**
+     * Reads the full sized image from the given source file, and writes a square thumbnail of it to the given
+     * destination file.
+     *
+     * Only the centre square of the source is decoded, and rows and columns are skipped while decoding so the
+     * decoded image is close to thumbnail size. The full resolution image is never held in memory.
+     *
+     * @param source        the full sized image to create a thumbnail from.
+     * @param destination   the file to write the thumbnail to.
+     * @throws IOException  if the source cannot be read as an image, or the thumbnail cannot be written.
+     */
+    public void createThumbnail(File source, File destination) throws IOException {
+        BufferedImage square = readSquare(source);
+        BufferedImage thumbnail = scale(square);
+        ImageIO.write(thumbnail, THUMBNAIL_FORMAT, destination);
+    }
+
+
+    /**
+     * Reads the full sized image from the given source file, and writes a copy of it scaled to the given width to the
+     * given destination file, keeping its aspect ratio. Images narrower than the given width are not enlarged.
+     *
+     * Rows and columns are skipped while decoding so the decoded image is close to the rendition's size, but never
+     * smaller than it, so large renditions are never scaled up from a lower resolution decode.
+     *
+     * @param source        the full sized image to create a rendition from.
+     * @param destination   the file to write the rendition to.
+     * @param width         the width of the rendition.
+     * @return              the dimensions of the written rendition.
+     * @throws IOException  if the source cannot be read as an image, or the rendition cannot be written.
+     */
+    public Dimension createRendition(File source, File destination, int width) throws IOException {
+        Dimension size = getDimensions(source);
+        int renditionWidth = Math.min(width, size.width);
+        int renditionHeight = Math.max(1, (int) Math.round((double) size.height * renditionWidth / size.width));
+
+        long renditionBudget = (long) renditionWidth * renditionHeight * RENDITION_DECODE_MARGIN;
+        BufferedImage decoded = read(source, new Rectangle(size), renditionWidth, renditionBudget);
+        BufferedImage rendition = resize(decoded, renditionWidth, renditionHeight);
+        ImageIO.write(rendition, THUMBNAIL_FORMAT, destination);
+
+        return new Dimension(renditionWidth, renditionHeight);
+    }
+
+
+    /**
+     * Reads the width and height of the given image from its header, without decoding it.
+     *
+     * @param source        the image file to be read.
+     * @return              the dimensions of the image.
+     * @throws IOException  if the source cannot be read as an image.
+     */
+    public Dimension getDimensions(File source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            ImageReader reader = getReader(source, input);
+            try {
+                reader.setInput(input, true, true);
+                return new Dimension(reader.getWidth(0), reader.getHeight(0));
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+
+    /**
+     * Decodes the centre square of the given image, subsampled to roughly thumbnail size and within the decoded pixel
+     * budget.
+     *
+     * @param source        the image file to be read.
+     * @return              the decoded square section of the image.
+     * @throws IOException  if the source cannot be read as an image.
+     */
+    private BufferedImage readSquare(File source) throws IOException {
+        Dimension dimensions = getDimensions(source);
+        int size = Math.min(dimensions.width, dimensions.height);
+        Rectangle region = new Rectangle((dimensions.width - size) / 2, (dimensions.height - size) / 2, size, size);
+
+        return read(source, region, IMAGE_DIMENSION, maxDecodedPixels);
+    }
+
+
+    /**
+     * Decodes a region of the given image, subsampled so the decoded width is close to the given target width, within
+     * the given decoded pixel budget.
+     *
+     * @param source        the image file to be read.
+     * @param region        the region of the image to be decoded.
+     * @param targetWidth   the width the decoded region will be scaled to.
+     * @param maxPixels     the most pixels that may be decoded.
+     * @return              the decoded region of the image.
+     * @throws IOException  if the source cannot be read as an image.
+     */
+    private BufferedImage read(File source, Rectangle region, int targetWidth, long maxPixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source)) {
+            ImageReader reader = getReader(source, input);
+            try {
+                reader.setInput(input, true, true);
+                int subsampling = getSubsampling(region.width, region.height, targetWidth, maxPixels);
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(region);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+
+    /**
+     * Finds a reader able to decode the given image input.
+     *
+     * @param source        the image file being read, used in the error message.
+     * @param input         the input stream of the image file.
+     * @return              a reader for the image.
+     * @throws IOException  if no reader can decode the image.
+     */
+    private ImageReader getReader(File source, ImageInputStream input) throws IOException {
+        Iterator<ImageReader> readers = input == null
+                ? null
+                : ImageIO.getImageReaders(input);
+        if (readers == null || !readers.hasNext()) {
+            throw new IOException("Unable to read image " + source);
+        }
+        return readers.next();
+    }
+
+
+    /**
+     * Calculates how many source pixels to step over for each decoded pixel, when decoding a region of the given size
+     * to be scaled to the given width. The decoded region is kept at least as wide as the target, unless that would
+     * exceed the decoded pixel budget.
+     *
+     * @param width             the width of the region to be decoded.
+     * @param height            the height of the region to be decoded.
+     * @param target            the width the decoded region will be scaled to.
+     * @param maxDecodedPixels  the most pixels that may be decoded.
+     * @return                  the subsampling period to decode with, at least 1.
+     */
+    static int getSubsampling(int width, int height, int target, long maxDecodedPixels) {
+        int subsampling = Math.max(1, width / target);
+        while (subsampling < Math.max(width, height)
+                && Math.ceil((double) width / subsampling) * Math.ceil((double) height / subsampling)
+                > maxDecodedPixels) {
+            subsampling++;
+        }
+        return subsampling;
+    }
+
+
+    /**
+     * Gets a middle section of the image and makes it into a square.
+     *
+     * @param photo the BufferedImage object of the uploaded image.
+     * @return      a new BufferedImage subImage object of the square section of the image.
+     */
+    public BufferedImage makeSquare(BufferedImage photo) {
+        int width = photo.getWidth();
+        int height = photo.getHeight();
+        int size = Math.min(width, height);
+
+        return photo.getSubimage((width/2) - (size/2), (height/2) - (size/2), size, size);
+    }
+
+
+    /**
+     * Scales a BufferedImage object to a 200x200 pixels image, with lower quality to be stored as a thumbnail. Uses
+     * the Graphics2D class to do this. A new RGB image is created, as the thumbnail is written as a jpeg and no
+     * display is available on the server. A new Graphics2D object is then created, and filled with a white background
+     * in case of transparent images. The image is then scaled and transformed using the AffineTransformation class.
+     *
+     * @param sourceImage the BufferedImage to be scaled down.
+     * @return            a new BufferedImage scaled to the appropriate size.
+     */
+    public BufferedImage scale(BufferedImage sourceImage) {
+        return resize(sourceImage, IMAGE_DIMENSION, IMAGE_DIMENSION);
+    }
+
+
+    /**
+     * Scales a BufferedImage object to the given width and height, on a white background in case of transparent
+     * images.
+     *
+     * @param sourceImage   the BufferedImage to be scaled.
+     * @param width         the width of the scaled image.
+     * @param height        the height of the scaled image.
+     * @return              a new BufferedImage scaled to the given size.
+     */
+    private BufferedImage resize(BufferedImage sourceImage, int width, int height) {
+        BufferedImage scaledImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D newGraphicsImage = scaledImage.createGraphics();
+        newGraphicsImage.setColor(Color.white);
+        newGraphicsImage.fillRect(0, 0, width, height);
+
+        double xScale = (double) width / sourceImage.getWidth();
+        double yScale = (double) height / sourceImage.getHeight();
+        AffineTransform affineTransform = AffineTransform.getScaleInstance(xScale,yScale);
+        newGraphicsImage.drawRenderedImage(sourceImage, affineTransform);
+        newGraphicsImage.dispose();
+
+        return scaledImage;
+    }
+
+
+    /**
+     * Returns a plain thumbnail sized jpeg, served in place of a thumbnail that has not yet been generated.
+     * The image is only encoded once.
+     *
+     * @return the bytes of the placeholder jpeg.
+     */
+    public byte[] getPlaceholder() {
+        byte[] bytes = placeholder;
+        if (bytes == null) {
+            bytes = createPlaceholder();
+            placeholder = bytes;
+        }
+        return bytes;
+    }
+
+
+    /**
+     * Encodes a thumbnail sized image filled with a single colour as a jpeg.
+     *
+     * @return the bytes of the encoded jpeg.
+     */
+    private byte[] createPlaceholder() {
+        BufferedImage image = new BufferedImage(IMAGE_DIMENSION, IMAGE_DIMENSION, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(PLACEHOLDER_COLOUR);
+        graphics.fillRect(0, 0, IMAGE_DIMENSION, IMAGE_DIMENSION);
+        graphics.dispose();
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, THUMBNAIL_FORMAT, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
@@ -0,0 +1,309 @@
+package services.photos;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import models.photos.Photo;
+import models.photos.PhotoJob;
+import models.photos.PhotoRendition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import play.inject.ApplicationLifecycle;
+import repositories.photos.PhotoJobRepository;
+import repositories.photos.PhotoRepository;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Generates thumbnails and renditions for uploaded photos in the background, so that uploads return as soon as the
+ * original image has been saved.
+ *
+ * Each photo to be processed has a job stored in the database, which is only deleted once its thumbnail and
+ * renditions exist. Jobs are run on a fixed pool with one thread per core and a bounded queue. When the queue is full
+ * the job stays stored, and is picked up by a sweep of the job table once the queue has drained. The same sweep runs
+ * on startup, so any jobs left over from a restart are resumed.
+ */
+@Singleton
+public class PhotoProcessingService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PhotoProcessingService.class);
+    private static final String QUEUE_SIZE = "travelea.photos.processing.queueSize";
+    private static final String MAX_ATTEMPTS = "travelea.photos.processing.maxAttempts";
+    private static final String RENDITION_WIDTHS = "travelea.photos.renditions.widths";
+    private static final String RENDITION_DIRECTORY = "travelea.photos.renditions.directory";
+    private static final String PHOTO_DIRECTORY = "travelea.photos.main";
+    private static final String THREAD_NAME = "photo-processing-";
+    private static final int BACKFILL_BATCH_SIZE = 100;
+
+    private final PhotoJobRepository photoJobRepository;
+    private final PhotoRepository photoRepository;
+    private final ImageProcessor imageProcessor;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+    private final List<Integer> renditionWidths;
+    private final Path renditionDirectory;
+
+    /**
+     * Ids of the jobs currently queued or running, so the recovery sweep does not submit them a second time.
+     */
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Set when a job could not be queued, so that a sweep is run once the queue has drained.
+     */
+    private final AtomicBoolean sweepPending = new AtomicBoolean(false);
+
+    /**
+     * Set while a rendition backfill is running, so only one runs at a time.
+     */
+    private final AtomicBoolean backfillRunning = new AtomicBoolean(false);
+
+
+    @Inject
+    public PhotoProcessingService(PhotoJobRepository photoJobRepository,
+                                  PhotoRepository photoRepository,
+                                  ImageProcessor imageProcessor,
+                                  Config config,
+                                  ApplicationLifecycle lifecycle) {
+        this.photoJobRepository = photoJobRepository;
+        this.photoRepository = photoRepository;
+        this.imageProcessor = imageProcessor;
+        this.maxAttempts = config.getInt(MAX_ATTEMPTS);
+        this.renditionWidths = config.getIntList(RENDITION_WIDTHS);
+        this.renditionDirectory = Paths.get(config.getString(PHOTO_DIRECTORY)
+                + config.getString(RENDITION_DIRECTORY)).toAbsolutePath();
+
+        int threads = Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getInt(QUEUE_SIZE)), new ProcessingThreadFactory());
+
+        lifecycle.addStopHook(() -> {
+            // Interrupted jobs remain in the job table, and are resumed on the next startup.
+            executor.shutdownNow();
+            return completedFuture(null);
+        });
+
+        sweepPending.set(true);
+        executor.execute(this::sweep);
+    }
+
+
+    /**
+     * Stores a job to generate the thumbnail and renditions of the given photo, and queues it for processing.
+     * The photo must already have been saved.
+     *
+     * @param photo the photo to be processed.
+     */
+    public void enqueue(Photo photo) {
+        PhotoJob job = new PhotoJob(photo);
+        photoJobRepository.save(job);
+        submit(job.getId());
+    }
+
+
+    /**
+     * Queues a backfill of renditions on the processing pool, unless one is already running. The backfill stores a job
+     * for every photo that has no renditions and no job already, so that renditions are generated for photos uploaded
+     * before renditions existed.
+     *
+     * @return true if a backfill is queued or already running, false if the processing queue is full.
+     */
+    public boolean queueRenditionBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return true;
+        }
+
+        try {
+            executor.execute(this::backfillRenditions);
+            return true;
+        } catch (RejectedExecutionException e) {
+            backfillRunning.set(false);
+            return false;
+        }
+    }
+
+
+    /**
+     * Stores a job for every photo that has no renditions and no job already. Photos are found in batches by id. As
+     * progress is kept in the database the backfill can be stopped at any point, and running it again continues with
+     * the photos left over.
+     */
+    private void backfillRenditions() {
+        try {
+            int stored = 0;
+            List<Long> photoIds = photoRepository.findIdsWithoutRenditions(0L, BACKFILL_BATCH_SIZE);
+            while (!photoIds.isEmpty()) {
+                Set<Long> photoIdsWithJobs = photoJobRepository.findPhotoIdsWithJobs(photoIds);
+                for (Long photoId : photoIds) {
+                    if (!photoIdsWithJobs.contains(photoId)) {
+                        photoJobRepository.save(new PhotoJob(photoRepository.ref(photoId)));
+                        stored++;
+                    }
+                }
+                Long lastId = photoIds.get(photoIds.size() - 1);
+                photoIds = photoRepository.findIdsWithoutRenditions(lastId, BACKFILL_BATCH_SIZE);
+            }
+            LOG.info("Stored rendition jobs for {} photos", stored);
+
+            sweepPending.set(true);
+            sweep();
+        } catch (RuntimeException e) {
+            LOG.error("Unable to backfill photo renditions", e);
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+
+    /**
+     * Queues the job with the given id, unless it is already queued. If the queue is full the job is left in the job
+     * table to be picked up by a later sweep.
+     *
+     * @param jobId the id of the job to be queued.
+     * @return      true if the job is queued, false if the queue is full.
+     */
+    private boolean submit(Long jobId) {
+        if (!inFlight.add(jobId)) {
+            return true;
+        }
+
+        try {
+            executor.execute(() -> process(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(jobId);
+            sweepPending.set(true);
+            return false;
+        }
+    }
+
+
+    /**
+     * Queues every stored job that has not exceeded its maximum attempts, stopping once the queue is full.
+     */
+    private void sweep() {
+        if (!sweepPending.compareAndSet(true, false)) {
+            return;
+        }
+
+        try {
+            for (Long jobId : photoJobRepository.findAllPending(maxAttempts)) {
+                if (!submit(jobId)) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Unable to load pending photo processing jobs", e);
+        }
+    }
+
+
+    /**
+     * Generates the thumbnail and any missing renditions for the job with the given id. On success the photo is
+     * marked as having a thumbnail and the job is deleted. On failure the attempt is recorded against the job, and
+     * any renditions already generated are kept.
+     *
+     * @param jobId the id of the job to be processed.
+     */
+    private void process(Long jobId) {
+        try {
+            PhotoJob job = photoJobRepository.findById(jobId);
+            if (job == null) {
+                return;
+            }
+
+            Photo photo = job.getPhoto();
+            try {
+                File source = new File(photo.getMainFilename());
+                imageProcessor.createThumbnail(source, new File(photo.getThumbnailFilename()));
+                createRenditions(photo, source);
+                photo.setThumbnailReady(true);
+                photoRepository.update(photo);
+                photoJobRepository.delete(job);
+            } catch (IOException | RuntimeException e) {
+                LOG.error("Unable to convert image to thumbnail or renditions", e);
+                job.addAttempt();
+                photoJobRepository.update(job);
+            }
+        } catch (RuntimeException e) {
+            LOG.error("Unable to process photo job " + jobId, e);
+        } finally {
+            inFlight.remove(jobId);
+            if (executor.getQueue().isEmpty()) {
+                sweep();
+            }
+        }
+    }
+
+
+    /**
+     * Generates each configured rendition of the given photo that does not already exist. Widths larger than the
+     * original image are generated at the original width, so that there is always a rendition covering the widest
+     * request.
+     *
+     * @param photo         the photo to generate renditions for.
+     * @param source        the original image of the photo.
+     * @throws IOException  if the original cannot be read, or a rendition cannot be written.
+     */
+    private void createRenditions(Photo photo, File source) throws IOException {
+        int originalWidth = imageProcessor.getDimensions(source).width;
+        Set<Integer> widths = new LinkedHashSet<>();
+        for (Integer width : renditionWidths) {
+            widths.add(Math.min(width, originalWidth));
+        }
+
+        List<Integer> missingWidths = new ArrayList<>();
+        for (Integer width : widths) {
+            if (!photo.hasRendition(width)) {
+                missingWidths.add(width);
+            }
+        }
+        if (missingWidths.isEmpty()) {
+            return;
+        }
+
+        Files.createDirectories(renditionDirectory);
+        for (Integer width : missingWidths) {
+            File destination = renditionDirectory.resolve(source.getName() + "-" + width).toFile();
+            Dimension dimensions = imageProcessor.createRendition(source, destination, width);
+            photo.addRendition(new PhotoRendition(photo, destination.getAbsolutePath(), dimensions.width,
+                    dimensions.height, destination.length()));
+            photoRepository.update(photo);
+        }
+    }
+
+
+    /**
+     * Creates named daemon threads for the processing pool, so they do not hold up shutdown.
+     */
+    private static class ProcessingThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, THREAD_NAME + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
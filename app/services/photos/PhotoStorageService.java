@@ -0,0 +1,201 @@
+package services.photos;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import models.photos.Photo;
+import models.photos.PhotoRendition;
+import models.profiles.Profile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import repositories.photos.PhotoRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Stores uploaded images under the SHA-256 hash of their content, so identical uploads share a single stored image,
+ * thumbnail and set of renditions.
+ *
+ * Each photo counts the personal photos using it. Storing a duplicate image adds a reference to the existing photo
+ * instead of saving and processing the image again, and the stored files are only deleted once the last reference is
+ * released. Storing and releasing images with the same hash are serialised, so an image is never deleted while it is
+ * being reused.
+ */
+@Singleton
+public class PhotoStorageService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PhotoStorageService.class);
+    private static final String PHOTO_DIRECTORY = "travelea.photos.main";
+    private static final String THUMBNAIL_DIRECTORY = "travelea.photos.thumbnail";
+    private static final String STAGING_PREFIX = "upload-";
+    private static final int LOCK_STRIPES = 64;
+
+    private final PhotoRepository photoRepository;
+    private final PhotoProcessingService photoProcessingService;
+    private final Path photoDirectory;
+    private final Path thumbnailDirectory;
+    private final Lock[] locks = new Lock[LOCK_STRIPES];
+
+
+    @Inject
+    public PhotoStorageService(PhotoRepository photoRepository,
+                               PhotoProcessingService photoProcessingService,
+                               Config config) {
+        this.photoRepository = photoRepository;
+        this.photoProcessingService = photoProcessingService;
+
+        String mainPath = config.getString(PHOTO_DIRECTORY);
+        this.photoDirectory = Paths.get(mainPath).toAbsolutePath();
+        this.thumbnailDirectory = Paths.get(mainPath + config.getString(THUMBNAIL_DIRECTORY)).toAbsolutePath();
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+
+    /**
+     * Stores an image that has already been written to a staging file in the photo directory, under its content hash.
+     * If an image with the same hash is already stored the staging file is deleted, and a reference is added to the
+     * existing photo. Otherwise the staging file is moved into place, and a new photo is saved and queued for
+     * processing.
+     *
+     * @param staged        the staging file holding the image.
+     * @param contentHash   the hex encoded SHA-256 hash of the image.
+     * @param contentType   the content type of the image.
+     * @param uploader      the profile the image is being uploaded for.
+     * @return              the saved photo, which may be shared with earlier identical uploads.
+     * @throws IOException  if the staging file cannot be moved into place.
+     */
+    public Photo store(Path staged, String contentHash, String contentType, Profile uploader) throws IOException {
+        Lock lock = getLock(contentHash);
+        lock.lock();
+        try {
+            Photo existing = photoRepository.findByContentHash(contentHash);
+            if (existing != null) {
+                Files.deleteIfExists(staged);
+                photoRepository.addReferences(existing.getId(), 1);
+                return existing;
+            }
+
+            Path target = photoDirectory.resolve(contentHash);
+            Files.move(staged, target, REPLACE_EXISTING, ATOMIC_MOVE);
+
+            Photo photo = new Photo();
+            photo.setMainFilename(target.toString());
+            photo.setThumbnailFilename(thumbnailDirectory.resolve(contentHash).toString());
+            photo.setContentHash(contentHash);
+            photo.setReferenceCount(1);
+            photo.setContentType(contentType);
+            photo.setUploadDate(LocalDate.now());
+            photo.setUploadProfile(uploader);
+            photoRepository.save(photo);
+
+            photoProcessingService.enqueue(photo);
+            return photo;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Releases a reference to the given photo, after a personal photo using it has been deleted. When no references
+     * remain the photo is deleted, along with its image, thumbnail and renditions.
+     *
+     * @param photo the photo no longer being used by a personal photo.
+     */
+    public void release(Photo photo) {
+        String key = photo.getContentHash() != null
+                ? photo.getContentHash()
+                : photo.getId().toString();
+        Lock lock = getLock(key);
+        lock.lock();
+        try {
+            photoRepository.addReferences(photo.getId(), -1);
+            Integer referenceCount = photoRepository.findReferenceCount(photo.getId());
+            if (referenceCount == null || referenceCount > 0) {
+                return;
+            }
+
+            Photo unused = photoRepository.findById(photo.getId());
+            List<String> filenames = new ArrayList<>();
+            filenames.add(unused.getMainFilename());
+            filenames.add(unused.getThumbnailFilename());
+            for (PhotoRendition rendition : unused.getRenditions()) {
+                filenames.add(rendition.getFilename());
+            }
+
+            photoRepository.delete(unused);
+            for (String filename : filenames) {
+                deleteFile(filename);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes the given profile as the uploader of any photos. Must be called before the profile is deleted, as photos
+     * it uploaded may still be used by other profiles.
+     *
+     * @param uploader  the profile about to be deleted.
+     */
+    public void detachUploader(Profile uploader) {
+        photoRepository.clearUploadProfile(uploader);
+    }
+
+
+    /**
+     * Creates an empty staging file in the photo directory, for an upload to be streamed into while it is hashed.
+     * Staging in the photo directory means moving the file into place does not copy it.
+     *
+     * @return              the path of the staging file.
+     * @throws IOException  if the photo directory or staging file cannot be created.
+     */
+    public Path createStagingFile() throws IOException {
+        Files.createDirectories(photoDirectory);
+        Files.createDirectories(thumbnailDirectory);
+        return Files.createTempFile(photoDirectory, STAGING_PREFIX, null);
+    }
+
+
+    /**
+     * Gets the lock guarding images with the given key.
+     *
+     * @param key   the content hash of the image.
+     * @return      the lock for the image.
+     */
+    private Lock getLock(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+
+    /**
+     * Deletes a stored file, logging rather than failing if it cannot be deleted.
+     *
+     * @param filename  the name of the file to be deleted.
+     */
+    private void deleteFile(String filename) {
+        if (filename == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(Paths.get(filename));
+        } catch (IOException e) {
+            LOG.error("Unable to delete photo file " + filename, e);
+        }
+    }
+}
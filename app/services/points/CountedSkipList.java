@@ -0,0 +1,214 @@
+package services.points;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * An indexable skip list of distinct integer keys held in descending order. Each node records how many times its key
+ * has been added, and each forward link records how many nodes it skips over, so that both the position of a key and
+ * the key at a position can be found in O(log n) time.
+ *
+ * This class is not thread safe, callers are expected to guard access to it.
+ */
+class CountedSkipList {
+
+    private static final int MAX_LEVEL = 32;
+    private static final int PROMOTION_BOUND = 4;   // One in four nodes is promoted to the next level.
+
+    private final Node head = new Node(Integer.MAX_VALUE, MAX_LEVEL);
+
+    /**
+     * The number of levels currently in use.
+     */
+    private int level = 1;
+
+    /**
+     * The number of distinct keys in the list.
+     */
+    private int size = 0;
+
+
+    /**
+     * Adds an occurrence of the given key, inserting a new node if the key is not already present.
+     *
+     * @param key   the key to add.
+     */
+    void add(int key) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = (i == level - 1) ? 0 : rank[i + 1];
+            while (node.next[i] != null && node.next[i].key > key) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node existing = node.next[0];
+        if (existing != null && existing.key == key) {
+            existing.count++;
+            return;
+        }
+
+        int nodeLevel = randomLevel();
+        if (nodeLevel > level) {
+            for (int i = level; i < nodeLevel; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = size;
+            }
+            level = nodeLevel;
+        }
+
+        Node inserted = new Node(key, nodeLevel);
+        for (int i = 0; i < nodeLevel; i++) {
+            inserted.next[i] = update[i].next[i];
+            update[i].next[i] = inserted;
+
+            inserted.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = (rank[0] - rank[i]) + 1;
+        }
+
+        // Levels above the new node now skip one more node.
+        for (int i = nodeLevel; i < level; i++) {
+            update[i].span[i]++;
+        }
+
+        size++;
+    }
+
+
+    /**
+     * Removes an occurrence of the given key, unlinking its node once no occurrences remain.
+     *
+     * @param key   the key to remove.
+     * @return      true if an occurrence of the key was removed, false if the key was not present.
+     */
+    boolean remove(int key) {
+        Node[] update = new Node[MAX_LEVEL];
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].key > key) {
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+
+        Node removed = node.next[0];
+        if (removed == null || removed.key != key) {
+            return false;
+        }
+
+        if (--removed.count > 0) {
+            return true;
+        }
+
+        for (int i = 0; i < level; i++) {
+            if (update[i].next[i] == removed) {
+                update[i].span[i] += removed.span[i] - 1;
+                update[i].next[i] = removed.next[i];
+            } else {
+                update[i].span[i]--;
+            }
+        }
+
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+
+        size--;
+        return true;
+    }
+
+
+    /**
+     * Counts the distinct keys that are greater than or equal to the given key.
+     *
+     * @param key   the key to find the position of.
+     * @return      the number of distinct keys greater than or equal to the given key.
+     */
+    int countAtLeast(int key) {
+        int rank = 0;
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && node.next[i].key >= key) {
+                rank += node.span[i];
+                node = node.next[i];
+            }
+        }
+
+        return rank;
+    }
+
+
+    /**
+     * Finds the key at the given one-based position, where position one holds the largest key.
+     *
+     * @param position  the position of the key to find.
+     * @return          the key at the given position, or null if there is no such position.
+     */
+    Integer keyAt(int position) {
+        if (position < 1 || position > size) {
+            return null;
+        }
+
+        int traversed = 0;
+
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && traversed + node.span[i] <= position) {
+                traversed += node.span[i];
+                node = node.next[i];
+            }
+            if (traversed == position) {
+                return node.key;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Returns the number of distinct keys in the list.
+     *
+     * @return the number of distinct keys.
+     */
+    int size() {
+        return size;
+    }
+
+
+    /**
+     * Chooses a level for a new node, where each level is a quarter as likely as the one below it.
+     *
+     * @return the level for a new node, between one and the maximum level.
+     */
+    private static int randomLevel() {
+        int nodeLevel = 1;
+        while (nodeLevel < MAX_LEVEL && ThreadLocalRandom.current().nextInt(PROMOTION_BOUND) == 0) {
+            nodeLevel++;
+        }
+        return nodeLevel;
+    }
+
+
+    private static final class Node {
+
+        private final int key;
+        private int count = 1;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(int key, int level) {
+            this.key = key;
+            this.next = new Node[level];
+            this.span = new int[level];
+        }
+    }
+}
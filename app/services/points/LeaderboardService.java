@@ -0,0 +1,171 @@
+package services.points;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import repositories.points.AchievementTrackerRepository;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+
+/**
+ * Keeps an in-memory leaderboard of the points held by every achievement tracker, so that ranks can be found without
+ * a database round trip. Ranks are dense, meaning that trackers with equal points share a rank and the next distinct
+ * points value takes the following rank.
+ *
+ * The leaderboard is loaded from the database the first time it is used, and then kept up to date by the
+ * LeaderboardListener as changes to trackers are committed. The points last applied for each tracker are kept, and a
+ * changed tracker's points are read back from the database, so the leaderboard only ever holds committed values. It
+ * stays correct when a save is rolled back, or when two requests save stale copies of the same tracker.
+ */
+@Singleton
+public class LeaderboardService {
+
+    private AchievementTrackerRepository achievementTrackerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final CountedSkipList points = new CountedSkipList();
+    private final Map<Long, Integer> pointsByTracker = new HashMap<>();
+
+    /**
+     * Held while the leaderboard is loaded or changed, including reading a tracker's points from the database, so that
+     * changes are applied in the order they are read. Whether the leaderboard is loaded is checked while holding it,
+     * so a change committed during the load waits for the load and is then applied. Ranks are still read while a
+     * tracker's points are being fetched.
+     */
+    private final Lock changeLock = new ReentrantLock();
+    private volatile boolean loaded = false;
+
+    @Inject
+    public LeaderboardService(AchievementTrackerRepository achievementTrackerRepository) {
+        this.achievementTrackerRepository = achievementTrackerRepository;
+    }
+
+
+    /**
+     * Finds the rank of the given points value.
+     *
+     * @param pointsValue   the points to find the rank of.
+     * @return              an integer representing the rank of the points value.
+     */
+    public int getRank(int pointsValue) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            return points.countAtLeast(pointsValue);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns the number of points from a given rank.
+     *
+     * @param rank  the rank to find the points for.
+     * @return      the number of points relating to that rank. If the given rank is not found, return 0
+     */
+    public int getPointsFromRank(int rank) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Integer pointsValue = points.keyAt(rank);
+            return pointsValue == null ? 0 : pointsValue;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Moves a tracker to the points it holds in the database, adding it if it is not on the leaderboard yet. Must only
+     * be called once the change to the tracker has been committed. Does nothing before the leaderboard is loaded, as
+     * the tracker will be read when it is.
+     *
+     * @param trackerId the id of the inserted or updated tracker.
+     */
+    public void refreshTracker(Long trackerId) {
+        changeLock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+
+            Integer committedPoints = achievementTrackerRepository.findPoints(trackerId);
+
+            lock.writeLock().lock();
+            try {
+                Integer previousPoints = committedPoints == null
+                        ? pointsByTracker.remove(trackerId)
+                        : pointsByTracker.put(trackerId, committedPoints);
+                if (previousPoints != null) {
+                    points.remove(previousPoints);
+                }
+                if (committedPoints != null) {
+                    points.add(committedPoints);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Removes a deleted tracker from the leaderboard. Must only be called once the deletion has been committed. Does
+     * nothing before the leaderboard is loaded, as the tracker will no longer be read when it is.
+     *
+     * @param trackerId the id of the deleted tracker.
+     */
+    public void removeTracker(Long trackerId) {
+        changeLock.lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+
+            lock.writeLock().lock();
+            try {
+                Integer previousPoints = pointsByTracker.remove(trackerId);
+                if (previousPoints != null) {
+                    points.remove(previousPoints);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            changeLock.unlock();
+        }
+    }
+
+
+    /**
+     * Loads the points of every achievement tracker into the leaderboard, if this has not already been done.
+     */
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+
+        changeLock.lock();
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                pointsByTracker.putAll(achievementTrackerRepository.findAllPoints());
+                for (Integer pointsValue : pointsByTracker.values()) {
+                    points.add(pointsValue);
+                }
+                loaded = true;
+            }
+        } finally {
+            lock.writeLock().unlock();
+            changeLock.unlock();
+        }
+    }
+}
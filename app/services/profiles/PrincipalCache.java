@@ -0,0 +1,115 @@
+package services.profiles;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+import models.profiles.Principal;
+import models.profiles.Profile;
+import repositories.profiles.ProfileRepository;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the principal of each logged in user between requests, so authenticating a request does not need to load the
+ * user's profile every time.
+ *
+ * The cache holds at most a configured number of principals, evicting the least recently used, and each principal is
+ * reloaded once it is older than the configured time to live. Anything that changes a profile's username or admin
+ * status, or deletes it, must invalidate its principal.
+ */
+@Singleton
+public class PrincipalCache {
+
+    private static final String MAX_SIZE = "travelea.authentication.principalCache.maxSize";
+    private static final String TIME_TO_LIVE = "travelea.authentication.principalCache.timeToLive";
+
+    private final ProfileRepository profileRepository;
+    private final int maxSize;
+    private final long timeToLiveNanos;
+    private final Map<Long, Entry> entries;
+
+    /**
+     * Incremented by every invalidation, so a principal loaded while its profile was being changed is not cached.
+     */
+    private long generation;
+
+
+    @Inject
+    public PrincipalCache(ProfileRepository profileRepository, Config config) {
+        this(profileRepository, config.getInt(MAX_SIZE), config.getDuration(TIME_TO_LIVE));
+    }
+
+
+    public PrincipalCache(ProfileRepository profileRepository, int maxSize, Duration timeToLive) {
+        this.profileRepository = profileRepository;
+        this.maxSize = maxSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.entries = new LinkedHashMap<Long, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                return size() > PrincipalCache.this.maxSize;
+            }
+        };
+    }
+
+
+    /**
+     * Gets the principal of the profile with the given id, loading it if it is not cached or has expired.
+     *
+     * @param profileId the id of the logged in profile.
+     * @return          the principal of the profile, or null if the profile does not exist.
+     */
+    public Principal get(Long profileId) {
+        long loadedGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(profileId);
+            if (entry != null && System.nanoTime() - entry.loadedAt < timeToLiveNanos) {
+                return entry.principal;
+            }
+            loadedGeneration = generation;
+        }
+
+        // The profile is loaded outside the lock, so a slow query does not hold up other requests
+        Profile profile = profileRepository.findById(profileId);
+        if (profile == null) {
+            return null;
+        }
+
+        Principal principal = new Principal(profile);
+        synchronized (this) {
+            if (generation == loadedGeneration) {
+                entries.put(profileId, new Entry(principal, System.nanoTime()));
+            }
+        }
+        return principal;
+    }
+
+
+    /**
+     * Removes the cached principal of the profile with the given id, after its username or admin status has changed
+     * or it has been deleted.
+     *
+     * @param profileId the id of the changed profile.
+     */
+    public synchronized void invalidate(Long profileId) {
+        generation++;
+        entries.remove(profileId);
+    }
+
+
+    /**
+     * A cached principal, and when it was loaded.
+     */
+    private static class Entry {
+
+        private final Principal principal;
+        private final long loadedAt;
+
+        private Entry(Principal principal, long loadedAt) {
+            this.principal = principal;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
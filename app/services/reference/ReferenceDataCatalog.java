@@ -0,0 +1,312 @@
+package services.reference;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.destinations.Type;
+import models.points.Action;
+import models.points.Badge;
+import models.points.PointReward;
+import models.profiles.Nationality;
+import models.profiles.Passport;
+import models.profiles.TravellerType;
+import models.util.BaseModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import util.RenderedJson;
+import repositories.destinations.DestinationTypeRepository;
+import repositories.destinations.TravellerTypeRepository;
+import repositories.points.BadgeRepository;
+import repositories.points.PointRewardRepository;
+import repositories.profiles.NationalityRepository;
+import repositories.profiles.PassportRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Holds the reference data of the application in memory, so that looking up nationalities, passports, traveller
+ * types, destination types, badges and point rewards does not query the database.
+ *
+ * The reference data is loaded on startup into immutable maps, keyed by id or, for badges and point rewards, by the
+ * action they are given for. Reference data is only changed by editing the database directly, after which an admin
+ * reloads the catalog. Reloading replaces every map at once, so readers never see a mix of old and new data.
+ *
+ * The entities held are shared between requests, so must only be read. They must not be set as the targets of
+ * relationships that cascade, as saving the owning entity would then save the shared entity too. Such relationships,
+ * like those of a profile, are set with a reference by id instead, once the id has been found here.
+ *
+ * The lists of nationalities, traveller types, destination types and badges are also rendered as Json each time the
+ * reference data is loaded, so that they can be served without serializing them on every request.
+ */
+@Singleton
+public class ReferenceDataCatalog {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReferenceDataCatalog.class);
+
+    private final NationalityRepository nationalityRepository;
+    private final PassportRepository passportRepository;
+    private final TravellerTypeRepository travellerTypeRepository;
+    private final DestinationTypeRepository destinationTypeRepository;
+    private final BadgeRepository badgeRepository;
+    private final PointRewardRepository pointRewardRepository;
+
+    /**
+     * The currently loaded reference data, or null if it could not be loaded on startup.
+     */
+    private volatile Catalog catalog;
+
+
+    @Inject
+    public ReferenceDataCatalog(NationalityRepository nationalityRepository,
+                                PassportRepository passportRepository,
+                                TravellerTypeRepository travellerTypeRepository,
+                                DestinationTypeRepository destinationTypeRepository,
+                                BadgeRepository badgeRepository,
+                                PointRewardRepository pointRewardRepository) {
+        this.nationalityRepository = nationalityRepository;
+        this.passportRepository = passportRepository;
+        this.travellerTypeRepository = travellerTypeRepository;
+        this.destinationTypeRepository = destinationTypeRepository;
+        this.badgeRepository = badgeRepository;
+        this.pointRewardRepository = pointRewardRepository;
+
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // The database may not be ready yet, such as before evolutions are applied in tests.
+            LOG.warn("Unable to load reference data on startup, it will be loaded when first used", e);
+        }
+    }
+
+
+    /**
+     * Loads all of the reference data from the database, replacing the data currently held.
+     */
+    public synchronized void reload() {
+        catalog = new Catalog(
+                byId(nationalityRepository.findAll()),
+                byId(passportRepository.findAll()),
+                byId(travellerTypeRepository.findAll()),
+                ImmutableList.copyOf(destinationTypeRepository.findAll()),
+                byAction(badgeRepository.findAll(), Badge::getActionToAchieve),
+                byAction(pointRewardRepository.findAll(), PointReward::getName));
+    }
+
+
+    /**
+     * Gets the currently loaded reference data, loading it if that could not be done on startup.
+     *
+     * @return the loaded reference data.
+     */
+    private Catalog getCatalog() {
+        Catalog loaded = catalog;
+        if (loaded == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    reload();
+                }
+                loaded = catalog;
+            }
+        }
+        return loaded;
+    }
+
+
+    public Nationality getNationality(Long id) {
+        return getCatalog().nationalities.get(id);
+    }
+
+
+    public Passport getPassport(Long id) {
+        return getCatalog().passports.get(id);
+    }
+
+
+    public TravellerType getTravellerType(Long id) {
+        return getCatalog().travellerTypes.get(id);
+    }
+
+
+    /**
+     * Gets every traveller type.
+     *
+     * @return an immutable collection of the traveller types, ordered by id.
+     */
+    public Collection<TravellerType> getTravellerTypes() {
+        return getCatalog().travellerTypes.values();
+    }
+
+
+    public Type getDestinationType(Long id) {
+        return getCatalog().destinationTypesById.get(id);
+    }
+
+
+    /**
+     * Gets every destination type.
+     *
+     * @return an immutable list of the destination types, ordered by name.
+     */
+    public List<Type> getDestinationTypes() {
+        return getCatalog().destinationTypes;
+    }
+
+
+    /**
+     * Gets the badge given for the given action. As the progress of a badge is set on it when it is tracked, a new
+     * copy is returned each time rather than the shared badge.
+     *
+     * @param action    the action the badge is progressed by.
+     * @return          a copy of the badge, or null if no badge is given for the action.
+     */
+    public Badge getBadge(Action action) {
+        Badge badge = getCatalog().badges.get(action);
+        return badge == null ? null : badge.copy();
+    }
+
+
+    /**
+     * Gets every badge, without any progress.
+     *
+     * @return an immutable collection of the badges, ordered by action.
+     */
+    public Collection<Badge> getBadges() {
+        return getCatalog().badges.values();
+    }
+
+
+    /**
+     * Gets every nationality rendered as Json, ordered by nationality.
+     *
+     * @return the rendered list of nationalities.
+     */
+    public RenderedJson getNationalitiesJson() {
+        return getCatalog().nationalitiesJson;
+    }
+
+
+    /**
+     * Gets every traveller type rendered as Json, ordered by id.
+     *
+     * @return the rendered list of traveller types.
+     */
+    public RenderedJson getTravellerTypesJson() {
+        return getCatalog().travellerTypesJson;
+    }
+
+
+    /**
+     * Gets every destination type rendered as Json, ordered by name.
+     *
+     * @return the rendered list of destination types.
+     */
+    public RenderedJson getDestinationTypesJson() {
+        return getCatalog().destinationTypesJson;
+    }
+
+
+    /**
+     * Gets every badge rendered as Json without any progress, ordered by id.
+     *
+     * @return the rendered list of badges.
+     */
+    public RenderedJson getBadgesJson() {
+        return getCatalog().badgesJson;
+    }
+
+
+    /**
+     * Gets the point reward given for the given action.
+     *
+     * @param action    the action the points are being given for.
+     * @return          the point reward, or null if no points are given for the action.
+     */
+    public PointReward getPointReward(Action action) {
+        return getCatalog().pointRewards.get(action);
+    }
+
+
+    /**
+     * Creates an immutable map of the given entities by id, iterated in order of id.
+     *
+     * @param entities  the entities to be mapped.
+     * @param <T>       the type of the entities.
+     * @return          the entities by id.
+     */
+    private static <T extends BaseModel> ImmutableMap<Long, T> byId(List<T> entities) {
+        Map<Long, T> sorted = new TreeMap<>();
+        for (T entity : entities) {
+            sorted.put(entity.getId(), entity);
+        }
+        return ImmutableMap.copyOf(sorted);
+    }
+
+
+    /**
+     * Creates an immutable map of the given entities by the action they are given for.
+     *
+     * @param entities  the entities to be mapped.
+     * @param getAction gets the action an entity is given for.
+     * @param <T>       the type of the entities.
+     * @return          the entities by action.
+     */
+    private static <T> ImmutableMap<Action, T> byAction(List<T> entities, Function<T, Action> getAction) {
+        Map<Action, T> byAction = new EnumMap<>(Action.class);
+        for (T entity : entities) {
+            byAction.put(getAction.apply(entity), entity);
+        }
+        return Maps.immutableEnumMap(byAction);
+    }
+
+
+    /**
+     * A loaded set of reference data, which is never changed once created.
+     */
+    private static class Catalog {
+
+        private final ImmutableMap<Long, Nationality> nationalities;
+        private final ImmutableMap<Long, Passport> passports;
+        private final ImmutableMap<Long, TravellerType> travellerTypes;
+        private final ImmutableList<Type> destinationTypes;
+        private final ImmutableMap<Long, Type> destinationTypesById;
+        private final ImmutableMap<Action, Badge> badges;
+        private final ImmutableMap<Action, PointReward> pointRewards;
+        private final RenderedJson nationalitiesJson;
+        private final RenderedJson travellerTypesJson;
+        private final RenderedJson destinationTypesJson;
+        private final RenderedJson badgesJson;
+
+
+        private Catalog(ImmutableMap<Long, Nationality> nationalities,
+                        ImmutableMap<Long, Passport> passports,
+                        ImmutableMap<Long, TravellerType> travellerTypes,
+                        ImmutableList<Type> destinationTypes,
+                        ImmutableMap<Action, Badge> badges,
+                        ImmutableMap<Action, PointReward> pointRewards) {
+            this.nationalities = nationalities;
+            this.passports = passports;
+            this.travellerTypes = travellerTypes;
+            this.destinationTypes = destinationTypes;
+            this.destinationTypesById = byId(destinationTypes);
+            this.badges = badges;
+            this.pointRewards = pointRewards;
+
+            List<Nationality> nationalitiesByName = new ArrayList<>(nationalities.values());
+            nationalitiesByName.sort(Comparator.comparing(Nationality::getNationality,
+                    Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER)));
+            this.nationalitiesJson = new RenderedJson(nationalitiesByName);
+            this.travellerTypesJson = new RenderedJson(travellerTypes.values());
+            this.destinationTypesJson = new RenderedJson(destinationTypes);
+            this.badgesJson = new RenderedJson(byId(new ArrayList<>(badges.values())).values());
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package services.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static util.GeoUtil.EARTH_RADIUS_METERS;
+import static util.GeoUtil.distance;
+import static util.GeoUtil.getLongitudeDelta;
+
+/**
+ * An in memory spatial index of points, bucketed into a grid of one degree cells. A radius search only measures the
+ * distance to points in the cells overlapping the bounding box of its circle, so its cost depends on how many points
+ * are near the search rather than how many points are indexed.
+ *
+ * The index is safe to use from multiple threads.
+ */
+public class GeoIndex {
+
+    private static final int LATITUDE_CELLS = 180;
+    private static final int LONGITUDE_CELLS = 360;
+    private static final double MAX_LATITUDE = 90;
+    private static final double MAX_LONGITUDE = 180;
+
+    private final Map<Long, Point> pointsById = new HashMap<>();
+    private final Map<Integer, Map<Long, Point>> pointsByCell = new HashMap<>();
+
+
+    /**
+     * Indexes the location of a row, replacing any location previously indexed for it.
+     *
+     * @param id        the id of the row.
+     * @param latitude  the latitude of the row, in degrees.
+     * @param longitude the longitude of the row, in degrees.
+     */
+    public synchronized void put(Long id, double latitude, double longitude) {
+        remove(id);
+
+        Point point = new Point(id, latitude, longitude);
+        pointsById.put(id, point);
+        pointsByCell.computeIfAbsent(getCell(latitude, longitude), cell -> new HashMap<>()).put(id, point);
+    }
+
+
+    /**
+     * Removes the location indexed for a row.
+     *
+     * @param id    the id of the row.
+     */
+    public synchronized void remove(Long id) {
+        Point point = pointsById.remove(id);
+        if (point == null) {
+            return;
+        }
+
+        int cell = getCell(point.latitude, point.longitude);
+        Map<Long, Point> points = pointsByCell.get(cell);
+        points.remove(id);
+        if (points.isEmpty()) {
+            pointsByCell.remove(cell);
+        }
+    }
+
+
+    /**
+     * Removes every location from the index.
+     */
+    public synchronized void clear() {
+        pointsById.clear();
+        pointsByCell.clear();
+    }
+
+
+    /**
+     * Finds the rows within the given distance of a point, nearest first.
+     *
+     * @param latitude      the latitude of the point, in degrees.
+     * @param longitude     the longitude of the point, in degrees.
+     * @param radius        the greatest distance from the point in metres.
+     * @param maxResults    the most rows to find.
+     * @return              the ids of the nearest rows within the radius, ordered by distance and then by id.
+     */
+    public synchronized List<Long> near(double latitude, double longitude, double radius, int maxResults) {
+        double angularRadius = radius / EARTH_RADIUS_METERS;
+        double latitudeDelta = Math.toDegrees(angularRadius);
+        double minLatitude = latitude - latitudeDelta;
+        double maxLatitude = latitude + latitudeDelta;
+
+        double longitudeDelta = getLongitudeDelta(latitude, radius);
+
+        int firstLatitudeCell = getLatitudeCell(minLatitude);
+        int lastLatitudeCell = getLatitudeCell(maxLatitude);
+        int firstLongitudeCell;
+        int longitudeCellCount;
+        if (longitudeDelta >= MAX_LONGITUDE) {
+            firstLongitudeCell = 0;
+            longitudeCellCount = LONGITUDE_CELLS;
+        } else {
+            firstLongitudeCell = (int) Math.floor(longitude - longitudeDelta + MAX_LONGITUDE);
+            int lastLongitudeCell = (int) Math.floor(longitude + longitudeDelta + MAX_LONGITUDE);
+            longitudeCellCount = Math.min(lastLongitudeCell - firstLongitudeCell + 1, LONGITUDE_CELLS);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        long cellCount = (long) (lastLatitudeCell - firstLatitudeCell + 1) * longitudeCellCount;
+        if (cellCount > pointsByCell.size()) {
+            // Fewer cells are occupied than overlap the circle, so checking every point is cheaper
+            for (Point point : pointsById.values()) {
+                addIfWithin(point, latitude, longitude, radius, matches);
+            }
+        } else {
+            for (int latitudeCell = firstLatitudeCell; latitudeCell <= lastLatitudeCell; latitudeCell++) {
+                for (int i = 0; i < longitudeCellCount; i++) {
+                    int longitudeCell = Math.floorMod(firstLongitudeCell + i, LONGITUDE_CELLS);
+                    Map<Long, Point> points = pointsByCell.get(latitudeCell * LONGITUDE_CELLS + longitudeCell);
+                    if (points != null) {
+                        for (Point point : points.values()) {
+                            addIfWithin(point, latitude, longitude, radius, matches);
+                        }
+                    }
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingDouble((Match match) -> match.distance).thenComparing(match -> match.id));
+        List<Long> ids = new ArrayList<>(Math.min(matches.size(), maxResults));
+        for (int i = 0; i < matches.size() && i < maxResults; i++) {
+            ids.add(matches.get(i).id);
+        }
+        return ids;
+    }
+
+
+    /**
+     * Adds a point to the matches of a search if it is within the radius.
+     *
+     * @param point     the indexed point.
+     * @param latitude  the latitude of the search, in degrees.
+     * @param longitude the longitude of the search, in degrees.
+     * @param radius    the radius of the search in metres.
+     * @param matches   the points found so far.
+     */
+    private static void addIfWithin(Point point, double latitude, double longitude, double radius,
+                                    List<Match> matches) {
+        double distance = distance(latitude, longitude, point.latitude, point.longitude);
+        if (distance <= radius) {
+            matches.add(new Match(point.id, distance));
+        }
+    }
+
+
+    private static int getCell(double latitude, double longitude) {
+        int longitudeCell = Math.floorMod((int) Math.floor(longitude + MAX_LONGITUDE), LONGITUDE_CELLS);
+        return getLatitudeCell(latitude) * LONGITUDE_CELLS + longitudeCell;
+    }
+
+
+    private static int getLatitudeCell(double latitude) {
+        return Math.max(0, Math.min(LATITUDE_CELLS - 1, (int) Math.floor(latitude + MAX_LATITUDE)));
+    }
+
+
+    /**
+     * The indexed location of a row.
+     */
+    private static class Point {
+
+        private final Long id;
+        private final double latitude;
+        private final double longitude;
+
+        private Point(Long id, double latitude, double longitude) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+        }
+    }
+
+
+    /**
+     * A row found by a search, and its distance from the point searched.
+     */
+    private static class Match {
+
+        private final Long id;
+        private final double distance;
+
+        private Match(Long id, double distance) {
+            this.id = id;
+            this.distance = distance;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package services.search;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import com.typesafe.config.Config;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+
+/**
+ * Caches the total number of results of searches, keyed by the type of entity searched for and the normalised set of
+ * filters used, so that paging through a search does not count every result again for each page.
+ *
+ * All counts for an entity type are invalidated whenever an entity that can change them is persisted, by the
+ * SearchCountListener. Counts also expire after a configured time to live, covering changes made without persisting
+ * an entity, such as a day passing for age and date filters.
+ */
+@Singleton
+public class SearchCountCache {
+
+    private static final String MAX_ENTRIES = "travelea.search.countCache.maxEntries";
+    private static final String TIME_TO_LIVE = "travelea.search.countCache.timeToLive";
+
+    private final int maxEntries;
+    private final long timeToLiveNanos;
+    private final Map<Class<?>, Counts> countsByType = new ConcurrentHashMap<>();
+
+
+    @Inject
+    public SearchCountCache(Config config) {
+        this(config.getInt(MAX_ENTRIES), config.getDuration(TIME_TO_LIVE));
+    }
+
+
+    public SearchCountCache(int maxEntries, Duration timeToLive) {
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive.toNanos();
+    }
+
+
+    /**
+     * Gets the number of results of a search, counting them if the count is not cached or has expired.
+     *
+     * @param entityType    the type of entity searched for.
+     * @param filterKey     the normalised filters of the search, equal for any two searches with the same results.
+     * @param counter       counts the results of the search.
+     * @return              the number of results.
+     */
+    public int count(Class<?> entityType, String filterKey, IntSupplier counter) {
+        Counts counts = countsByType.computeIfAbsent(entityType, type -> new Counts());
+
+        long generation;
+        synchronized (counts) {
+            Entry entry = counts.entries.get(filterKey);
+            if (entry != null && System.nanoTime() - entry.countedAt < timeToLiveNanos) {
+                return entry.count;
+            }
+            generation = counts.generation;
+        }
+
+        int count = counter.getAsInt();
+
+        synchronized (counts) {
+            // A count made while the entities were changing may already be out of date, so it is not kept
+            if (counts.generation == generation) {
+                if (counts.entries.size() >= maxEntries) {
+                    counts.entries.clear();
+                }
+                counts.entries.put(filterKey, new Entry(count, System.nanoTime()));
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Removes every cached count for the given entity type, after an entity that can change them was persisted.
+     *
+     * @param entityType    the type of entity whose counts may have changed.
+     */
+    public void invalidate(Class<?> entityType) {
+        Counts counts = countsByType.computeIfAbsent(entityType, type -> new Counts());
+        synchronized (counts) {
+            counts.generation++;
+            counts.entries.clear();
+        }
+    }
+
+
+    /**
+     * The cached counts for one entity type.
+     */
+    private static class Counts {
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Incremented by every invalidation.
+         */
+        private long generation;
+    }
+
+
+    /**
+     * A cached count, and when it was counted.
+     */
+    private static class Entry {
+
+        private final int count;
+        private final long countedAt;
+
+        private Entry(int count, long countedAt) {
+            this.count = count;
+            this.countedAt = countedAt;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package services.search;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import models.destinations.Destination;
+import models.profiles.Profile;
+import repositories.destinations.DestinationRepository;
+import repositories.profiles.ProfileRepository;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps trigram indexes of profile names and of destination names, districts and countries, so that substring
+ * searches on them can be narrowed to a set of candidate ids instead of scanning every row. Also keeps a spatial index
+ * of destination locations, so destinations near a point can be found without measuring the distance to every row.
+ *
+ * The indexes are built from the database on their first search, and are kept up to date by the
+ * SearchIndexListener as changes to profiles and destinations are committed. Changes made before an index is built
+ * are ignored, as the build reads them from the database.
+ */
+@Singleton
+public class SearchIndexService {
+
+    /**
+     * The most candidate ids worth adding to a query. Searches matching more than this fall back to the database.
+     */
+    private static final int MAX_CANDIDATES = 1000;
+
+    private final ProfileRepository profileRepository;
+    private final DestinationRepository destinationRepository;
+
+    private final TrigramIndex profileNames = new TrigramIndex();
+    private final TrigramIndex destinationNames = new TrigramIndex();
+    private final TrigramIndex destinationDistricts = new TrigramIndex();
+    private final TrigramIndex destinationCountries = new TrigramIndex();
+    private final GeoIndex destinationLocations = new GeoIndex();
+
+    private final Object profileLock = new Object();
+    private final Object destinationLock = new Object();
+    private boolean profilesBuilt;
+    private boolean destinationsBuilt;
+
+
+    @Inject
+    public SearchIndexService(ProfileRepository profileRepository, DestinationRepository destinationRepository) {
+        this.profileRepository = profileRepository;
+        this.destinationRepository = destinationRepository;
+    }
+
+
+    /**
+     * Finds the profiles that may have the given text in their first, middle or last name.
+     *
+     * @param name  the text being searched for.
+     * @return      the ids of the candidate profiles, or null if the index cannot narrow the search.
+     */
+    public Set<Long> findProfilesByName(String name) {
+        buildProfiles();
+        return profileNames.search(name, MAX_CANDIDATES);
+    }
+
+
+    /**
+     * Finds the destinations that may have the given text in their name.
+     *
+     * @param name  the text being searched for.
+     * @return      the ids of the candidate destinations, or null if the index cannot narrow the search.
+     */
+    public Set<Long> findDestinationsByName(String name) {
+        buildDestinations();
+        return destinationNames.search(name, MAX_CANDIDATES);
+    }
+
+
+    /**
+     * Finds the destinations that may have the given text in their district.
+     *
+     * @param district  the text being searched for.
+     * @return          the ids of the candidate destinations, or null if the index cannot narrow the search.
+     */
+    public Set<Long> findDestinationsByDistrict(String district) {
+        buildDestinations();
+        return destinationDistricts.search(district, MAX_CANDIDATES);
+    }
+
+
+    /**
+     * Finds the destinations that may have the given text in their country.
+     *
+     * @param country   the text being searched for.
+     * @return          the ids of the candidate destinations, or null if the index cannot narrow the search.
+     */
+    public Set<Long> findDestinationsByCountry(String country) {
+        buildDestinations();
+        return destinationCountries.search(country, MAX_CANDIDATES);
+    }
+
+
+    /**
+     * Finds every destination within the given distance of a point, nearest first. Privacy is not considered, so the
+     * destinations found must still be filtered by the database query, which is why none are left out here.
+     *
+     * @param latitude  the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param radius    the greatest distance from the point in metres.
+     * @return          the ids of the destinations within the radius, ordered by distance.
+     */
+    public List<Long> findDestinationsNear(double latitude, double longitude, double radius) {
+        buildDestinations();
+        return destinationLocations.near(latitude, longitude, radius, Integer.MAX_VALUE);
+    }
+
+
+    /**
+     * Indexes the names of a saved profile.
+     *
+     * @param profile   the profile that was inserted, or had its names updated.
+     */
+    public void indexProfile(Profile profile) {
+        synchronized (profileLock) {
+            if (profilesBuilt) {
+                putProfile(profile);
+            }
+        }
+    }
+
+
+    /**
+     * Removes a deleted profile from the index.
+     *
+     * @param profileId the id of the deleted profile.
+     */
+    public void removeProfile(Long profileId) {
+        synchronized (profileLock) {
+            profileNames.remove(profileId);
+        }
+    }
+
+
+    /**
+     * Indexes the name, district, country and location of a saved destination.
+     *
+     * @param destination   the destination that was inserted, or had its searchable fields or location updated.
+     */
+    public void indexDestination(Destination destination) {
+        synchronized (destinationLock) {
+            if (destinationsBuilt) {
+                putDestination(destination);
+            }
+        }
+    }
+
+
+    /**
+     * Removes a deleted destination from the indexes.
+     *
+     * @param destinationId the id of the deleted destination.
+     */
+    public void removeDestination(Long destinationId) {
+        synchronized (destinationLock) {
+            destinationNames.remove(destinationId);
+            destinationDistricts.remove(destinationId);
+            destinationCountries.remove(destinationId);
+            destinationLocations.remove(destinationId);
+        }
+    }
+
+
+    /**
+     * Builds the profile index from the database, if it has not been built already.
+     */
+    private void buildProfiles() {
+        synchronized (profileLock) {
+            if (!profilesBuilt) {
+                profileNames.clear();
+                profileRepository.findEachName(this::putProfile);
+                profilesBuilt = true;
+            }
+        }
+    }
+
+
+    /**
+     * Builds the destination indexes from the database, if they have not been built already.
+     */
+    private void buildDestinations() {
+        synchronized (destinationLock) {
+            if (!destinationsBuilt) {
+                destinationNames.clear();
+                destinationDistricts.clear();
+                destinationCountries.clear();
+                destinationLocations.clear();
+                destinationRepository.findEachSearchable(this::putDestination);
+                destinationsBuilt = true;
+            }
+        }
+    }
+
+
+    private void putProfile(Profile profile) {
+        profileNames.put(profile.getId(), profile.getFirstName(), profile.getMiddleName(), profile.getLastName());
+    }
+
+
+    private void putDestination(Destination destination) {
+        destinationNames.put(destination.getId(), destination.getName());
+        destinationDistricts.put(destination.getId(), destination.getDistrict());
+        destinationCountries.put(destination.getId(), destination.getCountry());
+        destinationLocations.put(destination.getId(), destination.getLatitude(), destination.getLongitude());
+    }
+}
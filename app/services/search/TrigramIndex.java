@@ -0,0 +1,157 @@
+package services.search;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An in memory inverted index from the trigrams (three character substrings) of text to the ids of the rows it
+ * belongs to. Any text containing a query as a substring contains every trigram of the query, so the rows holding
+ * all of a query's trigrams are a superset of the rows a case insensitive "like '%query%'" would match. These
+ * candidates are then refined by the database query itself.
+ *
+ * Matching is case insensitive. The index is safe to use from multiple threads.
+ */
+public class TrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+    private static final String LIKE_WILDCARDS = "%_";
+
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final Map<Long, Set<String>> trigramsById = new HashMap<>();
+
+
+    /**
+     * Indexes the given text for a row, replacing any text previously indexed for it.
+     *
+     * @param id    the id of the row.
+     * @param texts the text of the row, such as each of its names. Null values are ignored.
+     */
+    public synchronized void put(Long id, String... texts) {
+        remove(id);
+
+        Set<String> trigrams = new HashSet<>();
+        for (String text : texts) {
+            if (text != null) {
+                addTrigrams(normalise(text), trigrams);
+            }
+        }
+        if (trigrams.isEmpty()) {
+            return;
+        }
+
+        trigramsById.put(id, trigrams);
+        for (String trigram : trigrams) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(id);
+        }
+    }
+
+
+    /**
+     * Removes all text indexed for a row.
+     *
+     * @param id    the id of the row.
+     */
+    public synchronized void remove(Long id) {
+        Set<String> trigrams = trigramsById.remove(id);
+        if (trigrams == null) {
+            return;
+        }
+        for (String trigram : trigrams) {
+            Set<Long> ids = postings.get(trigram);
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                postings.remove(trigram);
+            }
+        }
+    }
+
+
+    /**
+     * Finds the rows that may contain the given query as a substring.
+     *
+     * @param query         the text being searched for.
+     * @param maxCandidates the most candidates worth returning.
+     * @return              the ids of the rows that may match, or null if the index cannot narrow the search, as the
+     *                      query is shorter than a trigram, contains like wildcards, or matches more than the maximum
+     *                      number of candidates.
+     */
+    public synchronized Set<Long> search(String query, int maxCandidates) {
+        String normalised = normalise(query);
+        if (normalised.length() < GRAM_LENGTH || containsWildcard(normalised)) {
+            return null;
+        }
+
+        Set<String> trigrams = new HashSet<>();
+        addTrigrams(normalised, trigrams);
+
+        // Intersecting from the rarest trigram keeps the working set small
+        Set<Long> smallest = null;
+        for (String trigram : trigrams) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids == null) {
+                return Collections.emptySet();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+
+        Set<Long> candidates = new HashSet<>();
+        for (Long id : smallest) {
+            if (trigramsById.get(id).containsAll(trigrams)) {
+                candidates.add(id);
+                if (candidates.size() > maxCandidates) {
+                    return null;
+                }
+            }
+        }
+        return candidates;
+    }
+
+
+    /**
+     * Removes every row from the index.
+     */
+    public synchronized void clear() {
+        postings.clear();
+        trigramsById.clear();
+    }
+
+
+    /**
+     * Adds every trigram of the given text to a set.
+     *
+     * @param text      the normalised text.
+     * @param trigrams  the set to add the trigrams to.
+     */
+    private static void addTrigrams(String text, Set<String> trigrams) {
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            trigrams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+    }
+
+
+    /**
+     * Checks whether the given text contains a character that a like pattern treats as a wildcard.
+     *
+     * @param text  the query text.
+     * @return      true if the text contains a wildcard.
+     */
+    private static boolean containsWildcard(String text) {
+        for (char wildcard : LIKE_WILDCARDS.toCharArray()) {
+            if (text.indexOf(wildcard) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    private static String normalise(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,8 +1,10 @@
 package util;
 
+import models.profiles.Principal;
 import models.profiles.Profile;
 import play.mvc.Http;
 import repositories.profiles.ProfileRepository;
+import services.profiles.PrincipalCache;
 
 import javax.xml.bind.DatatypeConverter;
 import java.nio.charset.StandardCharsets;
@@ -42,6 +44,18 @@ public final class AuthenticationUtil {
     }
 
 
+    /**
+     * Returns true if the logged in user is either an admin, or is attempting to perform an action on their own
+     * data.
+     * @param loggedInUser      the principal of the currently logged in user.
+     * @param owner             the profile of the owner of the data that is being manipulated.
+     * @return                  true if the logged in user is allowed to manipulate the owners data.
+     */
+    public static boolean validUser(Principal loggedInUser, Profile owner) {
+        return loggedInUser.isAdmin() || owner.getId().equals(loggedInUser.getId());
+    }
+
+
     /**
      * Gets the logged in user id from a given request.
      *
@@ -89,4 +103,22 @@ public final class AuthenticationUtil {
         }
         return profileRepository.findById(loggedInUserId);
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Validates the authentication of the request sent, using the cached principal of the logged in user where there
+     * is one. Should be used instead of loading the logged in user's profile wherever only their id, username or admin
+     * status is needed.
+     *
+     * @param principalCache        the cache of logged in users.
+     * @param request               the request sent.
+     * @return                      the principal of the logged in user, null if there is no user authenticated.
+     */
+    public static Principal validateAuthentication(PrincipalCache principalCache, Http.Request request) {
+        Long loggedInUserId = AuthenticationUtil.getLoggedInUserId(request);
+        if (loggedInUserId == null) {
+            return null;
+        }
+        return principalCache.get(loggedInUserId);
+    }
+}
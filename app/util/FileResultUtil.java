@@ -0,0 +1,153 @@
+package util;
+
+import akka.stream.javadsl.FileIO;
+import models.util.ApiError;
+import play.http.HttpEntity;
+import play.mvc.Http;
+import play.mvc.RangeResults;
+import play.mvc.Result;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+import java.util.Optional;
+
+import static play.mvc.Http.HeaderNames.*;
+import static play.mvc.Results.notFound;
+import static play.mvc.Results.ok;
+import static play.mvc.Results.status;
+
+public final class FileResultUtil {
+
+    private static final String UTILITY_CLASS = "Utility class";
+    private static final String ANY_ETAG = "*";
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final DateTimeFormatter HTTP_DATE =
+            DateTimeFormatter.ofPattern("EEE, dd MMM yyyy HH:mm:ss 'GMT'", Locale.ENGLISH).withZone(ZoneOffset.UTC);
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private FileResultUtil() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Creates a result that streams the given file to the client, with an ETag and Last-Modified date so the client
+     * can revalidate its cached copy. Returns Not Modified if the client's copy is still current, and serves partial
+     * content if the request has a Range header.
+     *
+     * Any authorization must be checked before calling this, as a client may otherwise learn that a file is unchanged
+     * without being allowed to see it.
+     *
+     * @param request       the Http request for the file.
+     * @param path          the path of the file to be served.
+     * @param contentType   the content type of the file.
+     * @param cacheControl  the Cache-Control header value to send with the file.
+     * @return              notModified() (Http 304) if the client's cached copy is current, notFound() (Http 404) if
+     *                      the file does not exist, otherwise ok() (Http 200) or partial content (Http 206) containing
+     *                      the file.
+     */
+    public static Result serve(Http.Request request, Path path, String contentType, String cacheControl) {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return notFound(ApiError.notFound());
+        }
+
+        // Http dates only have second precision, so the modified time is compared at that precision
+        Instant lastModified = attributes.lastModifiedTime().toInstant().truncatedTo(ChronoUnit.SECONDS);
+        String etag = getETag(lastModified, attributes.size());
+        String lastModifiedDate = HTTP_DATE.format(lastModified);
+
+        if (isNotModified(request, etag, lastModified)) {
+            return status(Http.Status.NOT_MODIFIED)
+                    .withHeaders(ETAG, etag, LAST_MODIFIED, lastModifiedDate, CACHE_CONTROL, cacheControl);
+        }
+
+        // A range is only served if the client's partial copy is of the current file
+        boolean servesRange = request.header(IF_RANGE)
+                .map(ifRange -> ifRange.equals(etag) || ifRange.equals(lastModifiedDate))
+                .orElse(true);
+
+        Result result = servesRange
+                ? RangeResults.ofSource(request, attributes.size(), FileIO.fromPath(path), null, contentType)
+                : ok().sendEntity(new HttpEntity.Streamed(FileIO.fromPath(path), Optional.of(attributes.size()),
+                        Optional.of(contentType)));
+
+        return result.withHeaders(ETAG, etag, LAST_MODIFIED, lastModifiedDate, CACHE_CONTROL, cacheControl);
+    }
+
+
+    /**
+     * Creates a strong ETag for a file from its modified time and size, which change whenever the file is rewritten.
+     *
+     * @param lastModified  the time the file was last modified.
+     * @param size          the size of the file in bytes.
+     * @return              the quoted ETag.
+     */
+    private static String getETag(Instant lastModified, long size) {
+        return "\"" + Long.toHexString(lastModified.getEpochSecond()) + "-" + Long.toHexString(size) + "\"";
+    }
+
+
+    /**
+     * Determines whether the client's cached copy of a file is current, from the If-None-Match header or, if that is
+     * absent, the If-Modified-Since header.
+     *
+     * @param request       the Http request for the file.
+     * @param etag          the current ETag of the file.
+     * @param lastModified  the time the file was last modified.
+     * @return              true if the client's copy is current.
+     */
+    private static boolean isNotModified(Http.Request request, String etag, Instant lastModified) {
+        Optional<String> ifNoneMatch = request.header(IF_NONE_MATCH);
+        if (ifNoneMatch.isPresent()) {
+            return matchesETag(ifNoneMatch.get(), etag);
+        }
+
+        return request.header(IF_MODIFIED_SINCE)
+                .map(ifModifiedSince -> {
+                    try {
+                        Instant since = ZonedDateTime.parse(ifModifiedSince, DateTimeFormatter.RFC_1123_DATE_TIME)
+                                .toInstant();
+                        return !lastModified.isAfter(since);
+                    } catch (DateTimeParseException e) {
+                        return false;
+                    }
+                })
+                .orElse(false);
+    }
+
+
+    /**
+     * Determines whether an If-None-Match header matches the given ETag. The weak comparison is used, as required for
+     * If-None-Match, so weak ETags in the header match a strong ETag with the same value.
+     *
+     * @param ifNoneMatch   the value of the If-None-Match header.
+     * @param etag          the current ETag of the resource.
+     * @return              true if the header lists the ETag, or matches any ETag.
+     */
+    public static boolean matchesETag(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith(WEAK_ETAG_PREFIX)) {
+                tag = tag.substring(WEAK_ETAG_PREFIX.length());
+            }
+            if (tag.equals(ANY_ETAG) || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
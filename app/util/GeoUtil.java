@@ -0,0 +1,97 @@
+package util;
+
+public final class GeoUtil {
+
+    private static final String UTILITY_CLASS = "Utility class";
+
+    /**
+     * The mean radius of the Earth in metres.
+     */
+    public static final double EARTH_RADIUS_METERS = 6371000;
+
+    /**
+     * The length of one degree of latitude, or of longitude at the equator, in metres.
+     */
+    private static final double METERS_PER_DEGREE = EARTH_RADIUS_METERS * Math.PI / 180;
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private GeoUtil() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Calculates the great circle distance between two points, using the haversine formula.
+     *
+     * @param latitude1     the latitude of the first point, in degrees.
+     * @param longitude1    the longitude of the first point, in degrees.
+     * @param latitude2     the latitude of the second point, in degrees.
+     * @param longitude2    the longitude of the second point, in degrees.
+     * @return              the distance between the points in metres.
+     */
+    public static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDistance = Math.toRadians(latitude2 - latitude1);
+        double longitudeDistance = Math.toRadians(longitude2 - longitude1);
+        double sinLatitude = Math.sin(latitudeDistance / 2);
+        double sinLongitude = Math.sin(longitudeDistance / 2);
+        double squareHalfChordLength = sinLatitude * sinLatitude
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * sinLongitude * sinLongitude;
+        double angularDistance = 2 * Math.atan2(Math.sqrt(squareHalfChordLength),
+                Math.sqrt(1 - squareHalfChordLength));
+        return EARTH_RADIUS_METERS * angularDistance;
+    }
+
+
+    /**
+     * Checks whether two points are within the given distance of each other. Points outside a bounding box around
+     * the first point are rejected without calculating the exact distance, so most checks of distant points only take
+     * a few comparisons.
+     *
+     * @param latitude1     the latitude of the first point, in degrees.
+     * @param longitude1    the longitude of the first point, in degrees.
+     * @param latitude2     the latitude of the second point, in degrees.
+     * @param longitude2    the longitude of the second point, in degrees.
+     * @param radius        the greatest distance between the points in metres.
+     * @return              true if the points are no further apart than the radius.
+     */
+    public static boolean isWithin(double latitude1, double longitude1, double latitude2, double longitude2,
+                                   double radius) {
+        // A degree of latitude is the same length everywhere, so the latitudes alone give a lower bound
+        double latitudeDelta = Math.abs(latitude2 - latitude1);
+        if (latitudeDelta * METERS_PER_DEGREE > radius) {
+            return false;
+        }
+
+        double longitudeDelta = Math.abs(longitude2 - longitude1);
+        if (longitudeDelta > 180) {
+            longitudeDelta = 360 - longitudeDelta;
+        }
+        if (longitudeDelta > getLongitudeDelta(latitude1, radius)) {
+            return false;
+        }
+
+        return distance(latitude1, longitude1, latitude2, longitude2) <= radius;
+    }
+
+
+    /**
+     * Calculates the greatest difference in longitude between a point and any point within the given distance of it,
+     * which is the half width of the bounding box of a circle around the point.
+     *
+     * @param latitude  the latitude of the point, in degrees.
+     * @param radius    the radius of the circle in metres.
+     * @return          the greatest difference in longitude in degrees, or 180 if the circle contains a pole and so
+     *                  covers every longitude.
+     */
+    public static double getLongitudeDelta(double latitude, double radius) {
+        double angularRadius = radius / EARTH_RADIUS_METERS;
+        double sinLongitudeDelta = Math.sin(angularRadius) / Math.cos(Math.toRadians(latitude));
+        if (angularRadius >= Math.PI / 2 || sinLongitudeDelta >= 1) {
+            return 180;
+        }
+        return Math.toDegrees(Math.asin(sinLongitudeDelta));
+    }
+}
@@ -0,0 +1,45 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Optional;
+
+public final class JsonUtil {
+
+    private static final String UTILITY_CLASS = "Utility class";
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private JsonUtil() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Deserializes the given Json body into an object of the given type using the given view. Controllers call this
+     * before handing off to the database execution context, so that request parsing does not hold a database thread.
+     *
+     * @param objectMapper  the object mapper used to read the Json body.
+     * @param view          the Jackson view to read the Json body with.
+     * @param type          the class of the object to be read.
+     * @param json          the Json body of the request.
+     * @param <T>           the type of the object to be read.
+     * @return              an optional containing the deserialized object, or empty if there is no body or it is not
+     *                      valid Json for the type.
+     */
+    public static <T> Optional<T> readWithView(ObjectMapper objectMapper, Class<?> view, Class<T> type,
+                                               JsonNode json) {
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(objectMapper.readerWithView(view).forType(type).readValue(json));
+        } catch (IOException e) {
+            // Includes JsonProcessingException, thrown for any body that does not match the type
+            return Optional.empty();
+        }
+    }
+}
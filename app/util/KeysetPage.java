@@ -0,0 +1,228 @@
+package util;
+
+import io.ebean.Ebean;
+import io.ebean.ExpressionList;
+import io.ebean.plugin.BeanType;
+import io.ebean.plugin.ExpressionPath;
+import models.util.BaseModel;
+import play.mvc.Result;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A page of a listing found by keyset (seek) pagination. Rather than skipping every row before the page, as paging
+ * with setFirstRow() does, the query seeks directly past the sort value and id of the last row of the previous page,
+ * so deep pages cost the same as the first.
+ *
+ * Rows are ordered by the sort property and then by id, so rows with equal sort values are never skipped or repeated.
+ * Null sort values are ordered lowest, as they are by both H2 and MySQL.
+ *
+ * @param <T>   the type of the listed rows.
+ */
+public final class KeysetPage<T extends BaseModel> {
+
+    /**
+     * The header holding the cursor of the next page, for listings returned as a Json array.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String ID = "id";
+    private static final String ASC = " asc";
+    private static final String DESC = " desc";
+
+    private final List<T> list;
+    private final String nextCursor;
+
+
+    private KeysetPage(List<T> list, String nextCursor) {
+        this.list = list;
+        this.nextCursor = nextCursor;
+    }
+
+
+    /**
+     * Creates a page of rows found by another means, such as paging with setFirstRow(), which has no next cursor.
+     *
+     * @param list  the rows of the page.
+     * @param <T>   the type of the listed rows.
+     * @return      the page of rows.
+     */
+    public static <T extends BaseModel> KeysetPage<T> of(List<T> list) {
+        return new KeysetPage<>(list, null);
+    }
+
+
+    /**
+     * Finds the page of rows matching the given expression list that follows the given cursor.
+     *
+     * @param expressionList            the expression list filtering the rows to be listed.
+     * @param sortProperty              the property to sort by, or null to sort only by id.
+     * @param ascending                 true to sort in ascending order, false for descending.
+     * @param cursor                    the cursor of the previous page, or null for the first page.
+     * @param pageSize                  the maximum number of rows in the page.
+     * @param <T>                       the type of the listed rows.
+     * @return                          the page of rows, and the cursor of the next page.
+     * @throws IllegalArgumentException if the cursor was created for a different sort, or the rows cannot be sorted by
+     *                                  the sort property.
+     */
+    public static <T extends BaseModel> KeysetPage<T> find(ExpressionList<T> expressionList, String sortProperty,
+                                                         boolean ascending, PageCursor cursor, int pageSize) {
+        ExpressionPath path = null;
+        if (sortProperty != null) {
+            BeanType<T> beanType = Ebean.getDefaultServer().getPluginApi()
+                    .getBeanType(expressionList.query().getBeanType());
+            path = beanType.getExpressionPath(sortProperty);
+            if (path == null || path.containsMany()) {
+                throw new IllegalArgumentException("Cannot seek by " + sortProperty);
+            }
+        }
+
+        if (cursor != null) {
+            if (!Objects.equals(cursor.getSortProperty(), sortProperty) || cursor.isAscending() != ascending) {
+                throw new IllegalArgumentException("Cursor does not match the requested sort");
+            }
+            seekPast(expressionList, sortProperty, ascending, parse(path, cursor.getSortValue()), cursor.getLastId());
+        }
+
+        String direction = ascending ? ASC : DESC;
+        String orderBy = sortProperty == null
+                ? ID + direction
+                : sortProperty + direction + ", " + ID + direction;
+
+        List<T> list = expressionList
+                .orderBy(orderBy)
+                .setMaxRows(pageSize)
+                .findList();
+
+        String nextCursor = null;
+        if (!list.isEmpty() && list.size() == pageSize) {
+            T last = list.get(list.size() - 1);
+            String sortValue = path == null ? null : format(path.pathGet(last));
+            nextCursor = new PageCursor(sortProperty, ascending, sortValue, last.getId()).encode();
+        }
+        return new KeysetPage<>(list, nextCursor);
+    }
+
+
+    /**
+     * Adds the expressions that only match rows ordered after the row with the given sort value and id.
+     *
+     * @param expressionList    the expression list to add to.
+     * @param sortProperty      the property rows are sorted by, or null if they are only sorted by id.
+     * @param ascending         true if rows are sorted in ascending order.
+     * @param sortValue         the sort value of the last row of the previous page.
+     * @param lastId            the id of the last row of the previous page.
+     */
+    private static void seekPast(ExpressionList<?> expressionList, String sortProperty, boolean ascending,
+                                 Object sortValue, Long lastId) {
+        if (sortProperty == null) {
+            if (ascending) {
+                expressionList.gt(ID, lastId);
+            } else {
+                expressionList.lt(ID, lastId);
+            }
+        } else if (sortValue == null && ascending) {
+            // Null values are ordered first, so every non null value follows
+            expressionList
+                    .disjunction()
+                    .isNotNull(sortProperty)
+                    .conjunction()
+                    .isNull(sortProperty)
+                    .gt(ID, lastId)
+                    .endJunction()
+                    .endJunction();
+        } else if (sortValue == null) {
+            expressionList
+                    .isNull(sortProperty)
+                    .lt(ID, lastId);
+        } else if (ascending) {
+            expressionList
+                    .disjunction()
+                    .gt(sortProperty, sortValue)
+                    .conjunction()
+                    .eq(sortProperty, sortValue)
+                    .gt(ID, lastId)
+                    .endJunction()
+                    .endJunction();
+        } else {
+            // Null values are ordered last, so they follow every non null value
+            expressionList
+                    .disjunction()
+                    .lt(sortProperty, sortValue)
+                    .conjunction()
+                    .eq(sortProperty, sortValue)
+                    .lt(ID, lastId)
+                    .endJunction()
+                    .isNull(sortProperty)
+                    .endJunction();
+        }
+    }
+
+
+    /**
+     * Formats a sort value to be stored in a cursor.
+     *
+     * @param value the sort value of a row.
+     * @return      the value as a string, or null if there is no value.
+     */
+    private static String format(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date) {
+            return Long.toString(((Date) value).getTime());
+        }
+        return value.toString();
+    }
+
+
+    /**
+     * Parses a sort value stored in a cursor back into the type of the sort property.
+     *
+     * @param path                      the sort property.
+     * @param value                     the sort value as given by format().
+     * @return                          the sort value, or null if there is no value.
+     * @throws IllegalArgumentException if the value cannot be parsed.
+     */
+    private static Object parse(ExpressionPath path, String value) {
+        if (path == null || value == null) {
+            return null;
+        }
+        try {
+            if (Date.class.isAssignableFrom(path.getProperty().getPropertyType())) {
+                return path.parseDateTime(Long.parseLong(value));
+            }
+            return path.getStringParser().parse(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor value " + value, e);
+        }
+    }
+
+
+    /**
+     * Adds the cursor of the next page to a result containing this page as a Json array.
+     *
+     * @param result    the result containing this page.
+     * @return          the result, with the next cursor header if there may be a next page.
+     */
+    public Result withNextCursor(Result result) {
+        return nextCursor == null ? result : result.withHeader(NEXT_CURSOR_HEADER, nextCursor);
+    }
+
+
+    public List<T> getList() {
+        return list;
+    }
+
+
+    /**
+     * Gets the cursor of the next page.
+     *
+     * @return the encoded cursor, or null if this was the last page.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+}
@@ -0,0 +1,114 @@
+package util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import play.libs.Json;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Marks where a page of a keyset paginated listing ended, so the next page can be found by seeking past the last row
+ * instead of skipping every earlier row. A cursor holds the sort property and order it was created for, along with the
+ * sort value and id of the last row, and is sent to clients as an opaque URL safe string.
+ */
+public final class PageCursor {
+
+    private static final String SORT_PROPERTY = "s";
+    private static final String ASCENDING = "a";
+    private static final String SORT_VALUE = "v";
+    private static final String LAST_ID = "i";
+
+    private final String sortProperty;
+    private final boolean ascending;
+    private final String sortValue;
+    private final Long lastId;
+
+
+    /**
+     * @param sortProperty  the property the listing is sorted by, or null if it is only sorted by id.
+     * @param ascending     true if the listing is sorted in ascending order.
+     * @param sortValue     the sort value of the last row as a string, or null if it had none.
+     * @param lastId        the id of the last row.
+     */
+    public PageCursor(String sortProperty, boolean ascending, String sortValue, Long lastId) {
+        this.sortProperty = sortProperty;
+        this.ascending = ascending;
+        this.sortValue = sortValue;
+        this.lastId = lastId;
+    }
+
+
+    /**
+     * Encodes the cursor to be sent to the client.
+     *
+     * @return the cursor as a URL safe string.
+     */
+    public String encode() {
+        ObjectNode json = Json.newObject();
+        json.put(SORT_PROPERTY, sortProperty);
+        json.put(ASCENDING, ascending);
+        json.put(SORT_VALUE, sortValue);
+        json.put(LAST_ID, lastId);
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Json.stringify(json).getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Decodes a cursor sent by the client.
+     *
+     * @param cursor                    the cursor as given by encode().
+     * @return                          the decoded cursor.
+     * @throws IllegalArgumentException if the string is not a valid cursor.
+     */
+    public static PageCursor decode(String cursor) {
+        JsonNode json;
+        try {
+            json = Json.parse(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+
+        if (json == null || !json.isObject() || !json.path(ASCENDING).isBoolean()
+                || !json.path(LAST_ID).isIntegralNumber()) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+
+        return new PageCursor(textOrNull(json, SORT_PROPERTY), json.get(ASCENDING).asBoolean(),
+                textOrNull(json, SORT_VALUE), json.get(LAST_ID).asLong());
+    }
+
+
+    /**
+     * Gets a text field of the given Json, treating a missing or null field as null.
+     *
+     * @param json  the Json object.
+     * @param field the name of the field.
+     * @return      the text of the field, or null if it has no value.
+     */
+    private static String textOrNull(JsonNode json, String field) {
+        JsonNode node = json.get(field);
+        return node == null || node.isNull() ? null : node.asText();
+    }
+
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+
+    public String getSortValue() {
+        return sortValue;
+    }
+
+
+    public Long getLastId() {
+        return lastId;
+    }
+}
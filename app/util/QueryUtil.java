@@ -2,6 +2,8 @@ package util;
 
 public class QueryUtil {
 
+    private static final String LIKE_ESCAPE = "\\";
+
     /**
      * Private constructor for the class to prevent instantiation.
      */
@@ -19,4 +21,18 @@ public class QueryUtil {
     public static String queryComparator(String field) {
         return "%" + field + "%";
     }
+
+
+    /**
+     * Escapes the characters with a special meaning in an sql like clause, so that the given text only matches
+     * itself. Uses the default escape character of a like clause, a backslash, which is escaped as well.
+     *
+     * @param text      the text to be matched literally.
+     * @return          the text with backslashes, percentage signs and underscores escaped.
+     */
+    public static String escapeLike(String text) {
+        return text.replace(LIKE_ESCAPE, LIKE_ESCAPE + LIKE_ESCAPE)
+                .replace("%", LIKE_ESCAPE + "%")
+                .replace("_", LIKE_ESCAPE + "_");
+    }
 }
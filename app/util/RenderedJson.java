@@ -0,0 +1,136 @@
+package util;
+
+import play.libs.Json;
+import play.mvc.Http;
+import play.mvc.Result;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static play.mvc.Http.HeaderNames.*;
+import static play.mvc.Results.ok;
+import static play.mvc.Results.status;
+
+/**
+ * A Json response body rendered once, both plain and gzip compressed, so that data which rarely changes can be served
+ * repeatedly without serializing it again. Each encoding has its own strong ETag, which the client can revalidate its
+ * cached copy with.
+ */
+public final class RenderedJson {
+
+    private static final String GZIP = "gzip";
+    private static final String GZIP_ETAG_SUFFIX = "-gzip";
+    private static final String QUALITY_PREFIX = "q=";
+    private static final int ETAG_LENGTH = 32;
+
+    private final byte[] body;
+    private final byte[] gzipBody;
+    private final String etag;
+    private final String gzipEtag;
+
+
+    /**
+     * Renders the given value as Json.
+     *
+     * @param value the value to be rendered, which is serialized the same way as by Json.toJson().
+     */
+    public RenderedJson(Object value) {
+        this.body = Json.stringify(Json.toJson(value)).getBytes(StandardCharsets.UTF_8);
+        this.gzipBody = compress(body);
+
+        String hash = TextUtil.hash(body).substring(0, ETAG_LENGTH);
+        this.etag = "\"" + hash + "\"";
+        this.gzipEtag = "\"" + hash + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+
+    /**
+     * Creates a result containing the rendered Json, compressed if the client accepts gzip. Returns Not Modified if
+     * the client's cached copy is current.
+     *
+     * @param request       the Http request for the Json.
+     * @param cacheControl  the Cache-Control header value to send with the Json.
+     * @return              notModified() (Http 304) if the If-None-Match header matches the Json, otherwise ok()
+     *                      (Http 200) containing the Json.
+     */
+    public Result serve(Http.Request request, String cacheControl) {
+        boolean compressed = acceptsGzip(request);
+        String currentEtag = compressed ? gzipEtag : etag;
+
+        boolean notModified = request.header(IF_NONE_MATCH)
+                .map(ifNoneMatch -> FileResultUtil.matchesETag(ifNoneMatch, currentEtag))
+                .orElse(false);
+
+        Result result;
+        if (notModified) {
+            result = status(Http.Status.NOT_MODIFIED);
+        } else if (compressed) {
+            result = ok(gzipBody).as(Http.MimeTypes.JSON).withHeader(CONTENT_ENCODING, GZIP);
+        } else {
+            result = ok(body).as(Http.MimeTypes.JSON);
+        }
+
+        return result.withHeaders(ETAG, currentEtag, CACHE_CONTROL, cacheControl, VARY, ACCEPT_ENCODING);
+    }
+
+
+    /**
+     * Determines whether the client accepts gzip compressed responses, from the Accept-Encoding header.
+     *
+     * @param request   the Http request for the Json.
+     * @return          true if gzip is listed in the Accept-Encoding header without a quality of zero.
+     */
+    private static boolean acceptsGzip(Http.Request request) {
+        return request.header(ACCEPT_ENCODING)
+                .map(acceptEncoding -> {
+                    for (String coding : acceptEncoding.split(",")) {
+                        String[] parameters = coding.split(";");
+                        if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                            return parameters.length == 1 || getQuality(parameters[1]) > 0;
+                        }
+                    }
+                    return false;
+                })
+                .orElse(false);
+    }
+
+
+    /**
+     * Gets the quality of a content coding from its parameter.
+     *
+     * @param parameter the parameter following the content coding, such as "q=0.5".
+     * @return          the quality, or 1 if the parameter is not a valid quality.
+     */
+    private static double getQuality(String parameter) {
+        String quality = parameter.trim();
+        if (!quality.startsWith(QUALITY_PREFIX)) {
+            return 1;
+        }
+        try {
+            return Double.parseDouble(quality.substring(QUALITY_PREFIX.length()));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+
+    /**
+     * Compresses the given bytes with gzip.
+     *
+     * @param bytes the bytes to be compressed.
+     * @return      the compressed bytes.
+     */
+    private static byte[] compress(byte[] bytes) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            // Writing to memory cannot fail
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+}
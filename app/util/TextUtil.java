@@ -0,0 +1,106 @@
+package util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Locale;
+
+public final class TextUtil {
+
+    private static final String UTILITY_CLASS = "Utility class";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final String DIACRITICAL_MARKS = "\\p{InCombiningDiacriticalMarks}+";
+    private static final String WHITESPACE = "\\s+";
+    private static final char SEPARATOR = '\u001F';
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private TextUtil() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Removes all accents and diacritics from the given text.
+     *
+     * @param text  the text to remove accents from.
+     * @return      the text without any accents or diacritics.
+     */
+    public static String removeAccents(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD).replaceAll(DIACRITICAL_MARKS, "");
+    }
+
+
+    /**
+     * Folds the given text so that text differing only in case, accents or spacing is the same.
+     *
+     * @param text  the text to be folded, which may be null.
+     * @return      the text without accents, in lower case, and with runs of whitespace collapsed to a single space.
+     *              An empty string if the text is null.
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        return removeAccents(text).toLowerCase(Locale.ROOT).trim().replaceAll(WHITESPACE, " ");
+    }
+
+
+    /**
+     * Creates a fingerprint of the given values, which is the same for values that are equal once folded.
+     *
+     * @param values    the values to be fingerprinted, in order.
+     * @return          the hex encoded SHA-256 hash of the folded values.
+     */
+    public static String fingerprint(String... values) {
+        StringBuilder builder = new StringBuilder();
+        for (String value : values) {
+            builder.append(fold(value)).append(SEPARATOR);
+        }
+        return hash(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    /**
+     * Hashes the given bytes.
+     *
+     * @param bytes the bytes to be hashed.
+     * @return      the lower case hex encoded SHA-256 hash of the bytes.
+     */
+    public static String hash(byte[] bytes) {
+        return toHex(createDigest().digest(bytes));
+    }
+
+
+    /**
+     * Creates a digest to hash content with, for content that is hashed as it arrives rather than all at once.
+     *
+     * @return a new SHA-256 message digest.
+     */
+    public static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance(HASH_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+
+    /**
+     * Hex encodes the given hash.
+     *
+     * @param hash  the bytes of the hash.
+     * @return      the lower case hex encoding of the hash.
+     */
+    public static String toHex(byte[] hash) {
+        StringBuilder builder = new StringBuilder(hash.length * 2);
+        for (byte b : hash) {
+            builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+            builder.append(Character.forDigit(b & 0xF, 16));
+        }
+        return builder.toString();
+    }
+}
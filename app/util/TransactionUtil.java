@@ -0,0 +1,31 @@
+package util;
+
+import io.ebean.Transaction;
+import io.ebean.TransactionCallbackAdapter;
+
+public final class TransactionUtil {
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private TransactionUtil() {
+        throw new IllegalStateException("Utility class");
+    }
+
+
+    /**
+     * Runs the given action in the committing thread once the given transaction has committed. If the transaction is
+     * rolled back the action is never run.
+     *
+     * @param transaction   the transaction to wait for.
+     * @param action        the action to run after the commit.
+     */
+    public static void afterCommit(Transaction transaction, Runnable action) {
+        transaction.register(new TransactionCallbackAdapter() {
+            @Override
+            public void postCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,52 @@
+package controllers.trips;
+
+import models.trips.TripDestination;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks checking that the dates of a trip's destinations are in order, which is done each time a trip is saved.
+ * Every other destination has no dates, as is common in trips.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TripControllerBenchmark {
+
+    @Param({"5", "50"})
+    public int destinationCount;
+
+    private TripController tripController;
+    private List<TripDestination> tripDestinations;
+
+
+    @Setup
+    public void setUp() {
+        tripController = new TripController(null, null, null, null, null, null, null);
+
+        tripDestinations = new ArrayList<>();
+        LocalDate date = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < destinationCount; i++) {
+            TripDestination tripDestination = new TripDestination();
+            if (i % 2 == 0) {
+                tripDestination.setStartDate(date);
+                tripDestination.setEndDate(date.plusDays(1));
+                date = date.plusDays(2);
+            }
+            tripDestinations.add(tripDestination);
+        }
+    }
+
+
+    @Benchmark
+    public boolean isValidDateOrder() {
+        return tripController.isValidDateOrder(tripDestinations);
+    }
+}
@@ -0,0 +1,51 @@
+package models.points;
+
+import org.openjdk.jmh.annotations.*;
+import util.BenchmarkFixtures;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks adding progress to a badge, which is done for every action that awards a badge. The tracker already has
+ * progress towards every other badge, so finding the badge's progress searches the full set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AchievementTrackerBenchmark {
+
+    private AchievementTracker achievementTracker;
+    private Badge trackedBadge;
+    private Badge untrackedBadge;
+
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        List<Badge> badges = BenchmarkFixtures.createBadges();
+        achievementTracker = new AchievementTracker();
+        for (Badge badge : badges.subList(1, badges.size())) {
+            achievementTracker.addBadgeProgress(badge, 1);
+        }
+        trackedBadge = badges.get(badges.size() - 1);
+        untrackedBadge = badges.get(0);
+    }
+
+
+    @Benchmark
+    public Badge addProgressToTrackedBadge() {
+        achievementTracker.addBadgeProgress(trackedBadge, 1);
+        return achievementTracker.getRecentlyAchieved();
+    }
+
+
+    @Benchmark
+    public Badge addProgressToNewBadge() {
+        AchievementTracker tracker = new AchievementTracker();
+        tracker.addBadgeProgress(untrackedBadge, 1);
+        return tracker.getRecentlyAchieved();
+    }
+}
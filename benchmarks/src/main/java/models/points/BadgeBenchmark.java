@@ -0,0 +1,46 @@
+package models.points;
+
+import org.openjdk.jmh.annotations.*;
+import util.BenchmarkFixtures;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks working out the level of a badge and the message saying how to reach the next one, which are computed
+ * each time a badge is serialized.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BadgeBenchmark {
+
+    /**
+     * Progress towards the Cartographer badge, which is none, bronze, silver and gold respectively.
+     */
+    @Param({"0", "5", "20", "60"})
+    public int progress;
+
+    private Badge badge;
+
+
+    @Setup
+    public void setUp() {
+        badge = BenchmarkFixtures.createBadges().get(1);
+        badge.setProgress(progress);
+    }
+
+
+    @Benchmark
+    public Integer getLevel() {
+        return badge.getLevel();
+    }
+
+
+    @Benchmark
+    public String getHowToProgress() {
+        return badge.getHowToProgress();
+    }
+}
@@ -0,0 +1,53 @@
+package models.profiles;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import models.points.Badge;
+import org.openjdk.jmh.annotations.*;
+import play.libs.Json;
+import util.BenchmarkFixtures;
+import util.Views;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks serializing a page of fully populated profiles to Json under each view, as is done for profile searches
+ * and the leaderboard.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProfileSerializationBenchmark {
+
+    private static final int PROFILE_COUNT = 50;
+
+    @Param({"Public", "Owner", "Admin"})
+    public String view;
+
+    private ObjectWriter writer;
+    private List<Profile> profiles;
+
+
+    @Setup
+    public void setUp() throws ClassNotFoundException {
+        Class<?> viewClass = Class.forName(Views.class.getName() + "$" + view);
+        writer = Json.newDefaultMapper().writerWithView(viewClass);
+
+        List<Badge> badges = BenchmarkFixtures.createBadges();
+        profiles = new ArrayList<>();
+        for (long id = 1; id <= PROFILE_COUNT; id++) {
+            profiles.add(BenchmarkFixtures.createProfile(id, badges));
+        }
+    }
+
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(profiles);
+    }
+}
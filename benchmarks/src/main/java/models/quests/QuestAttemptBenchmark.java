@@ -0,0 +1,67 @@
+package models.quests;
+
+import models.objectives.Objective;
+import org.openjdk.jmh.annotations.*;
+import util.BenchmarkFixtures;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the accessors giving the progress of a quest attempt, which are all called when an attempt is
+ * serialized. The attempt is half way through its quest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class QuestAttemptBenchmark {
+
+    @Param({"5", "50"})
+    public int objectiveCount;
+
+    private QuestAttempt questAttempt;
+
+
+    @Setup
+    public void setUp() {
+        Quest quest = BenchmarkFixtures.createQuest(objectiveCount);
+        questAttempt = new QuestAttempt(null, quest);
+        for (Objective objective : quest.getObjectives().subList(0, objectiveCount / 2)) {
+            questAttempt.solveCurrent(objective.getDestination());
+            questAttempt.checkIn();
+        }
+    }
+
+
+    @Benchmark
+    public List<Objective> getCheckedIn() {
+        return questAttempt.getCheckedIn();
+    }
+
+
+    @Benchmark
+    public Objective getCurrentToSolve() {
+        return questAttempt.getCurrentToSolve();
+    }
+
+
+    @Benchmark
+    public Objective getCurrentToCheckIn() {
+        return questAttempt.getCurrentToCheckIn();
+    }
+
+
+    @Benchmark
+    public List<Objective> getUnsolved() {
+        return questAttempt.getUnsolved();
+    }
+
+
+    @Benchmark
+    public int getProgress() {
+        return questAttempt.getProgress();
+    }
+}
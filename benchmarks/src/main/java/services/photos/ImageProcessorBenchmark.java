@@ -0,0 +1,102 @@
+package services.photos;
+
+import org.openjdk.jmh.annotations.*;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks making a thumbnail of an uploaded photo. createThumbnail reads the photo from a file and decodes only a
+ * subsampled centre square of it, so it is compared against decodeMakeSquareAndScale, which decodes the whole file
+ * before cropping and scaling it. The in-memory benchmarks measure the crop and scale steps on their own.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ImageProcessorBenchmark {
+
+    private static final long MAX_DECODED_PIXELS = 250000;
+
+    /**
+     * Width and height of the uploaded photo.
+     */
+    @Param({"640x480", "1920x1080", "4032x3024"})
+    public String size;
+
+    private ImageProcessor imageProcessor;
+    private BufferedImage photo;
+    private BufferedImage square;
+    private File source;
+    private File destination;
+
+
+    @Setup
+    public void setUp() throws IOException {
+        String[] dimensions = size.split("x");
+        photo = new BufferedImage(Integer.parseInt(dimensions[0]), Integer.parseInt(dimensions[1]),
+                BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D graphics = photo.createGraphics();
+        graphics.setPaint(new GradientPaint(0, 0, Color.BLUE, photo.getWidth(), photo.getHeight(),
+                Color.ORANGE));
+        graphics.fillRect(0, 0, photo.getWidth(), photo.getHeight());
+        graphics.dispose();
+
+        imageProcessor = new ImageProcessor(MAX_DECODED_PIXELS);
+        square = imageProcessor.makeSquare(photo);
+
+        source = File.createTempFile("benchmark-source", ".jpg");
+        destination = File.createTempFile("benchmark-thumbnail", ".jpg");
+        ImageIO.write(photo, "jpg", source);
+    }
+
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source.toPath());
+        Files.deleteIfExists(destination.toPath());
+    }
+
+
+    @Benchmark
+    public BufferedImage makeSquare() {
+        return imageProcessor.makeSquare(photo);
+    }
+
+
+    @Benchmark
+    public BufferedImage scale() {
+        return imageProcessor.scale(square);
+    }
+
+
+    @Benchmark
+    public BufferedImage makeSquareAndScale() {
+        return imageProcessor.scale(imageProcessor.makeSquare(photo));
+    }
+
+
+    @Benchmark
+    public File createThumbnail() throws IOException {
+        imageProcessor.createThumbnail(source, destination);
+        return destination;
+    }
+
+
+    @Benchmark
+    public File decodeMakeSquareAndScale() throws IOException {
+        BufferedImage decoded = ImageIO.read(source);
+        ImageIO.write(imageProcessor.scale(imageProcessor.makeSquare(decoded)), "jpg", destination);
+        return destination;
+    }
+}
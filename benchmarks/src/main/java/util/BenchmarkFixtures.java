@@ -0,0 +1,208 @@
+package util;
+
+import models.destinations.Destination;
+import models.objectives.Objective;
+import models.points.AchievementTracker;
+import models.points.Action;
+import models.points.Badge;
+import models.profiles.Nationality;
+import models.profiles.Passport;
+import models.profiles.Profile;
+import models.profiles.TravellerType;
+import models.quests.Quest;
+
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Builds the populated models used by the benchmarks. Reference data such as badges and nationalities is only ever
+ * loaded from the database, so its fields are set by reflection.
+ */
+public final class BenchmarkFixtures {
+
+    private static final String UTILITY_CLASS = "Utility class";
+
+    /**
+     * Private constructor for the class to prevent instantiation.
+     */
+    private BenchmarkFixtures() {
+        throw new IllegalStateException(UTILITY_CLASS);
+    }
+
+
+    /**
+     * Creates the badges seeded into the database, without any progress.
+     *
+     * @return  a badge for each action with a badge, with the seeded breakpoints.
+     */
+    public static List<Badge> createBadges() {
+        return Arrays.asList(
+                createBadge(1L, Action.TRIP_CREATED, "Planner", 1, 10, 30,
+                        "You need to create %s more trips to achieve %s"),
+                createBadge(2L, Action.DESTINATION_CREATED, "Cartographer", 1, 10, 50,
+                        "You need to create %s more destinations to achieve %s"),
+                createBadge(3L, Action.QUEST_CREATED, "Writer", 1, 15, 50,
+                        "You need to create %s more quests to achieve %s"),
+                createBadge(4L, Action.QUEST_COMPLETED, "Solver", 1, 20, 50,
+                        "You need to complete %s more quests to achieve %s"),
+                createBadge(5L, Action.INTERNATIONAL_QUEST_COMPLETED, "Explorer", 1, 5, 10,
+                        "You need to complete %s more international quests to achieve %s"),
+                createBadge(6L, Action.LARGE_QUEST_COMPLETED, "Adventurer", 1, 10, 30,
+                        "You need to complete %s more large quests to achieve %s"),
+                createBadge(7L, Action.DISTANCE_QUEST_COMPLETED, "Wayfarer", 100000, 500000, 1000000,
+                        "You need to travel %s more metres in quests to achieve %s"),
+                createBadge(8L, Action.POINTS_GAINED, "Overachiever", 100, 1000, 10000,
+                        "You need to earn %s more points to achieve %s"),
+                createBadge(9L, Action.LOGIN_STREAK, "Streaker", 1, 7, 31,
+                        "You need to login each day %s more times to achieve %s")
+        );
+    }
+
+
+    /**
+     * Creates a badge.
+     *
+     * @param id            the id of the badge.
+     * @param action        the action that progresses the badge.
+     * @param name          the name of the badge.
+     * @param bronze        the progress needed for bronze.
+     * @param silver        the progress needed for silver.
+     * @param gold          the progress needed for gold.
+     * @param howToProgress the format of the badge's progress message.
+     * @return              the badge, without any progress.
+     */
+    public static Badge createBadge(Long id, Action action, String name, int bronze, int silver, int gold,
+                                    String howToProgress) {
+        Badge badge = new Badge();
+        badge.setId(id);
+        badge.setActionToAchieve(action);
+        setField(badge, "name", name);
+        setField(badge, "bronzeBreakpoint", bronze);
+        setField(badge, "silverBreakpoint", silver);
+        setField(badge, "goldBreakpoint", gold);
+        setField(badge, "howToProgress", howToProgress);
+        return badge;
+    }
+
+
+    /**
+     * Creates a profile with every field that is serialized populated, including an achievement tracker with progress
+     * towards each badge.
+     *
+     * @param id        the id of the profile.
+     * @param badges    the badges the profile has progress towards.
+     * @return          the profile.
+     */
+    public static Profile createProfile(long id, List<Badge> badges) {
+        Profile profile = new Profile();
+        profile.setId(id);
+        profile.setUsername("traveller" + id + "@travelea.com");
+        profile.setPassword("password");
+        profile.setFirstName("Traveller");
+        profile.setMiddleName("Benchmark");
+        profile.setLastName("Number" + id);
+        profile.setGender("Other");
+        profile.setDateOfBirth(LocalDate.of(1990, 1, 1).plusDays(id));
+        profile.setDateOfCreation(new Date(0));
+        profile.setLastSeenDate(new Date(0));
+        profile.setNationalities(Arrays.asList(
+                createNationality(1L, "New Zealander", "New Zealand"),
+                createNationality(2L, "Australian", "Australia")));
+        profile.setPassports(Collections.singletonList(createPassport(1L, "New Zealand")));
+        profile.setTravellerTypes(Arrays.asList(
+                createTravellerType(1L, "Backpacker", "Travels with only a backpack"),
+                createTravellerType(2L, "Thrillseeker", "Looking for adventure")));
+        profile.setPhotoGallery(new ArrayList<>());
+
+        AchievementTracker achievementTracker = new AchievementTracker();
+        achievementTracker.setId(id);
+        achievementTracker.addPoints((int) (id * 10));
+        for (Badge badge : badges) {
+            achievementTracker.addBadgeProgress(badge.copy(), (int) id);
+        }
+        profile.setAchievementTracker(achievementTracker);
+        return profile;
+    }
+
+
+    /**
+     * Creates a quest with the given number of objectives, each at a different destination.
+     *
+     * @param objectiveCount    the number of objectives in the quest.
+     * @return                  the quest.
+     */
+    public static Quest createQuest(int objectiveCount) {
+        Quest quest = new Quest();
+        quest.setTitle("Benchmark quest");
+        List<Objective> objectives = new ArrayList<>();
+        for (int i = 0; i < objectiveCount; i++) {
+            Destination destination = new Destination();
+            destination.setId((long) i);
+            destination.setName("Destination " + i);
+
+            Objective objective = new Objective();
+            objective.setId((long) i);
+            objective.setRiddle("Riddle " + i);
+            objective.setRadius(1.0);
+            objective.setDestination(destination);
+            objectives.add(objective);
+        }
+        quest.setObjectives(objectives);
+        return quest;
+    }
+
+
+    private static Nationality createNationality(Long id, String nationality, String country) {
+        Nationality result = new Nationality();
+        result.setId(id);
+        setField(result, "nationality", nationality);
+        setField(result, "country", country);
+        return result;
+    }
+
+
+    private static Passport createPassport(Long id, String country) {
+        Passport result = new Passport();
+        result.setId(id);
+        setField(result, "country", country);
+        return result;
+    }
+
+
+    private static TravellerType createTravellerType(Long id, String travellerType, String description) {
+        TravellerType result = new TravellerType();
+        result.setId(id);
+        setField(result, "travellerType", travellerType);
+        setField(result, "description", description);
+        return result;
+    }
+
+
+    /**
+     * Sets a field of the given object, which may be declared by any of its superclasses.
+     *
+     * @param target    the object to set the field of.
+     * @param name      the name of the field.
+     * @param value     the value to set the field to.
+     */
+    private static void setField(Object target, String name, Object value) {
+        for (Class<?> type = target.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(target, value);
+                return;
+            } catch (NoSuchFieldException e) {
+                // Look for the field in the superclass
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        throw new IllegalArgumentException("No field " + name + " on " + target.getClass().getName());
+    }
+}
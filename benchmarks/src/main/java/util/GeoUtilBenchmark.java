@@ -0,0 +1,30 @@
+package util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the distance between two points, which is summed over the objectives of a quest when it is completed to
+ * progress the Wayfarer badge.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoUtilBenchmark {
+
+    // Christchurch and Auckland, kept in fields so the distance cannot be constant folded
+    private double latitude1 = -43.5321;
+    private double longitude1 = 172.6362;
+    private double latitude2 = -36.8485;
+    private double longitude2 = 174.7633;
+
+
+    @Benchmark
+    public double distance() {
+        return GeoUtil.distance(latitude1, longitude1, latitude2, longitude2);
+    }
+}
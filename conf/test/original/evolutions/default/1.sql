@@ -43,6 +43,7 @@ create table destination (
   country                       varchar(255),
   owner_id                      bigint,
   is_public                     boolean,
+  fingerprint                   varchar(255),
   constraint pk_destination primary key (id)
 );
 
@@ -136,9 +137,30 @@ create table photo (
   content_type                  varchar(255),
   upload_date                   date,
   upload_profile_id             bigint,
+  thumbnail_ready               boolean default false not null,
+  content_hash                  varchar(255),
+  reference_count               integer not null,
+  constraint uq_photo_content_hash unique (content_hash),
   constraint pk_photo primary key (id)
 );
 
+create table photo_job (
+  id                            bigint auto_increment not null,
+  photo_id                      bigint,
+  attempts                      integer not null,
+  constraint pk_photo_job primary key (id)
+);
+
+create table photo_rendition (
+  id                            bigint auto_increment not null,
+  photo_id                      bigint,
+  filename                      varchar(255),
+  width                         integer not null,
+  height                        integer not null,
+  file_size                     bigint not null,
+  constraint pk_photo_rendition primary key (id)
+);
+
 create table point_reward (
   id                            bigint auto_increment not null,
   name                          varchar(29) not null,
@@ -171,6 +193,9 @@ create table quest (
   start_date                    timestamp,
   end_date                      timestamp,
   owner_id                      bigint,
+  objective_count               integer default 0 not null,
+  total_distance_meters         integer,
+  countries                     clob,
   constraint pk_quest primary key (id)
 );
 
@@ -226,6 +251,7 @@ create table vote (
   voter_id                      bigint,
   target_hint_id                bigint,
   is_up_vote                    boolean default false not null,
+  constraint uq_vote_voter_id_target_hint_id unique (voter_id,target_hint_id),
   constraint pk_vote primary key (id)
 );
 
@@ -243,6 +269,8 @@ alter table destination add constraint fk_destination_type_id foreign key (type_
 create index ix_destination_owner_id on destination (owner_id);
 alter table destination add constraint fk_destination_owner_id foreign key (owner_id) references profile (id) on delete restrict on update restrict;
 
+create index ix_destination_fingerprint on destination (fingerprint);
+
 create index ix_destination_personal_photo_destination on destination_personal_photo (destination_id);
 alter table destination_personal_photo add constraint fk_destination_personal_photo_destination foreign key (destination_id) references destination (id) on delete restrict on update restrict;
 
@@ -309,11 +337,19 @@ alter table personal_photo add constraint fk_personal_photo_profile_id foreign k
 create index ix_photo_upload_profile_id on photo (upload_profile_id);
 alter table photo add constraint fk_photo_upload_profile_id foreign key (upload_profile_id) references profile (id) on delete restrict on update restrict;
 
+create index ix_photo_job_photo_id on photo_job (photo_id);
+alter table photo_job add constraint fk_photo_job_photo_id foreign key (photo_id) references photo (id) on delete cascade on update restrict;
+
+create index ix_photo_rendition_photo_id on photo_rendition (photo_id);
+alter table photo_rendition add constraint fk_photo_rendition_photo_id foreign key (photo_id) references photo (id) on delete restrict on update restrict;
+
 alter table profile add constraint fk_profile_profile_picture_id foreign key (profile_picture_id) references personal_photo (id) on delete restrict on update restrict;
 
 create index ix_quest_owner_id on quest (owner_id);
 alter table quest add constraint fk_quest_owner_id foreign key (owner_id) references profile (id) on delete restrict on update restrict;
 
+create index ix_quest_objective_count on quest (objective_count);
+
 create index ix_quest_attempt_attempted_by_id on quest_attempt (attempted_by_id);
 alter table quest_attempt add constraint fk_quest_attempt_attempted_by_id foreign key (attempted_by_id) references profile (id) on delete restrict on update restrict;
 
@@ -358,6 +394,8 @@ drop index if exists ix_destination_type_id;
 alter table destination drop constraint if exists fk_destination_owner_id;
 drop index if exists ix_destination_owner_id;
 
+drop index if exists ix_destination_fingerprint;
+
 alter table destination_personal_photo drop constraint if exists fk_destination_personal_photo_destination;
 drop index if exists ix_destination_personal_photo_destination;
 
@@ -424,11 +462,19 @@ drop index if exists ix_personal_photo_profile_id;
 alter table photo drop constraint if exists fk_photo_upload_profile_id;
 drop index if exists ix_photo_upload_profile_id;
 
+alter table photo_job drop constraint if exists fk_photo_job_photo_id;
+drop index if exists ix_photo_job_photo_id;
+
+alter table photo_rendition drop constraint if exists fk_photo_rendition_photo_id;
+drop index if exists ix_photo_rendition_photo_id;
+
 alter table profile drop constraint if exists fk_profile_profile_picture_id;
 
 alter table quest drop constraint if exists fk_quest_owner_id;
 drop index if exists ix_quest_owner_id;
 
+drop index if exists ix_quest_objective_count;
+
 alter table quest_attempt drop constraint if exists fk_quest_attempt_attempted_by_id;
 drop index if exists ix_quest_attempt_attempted_by_id;
 
@@ -490,6 +536,10 @@ drop table if exists personal_photo;
 
 drop table if exists photo;
 
+drop table if exists photo_job;
+
+drop table if exists photo_rendition;
+
 drop table if exists point_reward;
 
 drop table if exists profile;
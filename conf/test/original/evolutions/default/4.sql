@@ -48,124 +48,124 @@ INSERT INTO `badge_progress` (`id`, `badge_id`, `achievement_tracker_id`, `progr
 (28, 5, 11, 0);
 
 
-INSERT INTO `destination` (`id`, `name`, `type_id`, `district`, `latitude`, `longitude`, `country`, `is_public`, `owner_id`) VALUES
-(119, 'Angus Flat', 31, 'Canterbury', -43.65598, 170.48378, 'New Zealand', true, 5),
-(325, 'Baylys Beach Post Office', 10, 'North Auckland', -35.953527, 173.74573, 'New Zealand', false, 2),
-(567, 'Bow Alley Creek', 89, 'Otago', -45.239576, 170.851946, 'New Zealand', true, 2),
-(733, 'Cameron Stream', 89, 'Canterbury', -42.23865, 173.046403, 'New Zealand', true, 1),
-(858, 'Cerberus', 38, 'Wellington', -40.512442, 176.213727, 'New Zealand', true, 1),
-(1031, 'Courtenay Peak', 38, 'Otago', -44.529264, 168.195041, 'New Zealand', true, 1),
-(1155, 'Demon Gap Icefall', 42, 'Otago', -44.392145, 168.361981, 'New Zealand', true, 1),
-(1465, 'Feldspar Stream', 89, 'Southland', -45.03797, 167.347403, 'New Zealand', true, 1),
-(1526, 'Flat Stream', 89, 'Marlborough', -41.940145, 173.111533, 'New Zealand', true, 1),
-(1797, 'Greenstone Stream', 89, 'Canterbury', -42.590148, 172.745206, 'New Zealand', true, 1),
-(1834, 'Haines Stream', 89, 'Nelson', -41.295971, 172.664481, 'New Zealand', true, 1),
-(1894, 'Hart Creek', 89, 'Wellington', -40.729439, 175.430851, 'New Zealand', true, 1),
-(1940, 'Headlong Peak', 38, 'Otago', -44.539752, 168.591617, 'New Zealand', true, 1),
-(2035, 'Hitchin Range', 66, 'Westland', -43.111555, 170.824539, 'New Zealand', true, 1),
-(2194, 'Iris Stream', 89, 'North Auckland', -36.970301, 174.530236, 'New Zealand', true, 1),
-(2275, 'Johnstone Mount', 38, 'Canterbury', -43.37552, 170.857361, 'New Zealand', true, 1),
-(2426, 'Kaurimu Stream', 89, 'North Auckland', -36.911035, 174.623382, 'New Zealand', true, 1),
-(2439, 'Kawaunui Stream', 89, 'South Auckland', -38.353659, 176.310498, 'New Zealand', true, 1),
-(2461, 'Kelleher', 38, 'Wellington', -40.784535, 175.376598, 'New Zealand', true, 1),
-(2593, 'Krushen Stream', 89, 'Marlborough', -41.825296, 173.260128, 'New Zealand', true, 1),
-(2631, 'Lake Rotoroa (Hamilton Lake)', 46, 'South Auckland', -37.798629, 175.27484, 'New Zealand', true, 1),
-(2657, 'Lake Donne', 46, 'Canterbury', -43.608439, 171.115709, 'New Zealand', true, 1),
-(2775, 'Lathrop Saddle', 54, 'Westland', -42.91523, 171.277535, 'New Zealand', true, 1),
-(2822, 'Lily Creek', 89, 'Westland', -44.032015, 169.474478, 'New Zealand', true, 1),
-(2921, 'Long Spur Stream', 89, 'Canterbury', -43.060244, 172.219981, 'New Zealand', true, 1),
-(2962, 'Lumber Flat', 31, 'Westland', -44.224114, 168.659968, 'New Zealand', true, 1),
-(3218, 'Maraeweka Stream', 89, 'Otago', -45.150038, 170.741188, 'New Zealand', true, 1),
-(3338, 'Maungawhiorangi', 93, 'Gisborne', -38.174833, 177.243242, 'New Zealand', true, 1),
-(3360, 'McCallum Stream', 89, 'Marlborough', -41.797334, 173.260076, 'New Zealand', true, 1),
-(3558, 'Morgan Stream', 89, 'Canterbury', -43.59628, 171.339142, 'New Zealand', true, 1),
-(3577, 'Bern', 18, 'Bern', 46.947832, 7.447618, 'Switzerland', true, 1),
-(3580, 'Mother Millers Spring', 87, 'Canterbury', -43.358825, 171.288873, 'New Zealand', true, 1),
-(3594, 'Motukauatirahi/Cass Bay', 6, 'Canterbury', -43.607459, 172.692363, 'New Zealand', true, 1),
-(3607, 'Motuoapa Peninsula', 55, 'South Auckland', -38.924214, 175.859163, 'New Zealand', true, 1),
-(3769, 'Mount Meehan', 38, 'Canterbury', -42.919966, 172.300892, 'New Zealand', true, 1),
-(3852, 'Mount William Grant', 38, 'Canterbury', -43.704591, 170.32112, 'New Zealand', true, 1),
-(3973, 'Nga Tamahineapani', 75, 'Nelson', -40.689108, 173.948723, 'New Zealand', true, 1),
-(4087, 'Nym Peak', 38, 'Canterbury', -43.34196, 170.843819, 'New Zealand', true, 1),
-(4109, 'Ogilvie Creek', 89, 'Westland', -42.559882, 171.326201, 'New Zealand', true, 1),
-(4186, 'Omahuri', 59, 'North Auckland', -34.822269, 173.414253, 'New Zealand', true, 1),
-(4216, 'Onetohunga Stream', 89, 'Gisborne', -38.114435, 178.219536, 'New Zealand', true, 1),
-(4239, 'Orau Gorge', 95, 'North Auckland', -36.182429, 175.084831, 'New Zealand', true, 1),
-(4357, 'Pacific Bay', 6, 'North Auckland', -35.618672, 174.536016, 'New Zealand', true, 1),
-(4515, 'Patuki Mountain', 38, 'Southland', -44.669468, 168.021972, 'New Zealand', true, 1),
-(4634, 'Pioke', 38, 'Taranaki', -39.167798, 173.967902, 'New Zealand', true, 1),
-(4659, 'Plumbago Stream', 89, 'Wellington', -41.390123, 174.895805, 'New Zealand', true, 1),
-(4741, 'Poututu Rural Sections', 2, 'Hawke''s Bay', -39.056581, 177.309005, 'New Zealand', true, 1),
-(4775, 'Puffer Saddle', 54, 'Wellington', -41.073802, 175.242171, 'New Zealand', true, 1),
-(4873, 'Putataua Bay', 6, 'North Auckland', -35.026401, 173.913905, 'New Zealand', true, 1),
-(4977, 'Rat Island', 43, 'Southland', -47.133218, 167.567966, 'New Zealand', true, 1),
-(5041, 'Refuge Island', 43, 'Southland', -46.949355, 168.127885, 'New Zealand', true, 1),
-(5084, 'Ribbonwood Stream', 89, 'Canterbury', -43.136267, 172.227991, 'New Zealand', true, 1),
-(5137, 'Rocky Knob', 38, 'Canterbury', -43.808197, 170.089933, 'New Zealand', true, 1),
-(5150, 'Rollover Glacier', 36, 'Canterbury', -43.375889, 170.726508, 'New Zealand', true, 1),
-(5201, 'Ruapake Stream', 89, 'Marlborough', -41.297087, 173.697105, 'New Zealand', true, 1),
-(5234, 'Ryde Stream', 89, 'Canterbury', -44.846356, 170.942726, 'New Zealand', true, 1),
-(5321, 'Seagull Lake', 46, 'Canterbury', -43.51051, 171.246743, 'New Zealand', true, 1),
-(5375, 'Sherwood Range', 66, 'Canterbury', -43.796768, 170.798736, 'New Zealand', true, 1),
-(5405, 'Sisters Stream', 89, 'Canterbury', -42.69284, 173.260088, 'New Zealand', true, 1),
-(5418, 'Slip Gully', 95, 'Canterbury', -43.685145, 170.49254, 'New Zealand', true, 1),
-(5439, 'Smylies Arm', 6, 'Nelson', -40.864706, 173.825993, 'New Zealand', true, 1),
-(5543, 'Stag Pool', 60, 'Wellington', -39.013089, 175.8162, 'New Zealand', true, 1),
-(5645, 'Sunshine', 90, 'Otago', -45.895673, 170.518723, 'New Zealand', true, 1),
-(5909, 'Te Apu', 38, 'South Auckland', -38.577813, 176.771558, 'New Zealand', true, 1),
-(5938, 'Te Henga (Bethells Beach)', 49, 'North Auckland', -36.882985, 174.452852, 'New Zealand', true, 1),
-(6002, 'Te Moenga Bay', 6, 'South Auckland', -38.702123, 176.036604, 'New Zealand', true, 1),
-(6011, 'Te Nunuhe Rock', 70, 'North Auckland', -35.18988, 174.20015, 'New Zealand', true, 1),
-(6024, 'Te Pari o Te Mataahua', 59, 'Otago', -45.79335, 170.742656, 'New Zealand', true, 1),
-(6087, 'Te Waha Point', 59, 'North Auckland', -36.93456, 174.453718, 'New Zealand', true, 1),
-(6154, 'The Cathedrals', 75, 'Canterbury', -42.868175, 173.299436, 'New Zealand', true, 1),
-(6304, 'Tiriwa Point', 59, 'North Auckland', -37.008989, 174.485523, 'New Zealand', true, 1),
-(6447, 'Tui Stream', 89, 'Canterbury', -42.580916, 172.342799, 'New Zealand', true, 1),
-(6611, 'Waiari Settlement', 2, 'South Auckland', -37.831616, 176.325227, 'New Zealand', true, 1),
-(6723, 'Waingaro Road', 73, 'South Auckland', -37.660886, 175.014631, 'New Zealand', true, 1),
-(6747, 'Waiopehu Stream', 89, 'Wellington', -40.741124, 175.364559, 'New Zealand', true, 1),
-(6783, 'Waipaua Stream', 89, 'South Auckland', -38.315448, 174.717256, 'New Zealand', true, 1),
-(6918, 'Webb Ridge', 72, 'Nelson', -41.476017, 172.218452, 'New Zealand', true, 1),
-(6969, 'Whakapapa', 93, 'Wellington', -40.820868, 175.54942, 'New Zealand', true, 1),
-(7159, 'Woodlands Stream', 89, 'North Auckland', -36.954632, 174.63239, 'New Zealand', true, 1),
-(7267, 'Otiria-Okaihau Industrial Railway', 64, 'North Auckland', -35.44978, 173.811428, 'New Zealand', true, 1),
-(7336, 'Mount Herbert/Te Ahu Patiki', 38, 'Canterbury', -43.689391, 172.741594, 'New Zealand', true, 1),
-(7347, 'Kotukutuku Bay', 6, 'South Auckland', -38.205466, 176.381278, 'New Zealand', true, 1),
-(7419, 'Punawhakareia Bay', 6, 'South Auckland', -38.053039, 176.442401, 'New Zealand', true, 1),
-(7435, 'Selwyn River/Waikirikiri', 89, 'Canterbury', -43.615271, 172.126066, 'New Zealand', true, 1),
-(7443, 'Stewart Island/Rakiura', 43, 'Southland', -47.000818, 167.999849, 'New Zealand', true, 1),
-(7628, 'Awakino Government Purpose Wildlife Management Reserve', 37, 'North Auckland', -35.878333, 173.855833, 'New Zealand', true, 1),
-(7899, 'Elaine Bay Recreation Reserve', 69, 'Nelson', -41.055, 173.769444, 'New Zealand', true, 1),
-(8096, 'Hokonui Scenic Reserve', 79, 'Southland', -46.152222, 168.556389, 'New Zealand', true, 1),
-(8115, 'Howdens Bush Scenic Reserve', 79, 'Marlborough', -41.09, 174.198889, 'New Zealand', true, 1),
-(8133, 'Hutchinson Scenic Reserve', 79, 'Hawke''s Bay', -39.271111, 176.546111, 'New Zealand', true, 1),
-(8279, 'Kerikeri Basin Recreation Reserve', 69, 'North Auckland', -35.215833, 173.959722, 'New Zealand', true, 1),
-(8451, 'Long Bay Scenic Reserve', 79, 'Canterbury', -43.859722, 172.871389, 'New Zealand', true, 1),
-(8519, 'Makuri Gorge Scenic Reserve', 79, 'Wellington', -40.546389, 175.978056, 'New Zealand', true, 1),
-(8776, 'Motutangi Scenic Reserve', 79, 'North Auckland', -34.885833, 173.157778, 'New Zealand', true, 1),
-(8923, 'Okaharau Road Scenic Reserve', 79, 'North Auckland', -35.713889, 173.820556, 'New Zealand', true, 1),
-(8966, 'Onaero River Scenic Reserve', 79, 'Taranaki', -38.998611, 174.365556, 'New Zealand', true, 1),
-(9241, 'Pukerau Red Tussock Scientific Reserve', 80, 'Southland', -46.09692, 169.077353, 'New Zealand', true, 1),
-(9293, 'Raincliff Historic Reserve', 39, 'Canterbury', -44.1625, 170.993056, 'New Zealand', true, 1),
-(9355, 'Ripapa Island Historic Reserve', 39, 'Canterbury', -43.620528, 172.754173, 'New Zealand', false, 1),
-(9376, 'Rotokahu Scenic Reserve', 79, 'Wellington', -39.154167, 175.188056, 'New Zealand', true, 1),
-(9487, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 2),
-(9488, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 3),
-(9489, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 4),
-(9490, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 5),
-(9491, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 6),
-(9001, 'Private Glade', 39, 'Canterbury', -44.1625, 170.993056, 'New Zealand', false, 3),
-(9000, 'Japan', 39, 'Japan', -44.1625, 170.993056, 'Japan', true, 1),
-(10000, 'Canterbury University', 3, 'Christchurch', -43.523434, 172.581681, 'New Zealand', false, 3);
+INSERT INTO `destination` (`id`, `name`, `type_id`, `district`, `latitude`, `longitude`, `country`, `is_public`, `owner_id`, `fingerprint`) VALUES
+(119, 'Angus Flat', 31, 'Canterbury', -43.65598, 170.48378, 'New Zealand', true, 5, '353d9b65db0b1b1e3e945e11ece9be4615479810c552dfa6e1f4316c8a2aa6f6'),
+(325, 'Baylys Beach Post Office', 10, 'North Auckland', -35.953527, 173.74573, 'New Zealand', false, 2, '2f2d9642f5fb9bdc7818a250c5098938ef718706c0561a78286dad90afbcbee7'),
+(567, 'Bow Alley Creek', 89, 'Otago', -45.239576, 170.851946, 'New Zealand', true, 2, 'fc70e8a3ce9c883d742c74586491f9fb51c35f2ef0eb764cd336eccd06da0acc'),
+(733, 'Cameron Stream', 89, 'Canterbury', -42.23865, 173.046403, 'New Zealand', true, 1, 'ff9254feee1797d1e92bf15ea0508d2d6db8415f19071cc9393a91c78925f825'),
+(858, 'Cerberus', 38, 'Wellington', -40.512442, 176.213727, 'New Zealand', true, 1, '3a0786955681b512ed9b265942a3ef10b50eee83e3c3c9c7f8813ae104a02930'),
+(1031, 'Courtenay Peak', 38, 'Otago', -44.529264, 168.195041, 'New Zealand', true, 1, '918f031e951e4e0dba228cedd85668188f65c25fa502c1f3e76628e8cb0316e3'),
+(1155, 'Demon Gap Icefall', 42, 'Otago', -44.392145, 168.361981, 'New Zealand', true, 1, '81d9710b3494bb19ec66fd8f79506bcbc7022050dc2aebc649272881351a1733'),
+(1465, 'Feldspar Stream', 89, 'Southland', -45.03797, 167.347403, 'New Zealand', true, 1, '2b4d1e82d4f582cf94ad8b5b78f347ba847fcd1e0ef8a76eec5822474f0ad5cb'),
+(1526, 'Flat Stream', 89, 'Marlborough', -41.940145, 173.111533, 'New Zealand', true, 1, '6c7a9ba1a5ae5dcc56979997169a396b31b28cca983630f4d4f7840405815f1f'),
+(1797, 'Greenstone Stream', 89, 'Canterbury', -42.590148, 172.745206, 'New Zealand', true, 1, 'fa1b99d0b110aefaa3338da9dc3c95a5f2d8654082df2bffd439a22fa1ad3763'),
+(1834, 'Haines Stream', 89, 'Nelson', -41.295971, 172.664481, 'New Zealand', true, 1, '375f14eaaac17fc1389ae61da104cc1d75cafc78eed3360bf0e90dc632d669f2'),
+(1894, 'Hart Creek', 89, 'Wellington', -40.729439, 175.430851, 'New Zealand', true, 1, 'd639cca40e7d3fa7efa768ca5a4911c241eaedd26cd8c40ba417062c7f3c68a6'),
+(1940, 'Headlong Peak', 38, 'Otago', -44.539752, 168.591617, 'New Zealand', true, 1, '694b57d15f57a94840f33eab9ff5f81f37a40fa5b712c539d6f7899103009e52'),
+(2035, 'Hitchin Range', 66, 'Westland', -43.111555, 170.824539, 'New Zealand', true, 1, '9d387ba18cc981c625c6aaf63aabf7625471094ed933b0cfb95dbceb44df222f'),
+(2194, 'Iris Stream', 89, 'North Auckland', -36.970301, 174.530236, 'New Zealand', true, 1, '1d3ce06408b86d15821f6c7df71d9bcaddc41a749185644f909b009e1433ff5e'),
+(2275, 'Johnstone Mount', 38, 'Canterbury', -43.37552, 170.857361, 'New Zealand', true, 1, '23a289744a4991ee2179f1854ca82e9a265d991faf4759d3a5c874fa08156c3a'),
+(2426, 'Kaurimu Stream', 89, 'North Auckland', -36.911035, 174.623382, 'New Zealand', true, 1, 'd0e0f0fe1b1f3e216d1aa3570cbb5445a60c779b62b730bd2dbd75990d3547b8'),
+(2439, 'Kawaunui Stream', 89, 'South Auckland', -38.353659, 176.310498, 'New Zealand', true, 1, 'd51c1d272ea96857f6957fc5513c193a7c3fcfe349b1beae2c61b9d8f3018612'),
+(2461, 'Kelleher', 38, 'Wellington', -40.784535, 175.376598, 'New Zealand', true, 1, '3329207e936e807e0247ad6f438500d0a0a2e7d805086900e71faf424642f295'),
+(2593, 'Krushen Stream', 89, 'Marlborough', -41.825296, 173.260128, 'New Zealand', true, 1, '5af39098ea959844b3e4e4a1a1bded6ee8c74de5a28c1aef5c02c28ab6004d12'),
+(2631, 'Lake Rotoroa (Hamilton Lake)', 46, 'South Auckland', -37.798629, 175.27484, 'New Zealand', true, 1, 'd986a70db14f658eca334cc1a4309a8e2c938e04669d704806171ec2a9696d47'),
+(2657, 'Lake Donne', 46, 'Canterbury', -43.608439, 171.115709, 'New Zealand', true, 1, 'e55e51f1b60153641f57cf962d480c5c66afb61e8452a9e8105cb219e5247360'),
+(2775, 'Lathrop Saddle', 54, 'Westland', -42.91523, 171.277535, 'New Zealand', true, 1, 'f1619530f22499e05cb58b9deb03900a013a8539c66cb39e33864564c0568613'),
+(2822, 'Lily Creek', 89, 'Westland', -44.032015, 169.474478, 'New Zealand', true, 1, 'feac3891a4f7f8cd6ff9fe0964aff0bee3f42fe142b3954971f320bfa9452b23'),
+(2921, 'Long Spur Stream', 89, 'Canterbury', -43.060244, 172.219981, 'New Zealand', true, 1, 'cf59d94aeefebb9f9eee8b3b9085713ac7a03281a6f238f91dd96113ec23208c'),
+(2962, 'Lumber Flat', 31, 'Westland', -44.224114, 168.659968, 'New Zealand', true, 1, '6fecda68503af1ff169dfaefac57e7567c490d635486bdb1efa7eaa0b7819bfb'),
+(3218, 'Maraeweka Stream', 89, 'Otago', -45.150038, 170.741188, 'New Zealand', true, 1, '8b097d2074608605f1bdd670889bb888a4303f54ccca8c87c85d91e77463ea19'),
+(3338, 'Maungawhiorangi', 93, 'Gisborne', -38.174833, 177.243242, 'New Zealand', true, 1, 'e92d9b66bd303b722dbf0346d5b35fbed974f0ff2821d1b866fbe1067fc85ff9'),
+(3360, 'McCallum Stream', 89, 'Marlborough', -41.797334, 173.260076, 'New Zealand', true, 1, '319f0618ca7e272c3cefc18025b40943d244c6df3d3778ceb353c80eb3819746'),
+(3558, 'Morgan Stream', 89, 'Canterbury', -43.59628, 171.339142, 'New Zealand', true, 1, 'c0a547154d26375e9eed53bfa246da76945a54560fc7b7e0ff4d35b74a10f4a0'),
+(3577, 'Bern', 18, 'Bern', 46.947832, 7.447618, 'Switzerland', true, 1, 'd5f6ae4f95b2e9c91f809acd36a10a0d0b37884ba9e45844046f11549a4c8b39'),
+(3580, 'Mother Millers Spring', 87, 'Canterbury', -43.358825, 171.288873, 'New Zealand', true, 1, '0106ebfe8187772cd2671f163a89457a02b4e86dcfc48e796d990fe14cf5ae4d'),
+(3594, 'Motukauatirahi/Cass Bay', 6, 'Canterbury', -43.607459, 172.692363, 'New Zealand', true, 1, '5d817b96aea94dd6bb17befe423556d293e8fc7065e3f42cf706efb8d303dc86'),
+(3607, 'Motuoapa Peninsula', 55, 'South Auckland', -38.924214, 175.859163, 'New Zealand', true, 1, 'cb5f2ea72e9100b182f1961162a89429e3a5590d2706e9abfb75a4e65136e226'),
+(3769, 'Mount Meehan', 38, 'Canterbury', -42.919966, 172.300892, 'New Zealand', true, 1, 'e9c66e1bf9c62b93dffb33380a2612a5febce4172cce471011a051ce0e6f1358'),
+(3852, 'Mount William Grant', 38, 'Canterbury', -43.704591, 170.32112, 'New Zealand', true, 1, '9681c059a49ff4a9ef64b2974db68e00c2123886854c00b92a0e3ab93f02ecc0'),
+(3973, 'Nga Tamahineapani', 75, 'Nelson', -40.689108, 173.948723, 'New Zealand', true, 1, '77fc2653ec3ba1eab2fa3cef12a9495517d8d17657c5438ac7683ea1492809a9'),
+(4087, 'Nym Peak', 38, 'Canterbury', -43.34196, 170.843819, 'New Zealand', true, 1, 'e70ced6f6e166ac1bcba5ea538bb73bd90267f9042456e7e57504cf593936abb'),
+(4109, 'Ogilvie Creek', 89, 'Westland', -42.559882, 171.326201, 'New Zealand', true, 1, 'f09cd0711ffd1715b263e1d696fd31f3fe4c92821a87f292ae08b22de01f9dae'),
+(4186, 'Omahuri', 59, 'North Auckland', -34.822269, 173.414253, 'New Zealand', true, 1, '1df1516a34a8dd762ef9009f5bb2257ab4d9339fbc851922622520b56a6d0940'),
+(4216, 'Onetohunga Stream', 89, 'Gisborne', -38.114435, 178.219536, 'New Zealand', true, 1, 'eb4343e5212f91ba7e053288eb7ace662d7b46fa3f340ddb2bdb342d691400bc'),
+(4239, 'Orau Gorge', 95, 'North Auckland', -36.182429, 175.084831, 'New Zealand', true, 1, '64701fdf6e47653de18833bc67e44fd7f0e2d54cf2bb0292742e1ab8c9114feb'),
+(4357, 'Pacific Bay', 6, 'North Auckland', -35.618672, 174.536016, 'New Zealand', true, 1, '373f2ee941d2055a7ed5c1bfcc27d7c14ba11ae28b80a6d96acaea2fc029d5cb'),
+(4515, 'Patuki Mountain', 38, 'Southland', -44.669468, 168.021972, 'New Zealand', true, 1, '9d68dc82b74803024f7b20504aa71493440b7791688910eb44f53f838fd8e347'),
+(4634, 'Pioke', 38, 'Taranaki', -39.167798, 173.967902, 'New Zealand', true, 1, 'd22d21f1ee97287fb05ffe2be8127706f5eb7297cf0efed51c959e175511bcf8'),
+(4659, 'Plumbago Stream', 89, 'Wellington', -41.390123, 174.895805, 'New Zealand', true, 1, 'b3a9e819302a036effd9b5a4ab3dfc1bf7c7219cb815cc6dbdeb895f71d47c27'),
+(4741, 'Poututu Rural Sections', 2, 'Hawke''s Bay', -39.056581, 177.309005, 'New Zealand', true, 1, '134c087b19b92c9c152f7df47d7d18ffbc550cc97c191e75a27b25c7305526a4'),
+(4775, 'Puffer Saddle', 54, 'Wellington', -41.073802, 175.242171, 'New Zealand', true, 1, '27d9592f85135df5fcad646eb5f9ce81d8d031086cf1a73abad3b277b4b47d38'),
+(4873, 'Putataua Bay', 6, 'North Auckland', -35.026401, 173.913905, 'New Zealand', true, 1, 'a979969a506cd2d9d179c60dd8e3cfbac1bc20a7aff34b3c733099e578c7bc60'),
+(4977, 'Rat Island', 43, 'Southland', -47.133218, 167.567966, 'New Zealand', true, 1, '339f7708f00ed63cc2de355db425bdb0eb446a7499aaf735280b47ee744b27aa'),
+(5041, 'Refuge Island', 43, 'Southland', -46.949355, 168.127885, 'New Zealand', true, 1, '13caa1737a16c438026c1fbd4041b4b1bac883332c069269c5f916f1cf6fbaac'),
+(5084, 'Ribbonwood Stream', 89, 'Canterbury', -43.136267, 172.227991, 'New Zealand', true, 1, '270e672c490e7530e6077447b2feca304048db68b88f9fb323ae816cfedf29c7'),
+(5137, 'Rocky Knob', 38, 'Canterbury', -43.808197, 170.089933, 'New Zealand', true, 1, '0baefa2ffa2e3ea85d7a5c5dcf3e15823cd4e74ab8f8b4bc50b952ccc3aab3ba'),
+(5150, 'Rollover Glacier', 36, 'Canterbury', -43.375889, 170.726508, 'New Zealand', true, 1, '3c03da1e8c4096256e0026079ff52cbca5ba5777d0b3355c41bafb1c0fc95d33'),
+(5201, 'Ruapake Stream', 89, 'Marlborough', -41.297087, 173.697105, 'New Zealand', true, 1, '5c3aa61a09fc4b9f16c3c142f194b8d84498cd9310e09a528e1f97acaa37e774'),
+(5234, 'Ryde Stream', 89, 'Canterbury', -44.846356, 170.942726, 'New Zealand', true, 1, '297481b7dd61edaa48950482f1b784afa602acc059d0e0c84a6488a50b729d89'),
+(5321, 'Seagull Lake', 46, 'Canterbury', -43.51051, 171.246743, 'New Zealand', true, 1, '0a31efd64a326c2b410782379a5659b42ebc72e22aec95cf30bb8527faf874cf'),
+(5375, 'Sherwood Range', 66, 'Canterbury', -43.796768, 170.798736, 'New Zealand', true, 1, '39e9a0dbaaf31359221723d82a23e6dd8a0f5e9bfcf7e6c571f574d79b7c8da5'),
+(5405, 'Sisters Stream', 89, 'Canterbury', -42.69284, 173.260088, 'New Zealand', true, 1, 'e50756d7edddfd5c024ea1584a6b0024640457308e00b4b853dcbbd5a8b3f964'),
+(5418, 'Slip Gully', 95, 'Canterbury', -43.685145, 170.49254, 'New Zealand', true, 1, '5a2541545b39f008521096800610e39950713ab392e337bd675137b2b631d9cd'),
+(5439, 'Smylies Arm', 6, 'Nelson', -40.864706, 173.825993, 'New Zealand', true, 1, '562c2f6c45d461332ca64ef25d72bafaf028a256672c2ade92ed4d189baeb1af'),
+(5543, 'Stag Pool', 60, 'Wellington', -39.013089, 175.8162, 'New Zealand', true, 1, '18e13f50454c51aaec17ff35f846e1d6962a97a976f1050c12a9354ef032e1b3'),
+(5645, 'Sunshine', 90, 'Otago', -45.895673, 170.518723, 'New Zealand', true, 1, '28760cc129a9d6f3f8b610a67340f7c81b8f6cf97b6fcd29aa326fc00f2b0128'),
+(5909, 'Te Apu', 38, 'South Auckland', -38.577813, 176.771558, 'New Zealand', true, 1, '9a46c38ee110e76d5b1a4e22d71ad6e17c58e7e4e4def627425bcc16b1b01d69'),
+(5938, 'Te Henga (Bethells Beach)', 49, 'North Auckland', -36.882985, 174.452852, 'New Zealand', true, 1, '3db0352ffe2ce35df113e73b88b168507fb50fa5af5f9079ad0132d5e90b5ed3'),
+(6002, 'Te Moenga Bay', 6, 'South Auckland', -38.702123, 176.036604, 'New Zealand', true, 1, '670cad4ba150b35b0b6586195edfecd36cf1cb6c8e59aef09710a56e13222fdd'),
+(6011, 'Te Nunuhe Rock', 70, 'North Auckland', -35.18988, 174.20015, 'New Zealand', true, 1, '5add61cd6976b5f4eccc5cd18b1153a298c32b8c24a13f3f93d7f6dd75834d5a'),
+(6024, 'Te Pari o Te Mataahua', 59, 'Otago', -45.79335, 170.742656, 'New Zealand', true, 1, '5a9c28ddc075eeee4010b46ebb5bf593552b1f66bba8808c4fcaaa3d5118fd10'),
+(6087, 'Te Waha Point', 59, 'North Auckland', -36.93456, 174.453718, 'New Zealand', true, 1, '0180a7cd49dec622e002f60c7819ace0e09b284e76ac0d1cf61c6d65222bf591'),
+(6154, 'The Cathedrals', 75, 'Canterbury', -42.868175, 173.299436, 'New Zealand', true, 1, '644eba81b834172cad4901603b37523d84e77f5aaf1dfcf497681b3727143250'),
+(6304, 'Tiriwa Point', 59, 'North Auckland', -37.008989, 174.485523, 'New Zealand', true, 1, '3e5ad96b4cf9e1d85ac5e23bac3c79ca1385a4e40553f5dcfb7732ff7c9d8fae'),
+(6447, 'Tui Stream', 89, 'Canterbury', -42.580916, 172.342799, 'New Zealand', true, 1, 'fc0e76678275cb5350a595fc2212ad662d37d0772b159d57c0adbe3740276f91'),
+(6611, 'Waiari Settlement', 2, 'South Auckland', -37.831616, 176.325227, 'New Zealand', true, 1, '864f15b10e6dffc30b2925bc530a7bc6768209be5db2b6191ff4bbc2e9882649'),
+(6723, 'Waingaro Road', 73, 'South Auckland', -37.660886, 175.014631, 'New Zealand', true, 1, '9d0c6ceb4128890eb52ee342e6318daed31e41703f48e3ad65f65ecef502a8c8'),
+(6747, 'Waiopehu Stream', 89, 'Wellington', -40.741124, 175.364559, 'New Zealand', true, 1, 'e2c6d2957e29a84bcb4b23f0ec44fcda875096fd5490dc3d6d5410f01b935f63'),
+(6783, 'Waipaua Stream', 89, 'South Auckland', -38.315448, 174.717256, 'New Zealand', true, 1, 'b0a2746d97780f82801ba244dce546d78a77d55f97edda98b26b918c77efa162'),
+(6918, 'Webb Ridge', 72, 'Nelson', -41.476017, 172.218452, 'New Zealand', true, 1, 'f3ff3c102fc68dc67d58b29e2947a73f7009f7e240e90266776020f77f7448b8'),
+(6969, 'Whakapapa', 93, 'Wellington', -40.820868, 175.54942, 'New Zealand', true, 1, '8eaa2209b87c9f556a0367e705c2a5fe2683ac1565452029289372044580210f'),
+(7159, 'Woodlands Stream', 89, 'North Auckland', -36.954632, 174.63239, 'New Zealand', true, 1, 'd24d25fda01a8417d27e9da66c2436fa13dc92e2e4d5d0a454f4f11950575a4d'),
+(7267, 'Otiria-Okaihau Industrial Railway', 64, 'North Auckland', -35.44978, 173.811428, 'New Zealand', true, 1, '0219b8f9cfd4ddc6a4e79a77bb567619175e49f4cc7f7e10eb04de8f01ba57b8'),
+(7336, 'Mount Herbert/Te Ahu Patiki', 38, 'Canterbury', -43.689391, 172.741594, 'New Zealand', true, 1, 'bac891ba107e7a89ebe8ae2c891c33ffaf6257b5655848238172c93393c454f7'),
+(7347, 'Kotukutuku Bay', 6, 'South Auckland', -38.205466, 176.381278, 'New Zealand', true, 1, '7085cca515d15deb811ef145829a14b9e0dc77ce741efb218bb69a7d52fc6f39'),
+(7419, 'Punawhakareia Bay', 6, 'South Auckland', -38.053039, 176.442401, 'New Zealand', true, 1, '711704d51ce4a664a73fd6751291579bd2debc25c9181d4cd0ab4f003a0afe02'),
+(7435, 'Selwyn River/Waikirikiri', 89, 'Canterbury', -43.615271, 172.126066, 'New Zealand', true, 1, 'bcabac44dfd1b798cd387050d1743893299103f26629cd6b1b4c6dbae859c99d'),
+(7443, 'Stewart Island/Rakiura', 43, 'Southland', -47.000818, 167.999849, 'New Zealand', true, 1, '3f9b614d53fa57fdd05d4685d1adc7cccd4ae934ae5a6318d4ed7e6333386859'),
+(7628, 'Awakino Government Purpose Wildlife Management Reserve', 37, 'North Auckland', -35.878333, 173.855833, 'New Zealand', true, 1, '756d67093a059bf3c9b6ec540ab289fc3c8591867ce313f46050239a1f3a858f'),
+(7899, 'Elaine Bay Recreation Reserve', 69, 'Nelson', -41.055, 173.769444, 'New Zealand', true, 1, 'c296c237c3057c9dccabcb1b4c5f22667b23824ca8082f4c2db99b2ca2bbb495'),
+(8096, 'Hokonui Scenic Reserve', 79, 'Southland', -46.152222, 168.556389, 'New Zealand', true, 1, 'e637d0e18d7ab68f91d791de10c6fa5b4150e2672b74e73872cab4ca3d122798'),
+(8115, 'Howdens Bush Scenic Reserve', 79, 'Marlborough', -41.09, 174.198889, 'New Zealand', true, 1, '60562a29519c487419148e4854b9b0867159e0b676f83d0e45c4bd074bce6d18'),
+(8133, 'Hutchinson Scenic Reserve', 79, 'Hawke''s Bay', -39.271111, 176.546111, 'New Zealand', true, 1, '6f1d7c996432d5a3a57679cbe7c50751480b2fe5a5fbab2daa2196691c6c2161'),
+(8279, 'Kerikeri Basin Recreation Reserve', 69, 'North Auckland', -35.215833, 173.959722, 'New Zealand', true, 1, '88a27f131e0ebd243a3987f23c0c29f0014f8b1da7e50c8f39d2a24f89c8844c'),
+(8451, 'Long Bay Scenic Reserve', 79, 'Canterbury', -43.859722, 172.871389, 'New Zealand', true, 1, 'a7f60fbec89caf12887b48be8cbd747ded93765d3dccd4e1a0baf5667d560839'),
+(8519, 'Makuri Gorge Scenic Reserve', 79, 'Wellington', -40.546389, 175.978056, 'New Zealand', true, 1, 'a78eb8937bbc9e0ffc6ccc77bb21195d50f621642d68bcba48a6dfe6c92bb5e4'),
+(8776, 'Motutangi Scenic Reserve', 79, 'North Auckland', -34.885833, 173.157778, 'New Zealand', true, 1, 'b8afbb37cbeb5d500d080291341a52d900986a6ac99173ecafe3cdb936e66e52'),
+(8923, 'Okaharau Road Scenic Reserve', 79, 'North Auckland', -35.713889, 173.820556, 'New Zealand', true, 1, '5e021d14c13be17b721de7a0b1b62c297a7cf97f5c45c762f04382ec43db1b06'),
+(8966, 'Onaero River Scenic Reserve', 79, 'Taranaki', -38.998611, 174.365556, 'New Zealand', true, 1, 'fd2e49e2eab5f57fb4f9ab764d2af1ada49ebe16537cdb52ef54d5464227d055'),
+(9241, 'Pukerau Red Tussock Scientific Reserve', 80, 'Southland', -46.09692, 169.077353, 'New Zealand', true, 1, '10b3b871525ecb42a8bdaf214e4cdbcc41a36b12f12e8b369873f28f928ea229'),
+(9293, 'Raincliff Historic Reserve', 39, 'Canterbury', -44.1625, 170.993056, 'New Zealand', true, 1, '59240cd6a3a14dd4b7ab0f6eb35f751e356d4d8236a3d364d1581eafdf389cc6'),
+(9355, 'Ripapa Island Historic Reserve', 39, 'Canterbury', -43.620528, 172.754173, 'New Zealand', false, 1, '46f8fabeb53e3cead84d41be33eccfb8c37b691a0d0926af926323b9b36c5e73'),
+(9376, 'Rotokahu Scenic Reserve', 79, 'Wellington', -39.154167, 175.188056, 'New Zealand', true, 1, 'd54d31eeebc79509ea2476d5b87dc49b48fc75bf0c7d715a4a97e722d51374ce'),
+(9487, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 2, 'e2579262bc68aa3dfc0b67271292ef6f2ebcbbf2752a15900376a99b5ae33ec4'),
+(9488, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 3, 'e2579262bc68aa3dfc0b67271292ef6f2ebcbbf2752a15900376a99b5ae33ec4'),
+(9489, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 4, 'e2579262bc68aa3dfc0b67271292ef6f2ebcbbf2752a15900376a99b5ae33ec4'),
+(9490, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 5, 'e2579262bc68aa3dfc0b67271292ef6f2ebcbbf2752a15900376a99b5ae33ec4'),
+(9491, 'Station Creek Scenic Reserve', 79, 'Nelson', -42.211389, 172.2625, 'New Zealand', false, 6, 'e2579262bc68aa3dfc0b67271292ef6f2ebcbbf2752a15900376a99b5ae33ec4'),
+(9001, 'Private Glade', 39, 'Canterbury', -44.1625, 170.993056, 'New Zealand', false, 3, '3e1ce8be7fccccf537d00855c829606c1853f581506abe227b667e7f854a9ac9'),
+(9000, 'Japan', 39, 'Japan', -44.1625, 170.993056, 'Japan', true, 1, 'a9aefe924319d932e53577fc18b45d915dbbb3b77760ac6bb454fe003062475d'),
+(10000, 'Canterbury University', 3, 'Christchurch', -43.523434, 172.581681, 'New Zealand', false, 3, 'afc7275cbfc1a8ba78e944f29116bad8e741b5bb5077bed89a1b21c7a28a3977');
 
 
-INSERT INTO `photo` (`id`, `main_filename`, `thumbnail_filename`, `upload_date`, `upload_profile_id`, `content_type`) VALUES
-(1, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e315', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e315', '2019-05-25', 1, 'image/png'),
-(2, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e317', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e317', '2019-05-25', 2, 'image/png'),
-(3, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e318', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e318', '2019-05-25', 2, 'image/png'),
-(4, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e319', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e319', '2019-05-25', 3, 'image/png'),
-(5, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', '2019-05-25', 2, 'image/png'),
-(6, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', '2019-05-25', 3, 'image/png');
+INSERT INTO `photo` (`id`, `main_filename`, `thumbnail_filename`, `upload_date`, `upload_profile_id`, `content_type`, `thumbnail_ready`, `reference_count`) VALUES
+(1, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e315', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e315', '2019-05-25', 1, 'image/png', true, 1),
+(2, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e317', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e317', '2019-05-25', 2, 'image/png', true, 1),
+(3, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e318', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e318', '2019-05-25', 2, 'image/png', true, 1),
+(4, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e319', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e319', '2019-05-25', 3, 'image/png', true, 1),
+(5, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', '2019-05-25', 2, 'image/png', true, 1),
+(6, 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', 'temp/935330b4-1adb-4d4c-9b2b-2e2a5638e316', '2019-05-25', 3, 'image/png', true, 1);
 
 
 INSERT INTO `personal_photo` (`id`, `photo_id`, `profile_id`, `is_public`) VALUES
@@ -183,16 +183,16 @@ INSERT INTO `destination_personal_photo` (`destination_id`, `personal_photo_id`)
 (119, 5);
 
 
-INSERT INTO `quest` (`id`, `title`, `start_date`, `end_date`, `owner_id`) VALUES
-(1, 'Journey to the centre of the Earth', '2019-08-16 03:02:00', '9999-08-16 11:59:00', 1),
-(2, 'My new quest', '2019-08-15 22:47:00', '9999-08-16 11:59:00', 6),
-(3, 'I am your father', '2019-08-16 03:02:00', '9999-08-16 11:59:00', 2),
-(4, 'Use the force Luke', '2019-08-15 04:04:00', '9999-08-16 11:59:00', 2),
-(5, 'Energise', '2019-08-15 04:09:00', '9999-08-16 11:59:00', 1),
-(6, 'Urlaub in Europa', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 1),
-(7, 'International Quest', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 10),
-(8, 'Quest with objective to delete', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 2),
-(9, 'Odyssey Quest', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 2);
+INSERT INTO `quest` (`id`, `title`, `start_date`, `end_date`, `owner_id`, `objective_count`, `total_distance_meters`, `countries`) VALUES
+(1, 'Journey to the centre of the Earth', '2019-08-16 03:02:00', '9999-08-16 11:59:00', 1, 3, 486862, '|New Zealand|'),
+(2, 'My new quest', '2019-08-15 22:47:00', '9999-08-16 11:59:00', 6, 2, 310722, '|New Zealand|'),
+(3, 'I am your father', '2019-08-16 03:02:00', '9999-08-16 11:59:00', 2, 4, 744368, '|New Zealand|'),
+(4, 'Use the force Luke', '2019-08-15 04:04:00', '9999-08-16 11:59:00', 2, 2, 0, '|New Zealand|'),
+(5, 'Energise', '2019-08-15 04:09:00', '9999-08-16 11:59:00', 1, 2, 317543, '|New Zealand|'),
+(6, 'Urlaub in Europa', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 1, 1, 0, '|New Zealand|'),
+(7, 'International Quest', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 10, 3, 433156, '|Japan|New Zealand|'),
+(8, 'Quest with objective to delete', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 2, 1, 0, '|Japan|'),
+(9, 'Odyssey Quest', '1998-05-21 12:00:01', '2100-06-21 23:59:59', 2, 10, 0, '|Japan|');
 
 
 INSERT INTO `objective` (`id`, `destination_id`, `riddle`, `radius`, `owner_id`, `quest_using_id`) VALUES
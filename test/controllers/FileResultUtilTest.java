@@ -0,0 +1,143 @@
+package controllers;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import play.mvc.Http;
+import play.mvc.Result;
+import util.FileResultUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static play.mvc.Http.HeaderNames.*;
+import static play.mvc.Http.Status.*;
+import static play.test.Helpers.fakeRequest;
+
+public class FileResultUtilTest {
+
+    private static final String CONTENT_TYPE = "image/jpeg";
+    private static final String CACHE = "private, no-cache";
+    private static final String OLD_DATE = "Mon, 01 Jan 2001 00:00:00 GMT";
+    private static final String FUTURE_DATE = "Fri, 01 Jan 2100 00:00:00 GMT";
+
+    private Path file;
+
+
+    @Before
+    public void setUp() throws IOException {
+        // Arrange
+        file = Files.createTempFile("photo", ".jpg");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[100]);
+    }
+
+
+    @Test
+    public void serveFile() {
+        // Act
+        Result result = FileResultUtil.serve(fakeRequest().build(), file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+        Assert.assertTrue(result.header(ETAG).isPresent());
+        Assert.assertTrue(result.header(LAST_MODIFIED).isPresent());
+        Assert.assertEquals(CACHE, result.header(CACHE_CONTROL).orElse(null));
+    }
+
+
+    @Test
+    public void serveMissingFile() {
+        // Act
+        Result result = FileResultUtil.serve(fakeRequest().build(), Paths.get("missing"), CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(NOT_FOUND, result.status());
+    }
+
+
+    @Test
+    public void serveMatchingETag() {
+        // Arrange
+        String etag = FileResultUtil.serve(fakeRequest().build(), file, CONTENT_TYPE, CACHE).header(ETAG).get();
+        Http.Request request = fakeRequest().header(IF_NONE_MATCH, etag).build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(NOT_MODIFIED, result.status());
+        Assert.assertEquals(etag, result.header(ETAG).orElse(null));
+    }
+
+
+    @Test
+    public void serveStaleETag() {
+        // Arrange
+        Http.Request request = fakeRequest()
+                .header(IF_NONE_MATCH, "\"stale\"")
+                .header(IF_MODIFIED_SINCE, FUTURE_DATE)
+                .build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+    }
+
+
+    @Test
+    public void serveNotModifiedSince() {
+        // Arrange
+        Http.Request request = fakeRequest().header(IF_MODIFIED_SINCE, FUTURE_DATE).build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(NOT_MODIFIED, result.status());
+    }
+
+
+    @Test
+    public void serveModifiedSince() {
+        // Arrange
+        Http.Request request = fakeRequest().header(IF_MODIFIED_SINCE, OLD_DATE).build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+    }
+
+
+    @Test
+    public void serveRange() {
+        // Arrange
+        Http.Request request = fakeRequest().header(RANGE, "bytes=0-9").build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(PARTIAL_CONTENT, result.status());
+        Assert.assertEquals("bytes 0-9/100", result.header(CONTENT_RANGE).orElse(null));
+    }
+
+
+    @Test
+    public void serveRangeOfChangedFile() {
+        // Arrange
+        Http.Request request = fakeRequest().header(RANGE, "bytes=0-9").header(IF_RANGE, "\"stale\"").build();
+
+        // Act
+        Result result = FileResultUtil.serve(request, file, CONTENT_TYPE, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+    }
+}
@@ -0,0 +1,76 @@
+package controllers;
+
+import org.junit.Assert;
+import org.junit.Test;
+import util.GeoUtil;
+
+public class GeoUtilTest {
+
+    private static final double CHRISTCHURCH_LATITUDE = -43.5321;
+    private static final double CHRISTCHURCH_LONGITUDE = 172.6362;
+    private static final double RANGIORA_LATITUDE = -43.3032;
+    private static final double RANGIORA_LONGITUDE = 172.5969;
+    private static final double DELTA = 1;
+
+    @Test
+    public void distanceBetweenSamePointIsZero() {
+        // Act
+        double result = GeoUtil.distance(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE,
+                CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE);
+
+        // Assert
+        Assert.assertEquals(0, result, DELTA);
+    }
+
+
+    @Test
+    public void distanceAlongEquator() {
+        // Act
+        double result = GeoUtil.distance(0, 0, 0, 1);
+
+        // Assert
+        Assert.assertEquals(111195, result, DELTA);
+    }
+
+
+    @Test
+    public void isWithinRadius() {
+        // Act
+        boolean result = GeoUtil.isWithin(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE,
+                RANGIORA_LATITUDE, RANGIORA_LONGITUDE, 26000);
+
+        // Assert
+        Assert.assertTrue(result);
+    }
+
+
+    @Test
+    public void isWithinOutsideRadius() {
+        // Act
+        boolean result = GeoUtil.isWithin(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE,
+                RANGIORA_LATITUDE, RANGIORA_LONGITUDE, 25000);
+
+        // Assert
+        Assert.assertFalse(result);
+    }
+
+
+    @Test
+    public void isWithinAcrossAntimeridian() {
+        // Act
+        boolean result = GeoUtil.isWithin(0, 179.9, 0, -179.9, 23000);
+
+        // Assert
+        Assert.assertTrue(result);
+    }
+
+
+    @Test
+    public void isWithinAcrossPole() {
+        // Act
+        boolean result = GeoUtil.isWithin(89.9, 0, 89.9, 180, 23000);
+
+        // Assert
+        Assert.assertTrue(result);
+    }
+}
@@ -0,0 +1,78 @@
+package controllers;
+
+import org.junit.Assert;
+import org.junit.Test;
+import util.PageCursor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public class PageCursorTest {
+
+    private static final String SORT_PROPERTY = "achievementTracker.points";
+    private static final String SORT_VALUE = "40";
+    private static final Long LAST_ID = 12L;
+
+
+    @Test
+    public void decodeEncodedCursor() {
+        //Arrange
+        PageCursor cursor = new PageCursor(SORT_PROPERTY, false, SORT_VALUE, LAST_ID);
+
+        //Act
+        PageCursor result = PageCursor.decode(cursor.encode());
+
+        //Assert
+        Assert.assertEquals(SORT_PROPERTY, result.getSortProperty());
+        Assert.assertFalse(result.isAscending());
+        Assert.assertEquals(SORT_VALUE, result.getSortValue());
+        Assert.assertEquals(LAST_ID, result.getLastId());
+    }
+
+
+    @Test
+    public void decodeEncodedCursorWithoutSort() {
+        //Arrange
+        PageCursor cursor = new PageCursor(null, true, null, LAST_ID);
+
+        //Act
+        PageCursor result = PageCursor.decode(cursor.encode());
+
+        //Assert
+        Assert.assertNull(result.getSortProperty());
+        Assert.assertTrue(result.isAscending());
+        Assert.assertNull(result.getSortValue());
+        Assert.assertEquals(LAST_ID, result.getLastId());
+    }
+
+
+    @Test
+    public void encodeIsUrlSafe() {
+        //Arrange
+        PageCursor cursor = new PageCursor(SORT_PROPERTY, true, "?&=/+ value", LAST_ID);
+
+        //Act
+        String result = cursor.encode();
+
+        //Assert
+        Assert.assertTrue(result.matches("[A-Za-z0-9_-]+"));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeNotBase64() {
+        //Act
+        PageCursor.decode("not a cursor!");
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decodeMissingId() {
+        //Arrange
+        String cursor = Base64.getUrlEncoder()
+                .encodeToString("{\"s\":null,\"a\":true,\"v\":null}".getBytes(StandardCharsets.UTF_8));
+
+        //Act
+        PageCursor.decode(cursor);
+    }
+}
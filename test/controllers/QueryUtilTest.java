@@ -4,6 +4,7 @@ package controllers;
 import org.junit.Assert;
 import org.junit.Test;
 
+import static util.QueryUtil.escapeLike;
 import static util.QueryUtil.queryComparator;
 
 public class QueryUtilTest {
@@ -21,4 +22,17 @@ public class QueryUtilTest {
         Assert.assertEquals(expectedQuery, result);
     }
 
+
+    @Test
+    public void escapeLikeTest() {
+        //Arrange
+        String field = "100%_new\\zealand";
+        String expectedQuery = "100\\%\\_new\\\\zealand";
+
+        //Act
+        String result = escapeLike(field);
+
+        //Assert
+        Assert.assertEquals(expectedQuery, result);
+    }
 }
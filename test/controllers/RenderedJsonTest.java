@@ -0,0 +1,131 @@
+package controllers;
+
+import akka.util.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+import play.mvc.Http;
+import play.mvc.Result;
+import util.RenderedJson;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static play.mvc.Http.HeaderNames.*;
+import static play.mvc.Http.Status.*;
+import static play.test.Helpers.contentAsBytes;
+import static play.test.Helpers.fakeRequest;
+
+public class RenderedJsonTest {
+
+    private static final String CACHE = "no-cache";
+    private static final String GZIP = "gzip";
+    private static final String JSON = "[\"Backpacker\",\"Thrillseeker\"]";
+
+    private final RenderedJson renderedJson = new RenderedJson(Arrays.asList("Backpacker", "Thrillseeker"));
+
+
+    @Test
+    public void servePlain() {
+        // Act
+        Result result = renderedJson.serve(fakeRequest().build(), CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+        Assert.assertEquals(JSON, contentAsBytes(result).utf8String());
+        Assert.assertFalse(result.header(CONTENT_ENCODING).isPresent());
+        Assert.assertTrue(result.header(ETAG).isPresent());
+        Assert.assertEquals(CACHE, result.header(CACHE_CONTROL).orElse(null));
+        Assert.assertEquals(ACCEPT_ENCODING, result.header(VARY).orElse(null));
+    }
+
+
+    @Test
+    public void serveGzip() throws IOException {
+        // Arrange
+        Http.Request request = fakeRequest().header(ACCEPT_ENCODING, "deflate, gzip;q=0.8").build();
+
+        // Act
+        Result result = renderedJson.serve(request, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+        Assert.assertEquals(GZIP, result.header(CONTENT_ENCODING).orElse(null));
+        Assert.assertEquals(JSON, decompress(contentAsBytes(result)));
+        Assert.assertNotEquals(renderedJson.serve(fakeRequest().build(), CACHE).header(ETAG),
+                result.header(ETAG));
+    }
+
+
+    @Test
+    public void serveGzipRefused() {
+        // Arrange
+        Http.Request request = fakeRequest().header(ACCEPT_ENCODING, "gzip;q=0").build();
+
+        // Act
+        Result result = renderedJson.serve(request, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+        Assert.assertFalse(result.header(CONTENT_ENCODING).isPresent());
+    }
+
+
+    @Test
+    public void serveMatchingETag() {
+        // Arrange
+        String etag = renderedJson.serve(fakeRequest().build(), CACHE).header(ETAG).get();
+        Http.Request request = fakeRequest().header(IF_NONE_MATCH, etag).build();
+
+        // Act
+        Result result = renderedJson.serve(request, CACHE);
+
+        // Assert
+        Assert.assertEquals(NOT_MODIFIED, result.status());
+        Assert.assertEquals(etag, result.header(ETAG).orElse(null));
+    }
+
+
+    @Test
+    public void serveStaleETag() {
+        // Arrange
+        Http.Request request = fakeRequest().header(IF_NONE_MATCH, "\"stale\"").build();
+
+        // Act
+        Result result = renderedJson.serve(request, CACHE);
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+    }
+
+
+    @Test
+    public void changedJsonHasNewETag() {
+        // Arrange
+        RenderedJson changedJson = new RenderedJson(Arrays.asList("Backpacker", "Gap Year"));
+
+        // Act
+        String etag = renderedJson.serve(fakeRequest().build(), CACHE).header(ETAG).get();
+        String changedEtag = changedJson.serve(fakeRequest().build(), CACHE).header(ETAG).get();
+
+        // Assert
+        Assert.assertNotEquals(etag, changedEtag);
+    }
+
+
+    private static String decompress(ByteString compressed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (InputStream input = new GZIPInputStream(new ByteArrayInputStream(compressed.toArray()))) {
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                output.write(buffer, 0, read);
+            }
+        }
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
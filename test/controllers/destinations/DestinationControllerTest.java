@@ -10,14 +10,21 @@ import org.junit.Test;
 import play.mvc.Http;
 import play.mvc.Result;
 import repositories.destinations.DestinationRepository;
-import repositories.destinations.DestinationTypeRepository;
 import repositories.hints.HintRepository;
 import repositories.objectives.ObjectiveRepository;
-import repositories.points.BadgeRepository;
-import repositories.points.PointRewardRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.quests.QuestRepository;
 import repositories.trips.TripDestinationRepository;
 import repositories.trips.TripRepository;
+import repositories.DatabaseExecutionContext;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
+import services.search.SearchIndexService;
+import util.RenderedJson;
+
+import java.time.Duration;
+import java.util.Collections;
+
 import static org.mockito.Mockito.*;
 import static play.mvc.Http.Status.*;
 import static play.test.Helpers.fakeRequest;
@@ -30,8 +37,11 @@ public class DestinationControllerTest {
     private static final Long REGULAR_USER_ID = 2L;
     private static final Long REQUESTED_USER_ID = 3L;
     private static final Long NON_EXISTENT_USER_ID = 500L;
+    private static final int PRINCIPAL_CACHE_SIZE = 10;
+    private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofMinutes(5);
     private DestinationController mockDestinationController;
     private ProfileRepository mockProfileRepository;
+    private ReferenceDataCatalog mockReferenceDataCatalog;
 
     @Before
     public void setUp() {
@@ -39,39 +49,49 @@ public class DestinationControllerTest {
         TripDestinationRepository mockTripDestinationRepository;
         TripRepository mockTripRepository;
         ObjectiveRepository mockObjectiveRepository;
-        DestinationTypeRepository mockDestinationTypeRepository;
-        BadgeRepository mockBadgeRepository;
-        PointRewardRepository mockPointRewardRepository;
         AchievementTrackerController mockAchievementTrackerController;
         HintRepository mockHintRepository;
         ObjectMapper objectMapper;
 
         mockDestinationRepository = mock(DestinationRepository.class);
         mockProfileRepository = mock(ProfileRepository.class);
+        PrincipalCache principalCache =
+                new PrincipalCache(mockProfileRepository, PRINCIPAL_CACHE_SIZE, PRINCIPAL_CACHE_TTL);
         mockTripDestinationRepository = mock(TripDestinationRepository.class);
         mockTripRepository = mock(TripRepository.class);
         mockObjectiveRepository = mock(ObjectiveRepository.class);
-        mockDestinationTypeRepository = mock(DestinationTypeRepository.class);
-        mockBadgeRepository = mock(BadgeRepository.class);
-        mockPointRewardRepository = mock(PointRewardRepository.class);
+        mockReferenceDataCatalog = mock(ReferenceDataCatalog.class);
         mockHintRepository = mock(HintRepository.class);
         objectMapper = mock(ObjectMapper.class);
+        DatabaseExecutionContext mockExecutionContext = mock(DatabaseExecutionContext.class);
+
+        // Run database work on the calling thread so results can be asserted on directly
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(mockExecutionContext).execute(any(Runnable.class));
+
 
         mockAchievementTrackerController = new AchievementTrackerController(
                 mockProfileRepository,
-                mockPointRewardRepository,
-                mockBadgeRepository,
+                mockReferenceDataCatalog,
                 mockHintRepository,
-                objectMapper);
+                objectMapper,
+                principalCache,
+                mockExecutionContext);
 
         mockDestinationController = new DestinationController(
                 mockProfileRepository,
                 mockDestinationRepository,
-                mockDestinationTypeRepository,
+                mockReferenceDataCatalog,
                 mockTripDestinationRepository,
                 mockTripRepository,
                 mockObjectiveRepository,
-                mockAchievementTrackerController);
+                mock(QuestRepository.class),
+                mockAchievementTrackerController,
+                mock(SearchIndexService.class),
+                principalCache,
+                mockExecutionContext);
 
         Profile defaultAdmin;
         Profile regularUser;
@@ -99,8 +119,12 @@ public class DestinationControllerTest {
 
     @Test
     public void getTypes() {
+        // Arrange
+        when(mockReferenceDataCatalog.getDestinationTypesJson())
+                .thenReturn(new RenderedJson(Collections.emptyList()));
+
         // Act
-        Result result = mockDestinationController.getTypes();
+        Result result = mockDestinationController.getTypes(fakeRequest().build()).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(OK, result.status());
@@ -113,7 +137,7 @@ public class DestinationControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = mockDestinationController.fetch(request);
+        Result result = mockDestinationController.fetch(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -129,7 +153,7 @@ public class DestinationControllerTest {
         Http.RequestBuilder requestBuilder = fakeRequest().session(AUTHORIZED, USER_ID).uri("?owner=500");
         Http.Request request = requestBuilder.build();
         // Act
-        Result result = mockDestinationController.fetch(request);
+        Result result = mockDestinationController.fetch(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -146,7 +170,7 @@ public class DestinationControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = mockDestinationController.fetch(request);
+        Result result = mockDestinationController.fetch(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
@@ -163,7 +187,7 @@ public class DestinationControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = mockDestinationController.fetchByUser(request, REQUESTED_USER_ID);
+        Result result = mockDestinationController.fetchByUser(request, REQUESTED_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -179,7 +203,7 @@ public class DestinationControllerTest {
         Http.RequestBuilder requestBuilder = fakeRequest().session(AUTHORIZED, USER_ID);
         Http.Request request = requestBuilder.build();
         // Act
-        Result result = mockDestinationController.fetchByUser(request, NON_EXISTENT_USER_ID);
+        Result result = mockDestinationController.fetchByUser(request, NON_EXISTENT_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -196,7 +220,7 @@ public class DestinationControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = mockDestinationController.fetchByUser(request, REQUESTED_USER_ID);
+        Result result = mockDestinationController.fetchByUser(request, REQUESTED_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
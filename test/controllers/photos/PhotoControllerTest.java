@@ -1,6 +1,8 @@
 package controllers.photos;
 
-import com.typesafe.config.Config;
+import models.photos.PersonalPhoto;
+import models.photos.Photo;
+import models.profiles.Profile;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -10,9 +12,22 @@ import play.mvc.Result;
 import repositories.destinations.DestinationRepository;
 import repositories.profiles.ProfileRepository;
 import repositories.photos.PersonalPhotoRepository;
+import repositories.DatabaseExecutionContext;
+import services.photos.ImageProcessor;
+import services.photos.PhotoProcessingService;
+import services.photos.PhotoStorageService;
+import services.profiles.PrincipalCache;
+
+import java.time.Duration;
+import java.util.Optional;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static play.mvc.Http.HeaderNames.CACHE_CONTROL;
+import static play.mvc.Http.HeaderNames.IF_NONE_MATCH;
+import static play.mvc.Http.Status.FORBIDDEN;
 import static play.mvc.Http.Status.NOT_FOUND;
+import static play.mvc.Http.Status.OK;
 import static play.mvc.Http.Status.UNAUTHORIZED;
 import static play.test.Helpers.*;
 
@@ -21,6 +36,9 @@ public class PhotoControllerTest {
     private static final String AUTHORIZED = "authorized";
     private static final String USER_ID = "1";
     private static final Long PERSONAL_PHOTO_ID = 12L;
+    private static final long MAX_DECODED_PIXELS = 250000L;
+    private static final int PRINCIPAL_CACHE_SIZE = 10;
+    private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofMinutes(5);
 
     private PhotoController testPhotoController;
     private ProfileRepository mockProfileRepo;
@@ -29,10 +47,20 @@ public class PhotoControllerTest {
     @Before
     public void setUp() {
         DestinationRepository mockDestinationRepo = mock(DestinationRepository.class);
-        Config mockConfig = mock(Config.class);
         mockProfileRepo = mock(ProfileRepository.class);
+        PrincipalCache principalCache = new PrincipalCache(mockProfileRepo, PRINCIPAL_CACHE_SIZE, PRINCIPAL_CACHE_TTL);
         mockPersonalPhotoRepo = mock(PersonalPhotoRepository.class);
-        testPhotoController = new PhotoController(mockProfileRepo, mockPersonalPhotoRepo, mockDestinationRepo, mockConfig);
+        DatabaseExecutionContext mockExecutionContext = mock(DatabaseExecutionContext.class);
+
+        // Run database work on the calling thread so results can be asserted on directly
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(mockExecutionContext).execute(any(Runnable.class));
+
+        testPhotoController = new PhotoController(mockProfileRepo, mockPersonalPhotoRepo, mockDestinationRepo,
+                mock(PhotoStorageService.class), mock(PhotoProcessingService.class),
+                new ImageProcessor(MAX_DECODED_PIXELS), principalCache, mockExecutionContext);
     }
 
     @After
@@ -51,7 +79,7 @@ public class PhotoControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, false);
+        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, false, null).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(NOT_FOUND, result.status());
@@ -70,7 +98,7 @@ public class PhotoControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, true);
+        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, true, null).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(NOT_FOUND, result.status());
@@ -86,9 +114,65 @@ public class PhotoControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, false);
+        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, false, null).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void fetchThumbnailNotYetGenerated() {
+        // Mock
+        PersonalPhoto personalPhoto = new PersonalPhoto();
+        personalPhoto.setPublic(true);
+        personalPhoto.setPhoto(new Photo());
+        when(mockPersonalPhotoRepo.findById(any(Long.class))).thenReturn(personalPhoto);
+
+        // Arrange
+        Http.RequestBuilder requestBuilder = fakeRequest().session(AUTHORIZED, USER_ID);
+        Http.Request request = requestBuilder.build();
+
+        // Act
+        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, true, null).toCompletableFuture().join();
+
+        // Assert
+        Assert.assertEquals(OK, result.status());
+        Assert.assertEquals(Optional.of("image/jpeg"), result.contentType());
+        Assert.assertEquals(Optional.of("no-cache"), result.header(CACHE_CONTROL));
+
+        // Verify Mocks
+        verify(mockPersonalPhotoRepo, times(1)).findById(any(Long.class));
+    }
+
+    @Test
+    public void fetchPrivatePhotoWithETagForbidden() {
+        // Mock
+        Profile owner = new Profile();
+        owner.setId(2L);
+        Profile loggedInUser = new Profile();
+        loggedInUser.setId(Long.valueOf(USER_ID));
+
+        PersonalPhoto personalPhoto = new PersonalPhoto();
+        personalPhoto.setPublic(false);
+        personalPhoto.setProfile(owner);
+        personalPhoto.setPhoto(new Photo());
+        when(mockPersonalPhotoRepo.findById(any(Long.class))).thenReturn(personalPhoto);
+        when(mockProfileRepo.findById(any(Long.class))).thenReturn(loggedInUser);
+
+        // Arrange
+        Http.RequestBuilder requestBuilder = fakeRequest()
+                .session(AUTHORIZED, USER_ID)
+                .header(IF_NONE_MATCH, "*");
+        Http.Request request = requestBuilder.build();
+
+        // Act
+        Result result = testPhotoController.fetch(request, PERSONAL_PHOTO_ID, false, null).toCompletableFuture().join();
+
+        // Assert
+        Assert.assertEquals(FORBIDDEN, result.status());
+
+        // Verify Mocks
+        verify(mockPersonalPhotoRepo, times(1)).findById(any(Long.class));
+        verify(mockProfileRepo, times(1)).findById(any(Long.class));
+    }
+}
@@ -0,0 +1,95 @@
+package controllers.photos;
+
+import akka.util.ByteString;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public class StagedPhotoTest {
+
+    private static final long MAX_SIZE = 100L;
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] JPEG_HEADER = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0};
+
+    private StagedPhoto stagedPhoto;
+
+
+    @Before
+    public void setUp() throws NoSuchAlgorithmException {
+        // Arrange
+        stagedPhoto = new StagedPhoto(Paths.get("staged"), MessageDigest.getInstance("SHA-256"), MAX_SIZE);
+    }
+
+
+    @Test
+    public void acceptJpeg() {
+        // Act
+        boolean accepted = stagedPhoto.accept(ByteString.fromArray(JPEG_HEADER));
+        stagedPhoto.finish();
+
+        // Assert
+        Assert.assertTrue(accepted);
+        Assert.assertFalse(stagedPhoto.isRejected());
+        Assert.assertEquals("image/jpeg", stagedPhoto.getContentType());
+        Assert.assertNotNull(stagedPhoto.getContentHash());
+    }
+
+
+    @Test
+    public void acceptPngHeaderSplitAcrossChunks() {
+        // Act
+        boolean firstAccepted = stagedPhoto.accept(ByteString.fromArray(PNG_HEADER, 0, 3));
+        boolean secondAccepted = stagedPhoto.accept(ByteString.fromArray(PNG_HEADER, 3, PNG_HEADER.length - 3));
+        stagedPhoto.finish();
+
+        // Assert
+        Assert.assertTrue(firstAccepted);
+        Assert.assertTrue(secondAccepted);
+        Assert.assertEquals("image/png", stagedPhoto.getContentType());
+    }
+
+
+    @Test
+    public void rejectNotAnImage() {
+        // Act
+        boolean accepted = stagedPhoto.accept(ByteString.fromString("<html>", StandardCharsets.UTF_8.name()));
+        boolean laterAccepted = stagedPhoto.accept(ByteString.fromArray(JPEG_HEADER));
+        stagedPhoto.finish();
+
+        // Assert
+        Assert.assertFalse(accepted);
+        Assert.assertFalse(laterAccepted);
+        Assert.assertTrue(stagedPhoto.isInvalidType());
+        Assert.assertNull(stagedPhoto.getContentHash());
+    }
+
+
+    @Test
+    public void rejectTooLarge() {
+        // Act
+        boolean accepted = stagedPhoto.accept(ByteString.fromArray(JPEG_HEADER));
+        boolean oversizedAccepted = stagedPhoto.accept(ByteString.fromArray(new byte[(int) MAX_SIZE]));
+        stagedPhoto.finish();
+
+        // Assert
+        Assert.assertTrue(accepted);
+        Assert.assertFalse(oversizedAccepted);
+        Assert.assertTrue(stagedPhoto.isTooLarge());
+        Assert.assertFalse(stagedPhoto.isInvalidType());
+    }
+
+
+    @Test
+    public void rejectEmpty() {
+        // Act
+        stagedPhoto.finish();
+
+        // Assert
+        Assert.assertTrue(stagedPhoto.isInvalidType());
+    }
+}
@@ -9,12 +9,16 @@ import org.junit.Before;
 import org.junit.Test;
 import play.mvc.Http;
 import play.mvc.Result;
-import repositories.destinations.TravellerTypeRepository;
-import repositories.points.AchievementTrackerRepository;
-import repositories.profiles.NationalityRepository;
-import repositories.profiles.PassportRepository;
+import repositories.DatabaseExecutionContext;
 import repositories.profiles.ProfileRepository;
-
+import services.photos.PhotoStorageService;
+import services.points.LeaderboardService;
+import services.profiles.PrincipalCache;
+import services.reference.ReferenceDataCatalog;
+import services.search.SearchCountCache;
+import services.search.SearchIndexService;
+
+import java.time.Duration;
 import java.time.LocalDate;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -30,6 +34,10 @@ public class ProfileControllerTest {
     private static final Long DEFAULT_ADMIN_ID = 1L;
     private static final Long ADMIN_USER_ID = 2L;
     private static final Long REGULAR_USER_ID = 3L;
+    private static final int PRINCIPAL_CACHE_SIZE = 10;
+    private static final Duration PRINCIPAL_CACHE_TTL = Duration.ofMinutes(5);
+    private static final int SEARCH_COUNT_CACHE_SIZE = 10;
+    private static final Duration SEARCH_COUNT_CACHE_TTL = Duration.ofMinutes(1);
 
     private static final Long FULL_USER_ID = 4L;
     private static final String FULL_USER_USERNAME = "test1@email.com";
@@ -46,16 +54,25 @@ public class ProfileControllerTest {
     @Before
     public void setUp() {
         mockProfileRepo = mock(ProfileRepository.class);
-        NationalityRepository mockNationalityRepo = mock(NationalityRepository.class);
-        PassportRepository mockPassportRepo = mock(PassportRepository.class);
-        TravellerTypeRepository mockTravellerTypeRepo = mock(TravellerTypeRepository.class);
-        AchievementTrackerRepository mockAchievementTrackerRepo = mock(AchievementTrackerRepository.class);
+        PrincipalCache principalCache = new PrincipalCache(mockProfileRepo, PRINCIPAL_CACHE_SIZE, PRINCIPAL_CACHE_TTL);
+        LeaderboardService mockLeaderboardService = mock(LeaderboardService.class);
+        DatabaseExecutionContext mockExecutionContext = mock(DatabaseExecutionContext.class);
+
+        // Run database work on the calling thread so results can be asserted on directly
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(mockExecutionContext).execute(any(Runnable.class));
+
 
         testProfileController = new ProfileController(mockProfileRepo,
-                mockNationalityRepo,
-                mockPassportRepo,
-                mockTravellerTypeRepo,
-                mockAchievementTrackerRepo);
+                mock(ReferenceDataCatalog.class),
+                mockLeaderboardService,
+                mock(PhotoStorageService.class),
+                mock(SearchIndexService.class),
+                new SearchCountCache(SEARCH_COUNT_CACHE_SIZE, SEARCH_COUNT_CACHE_TTL),
+                principalCache,
+                mockExecutionContext);
 
         Profile defaultAdminUser = new Profile();
         defaultAdminUser.setId(DEFAULT_ADMIN_ID);
@@ -95,7 +112,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.create(request);
+        Result result = testProfileController.create(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
@@ -115,7 +132,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.create(request);
+        Result result = testProfileController.create(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -132,7 +149,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.delete(request, DEFAULT_ADMIN_ID);
+        Result result = testProfileController.delete(request, DEFAULT_ADMIN_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -149,7 +166,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.delete(request, REGULAR_USER_ID);
+        Result result = testProfileController.delete(request, REGULAR_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -169,7 +186,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.getTotalNumberOfProfiles(request);
+        Result result = testProfileController.getTotalNumberOfProfiles(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -186,7 +203,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -206,7 +223,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.getTotalNumberOfProfiles(request);
+        Result result = testProfileController.getTotalNumberOfProfiles(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -227,7 +244,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -248,7 +265,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -269,7 +286,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -290,7 +307,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -311,7 +328,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -332,7 +349,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.list(request);
+        Result result = testProfileController.list(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -350,7 +367,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.makeAdmin(request, REGULAR_USER_ID);
+        Result result = testProfileController.makeAdmin(request, REGULAR_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -367,7 +384,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.makeAdmin(request, REGULAR_USER_ID);
+        Result result = testProfileController.makeAdmin(request, REGULAR_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
@@ -384,7 +401,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.makeAdmin(request, 500L);
+        Result result = testProfileController.makeAdmin(request, 500L).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(NOT_FOUND, result.status());
@@ -401,7 +418,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.makeAdmin(request, FULL_USER_ID);
+        Result result = testProfileController.makeAdmin(request, FULL_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(OK, result.status());
@@ -420,7 +437,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.removeAdmin(request, REGULAR_USER_ID);
+        Result result = testProfileController.removeAdmin(request, REGULAR_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(UNAUTHORIZED, result.status());
@@ -437,7 +454,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.removeAdmin(request, REGULAR_USER_ID);
+        Result result = testProfileController.removeAdmin(request, REGULAR_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
@@ -454,7 +471,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.removeAdmin(request, DEFAULT_ADMIN_ID);
+        Result result = testProfileController.removeAdmin(request, DEFAULT_ADMIN_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(FORBIDDEN, result.status());
@@ -471,7 +488,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.removeAdmin(request, 500L);
+        Result result = testProfileController.removeAdmin(request, 500L).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(NOT_FOUND, result.status());
@@ -488,7 +505,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.removeAdmin(request, FULL_USER_ID);
+        Result result = testProfileController.removeAdmin(request, FULL_USER_ID).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(OK, result.status());
@@ -510,7 +527,7 @@ public class ProfileControllerTest {
         Http.Request request = requestBuilder.build();
 
         // Act
-        Result result = testProfileController.checkUsername(request);
+        Result result = testProfileController.checkUsername(request).toCompletableFuture().join();
 
         // Assert
         Assert.assertEquals(BAD_REQUEST, result.status());
@@ -129,6 +129,7 @@ Feature: Achievement Tracker API Endpoint
     When I request to retrieve all badges
     Then the status code received is 200
     And the response contains 9 badges
+    And the request issued at most 1 query
 
 
   Scenario: Unsuccessfully requesting all badges when not logged in
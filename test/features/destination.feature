@@ -490,6 +490,29 @@ Feature: Destination API Endpoint
       | 6     |
 
 
+  Scenario: Merging two destinations that differ only in case and accents
+    Given the application is running
+    And I am logged in
+    And a destination already exists with the following values
+      | Name       | Type | District     | Latitude | Longitude | Country     | is_public |
+      | University | 4    | Christchurch | 24.5     | 34.6      | New Zealand | false     |
+    And the destination has a photo with id 2
+    And I am not logged in
+    And I am logged in as an alternate user
+    And a destination already exists with the following values
+      | Name       | Type | District     | Latitude | Longitude | Country     | is_public |
+      | ÚNIVERSITY | 4    | christchurch | 24.5     | 34.6      | new zealand | false     |
+    And the destination has a photo with id 6
+    When I attempt to edit the destination using the following values
+      | is_public |
+      | true      |
+    Then the status code received is 200
+    And the destination will have photos with the following ids
+      | id    |
+      | 2     |
+      | 6     |
+
+
   Scenario: Merging three destinations which have photos
     Given the application is running
     And I am logged in
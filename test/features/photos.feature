@@ -101,6 +101,15 @@ Feature: Photos API Endpoint
     Then the status code received is 200
 
 
+  Scenario: Retrieving the photo gallery of a user
+    Given the application is running
+    And I am logged in
+    When I request the photo gallery of user 2
+    Then the status code received is 200
+    And the response contains 3 photos
+    And the request issued at most 2 queries
+
+
   Scenario: Successfully deleting my own profile picture
     Given the application is running
     And I am logged in
@@ -5,18 +5,21 @@ Feature: Profile API Endpoint
     And I am logged in
     When I send a GET request to the profiles endpoint
     Then the status code received is 200
+    And the request issued at most 22 queries
 
 
   Scenario: Get all nationalities
     Given the application is running
     When I send a GET request to the nationalities endpoint
     Then the status code received is 200
+    And the request issued at most 0 queries
 
 
   Scenario: Get all traveller types
     Given the application is running
     When I send a GET request to the travtypes endpoint
     Then the status code received is 200
+    And the request issued at most 0 queries
 
 
   Scenario: Attempting to sign up with an existing username
@@ -47,6 +50,15 @@ Feature: Profile API Endpoint
     Then the status code received is 201
 
 
+  Scenario: Attempting to sign up with an invalid date of birth
+    Given the application is running
+    And The following profile does not exist with the username "TestUser123@travelea.com" within the TravelEA database
+    When A user attempts to create a profile with the following fields:
+      | username                 | password    | first_name | middle_name | last_name | date_of_birth | gender | nationality | traveller_type | passport_country |
+      | TestUser123@travelea.com | TestPass321 | Test       |             | Dummy     | 2000-13-45    | Other  | 1           | 1              | 1                |
+    Then the status code received is 400
+
+
   Scenario: Attempting to update an existing user
     Given the application is running
     And The following profile exists with username "guestUser@travelea.com" within the TravelEA database:
@@ -56,6 +68,14 @@ Feature: Profile API Endpoint
     Then the status code received is 200
 
 
+  Scenario: Attempting to update a user with an invalid date of birth when not logged in
+    Given the application is running
+    When A user who is not logged in attempts to update the profile with id 2:
+      | username               | password    | first_name | middle_name | last_name    | date_of_birth | gender | nationality | traveller_type | passport_country |
+      | guestUser@travelea.com | guest123    | Dave       | Test        | McInloch     | not a date    | Other  | 1           | 1              | 1                |
+    Then the status code received is 401
+
+
   Scenario: Attempting to create a new user from the admin panel
     Given the application is running
     And I am logged in as an admin user
@@ -259,6 +279,7 @@ Feature: Profile API Endpoint
       | 6   | 60      |
     When I search for profiles by "rank" with value "4"
     Then the status code received is 200
+    And the request issued at most 10 queries
     And the response contains the following profiles:
       | username                |
       | testuser2@email.com     |
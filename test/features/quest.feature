@@ -620,6 +620,22 @@ Feature: Quest API Endpoint
     And the response contains 4 available quests
 
 
+  Scenario: Retrieve all quests that contain the new country of an edited objective destination
+    Given the application is running
+    And I am logged in as an admin user
+    When I attempt to edit destination 9000 using the following values
+      | Country |
+      | Fiji    |
+    Then the status code received is 200
+    And I am logged in as an alternate user
+    When I attempt to retrieve all quests that contain the country 'Fiji'
+    Then the status code received is 200
+    And the response contains 3 available quests
+    When I attempt to retrieve all quests that contain the country 'Japan'
+    Then the status code received is 200
+    And the response contains 0 available quests
+
+
   Scenario: Retrieve all quests when I am not logged in
     Given the application is running
     And I am not logged in
@@ -838,6 +854,15 @@ Feature: Quest API Endpoint
     And the response contains 1 quests
 
 
+  Scenario: Retrieving all quests marked as active with checked in objectives as admin
+    Given the application is running
+    And I am logged in as an admin user
+    When I retrieve all active quests for user 7
+    Then the status code received is 200
+    And the response contains 4 quests
+    And the request issued at most 33 queries
+
+
   Scenario: Retrieving all completed quests as a regular user
     Given the application is running
     And I am logged in as an alternate user
@@ -993,6 +1018,24 @@ Feature: Quest API Endpoint
     Then the status code received is 403
 
 
+  Scenario: Checking in to an objective from outside its radius
+    Given the application is running
+    And I am logged in
+    When I check in for quest attempt 3 from latitude 0 and longitude 0
+    Then the status code received is 403
+    And the following ApiErrors are returned
+      | You must be within range of the objective destination to check in. |
+
+
+  Scenario: Checking in to an objective without a location
+    Given the application is running
+    And I am logged in
+    When I check in for quest attempt 3 without a location
+    Then the status code received is 400
+    And the following ApiErrors are returned
+      | A valid latitude and longitude must be provided to check in. |
+
+
   Scenario: Checking in to an objective as an admin for a regular user
     Given the application is running
     And I am logged in as an admin user
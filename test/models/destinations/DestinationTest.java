@@ -18,6 +18,8 @@ public class DestinationTest {
     private static final String NAME_STREAM = "Big Stream";
     private static final String DISTRICT_FAKE_VILLE = "FakeVille";
     private static final String COUNTRY_FLOGORIA = "Flogoria";
+    private static final String NAME_RIVER_FOLDED = "  RIVER of  the Gréat ";
+    private static final Long TYPE_ID = 1L;
     private static final Double LATITUDE_1 = 32.42344;
     private static final Double LATITUDE_2 = 32.4244;
     private static final Double LONGITUDE_1 = 34.43643;
@@ -220,4 +222,77 @@ public class DestinationTest {
 
         assertNotEquals(testDestination1.hashCode(), testDestination2.hashCode());
     }
-}
\ No newline at end of file
+
+
+    @Test
+    public void testFingerprintIgnoresCaseAccentsAndSpacing() {
+        destinationType1.setId(TYPE_ID);
+        destinationType2.setId(TYPE_ID);
+
+        testDestination1.setName(NAME_RIVER);
+        testDestination1.setType(destinationType1);
+        testDestination1.setDistrict(DISTRICT_FAKE_VILLE);
+        testDestination1.setCountry(COUNTRY_FLOGORIA);
+        testDestination1.setLatitude(LATITUDE_1);
+        testDestination1.setLongitude(LONGITUDE_1);
+
+        // Name differs only in case, accents and spacing therefore fingerprints equal
+        testDestination2.setName(NAME_RIVER_FOLDED);
+        testDestination2.setType(destinationType2);
+        testDestination2.setDistrict(DISTRICT_FAKE_VILLE.toUpperCase());
+        testDestination2.setCountry(COUNTRY_FLOGORIA);
+        testDestination2.setLatitude(LATITUDE_1);
+        testDestination2.setLongitude(LONGITUDE_1);
+
+        assertEquals(testDestination1.calculateFingerprint(), testDestination2.calculateFingerprint());
+    }
+
+
+    @Test
+    public void testLatitudeNotEqualFingerprint() {
+        destinationType1.setId(TYPE_ID);
+        destinationType2.setId(TYPE_ID);
+
+        testDestination1.setName(NAME_RIVER);
+        testDestination1.setType(destinationType1);
+        testDestination1.setDistrict(DISTRICT_FAKE_VILLE);
+        testDestination1.setCountry(COUNTRY_FLOGORIA);
+        // Latitude not equal therefore fingerprints not equal
+        testDestination1.setLatitude(LATITUDE_2);
+        testDestination1.setLongitude(LONGITUDE_1);
+
+        testDestination2.setName(NAME_RIVER);
+        testDestination2.setType(destinationType2);
+        testDestination2.setDistrict(DISTRICT_FAKE_VILLE);
+        testDestination2.setCountry(COUNTRY_FLOGORIA);
+        testDestination2.setLatitude(LATITUDE_1);
+        testDestination2.setLongitude(LONGITUDE_1);
+
+        assertNotEquals(testDestination1.calculateFingerprint(), testDestination2.calculateFingerprint());
+    }
+
+
+    @Test
+    public void testEqualIgnoresCaseAccentsAndSpacing() {
+        destinationType1.setDestinationType(TYPE_STREAM);
+        destinationType2.setDestinationType(TYPE_STREAM);
+
+        testDestination1.setName(NAME_RIVER);
+        testDestination1.setType(destinationType1);
+        testDestination1.setDistrict(DISTRICT_FAKE_VILLE);
+        testDestination1.setCountry(COUNTRY_FLOGORIA);
+        testDestination1.setLatitude(LATITUDE_1);
+        testDestination1.setLongitude(LONGITUDE_1);
+
+        // Name and district differ only in case, accents and spacing therefore Destination equal
+        testDestination2.setName(NAME_RIVER_FOLDED);
+        testDestination2.setType(destinationType2);
+        testDestination2.setDistrict(DISTRICT_FAKE_VILLE.toUpperCase());
+        testDestination2.setCountry(COUNTRY_FLOGORIA);
+        testDestination2.setLatitude(LATITUDE_1);
+        testDestination2.setLongitude(LONGITUDE_1);
+
+        assertEquals(testDestination1, testDestination2);
+        assertEquals(testDestination1.hashCode(), testDestination2.hashCode());
+    }
+}
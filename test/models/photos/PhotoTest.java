@@ -0,0 +1,64 @@
+package models.photos;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+
+public class PhotoTest {
+
+    private Photo photo;
+
+    private static final String WRONG_RENDITION = "The wrong rendition was selected.";
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        photo = new Photo();
+        photo.addRendition(new PhotoRendition(photo, "1280", 1280, 720, 300000L));
+        photo.addRendition(new PhotoRendition(photo, "200", 200, 113, 10000L));
+        photo.addRendition(new PhotoRendition(photo, "640", 640, 360, 80000L));
+    }
+
+
+    @Test
+    public void findRenditionExactWidth() {
+        // Act
+        Optional<PhotoRendition> rendition = photo.findRendition(640);
+
+        // Assert
+        Assert.assertTrue(rendition.isPresent());
+        Assert.assertEquals(WRONG_RENDITION, 640, rendition.get().getWidth());
+    }
+
+
+    @Test
+    public void findRenditionSmallestWideEnough() {
+        // Act
+        Optional<PhotoRendition> rendition = photo.findRendition(201);
+
+        // Assert
+        Assert.assertTrue(rendition.isPresent());
+        Assert.assertEquals(WRONG_RENDITION, 640, rendition.get().getWidth());
+    }
+
+
+    @Test
+    public void findRenditionTooWide() {
+        // Act
+        Optional<PhotoRendition> rendition = photo.findRendition(1920);
+
+        // Assert
+        Assert.assertFalse(rendition.isPresent());
+    }
+
+
+    @Test
+    public void hasRendition() {
+        // Assert
+        Assert.assertTrue(photo.hasRendition(200));
+        Assert.assertFalse(photo.hasRendition(320));
+    }
+}
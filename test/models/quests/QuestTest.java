@@ -0,0 +1,101 @@
+package models.quests;
+
+import models.destinations.Destination;
+import models.objectives.Objective;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+
+public class QuestTest {
+
+    private Quest testQuest;
+    private List<Objective> objectives;
+
+    private static final String NEW_ZEALAND = "New Zealand";
+    private static final String JAPAN = "Japan";
+
+
+    @Before
+    public void setUp() {
+        testQuest = new Quest();
+        objectives = new ArrayList<>();
+        objectives.add(createObjective(0, 0, NEW_ZEALAND));
+        objectives.add(createObjective(0, 1, JAPAN));
+        objectives.add(createObjective(1, 1, NEW_ZEALAND));
+    }
+
+
+    /**
+     * Creates an objective with a destination at the given location.
+     *
+     * @param latitude  the latitude of the destination.
+     * @param longitude the longitude of the destination.
+     * @param country   the country of the destination.
+     * @return          the objective.
+     */
+    private Objective createObjective(double latitude, double longitude, String country) {
+        Destination destination = new Destination();
+        destination.setLatitude(latitude);
+        destination.setLongitude(longitude);
+        destination.setCountry(country);
+        Objective objective = new Objective();
+        objective.setDestination(destination);
+        return objective;
+    }
+
+
+    @Test
+    public void updateRouteTotalDistance() {
+        testQuest.setObjectives(objectives);
+        testQuest.updateRoute();
+
+        // Two legs of one degree each, rounded up to the metre.
+        assertEquals(222390, testQuest.getTotalDistanceMeters());
+    }
+
+
+    @Test
+    public void updateRouteCountries() {
+        testQuest.setObjectives(objectives);
+        testQuest.updateRoute();
+
+        assertEquals(new HashSet<>(Arrays.asList(NEW_ZEALAND, JAPAN)), testQuest.getObjectiveCountries());
+    }
+
+
+    @Test
+    public void updateRouteSingleObjective() {
+        testQuest.setObjectives(new ArrayList<>(objectives.subList(0, 1)));
+        testQuest.updateRoute();
+
+        assertEquals(0, testQuest.getTotalDistanceMeters());
+        assertEquals(new HashSet<>(Arrays.asList(NEW_ZEALAND)), testQuest.getObjectiveCountries());
+    }
+
+
+    @Test
+    public void getObjectiveCountriesWithoutStoredRoute() {
+        testQuest.setObjectives(objectives);
+
+        assertEquals(new HashSet<>(Arrays.asList(NEW_ZEALAND, JAPAN)), testQuest.getObjectiveCountries());
+    }
+
+
+    @Test
+    public void getCountryPattern() {
+        assertEquals("%|Japan|%", Quest.getCountryPattern(JAPAN));
+    }
+
+
+    @Test
+    public void getCountryPatternEscapesWildcards() {
+        assertEquals("%|Ja\\_an\\%|%", Quest.getCountryPattern("Ja_an%"));
+    }
+}
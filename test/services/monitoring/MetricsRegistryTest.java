@@ -0,0 +1,90 @@
+package services.monitoring;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import play.db.Database;
+import repositories.DatabaseExecutionContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+public class MetricsRegistryTest {
+
+    private static final String ROUTE = "GET /v1/profiles/:id";
+    private static final long[] LATENCY_BOUNDS = {
+            TimeUnit.MILLISECONDS.toNanos(10),
+            TimeUnit.MILLISECONDS.toNanos(100)
+    };
+
+    private MetricsRegistry metricsRegistry;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        DatabaseExecutionContext mockExecutionContext = mock(DatabaseExecutionContext.class);
+        when(mockExecutionContext.getQueuedTasks()).thenReturn(3);
+        metricsRegistry = new MetricsRegistry(LATENCY_BOUNDS, mock(Database.class), mockExecutionContext);
+    }
+
+
+    private static QueryStatistics statistics(int queries) {
+        QueryStatistics statistics = new QueryStatistics(ROUTE);
+        for (int i = 0; i < queries; i++) {
+            statistics.record(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return statistics;
+    }
+
+
+    @Test
+    public void requestsAreCountedInCumulativeBuckets() {
+        // Arrange
+        metricsRegistry.recordRequest(ROUTE, TimeUnit.MILLISECONDS.toNanos(5), statistics(1));
+        metricsRegistry.recordRequest(ROUTE, TimeUnit.MILLISECONDS.toNanos(50), statistics(2));
+        metricsRegistry.recordRequest(ROUTE, TimeUnit.SECONDS.toNanos(1), statistics(0));
+
+        // Act
+        String metrics = metricsRegistry.scrape();
+
+        // Assert
+        Assert.assertTrue(metrics.contains("# TYPE travelea_http_request_duration_seconds histogram\n"));
+        Assert.assertTrue(metrics.contains(
+                "travelea_http_request_duration_seconds_bucket{route=\"" + ROUTE + "\",le=\"0.01\"} 1\n"));
+        Assert.assertTrue(metrics.contains(
+                "travelea_http_request_duration_seconds_bucket{route=\"" + ROUTE + "\",le=\"0.1\"} 2\n"));
+        Assert.assertTrue(metrics.contains(
+                "travelea_http_request_duration_seconds_bucket{route=\"" + ROUTE + "\",le=\"+Inf\"} 3\n"));
+        Assert.assertTrue(metrics.contains(
+                "travelea_http_request_duration_seconds_count{route=\"" + ROUTE + "\"} 3\n"));
+        Assert.assertTrue(metrics.contains("travelea_http_request_queries_total{route=\"" + ROUTE + "\"} 3\n"));
+    }
+
+
+    @Test
+    public void gaugesAreScraped() {
+        // Act
+        String metrics = metricsRegistry.scrape();
+
+        // Assert
+        Assert.assertTrue(metrics.contains("travelea_db_dispatcher_queued_tasks 3\n"));
+        Assert.assertTrue(metrics.contains("jvm_memory_heap_used_bytes "));
+        Assert.assertTrue(metrics.contains("jvm_gc_collections_total{gc=\""));
+        Assert.assertFalse(metrics.contains("travelea_db_pool_active_connections"));
+    }
+
+
+    @Test
+    public void labelValuesAreEscaped() {
+        // Arrange
+        metricsRegistry.recordRequest("GET /\"quoted\"\\", 0, statistics(0));
+
+        // Act
+        String metrics = metricsRegistry.scrape();
+
+        // Assert
+        Assert.assertTrue(metrics.contains("travelea_http_request_queries_total{route=\"GET /\\\"quoted\\\"\\\\\"} 0\n"));
+    }
+}
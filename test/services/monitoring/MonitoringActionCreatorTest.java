@@ -0,0 +1,74 @@
+package services.monitoring;
+
+import org.junit.Assert;
+import org.junit.Test;
+import play.mvc.Action;
+import play.mvc.Http;
+import play.mvc.Result;
+import play.mvc.Results;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static play.test.Helpers.fakeRequest;
+
+public class MonitoringActionCreatorTest {
+
+    private static final int QUERY_BUDGET = 1;
+    private static final int QUERIES = 2;
+    private static final String ROUTE = "MonitoringActionCreatorTest.action";
+
+    private final MetricsRegistry mockMetricsRegistry = mock(MetricsRegistry.class);
+
+
+    /**
+     * Stands in for the controller action being wrapped.
+     */
+    public Result action() {
+        return Results.ok();
+    }
+
+
+    private Result call(MonitoringActionCreator actionCreator) throws NoSuchMethodException {
+        Http.Request request = fakeRequest().build();
+        Action<?> action = actionCreator.createAction(request, getClass().getMethod("action"));
+        action.delegate = new Action.Simple() {
+            @Override
+            public CompletionStage<Result> call(Http.Request req) {
+                for (int i = 0; i < QUERIES; i++) {
+                    QueryStatistics.current().record(0);
+                }
+                return CompletableFuture.completedFuture(action());
+            }
+        };
+        return action.call(request).toCompletableFuture().join();
+    }
+
+
+    @Test
+    public void queryCountIsSentInHeaders() throws NoSuchMethodException {
+        // Act
+        Result result = call(new MonitoringActionCreator(mockMetricsRegistry, QUERY_BUDGET, true));
+
+        // Assert
+        Assert.assertEquals(String.valueOf(QUERIES),
+                result.header(MonitoringActionCreator.QUERY_COUNT_HEADER).orElse(null));
+        Assert.assertTrue(result.header(MonitoringActionCreator.QUERY_TIME_HEADER).isPresent());
+        Assert.assertNull(QueryStatistics.current());
+        verify(mockMetricsRegistry).recordRequest(eq(ROUTE), anyLong(),
+                argThat(statistics -> statistics.getQueryCount() == QUERIES));
+    }
+
+
+    @Test
+    public void queryCountIsNotSentInProduction() throws NoSuchMethodException {
+        // Act
+        Result result = call(new MonitoringActionCreator(mockMetricsRegistry, QUERY_BUDGET, false));
+
+        // Assert
+        Assert.assertFalse(result.header(MonitoringActionCreator.QUERY_COUNT_HEADER).isPresent());
+        Assert.assertFalse(result.header(MonitoringActionCreator.QUERY_TIME_HEADER).isPresent());
+    }
+}
@@ -0,0 +1,115 @@
+package services.monitoring;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class QueryCountingDataSourceTest {
+
+    private static final String ROUTE = "GET /v1/profiles";
+    private static final String SELECT = "select 1";
+
+    private DataSource dataSource;
+    private QueryStatistics statistics;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:mem:queryCounting");
+        dataSource = QueryCountingDataSource.wrap(h2DataSource);
+        statistics = new QueryStatistics(ROUTE);
+    }
+
+
+    @After
+    public void tearDown() {
+        QueryStatistics.bind(null);
+    }
+
+
+    @Test
+    public void statementsAreCountedForBoundRequest() throws SQLException {
+        // Arrange
+        QueryStatistics.bind(statistics);
+
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(SELECT);
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                Assert.assertTrue(resultSet.next());
+            }
+            statement.execute(SELECT);
+        }
+
+        // Assert
+        Assert.assertEquals(2, statistics.getQueryCount());
+        Assert.assertEquals(ROUTE, statistics.getRoute());
+    }
+
+
+    @Test
+    public void statementsAreNotCountedWithoutRequest() throws SQLException {
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(SELECT);
+        }
+
+        // Assert
+        Assert.assertEquals(0, statistics.getQueryCount());
+        Assert.assertNull(QueryStatistics.current());
+    }
+
+
+    @Test
+    public void failedStatementsAreCounted() throws SQLException {
+        // Arrange
+        QueryStatistics.bind(statistics);
+
+        // Act
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("select * from missing_table");
+            Assert.fail();
+        } catch (SQLException e) {
+            // Assert
+            Assert.assertEquals(1, statistics.getQueryCount());
+        }
+    }
+
+
+    @Test
+    public void propagatedTasksCountTowardsSubmittingRequest() {
+        // Arrange
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        QueryStatistics.bind(statistics);
+
+        // Act
+        try {
+            CompletableFuture.runAsync(() -> {
+                Assert.assertSame(statistics, QueryStatistics.current());
+                QueryStatistics.current().record(0);
+            }, task -> executor.execute(QueryStatistics.propagate(task))).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        // Assert
+        Assert.assertEquals(1, statistics.getQueryCount());
+    }
+}
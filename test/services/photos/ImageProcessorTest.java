@@ -0,0 +1,149 @@
+package services.photos;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+
+public class ImageProcessorTest {
+
+    private static final int THUMBNAIL_DIMENSION = 200;
+    private static final long MAX_DECODED_PIXELS = 250000L;
+
+    private ImageProcessor imageProcessor;
+
+
+    @Before
+    public void setUp() {
+        imageProcessor = new ImageProcessor(MAX_DECODED_PIXELS);
+    }
+
+
+    @Test
+    public void getSubsamplingSmallImage() {
+        // Act
+        int subsampling = ImageProcessor.getSubsampling(150, 150, THUMBNAIL_DIMENSION, MAX_DECODED_PIXELS);
+
+        // Assert
+        Assert.assertEquals(1, subsampling);
+    }
+
+
+    @Test
+    public void getSubsamplingKeepsThumbnailResolution() {
+        // Act
+        int subsampling = ImageProcessor.getSubsampling(3000, 3000, THUMBNAIL_DIMENSION, MAX_DECODED_PIXELS);
+
+        // Assert
+        Assert.assertEquals(15, subsampling);
+    }
+
+
+    @Test
+    public void getSubsamplingWithinBudget() {
+        // Act
+        int subsampling = ImageProcessor.getSubsampling(3000, 3000, THUMBNAIL_DIMENSION, 10000L);
+        double decodedSize = Math.ceil(3000.0 / subsampling);
+
+        // Assert
+        Assert.assertTrue(decodedSize * decodedSize <= 10000L);
+    }
+
+
+    @Test
+    public void createThumbnail() throws IOException {
+        // Arrange
+        File source = File.createTempFile("source", ".jpg");
+        File destination = File.createTempFile("thumbnail", ".jpg");
+        source.deleteOnExit();
+        destination.deleteOnExit();
+        ImageIO.write(new BufferedImage(1600, 900, BufferedImage.TYPE_INT_RGB), "jpg", source);
+
+        // Act
+        imageProcessor.createThumbnail(source, destination);
+
+        // Assert
+        BufferedImage thumbnail = ImageIO.read(destination);
+        Assert.assertEquals(THUMBNAIL_DIMENSION, thumbnail.getWidth());
+        Assert.assertEquals(THUMBNAIL_DIMENSION, thumbnail.getHeight());
+    }
+
+
+    @Test
+    public void createRendition() throws IOException {
+        // Arrange
+        File source = File.createTempFile("source", ".jpg");
+        File destination = File.createTempFile("rendition", ".jpg");
+        source.deleteOnExit();
+        destination.deleteOnExit();
+        ImageIO.write(new BufferedImage(1600, 900, BufferedImage.TYPE_INT_RGB), "jpg", source);
+
+        // Act
+        Dimension dimensions = imageProcessor.createRendition(source, destination, 640);
+
+        // Assert
+        BufferedImage rendition = ImageIO.read(destination);
+        Assert.assertEquals(new Dimension(640, 360), dimensions);
+        Assert.assertEquals(640, rendition.getWidth());
+        Assert.assertEquals(360, rendition.getHeight());
+    }
+
+
+    @Test
+    public void getSubsamplingKeepsRenditionResolution() {
+        // Act
+        // A 1280 pixel wide rendition of a 4000x3000 image, with a budget of four times the rendition's pixels
+        int subsampling = ImageProcessor.getSubsampling(4000, 3000, 1280, 1280L * 960 * 4);
+
+        // Assert
+        Assert.assertEquals(3, subsampling);
+        Assert.assertTrue(Math.ceil(4000.0 / subsampling) >= 1280);
+    }
+
+
+    @Test
+    public void createRenditionNotEnlarged() throws IOException {
+        // Arrange
+        File source = File.createTempFile("source", ".jpg");
+        File destination = File.createTempFile("rendition", ".jpg");
+        source.deleteOnExit();
+        destination.deleteOnExit();
+        ImageIO.write(new BufferedImage(400, 300, BufferedImage.TYPE_INT_RGB), "jpg", source);
+
+        // Act
+        Dimension dimensions = imageProcessor.createRendition(source, destination, 1280);
+
+        // Assert
+        Assert.assertEquals(new Dimension(400, 300), dimensions);
+    }
+
+
+    @Test(expected = IOException.class)
+    public void createThumbnailNotAnImage() throws IOException {
+        // Arrange
+        File source = File.createTempFile("source", ".jpg");
+        File destination = File.createTempFile("thumbnail", ".jpg");
+        source.deleteOnExit();
+        destination.deleteOnExit();
+
+        // Act
+        imageProcessor.createThumbnail(source, destination);
+    }
+
+
+    @Test
+    public void getPlaceholder() throws IOException {
+        // Act
+        BufferedImage placeholder = ImageIO.read(new ByteArrayInputStream(imageProcessor.getPlaceholder()));
+
+        // Assert
+        Assert.assertEquals(THUMBNAIL_DIMENSION, placeholder.getWidth());
+        Assert.assertEquals(THUMBNAIL_DIMENSION, placeholder.getHeight());
+    }
+}
@@ -0,0 +1,141 @@
+package services.photos;
+
+import com.typesafe.config.Config;
+import models.photos.Photo;
+import models.profiles.Profile;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import repositories.photos.PhotoRepository;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class PhotoStorageServiceTest {
+
+    private static final Long PHOTO_ID = 4L;
+    private static final byte[] IMAGE = "image".getBytes(StandardCharsets.UTF_8);
+
+    // SHA-256 of the image bytes above
+    private static final String IMAGE_HASH = "6105d6cc76af400325e94d588ce511be5bfdbb73b437dc51eca43917d7a43e3d";
+
+    private PhotoRepository mockPhotoRepo;
+    private PhotoProcessingService mockPhotoProcessingService;
+    private PhotoStorageService photoStorageService;
+    private Path photoDirectory;
+
+
+    @Before
+    public void setUp() throws IOException {
+        // Arrange
+        photoDirectory = Files.createTempDirectory("photos");
+        photoDirectory.toFile().deleteOnExit();
+
+        Config mockConfig = mock(Config.class);
+        when(mockConfig.getString("travelea.photos.main")).thenReturn(photoDirectory.toString());
+        when(mockConfig.getString("travelea.photos.thumbnail")).thenReturn("/thumbnail");
+
+        mockPhotoRepo = mock(PhotoRepository.class);
+        mockPhotoProcessingService = mock(PhotoProcessingService.class);
+        photoStorageService = new PhotoStorageService(mockPhotoRepo, mockPhotoProcessingService, mockConfig);
+    }
+
+
+    @Test
+    public void storeNewImage() throws IOException {
+        // Mock
+        when(mockPhotoRepo.findByContentHash(IMAGE_HASH)).thenReturn(null);
+
+        // Act
+        Photo photo = photoStorageService.store(createUpload(), IMAGE_HASH, "image/png", new Profile());
+
+        // Assert
+        Path stored = photoDirectory.resolve(IMAGE_HASH);
+        Assert.assertEquals(IMAGE_HASH, photo.getContentHash());
+        Assert.assertEquals(1, photo.getReferenceCount());
+        Assert.assertEquals(stored.toString(), photo.getMainFilename());
+        Assert.assertArrayEquals(IMAGE, Files.readAllBytes(stored));
+        stored.toFile().deleteOnExit();
+
+        // Verify Mocks
+        verify(mockPhotoRepo, times(1)).save(photo);
+        verify(mockPhotoProcessingService, times(1)).enqueue(photo);
+    }
+
+
+    @Test
+    public void storeDuplicateImage() throws IOException {
+        // Mock
+        Photo existing = new Photo();
+        existing.setId(PHOTO_ID);
+        when(mockPhotoRepo.findByContentHash(IMAGE_HASH)).thenReturn(existing);
+
+        // Act
+        Photo photo = photoStorageService.store(createUpload(), IMAGE_HASH, "image/png", new Profile());
+
+        // Assert
+        Assert.assertSame(existing, photo);
+        Assert.assertFalse(Files.exists(photoDirectory.resolve(IMAGE_HASH)));
+
+        // Verify Mocks
+        verify(mockPhotoRepo, times(1)).addReferences(PHOTO_ID, 1);
+        verify(mockPhotoRepo, never()).save(any(Photo.class));
+        verifyZeroInteractions(mockPhotoProcessingService);
+    }
+
+
+    @Test
+    public void releaseSharedPhoto() {
+        // Mock
+        Photo photo = new Photo();
+        photo.setId(PHOTO_ID);
+        when(mockPhotoRepo.findReferenceCount(PHOTO_ID)).thenReturn(1);
+
+        // Act
+        photoStorageService.release(photo);
+
+        // Verify Mocks
+        verify(mockPhotoRepo, times(1)).addReferences(PHOTO_ID, -1);
+        verify(mockPhotoRepo, never()).delete(any(Photo.class));
+    }
+
+
+    @Test
+    public void releaseLastReference() throws IOException {
+        // Mock
+        Path stored = Files.createFile(photoDirectory.resolve(IMAGE_HASH));
+        Photo photo = new Photo();
+        photo.setId(PHOTO_ID);
+        photo.setContentHash(IMAGE_HASH);
+        photo.setMainFilename(stored.toString());
+        when(mockPhotoRepo.findReferenceCount(PHOTO_ID)).thenReturn(0);
+        when(mockPhotoRepo.findById(PHOTO_ID)).thenReturn(photo);
+
+        // Act
+        photoStorageService.release(photo);
+
+        // Assert
+        Assert.assertFalse(Files.exists(stored));
+
+        // Verify Mocks
+        verify(mockPhotoRepo, times(1)).delete(photo);
+    }
+
+
+    /**
+     * Writes the test image to a staging file, as though it had just been uploaded.
+     *
+     * @return              the path of the staged image.
+     * @throws IOException  if the file cannot be written.
+     */
+    private Path createUpload() throws IOException {
+        Path upload = photoStorageService.createStagingFile();
+        upload.toFile().deleteOnExit();
+        return Files.write(upload, IMAGE);
+    }
+}
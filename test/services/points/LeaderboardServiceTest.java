@@ -0,0 +1,220 @@
+package services.points;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import repositories.points.AchievementTrackerRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+public class LeaderboardServiceTest {
+
+    private static final String RANK_INCORRECT = "The rank of the points value was incorrect.";
+    private static final String POINTS_INCORRECT = "The points value at the rank was incorrect.";
+
+    private AchievementTrackerRepository mockAchievementTrackerRepo;
+    private LeaderboardService leaderboardService;
+
+
+    /**
+     * Creates a map of tracker ids to points, with ids counting up from 1 in the order the points are given.
+     */
+    private static Map<Long, Integer> pointsById(List<Integer> allPoints) {
+        Map<Long, Integer> pointsById = new HashMap<>();
+        for (int i = 0; i < allPoints.size(); i++) {
+            pointsById.put((long) i + 1, allPoints.get(i));
+        }
+        return pointsById;
+    }
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        mockAchievementTrackerRepo = mock(AchievementTrackerRepository.class);
+        when(mockAchievementTrackerRepo.findAllPoints()).thenReturn(pointsById(Arrays.asList(10, 40, 10, 0, 40, 25)));
+
+        leaderboardService = new LeaderboardService(mockAchievementTrackerRepo);
+    }
+
+
+    @Test
+    public void getRankTiedPoints() {
+        // Act
+        int rank = leaderboardService.getRank(40);
+        int tiedRank = leaderboardService.getRank(10);
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 1, rank);
+        Assert.assertEquals(RANK_INCORRECT, 3, tiedRank);
+    }
+
+
+    @Test
+    public void getPointsFromRank() {
+        // Act
+        int points = leaderboardService.getPointsFromRank(2);
+
+        // Assert
+        Assert.assertEquals(POINTS_INCORRECT, 25, points);
+    }
+
+
+    @Test
+    public void getPointsFromRankOutOfRange() {
+        // Act
+        int points = leaderboardService.getPointsFromRank(5);
+
+        // Assert
+        Assert.assertEquals(POINTS_INCORRECT, 0, points);
+    }
+
+
+    @Test
+    public void refreshTrackerKeepsTiedValue() {
+        // Arrange
+        leaderboardService.getRank(0);  // Loads the leaderboard
+        when(mockAchievementTrackerRepo.findPoints(2L)).thenReturn(50);
+
+        // Act
+        leaderboardService.refreshTracker(2L);
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 2, leaderboardService.getRank(40));
+        Assert.assertEquals(POINTS_INCORRECT, 50, leaderboardService.getPointsFromRank(1));
+    }
+
+
+    @Test
+    public void refreshTrackerRemovesEmptyValue() {
+        // Arrange
+        leaderboardService.getRank(0);  // Loads the leaderboard
+        when(mockAchievementTrackerRepo.findPoints(6L)).thenReturn(10);
+
+        // Act
+        leaderboardService.refreshTracker(6L);
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 2, leaderboardService.getRank(10));
+        Assert.assertEquals(POINTS_INCORRECT, 10, leaderboardService.getPointsFromRank(2));
+    }
+
+
+    @Test
+    public void refreshTrackerTwiceOnlyMovesItOnce() {
+        // Arrange
+        leaderboardService.getRank(0);  // Loads the leaderboard
+        when(mockAchievementTrackerRepo.findPoints(1L)).thenReturn(15);
+
+        // Act
+        // Two requests saving stale copies of the same tracker each refresh it
+        leaderboardService.refreshTracker(1L);
+        leaderboardService.refreshTracker(1L);
+
+        // Assert
+        // The other tracker with 10 points keeps its rank
+        Assert.assertEquals(RANK_INCORRECT, 4, leaderboardService.getRank(10));
+        Assert.assertEquals(RANK_INCORRECT, 3, leaderboardService.getRank(15));
+    }
+
+
+    @Test
+    public void addAndRemoveTracker() {
+        // Arrange
+        leaderboardService.getRank(0);  // Loads the leaderboard
+        when(mockAchievementTrackerRepo.findPoints(7L)).thenReturn(100);
+
+        // Act
+        leaderboardService.refreshTracker(7L);
+        leaderboardService.removeTracker(4L);
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 1, leaderboardService.getRank(100));
+        Assert.assertEquals(POINTS_INCORRECT, 0, leaderboardService.getPointsFromRank(5));
+    }
+
+
+    @Test
+    public void refreshTrackerBeforeLoadIsIgnored() {
+        // Act
+        leaderboardService.refreshTracker(7L);
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 1, leaderboardService.getRank(40));
+        verify(mockAchievementTrackerRepo, times(1)).findAllPoints();
+        verify(mockAchievementTrackerRepo, never()).findPoints(anyLong());
+    }
+
+
+    @Test
+    public void refreshTrackerDuringLoadIsApplied() throws InterruptedException {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch changed = new CountDownLatch(1);
+        when(mockAchievementTrackerRepo.findAllPoints()).thenAnswer(invocation -> {
+            // The tracker's change is committed after the load has read its points
+            loading.countDown();
+            changed.await(1, TimeUnit.SECONDS);
+            return pointsById(Arrays.asList(10, 40, 10, 0, 40, 25));
+        });
+        when(mockAchievementTrackerRepo.findPoints(4L)).thenReturn(50);
+        Thread load = new Thread(() -> leaderboardService.getRank(0));
+        load.start();
+        loading.await();
+
+        // Act
+        Thread change = new Thread(() -> leaderboardService.refreshTracker(4L));
+        change.start();
+        while (change.getState() != Thread.State.WAITING && change.getState() != Thread.State.TERMINATED) {
+            Thread.sleep(1);
+        }
+        changed.countDown();
+        load.join();
+        change.join();
+
+        // Assert
+        Assert.assertEquals(RANK_INCORRECT, 1, leaderboardService.getRank(50));
+        Assert.assertEquals(RANK_INCORRECT, 4, leaderboardService.getRank(10));
+    }
+
+
+    @Test
+    public void matchesSortedDistinctPoints() {
+        // Arrange
+        Random random = new Random(1);
+        List<Integer> allPoints = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            allPoints.add(random.nextInt(500));
+        }
+        when(mockAchievementTrackerRepo.findAllPoints()).thenReturn(pointsById(allPoints));
+        leaderboardService = new LeaderboardService(mockAchievementTrackerRepo);
+        leaderboardService.getRank(0);  // Loads the leaderboard
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            int index = random.nextInt(allPoints.size());
+            int newPoints = random.nextInt(500);
+            when(mockAchievementTrackerRepo.findPoints((long) index + 1)).thenReturn(newPoints);
+            leaderboardService.refreshTracker((long) index + 1);
+            allPoints.set(index, newPoints);
+        }
+
+        // Assert
+        List<Integer> distinctPoints = new ArrayList<>(new TreeSet<>(allPoints).descendingSet());
+        for (int rank = 1; rank <= distinctPoints.size(); rank++) {
+            int points = distinctPoints.get(rank - 1);
+            Assert.assertEquals(POINTS_INCORRECT, points, leaderboardService.getPointsFromRank(rank));
+            Assert.assertEquals(RANK_INCORRECT, rank, leaderboardService.getRank(points));
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package services.profiles;
+
+import models.profiles.Principal;
+import models.profiles.Profile;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import repositories.profiles.ProfileRepository;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+public class PrincipalCacheTest {
+
+    private static final Long PROFILE_ID = 3L;
+    private static final Long OTHER_PROFILE_ID = 4L;
+    private static final String USERNAME = "guestUser@travelea.com";
+    private static final int MAX_SIZE = 1;
+    private static final Duration TIME_TO_LIVE = Duration.ofMinutes(5);
+
+    private ProfileRepository mockProfileRepo;
+    private Profile profile;
+    private PrincipalCache principalCache;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        mockProfileRepo = mock(ProfileRepository.class);
+
+        profile = new Profile();
+        profile.setId(PROFILE_ID);
+        profile.setUsername(USERNAME);
+        profile.setAdmin(false);
+        when(mockProfileRepo.findById(PROFILE_ID)).thenReturn(profile);
+
+        Profile otherProfile = new Profile();
+        otherProfile.setId(OTHER_PROFILE_ID);
+        when(mockProfileRepo.findById(OTHER_PROFILE_ID)).thenReturn(otherProfile);
+
+        principalCache = new PrincipalCache(mockProfileRepo, MAX_SIZE, TIME_TO_LIVE);
+    }
+
+
+    @Test
+    public void getCachesPrincipal() {
+        // Act
+        Principal principal = principalCache.get(PROFILE_ID);
+        Principal cachedPrincipal = principalCache.get(PROFILE_ID);
+
+        // Assert
+        Assert.assertEquals(PROFILE_ID, principal.getId());
+        Assert.assertEquals(USERNAME, principal.getUsername());
+        Assert.assertFalse(principal.isAdmin());
+        Assert.assertSame(principal, cachedPrincipal);
+        verify(mockProfileRepo, times(1)).findById(PROFILE_ID);
+    }
+
+
+    @Test
+    public void getMissingProfile() {
+        // Act
+        Principal principal = principalCache.get(OTHER_PROFILE_ID + 1);
+
+        // Assert
+        Assert.assertNull(principal);
+    }
+
+
+    @Test
+    public void invalidateReloadsPrincipal() {
+        // Arrange
+        principalCache.get(PROFILE_ID);
+        profile.setAdmin(true);
+
+        // Act
+        principalCache.invalidate(PROFILE_ID);
+        Principal principal = principalCache.get(PROFILE_ID);
+
+        // Assert
+        Assert.assertTrue(principal.isAdmin());
+        verify(mockProfileRepo, times(2)).findById(PROFILE_ID);
+    }
+
+
+    @Test
+    public void getEvictsLeastRecentlyUsed() {
+        // Act
+        principalCache.get(PROFILE_ID);
+        principalCache.get(OTHER_PROFILE_ID);
+        principalCache.get(PROFILE_ID);
+
+        // Assert
+        verify(mockProfileRepo, times(2)).findById(PROFILE_ID);
+    }
+
+
+    @Test
+    public void getReloadsExpiredPrincipal() {
+        // Arrange
+        principalCache = new PrincipalCache(mockProfileRepo, MAX_SIZE, Duration.ZERO);
+
+        // Act
+        principalCache.get(PROFILE_ID);
+        principalCache.get(PROFILE_ID);
+
+        // Assert
+        verify(mockProfileRepo, times(2)).findById(PROFILE_ID);
+    }
+}
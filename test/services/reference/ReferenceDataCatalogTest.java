@@ -0,0 +1,160 @@
+package services.reference;
+
+import models.destinations.Type;
+import models.points.Action;
+import models.points.Badge;
+import models.profiles.Nationality;
+import models.profiles.TravellerType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import repositories.destinations.DestinationTypeRepository;
+import repositories.destinations.TravellerTypeRepository;
+import repositories.points.BadgeRepository;
+import repositories.points.PointRewardRepository;
+import repositories.profiles.NationalityRepository;
+import repositories.profiles.PassportRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.mockito.Mockito.*;
+import static play.test.Helpers.contentAsBytes;
+import static play.test.Helpers.fakeRequest;
+
+public class ReferenceDataCatalogTest {
+
+    private static final Long NATIONALITY_ID = 2L;
+    private static final Long MISSING_ID = 99L;
+    private static final Long FIRST_TRAVELLER_TYPE_ID = 1L;
+    private static final Long SECOND_TRAVELLER_TYPE_ID = 5L;
+    private static final Long DESTINATION_TYPE_ID = 31L;
+    private static final String DESTINATION_TYPE = "Flat";
+    private static final Long BADGE_ID = 3L;
+    private static final int PROGRESS = 4;
+    private static final String CACHE = "no-cache";
+    private static final String EMPTY_JSON = "[]";
+
+    private NationalityRepository mockNationalityRepo;
+    private PassportRepository mockPassportRepo;
+    private TravellerTypeRepository mockTravellerTypeRepo;
+    private DestinationTypeRepository mockDestinationTypeRepo;
+    private BadgeRepository mockBadgeRepo;
+    private PointRewardRepository mockPointRewardRepo;
+    private Nationality nationality;
+    private Badge badge;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        mockNationalityRepo = mock(NationalityRepository.class);
+        mockPassportRepo = mock(PassportRepository.class);
+        mockTravellerTypeRepo = mock(TravellerTypeRepository.class);
+        mockDestinationTypeRepo = mock(DestinationTypeRepository.class);
+        mockBadgeRepo = mock(BadgeRepository.class);
+        mockPointRewardRepo = mock(PointRewardRepository.class);
+
+        nationality = new Nationality();
+        nationality.setId(NATIONALITY_ID);
+        when(mockNationalityRepo.findAll()).thenReturn(Collections.singletonList(nationality));
+
+        TravellerType secondTravellerType = new TravellerType();
+        secondTravellerType.setId(SECOND_TRAVELLER_TYPE_ID);
+        TravellerType firstTravellerType = new TravellerType();
+        firstTravellerType.setId(FIRST_TRAVELLER_TYPE_ID);
+        when(mockTravellerTypeRepo.findAll()).thenReturn(Arrays.asList(secondTravellerType, firstTravellerType));
+
+        Type destinationType = new Type();
+        destinationType.setId(DESTINATION_TYPE_ID);
+        destinationType.setDestinationType(DESTINATION_TYPE);
+        when(mockDestinationTypeRepo.findAll()).thenReturn(Collections.singletonList(destinationType));
+
+        badge = new Badge();
+        badge.setId(BADGE_ID);
+        badge.setActionToAchieve(Action.QUEST_CREATED);
+        when(mockBadgeRepo.findAll()).thenReturn(Collections.singletonList(badge));
+    }
+
+
+    private ReferenceDataCatalog createCatalog() {
+        return new ReferenceDataCatalog(mockNationalityRepo, mockPassportRepo, mockTravellerTypeRepo,
+                mockDestinationTypeRepo, mockBadgeRepo, mockPointRewardRepo);
+    }
+
+
+    @Test
+    public void lookupsAreLoadedOnceOnCreation() {
+        // Act
+        ReferenceDataCatalog catalog = createCatalog();
+        catalog.getNationality(NATIONALITY_ID);
+        catalog.getNationality(NATIONALITY_ID);
+
+        // Assert
+        Assert.assertSame(nationality, catalog.getNationality(NATIONALITY_ID));
+        Assert.assertNull(catalog.getNationality(MISSING_ID));
+        Assert.assertEquals(DESTINATION_TYPE, catalog.getDestinationType(DESTINATION_TYPE_ID).getDestinationType());
+        verify(mockNationalityRepo, times(1)).findAll();
+    }
+
+
+    @Test
+    public void travellerTypesAreOrderedById() {
+        // Act
+        ReferenceDataCatalog catalog = createCatalog();
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(FIRST_TRAVELLER_TYPE_ID, SECOND_TRAVELLER_TYPE_ID),
+                Arrays.asList(catalog.getTravellerTypes().stream().map(TravellerType::getId).toArray()));
+    }
+
+
+    @Test
+    public void getBadgeReturnsCopy() {
+        // Arrange
+        ReferenceDataCatalog catalog = createCatalog();
+
+        // Act
+        Badge result = catalog.getBadge(Action.QUEST_CREATED);
+        result.setProgress(PROGRESS);
+
+        // Assert
+        Assert.assertNotSame(badge, result);
+        Assert.assertEquals(BADGE_ID, result.getId());
+        Assert.assertEquals(Action.QUEST_CREATED, result.getActionToAchieve());
+        Assert.assertNull(badge.getProgress());
+        Assert.assertNull(catalog.getBadge(Action.HINT_CREATED));
+        Assert.assertEquals(Collections.singletonList(badge), Arrays.asList(catalog.getBadges().toArray()));
+    }
+
+
+    @Test
+    public void reloadReplacesReferenceData() {
+        // Arrange
+        ReferenceDataCatalog catalog = createCatalog();
+        when(mockNationalityRepo.findAll()).thenReturn(Collections.emptyList());
+
+        // Act
+        catalog.reload();
+
+        // Assert
+        Assert.assertNull(catalog.getNationality(NATIONALITY_ID));
+        Assert.assertEquals(EMPTY_JSON,
+                contentAsBytes(catalog.getNationalitiesJson().serve(fakeRequest().build(), CACHE)).utf8String());
+    }
+
+
+    @Test
+    public void failedStartupLoadIsRetriedOnFirstUse() {
+        // Arrange
+        when(mockPassportRepo.findAll()).thenThrow(new IllegalStateException()).thenReturn(Collections.emptyList());
+        ReferenceDataCatalog catalog = createCatalog();
+
+        // Act
+        Nationality result = catalog.getNationality(NATIONALITY_ID);
+
+        // Assert
+        Assert.assertSame(nationality, result);
+        verify(mockPassportRepo, times(2)).findAll();
+    }
+}
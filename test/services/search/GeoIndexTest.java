@@ -0,0 +1,99 @@
+package services.search;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class GeoIndexTest {
+
+    private static final Long CHRISTCHURCH_ID = 1L;
+    private static final Long RANGIORA_ID = 2L;
+    private static final Long AUCKLAND_ID = 3L;
+    private static final Long SUVA_ID = 4L;
+    private static final Long APIA_ID = 5L;
+    private static final double CHRISTCHURCH_LATITUDE = -43.5321;
+    private static final double CHRISTCHURCH_LONGITUDE = 172.6362;
+    private static final double SUVA_LATITUDE = -18.1416;
+    private static final double SUVA_LONGITUDE = 178.4419;
+    private static final int MAX_RESULTS = 10;
+
+    private GeoIndex geoIndex;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        geoIndex = new GeoIndex();
+        geoIndex.put(CHRISTCHURCH_ID, CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE);
+        geoIndex.put(RANGIORA_ID, -43.3032, 172.5969);
+        geoIndex.put(AUCKLAND_ID, -36.8485, 174.7633);
+        geoIndex.put(SUVA_ID, SUVA_LATITUDE, SUVA_LONGITUDE);
+        geoIndex.put(APIA_ID, -13.8333, -171.7667);
+    }
+
+
+    @Test
+    public void nearFindsPointsWithinRadiusNearestFirst() {
+        // Act
+        List<Long> result = geoIndex.near(-43.4, 172.6, 50000, MAX_RESULTS);
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(RANGIORA_ID, CHRISTCHURCH_ID), result);
+    }
+
+
+    @Test
+    public void nearExcludesPointsOutsideRadius() {
+        // Act
+        List<Long> result = geoIndex.near(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE, 1000, MAX_RESULTS);
+
+        // Assert
+        Assert.assertEquals(Collections.singletonList(CHRISTCHURCH_ID), result);
+    }
+
+
+    @Test
+    public void nearLimitsResults() {
+        // Act
+        List<Long> result = geoIndex.near(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE, 20000000, 2);
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(CHRISTCHURCH_ID, RANGIORA_ID), result);
+    }
+
+
+    @Test
+    public void nearCrossesAntimeridian() {
+        // Act
+        List<Long> result = geoIndex.near(SUVA_LATITUDE, SUVA_LONGITUDE, 1200000, MAX_RESULTS);
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(SUVA_ID, APIA_ID), result);
+    }
+
+
+    @Test
+    public void putReplacesLocation() {
+        // Act
+        geoIndex.put(AUCKLAND_ID, CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE);
+
+        // Assert
+        Assert.assertEquals(Arrays.asList(CHRISTCHURCH_ID, AUCKLAND_ID),
+                geoIndex.near(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE, 1000, MAX_RESULTS));
+        Assert.assertTrue(geoIndex.near(-36.8485, 174.7633, 1000, MAX_RESULTS).isEmpty());
+    }
+
+
+    @Test
+    public void removeDeletesLocation() {
+        // Act
+        geoIndex.remove(CHRISTCHURCH_ID);
+
+        // Assert
+        Assert.assertTrue(geoIndex.near(CHRISTCHURCH_LATITUDE, CHRISTCHURCH_LONGITUDE, 1000, MAX_RESULTS).isEmpty());
+    }
+}
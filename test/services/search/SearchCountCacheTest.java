@@ -0,0 +1,119 @@
+package services.search;
+
+import models.profiles.Profile;
+import models.quests.Quest;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SearchCountCacheTest {
+
+    private static final String JACK_SEARCH = "{\"name\":\"Jack\"}";
+    private static final String JILL_SEARCH = "{\"name\":\"Jill\"}";
+    private static final int MAX_ENTRIES = 2;
+    private static final int COUNT = 5;
+
+    private SearchCountCache searchCountCache;
+    private AtomicInteger counted;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        searchCountCache = new SearchCountCache(MAX_ENTRIES, Duration.ofMinutes(1));
+        counted = new AtomicInteger();
+    }
+
+
+    /**
+     * Counts the results of a search, recording that the count was made.
+     *
+     * @return the count of the search.
+     */
+    private int countResults() {
+        counted.incrementAndGet();
+        return COUNT;
+    }
+
+
+    @Test
+    public void countIsCachedForSameSearch() {
+        // Act
+        int first = searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        int second = searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(COUNT, first);
+        Assert.assertEquals(COUNT, second);
+        Assert.assertEquals(1, counted.get());
+    }
+
+
+    @Test
+    public void countIsNotSharedBetweenSearches() {
+        // Act
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        searchCountCache.count(Profile.class, JILL_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(2, counted.get());
+    }
+
+
+    @Test
+    public void countIsNotSharedBetweenEntityTypes() {
+        // Act
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        searchCountCache.count(Quest.class, JACK_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(2, counted.get());
+    }
+
+
+    @Test
+    public void invalidateRecountsEntityType() {
+        // Arrange
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        searchCountCache.count(Quest.class, JACK_SEARCH, this::countResults);
+
+        // Act
+        searchCountCache.invalidate(Profile.class);
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        searchCountCache.count(Quest.class, JACK_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(3, counted.get());
+    }
+
+
+    @Test
+    public void countMadeDuringInvalidationIsNotCached() {
+        // Act
+        searchCountCache.count(Profile.class, JACK_SEARCH, () -> {
+            searchCountCache.invalidate(Profile.class);
+            return countResults();
+        });
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(2, counted.get());
+    }
+
+
+    @Test
+    public void expiredCountIsRecounted() {
+        // Arrange
+        searchCountCache = new SearchCountCache(MAX_ENTRIES, Duration.ZERO);
+
+        // Act
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+        searchCountCache.count(Profile.class, JACK_SEARCH, this::countResults);
+
+        // Assert
+        Assert.assertEquals(2, counted.get());
+    }
+}
@@ -0,0 +1,112 @@
+package services.search;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+public class TrigramIndexTest {
+
+    private static final Long JACK_ID = 1L;
+    private static final Long JILL_ID = 2L;
+    private static final Long STEVE_ID = 3L;
+    private static final int MAX_CANDIDATES = 10;
+
+    private TrigramIndex trigramIndex;
+
+
+    @Before
+    public void setUp() {
+        // Arrange
+        trigramIndex = new TrigramIndex();
+        trigramIndex.put(JACK_ID, "Jack", null, "Taylor");
+        trigramIndex.put(JILL_ID, "Jill", "Jackie", "Smith");
+        trigramIndex.put(STEVE_ID, "Steve", null, "Jacobs");
+    }
+
+
+    @Test
+    public void searchIgnoresCase() {
+        // Act
+        Set<Long> result = trigramIndex.search("jAC", MAX_CANDIDATES);
+
+        // Assert
+        Assert.assertEquals(new HashSet<>(Arrays.asList(JACK_ID, JILL_ID, STEVE_ID)), result);
+    }
+
+
+    @Test
+    public void searchSubstring() {
+        // Act
+        Set<Long> result = trigramIndex.search("ackie", MAX_CANDIDATES);
+
+        // Assert
+        Assert.assertEquals(Collections.singleton(JILL_ID), result);
+    }
+
+
+    @Test
+    public void searchNoMatch() {
+        // Act
+        Set<Long> result = trigramIndex.search("Brown", MAX_CANDIDATES);
+
+        // Assert
+        Assert.assertTrue(result.isEmpty());
+    }
+
+
+    @Test
+    public void searchShortQuery() {
+        // Act
+        Set<Long> result = trigramIndex.search("Ja", MAX_CANDIDATES);
+
+        // Assert
+        Assert.assertNull(result);
+    }
+
+
+    @Test
+    public void searchWildcardQuery() {
+        // Act
+        Set<Long> result = trigramIndex.search("J_ck", MAX_CANDIDATES);
+
+        // Assert
+        Assert.assertNull(result);
+    }
+
+
+    @Test
+    public void searchTooManyCandidates() {
+        // Act
+        Set<Long> result = trigramIndex.search("jac", 2);
+
+        // Assert
+        Assert.assertNull(result);
+    }
+
+
+    @Test
+    public void putReplacesText() {
+        // Act
+        trigramIndex.put(JACK_ID, "John", null, "Taylor");
+
+        // Assert
+        Assert.assertEquals(new HashSet<>(Arrays.asList(JILL_ID, STEVE_ID)), trigramIndex.search("jac", MAX_CANDIDATES));
+        Assert.assertEquals(Collections.singleton(JACK_ID), trigramIndex.search("john", MAX_CANDIDATES));
+    }
+
+
+    @Test
+    public void remove() {
+        // Act
+        trigramIndex.remove(STEVE_ID);
+
+        // Assert
+        Assert.assertTrue(trigramIndex.search("steve", MAX_CANDIDATES).isEmpty());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(JACK_ID, JILL_ID)), trigramIndex.search("jac", MAX_CANDIDATES));
+    }
+}
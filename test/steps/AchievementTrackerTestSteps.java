@@ -6,7 +6,9 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import cucumber.api.java.en.Given;
 import cucumber.api.java.en.Then;
 import cucumber.api.java.en.When;
+import models.objectives.Objective;
 import models.profiles.Profile;
+import models.quests.QuestAttempt;
 
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
@@ -17,6 +19,7 @@ import play.mvc.Result;
 import play.test.Helpers;
 import repositories.hints.HintRepository;
 import repositories.profiles.ProfileRepository;
+import repositories.quests.QuestAttemptRepository;
 
 import java.io.IOException;
 import java.util.*;
@@ -104,6 +107,18 @@ public class AchievementTrackerTestSteps {
     private static final String CHECK_IN_URI = "/checkIn";
 
 
+    /**
+     * The latitude field of a check in request.
+     */
+    private static final String LATITUDE = "latitude";
+
+
+    /**
+     * The longitude field of a check in request.
+     */
+    private static final String LONGITUDE = "longitude";
+
+
     /**
      * Boolean to evaluate against the response body of a riddle guess.
      */
@@ -212,6 +227,13 @@ public class AchievementTrackerTestSteps {
             testContext.getApplication().injector().instanceOf(HintRepository.class);
 
 
+    /**
+     * Quest attempt repository injected.
+     */
+    private QuestAttemptRepository questAttemptRepository =
+            testContext.getApplication().injector().instanceOf(QuestAttemptRepository.class);
+
+
     /**
      * Sends a request to the backend using a fake request for the number of points for the given profile.
      *
@@ -223,7 +245,7 @@ public class AchievementTrackerTestSteps {
                 .uri(ACHIEVEMENT_TRACKER_URI + userId + POINTS_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -240,7 +262,7 @@ public class AchievementTrackerTestSteps {
                 .uri(QUEST_URI + QUEST_ATTEMPT_URI + attemptId + GUESS_URI + destinationId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -253,14 +275,32 @@ public class AchievementTrackerTestSteps {
     private void sendCheckInRequest(long attemptId) {
         Http.RequestBuilder request = fakeRequest()
                 .method(POST)
+                .bodyJson(getCheckInLocation(attemptId))
                 .uri(QUEST_URI + QUEST_ATTEMPT_URI + attemptId + CHECK_IN_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
 
+    /**
+     * Creates the Json body of a check in request, located at the destination of the objective the given attempt can
+     * check in to. Attempts with nothing to check in to are located at latitude and longitude zero.
+     *
+     * @param attemptId     the id of the quest attempt being checked in to.
+     * @return              the Json body containing the latitude and longitude to check in from.
+     */
+    private ObjectNode getCheckInLocation(long attemptId) {
+        ObjectNode location = new ObjectMapper().createObjectNode();
+        QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
+        Objective objective = questAttempt == null ? null : questAttempt.getCurrentToCheckIn();
+        location.put(LATITUDE, objective == null ? 0 : objective.getDestination().getLatitude());
+        location.put(LONGITUDE, objective == null ? 0 : objective.getDestination().getLongitude());
+        return location;
+    }
+
+
     /**
      * Calculates the requested badge progress and level for the currently logged in profile.
      *
@@ -339,7 +379,7 @@ public class AchievementTrackerTestSteps {
                 .uri(uri + "/" + testContext.getLoggedInId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
         Assert.assertEquals(OK, testContext.getStatusCode());
         Assert.assertEquals(EMPTY_LIST_RESPONSE_SIZE, testContext.getResponseBody().length());
@@ -416,7 +456,7 @@ public class AchievementTrackerTestSteps {
                 .bodyJson(json)
                 .session(AUTHORIZED, userId);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setLoggedInId(userId);
 
         Assert.assertEquals(OK, testContext.getStatusCode());
@@ -451,7 +491,7 @@ public class AchievementTrackerTestSteps {
                     .bodyJson(json)
                     .session(AUTHORIZED, testContext.getLoggedInId());
             Result result = route(testContext.getApplication(), request);
-            testContext.setStatusCode(result.status());
+            testContext.setResult(result);
 
             Assert.assertEquals(OK, testContext.getStatusCode());
         } else {
@@ -490,7 +530,7 @@ public class AchievementTrackerTestSteps {
                 .uri(BADGES_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
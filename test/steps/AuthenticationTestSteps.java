@@ -98,6 +98,6 @@ public class AuthenticationTestSteps {
                 .uri(LOGIN_URI);
         Result loginResult = route(testContext.getApplication(), request);
 
-        testContext.setStatusCode(loginResult.status());
+        testContext.setResult(loginResult);
     }
 }
@@ -199,7 +199,7 @@ public class DestinationTestSteps {
                 .uri(DESTINATION_URI + "/" + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         if (testContext.getStatusCode() < BAD_REQUEST) {
             try {
@@ -223,7 +223,7 @@ public class DestinationTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(DESTINATION_URI + query);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -241,7 +241,7 @@ public class DestinationTestSteps {
                 .uri(DESTINATION_URI + "/" + destinationId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -256,7 +256,7 @@ public class DestinationTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(DESTINATION_URI + "/" + destinationId);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -308,7 +308,7 @@ public class DestinationTestSteps {
                 .uri(TREASURE_HUNT_URI + "/" + targetUserId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         assertEquals(CREATED, testContext.getStatusCode());
     }
 
@@ -342,7 +342,7 @@ public class DestinationTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result addDestinationPhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(addDestinationPhotoResult.status());
+        testContext.setResult(addDestinationPhotoResult);
     }
 
 
@@ -635,7 +635,7 @@ public class DestinationTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(DESTINATION_URI+ "/"  + destinationId + DESTINATION_CHECK_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
         JsonNode matchingTrips = new ObjectMapper().readTree(testContext.getResponseBody()).get(MATCHING_TRIPS);
@@ -658,7 +658,7 @@ public class DestinationTestSteps {
                 .bodyJson(json)
                 .uri(TRIPS_URI + testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -698,7 +698,7 @@ public class DestinationTestSteps {
                 .uri(DESTINATION_URI + "/" + destinationId + TRAVELLER_TYPES
                         + (proposedOrNot.equals("proposed") ? "/propose" : ""));
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -755,7 +755,7 @@ public class DestinationTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(DESTINATION_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -773,7 +773,7 @@ public class DestinationTestSteps {
                 .bodyJson(convertTripStringToJson(docString))
                 .uri(TRIPS_URI + testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -889,7 +889,7 @@ public class DestinationTestSteps {
                 .uri(DESTINATION_URI + "/" + userId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -946,7 +946,7 @@ public class DestinationTestSteps {
                 .uri(DESTINATION_URI+ "/"  + destinationId + DESTINATION_CHECK_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -962,7 +962,7 @@ public class DestinationTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result addDestinationPhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(addDestinationPhotoResult.status());
+        testContext.setResult(addDestinationPhotoResult);
     }
 
     @When("^I change the value of the destination name to \'(.*)\' and I request the destination usage for edited destination$")
@@ -978,7 +978,7 @@ public class DestinationTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result result= route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -93,7 +93,7 @@ public class DestinationTravellerTypeTestSteps {
                 .bodyJson(json)
                 .uri(DESTINATION_URI + DESTINATION_ID + TRAVELLER_TYPE_PROPOSE_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
 
@@ -112,7 +112,7 @@ public class DestinationTravellerTypeTestSteps {
                 .bodyJson(json)
                 .uri(DESTINATION_URI + DESTINATION_ID + TRAVELLER_TYPES);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -129,7 +129,7 @@ public class DestinationTravellerTypeTestSteps {
                 .bodyJson(json)
                 .uri(DESTINATION_URI + 119 + TRAVELLER_TYPE_PROPOSE_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -142,7 +142,7 @@ public class DestinationTravellerTypeTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(DESTINATIONS_GET_PROPOSE_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -197,6 +197,6 @@ public class DestinationTravellerTypeTestSteps {
                 .uri(DESTINATION_URI + destinationId + TRAVELLER_TYPES
                         + (suggestOrSet.equals("suggest") ? "/propose" : ""));
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 }
\ No newline at end of file
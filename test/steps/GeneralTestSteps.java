@@ -14,6 +14,7 @@ import play.mvc.Http;
 import play.mvc.Result;
 import play.test.Helpers;
 import repositories.profiles.ProfileRepository;
+import services.reference.ReferenceDataCatalog;
 
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -125,6 +126,9 @@ public class GeneralTestSteps {
         testContext.setDatabase(testContext.getApplication().injector().instanceOf(Database.class));
         applyEvolutions();
 
+        // The catalog is loaded when the application is built, before the evolutions above have added reference data
+        testContext.getApplication().injector().instanceOf(ReferenceDataCatalog.class).reload();
+
         Helpers.start(testContext.getApplication());
 
         profileRepository = testContext.getApplication().injector().instanceOf(ProfileRepository.class);
@@ -189,7 +193,7 @@ public class GeneralTestSteps {
                 .bodyJson(json)
                 .uri(LOGIN_URI);
         Result loginResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(loginResult.status());
+        testContext.setResult(loginResult);
     }
 
 
@@ -202,7 +206,7 @@ public class GeneralTestSteps {
                 .uri(LOGOUT_URI);
         Result logoutResult = route(testContext.getApplication(), request);
         testContext.setLoggedInId(null);
-        testContext.setStatusCode(logoutResult.status());
+        testContext.setResult(logoutResult);
     }
 
 
@@ -347,6 +351,14 @@ public class GeneralTestSteps {
     }
 
 
+    @Then("^the request issued at most (\\d+) quer(?:y|ies)$")
+    public void theRequestIssuedAtMostQueries(int maximumQueries) {
+        Integer queryCount = testContext.getQueryCount();
+        Assert.assertNotNull("The response did not report its query count", queryCount);
+        Assert.assertTrue("The request issued " + queryCount + " queries", queryCount <= maximumQueries);
+    }
+
+
     @Then("the following ApiErrors are returned")
     public void theFollowingApiErrorsAreReturned(io.cucumber.datatable.DataTable dataTable) throws IOException {
         ObjectMapper objectMapper = new ObjectMapper();
@@ -119,7 +119,7 @@ public class HintTestSteps {
                 .uri(OBJECTIVE_URI + objectiveId + HINTS_URI + "/" + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -138,7 +138,7 @@ public class HintTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI + objectiveId + HINTS_URI + "/" + targetId);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -155,7 +155,7 @@ public class HintTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI + objectiveId + HINTS_URI + "/" + testContext.getLoggedInId() + searchQuery);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -171,7 +171,7 @@ public class HintTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI + objectiveId + HINTS_URI + "/" + testContext.getTargetId() + SEEN_HINTS_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -188,7 +188,7 @@ public class HintTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI + objectiveId + HINTS_URI + "/" + testContext.getTargetId() + NEW_HINT_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
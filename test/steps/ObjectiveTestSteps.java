@@ -110,7 +110,7 @@ public class ObjectiveTestSteps {
                 .uri(OBJECTIVE_URI + "/" + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         if (testContext.getStatusCode() == OK || testContext.getStatusCode() == CREATED) {
             testContext.setResponseBody(Helpers.contentAsString(result));
@@ -136,7 +136,7 @@ public class ObjectiveTestSteps {
                 .uri(OBJECTIVE_URI + "/" + objectiveId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -157,7 +157,7 @@ public class ObjectiveTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
@@ -176,7 +176,7 @@ public class ObjectiveTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(OBJECTIVE_URI + "/" + objectiveId);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -7,6 +7,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import cucumber.api.java.en.Given;
+import cucumber.api.java.en.Then;
 import cucumber.api.java.en.When;
 import models.profiles.Profile;
 import models.destinations.Destination;
@@ -42,6 +43,7 @@ public class PhotoTestSteps {
 
     private static final String AUTHORIZED = "authorized";
     private static final String PHOTO_URI = "/v1/photos/";
+    private static final String USER_PHOTO_URI = "/v1/photos/user/";
     private static final String CHANGE_PHOTO_PRIVACY_URI = "/v1/photos";
     private static final String PROFILE_PHOTO_URI = "/v1/profilePhoto/";
     private static final String DESTINATION_PHOTO_URI = "/v1/destinationPhotos/";
@@ -159,7 +161,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result createPhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(createPhotoResult.status());
+        testContext.setResult(createPhotoResult);
 
         try {
             Files.delete(Paths.get("image.png"));
@@ -180,7 +182,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
         Result changePhotoPrivacyResult = route(testContext.getApplication(), request);
 
-        testContext.setStatusCode(changePhotoPrivacyResult.status());
+        testContext.setResult(changePhotoPrivacyResult);
     }
 
 
@@ -193,7 +195,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
         Result changePhotoPrivacyResult = route(testContext.getApplication(), request);
 
-        testContext.setStatusCode(changePhotoPrivacyResult.status());
+        testContext.setResult(changePhotoPrivacyResult);
     }
 
 
@@ -206,7 +208,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
         Result changePhotoPrivacyResult = route(testContext.getApplication(), request);
 
-        testContext.setStatusCode(changePhotoPrivacyResult.status());
+        testContext.setResult(changePhotoPrivacyResult);
     }
 
 
@@ -219,7 +221,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result changeProfilePhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(changeProfilePhotoResult.status());
+        testContext.setResult(changeProfilePhotoResult);
     }
 
 
@@ -234,7 +236,7 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result addDestinationPhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(addDestinationPhotoResult.status());
+        testContext.setResult(addDestinationPhotoResult);
     }
 
 
@@ -249,6 +251,27 @@ public class PhotoTestSteps {
                         .session(AUTHORIZED, testContext.getLoggedInId());
 
         Result addDestinationPhotoResult = route(testContext.getApplication(), request);
-        testContext.setStatusCode(addDestinationPhotoResult.status());
+        testContext.setResult(addDestinationPhotoResult);
+    }
+
+
+    @When("^I request the photo gallery of user (\\d+)$")
+    public void iRequestThePhotoGalleryOfUser(Integer userId) {
+        Http.RequestBuilder request =
+                Helpers.fakeRequest()
+                        .uri(USER_PHOTO_URI + userId)
+                        .method(GET)
+                        .session(AUTHORIZED, testContext.getLoggedInId());
+
+        Result photoGalleryResult = route(testContext.getApplication(), request);
+        testContext.setResult(photoGalleryResult);
+        testContext.setResponseBody(Helpers.contentAsString(photoGalleryResult));
+    }
+
+
+    @Then("^the response contains (\\d+) photos$")
+    public void theResponseContainsPhotos(int expectedPhotos) throws IOException {
+        JsonNode photos = new ObjectMapper().readTree(testContext.getResponseBody());
+        Assert.assertEquals(expectedPhotos, photos.size());
     }
 }
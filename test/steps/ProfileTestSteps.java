@@ -317,7 +317,7 @@ public class ProfileTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(PROFILES_URI + searchQuery);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -330,7 +330,7 @@ public class ProfileTestSteps {
                 .session(AUTHORIZED, "1")
                 .uri(PROFILES_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         // Gets the response
         Iterator<JsonNode> iterator = getTheResponseIterator(Helpers.contentAsString(result));
@@ -356,7 +356,7 @@ public class ProfileTestSteps {
                 .session(AUTHORIZED, ONE_STRING)
                 .uri(PROFILES_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         // Gets the response
         Iterator<JsonNode> iterator = getTheResponseIterator(Helpers.contentAsString(result));
@@ -448,7 +448,7 @@ public class ProfileTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(PROFILES_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         Iterator<JsonNode> iterator = getTheResponseIterator(Helpers.contentAsString(result));
 
@@ -466,7 +466,7 @@ public class ProfileTestSteps {
         if (count != NUMBER_OF_PROFILES) {
             passProfiles = false;
         }
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         Assert.assertTrue(passProfiles);
     }
 
@@ -496,7 +496,7 @@ public class ProfileTestSteps {
         if (count != NUMBER_OF_TRAVELLER_TYPES) {
             passTravelTypes = false;
         }
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         Assert.assertTrue(passTravelTypes);
     }
 
@@ -527,7 +527,7 @@ public class ProfileTestSteps {
             passNationalities = false;
         }
 
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         Assert.assertTrue(passNationalities);
     }
 
@@ -543,7 +543,7 @@ public class ProfileTestSteps {
                 .bodyJson(json)
                 .uri(PROFILES_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
     }
 
@@ -560,7 +560,21 @@ public class ProfileTestSteps {
                 .bodyJson(json)
                 .uri(PROFILES_UPDATE_URI + 2); // Adding the id number to the uri, which is a string
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
+    }
+
+
+    @When("^A user who is not logged in attempts to update the profile with id (\\d+):$")
+    public void aUserWhoIsNotLoggedInAttemptsToUpdateTheProfileWithId(Integer userId, DataTable dataTable) {
+        JsonNode json = convertDataTableToJsonNode(dataTable);
+
+        // Sending the fake request without a session
+        Http.RequestBuilder request = fakeRequest()
+                .method(PUT)
+                .bodyJson(json)
+                .uri(PROFILES_UPDATE_URI + userId);
+        Result result = route(testContext.getApplication(), request);
+        testContext.setResult(result);
     }
 
 
@@ -575,7 +589,7 @@ public class ProfileTestSteps {
                 .bodyJson(json)
                 .uri(PROFILES_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
     }
 
@@ -626,7 +640,7 @@ public class ProfileTestSteps {
                 .session(AUTHORIZED, String.valueOf(idToChange))
                 .uri(SINGLE_PROFILE_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
 
         Assert.assertEquals(OK, testContext.getStatusCode());
 
@@ -650,7 +664,7 @@ public class ProfileTestSteps {
                 .uri(PROFILES_UPDATE_URI + idToChange);
 
         result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
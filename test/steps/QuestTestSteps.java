@@ -177,6 +177,18 @@ public class QuestTestSteps {
     private static final String CHECK_IN_URI = "/checkIn";
 
 
+    /**
+     * The latitude field of a check in request.
+     */
+    private static final String LATITUDE = "latitude";
+
+
+    /**
+     * The longitude field of a check in request.
+     */
+    private static final String LONGITUDE = "longitude";
+
+
     /**
      * The quest attempt URI endpoint.
      */
@@ -297,7 +309,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         questObjectivesJson.clear();
 
         if (testContext.getStatusCode() < 400) {
@@ -319,7 +331,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/available/" + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -384,7 +396,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/available/" + testContext.getTargetId() + query)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -400,7 +412,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + userId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -414,7 +426,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + PROFILES_URI + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -429,7 +441,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + testContext.getTargetId() + QUEST_COMPLETE_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -446,7 +458,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + questId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -461,7 +473,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + questId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -477,7 +489,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + "/" + questId + QUEST_ATTEMPT_URI + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
 
         setQuestAttemptId();
@@ -511,7 +523,7 @@ public class QuestTestSteps {
                 .uri(QUEST_URI + QUEST_ATTEMPT_URI + questAttemptId + GUESS_URI + destinationId)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
@@ -536,16 +548,44 @@ public class QuestTestSteps {
      * Send a check in request for a quest attempt given by global questAttemptId.
      */
     private void sendCheckInRequest() {
+        sendCheckInRequest(getCheckInLocation(Long.parseLong(questAttemptId)));
+    }
+
+
+    /**
+     * Sends a request to check in to the current quest attempt from the given location.
+     *
+     * @param location  the Json body containing the latitude and longitude to check in from.
+     */
+    private void sendCheckInRequest(JsonNode location) {
         Http.RequestBuilder request = fakeRequest()
                 .method(POST)
+                .bodyJson(location)
                 .uri(QUEST_URI + QUEST_ATTEMPT_URI + questAttemptId + CHECK_IN_URI)
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 
 
+    /**
+     * Creates the Json body of a check in request, located at the destination of the objective the given attempt can
+     * check in to. Attempts with nothing to check in to are located at latitude and longitude zero.
+     *
+     * @param attemptId     the id of the quest attempt being checked in to.
+     * @return              the Json body containing the latitude and longitude to check in from.
+     */
+    private ObjectNode getCheckInLocation(long attemptId) {
+        ObjectNode location = new ObjectMapper().createObjectNode();
+        QuestAttempt questAttempt = questAttemptRepository.findById(attemptId);
+        Objective objective = questAttempt == null ? null : questAttempt.getCurrentToCheckIn();
+        location.put(LATITUDE, objective == null ? 0 : objective.getDestination().getLatitude());
+        location.put(LONGITUDE, objective == null ? 0 : objective.getDestination().getLongitude());
+        return location;
+    }
+
+
     @Given("a quest already exists with the following values")
     public void aQuestAlreadyExistsWithTheFollowingValues(io.cucumber.datatable.DataTable dataTable) {
         testContext.setTargetId(testContext.getLoggedInId());
@@ -851,6 +891,23 @@ public class QuestTestSteps {
     }
 
 
+    @When("^I check in for quest attempt (\\d+) from latitude (-?[\\d.]+) and longitude (-?[\\d.]+)$")
+    public void iCheckInForQuestAttemptFrom(Integer questAttemptId, Double latitude, Double longitude) {
+        this.questAttemptId = questAttemptId.toString();
+        ObjectNode location = new ObjectMapper().createObjectNode();
+        location.put(LATITUDE, latitude);
+        location.put(LONGITUDE, longitude);
+        sendCheckInRequest(location);
+    }
+
+
+    @When("^I check in for quest attempt (\\d+) without a location$")
+    public void iCheckInForQuestAttemptWithoutALocation(Integer questAttemptId) {
+        this.questAttemptId = questAttemptId.toString();
+        sendCheckInRequest(new ObjectMapper().createObjectNode());
+    }
+
+
     @Then("^the response contains (\\d+) quests$")
     public void theResponseContainsQuests(int numberOfQuests) throws IOException {
         JsonNode response = new ObjectMapper().readTree(testContext.getResponseBody());
@@ -3,6 +3,8 @@ package steps;
 import com.google.inject.Inject;
 import play.Application;
 import play.db.Database;
+import play.mvc.Result;
+import services.monitoring.MonitoringActionCreator;
 
 public class TestContext {
 
@@ -18,6 +20,12 @@ public class TestContext {
     private int statusCode;
 
 
+    /**
+     * Number of SQL statements issued by the request, or null if the response did not report it.
+     */
+    private Integer queryCount;
+
+
     /**
      * ID of currently logged in user
      */
@@ -69,8 +77,20 @@ public class TestContext {
         return statusCode;
     }
 
-    public void setStatusCode(int statusCode) {
-        this.statusCode = statusCode;
+    public Integer getQueryCount() {
+        return queryCount;
+    }
+
+    /**
+     * Stores the status code of a response, and the number of SQL statements reported as issued for it.
+     *
+     * @param result    the result of the request.
+     */
+    public void setResult(Result result) {
+        this.statusCode = result.status();
+        this.queryCount = result.header(MonitoringActionCreator.QUERY_COUNT_HEADER)
+                .map(Integer::valueOf)
+                .orElse(null);
     }
 
     public String getLoggedInId() {
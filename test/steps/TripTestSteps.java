@@ -177,7 +177,7 @@ public class TripTestSteps {
                 .bodyJson(json)
                 .uri(TRIPS_URI + testContext.getTargetId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         tripDestinations.clear();
 
         if (testContext.getStatusCode() < BAD_REQUEST) {
@@ -200,7 +200,7 @@ public class TripTestSteps {
                 .bodyJson(json)
                 .uri(TRIPS_URI + testContext.getTargetId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         tripDestinations.clear();
 
         if (testContext.getStatusCode() < BAD_REQUEST) {
@@ -223,7 +223,7 @@ public class TripTestSteps {
                 .bodyJson(json)
                 .uri(TRIPS_URI + tripId.toString());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -241,7 +241,7 @@ public class TripTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(TRIPS_URI + testContext.getTargetId() + queryString);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -254,7 +254,7 @@ public class TripTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(TRIPS_URI + testContext.getTargetId() + TRIPS_COUNT_URI);
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -328,7 +328,7 @@ public class TripTestSteps {
                 .session(AUTHORIZED, testContext.getLoggedInId())
                 .uri(TRIPS_URI + tripId.toString());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
     }
 
 
@@ -68,7 +68,7 @@ public class VoteTestSteps {
                 .uri(HINT_URI + hintId + (isUpvote ? UPVOTE_URI : DOWNVOTE_URI ) + testContext.getTargetId())
                 .session(AUTHORIZED, testContext.getLoggedInId());
         Result result = route(testContext.getApplication(), request);
-        testContext.setStatusCode(result.status());
+        testContext.setResult(result);
         testContext.setResponseBody(Helpers.contentAsString(result));
     }
 